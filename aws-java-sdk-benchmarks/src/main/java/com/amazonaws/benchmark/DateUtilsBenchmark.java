@@ -0,0 +1,227 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmark;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.joda.time.DateTimeZone;
+import org.joda.time.tz.FixedDateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.auth.internal.AWS4SignerUtils;
+import com.amazonaws.util.DateUtils;
+
+/**
+ * Compares the operations per second of {@link DateUtils} against the
+ * Joda-Time formatters it used to delegate to, for the ISO 8601 dates found
+ * in response payloads, the RFC 822 dates of HTTP headers, and the
+ * x-amz-date timestamp computed for every AWS4 signature.
+ * <p>
+ * Before measuring, the setup checks that {@link DateUtils} formats and
+ * parses random instants between years 1 and 9999, and a few edge cases,
+ * exactly like Joda-Time, and fails the benchmark otherwise.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateUtilsBenchmark {
+    private static final String ISO8601 = "2015-03-24T21:10:50.581Z";
+    private static final String RFC822 = "Tue, 24 Mar 2015 21:10:50 GMT";
+    /** The time zone of the Joda-Time formatters DateUtils used. */
+    private static final DateTimeZone GMT = new FixedDateTimeZone("GMT", "GMT", 0, 0);
+    /** 0001-01-01T00:00:00.000Z and 9999-12-31T23:59:59.999Z */
+    private static final long MIN_MILLIS = -62135596800000L;
+    private static final long MAX_MILLIS = 253402300799999L;
+    private static final int RANDOM_INSTANTS = 10000;
+    private static final String[] EDGE_STRINGS = {
+        "0001-01-01T00:00:00.000Z", "9999-12-31T23:59:59.999Z",
+        "1969-12-31T23:59:59.999Z", "1970-01-01T00:00:00.000Z",
+        "2000-02-29T12:00:00.000Z", "2100-02-29T12:00:00.000Z",
+        "1900-02-28T23:59:59Z", "2015-03-24T21:10:50Z",
+        "2015-03-24T21:10:50.5Z", "2015-03-24T21:10:50.581+01:00",
+        "2015-13-24T21:10:50.581Z", "2015-04-31T21:10:50.581Z",
+        "2015-03-24T24:00:00.000Z", "2015-03-24T21:10:60.000Z",
+        "2015-03-24 21:10:50.581Z", "2015-0a-24T21:10:50.581Z",
+        "12015-03-24T21:10:50.581Z", "0000-01-01T00:00:00.000Z",
+        "Sat, 01 Jan 0001 00:00:00 GMT", "Fri, 31 Dec 9999 23:59:59 GMT",
+        "Tue, 29 Feb 2000 12:00:00 GMT", "Mon, 29 Feb 2100 12:00:00 GMT",
+        "Wed, 24 Mar 2015 21:10:50 GMT", "Tue, 24 Mar 2015 21:10:50 UTC",
+        "Tue, 24 mar 2015 21:10:50 GMT", "Tue, 24 Mar 2015 25:10:50 GMT",
+        "Tue,24 Mar 2015 21:10:50 GMT", "20150324T211050Z",
+        "00010101T000000Z", "99991231T235959Z", "21000229T120000Z",
+        "20150324T211060Z", "20150324T2110500Z", "20150324211050Z",
+        "",
+    };
+
+    private final DateTimeFormatter jodaIso8601 =
+        ISODateTimeFormat.dateTime().withZone(GMT);
+    private final DateTimeFormatter jodaAlternateIso8601 =
+        DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ss'Z'").withZone(GMT);
+    private final DateTimeFormatter jodaRfc822 =
+        DateTimeFormat.forPattern("EEE, dd MMM yyyy HH:mm:ss z")
+                      .withLocale(Locale.US).withZone(GMT);
+    private final DateTimeFormatter jodaTimestamp =
+        DateTimeFormat.forPattern("yyyyMMdd'T'HHmmss'Z'").withZone(GMT);
+    private final Date date = new Date(1427231450581L);
+
+    @Setup
+    public void checkCompatibility() {
+        long seed = System.nanoTime();
+        Random random = new Random(seed);
+        for (int i = 0; i < RANDOM_INSTANTS; i++) {
+            long millis = MIN_MILLIS
+                    + (long) (random.nextDouble() * (MAX_MILLIS - MIN_MILLIS));
+            if (i % 2 == 0)
+                millis -= millis % 1000; // whole seconds, as in HTTP headers
+            String context = " of " + millis + " (seed " + seed + ")";
+            Date instant = new Date(millis);
+
+            String iso8601 = jodaIso8601.print(millis);
+            check("formatISO8601Date" + context, iso8601,
+                    DateUtils.formatISO8601Date(instant));
+            checkParse(iso8601);
+            checkParse(jodaAlternateIso8601.print(millis));
+
+            String rfc822 = jodaRfc822.print(millis);
+            check("formatRFC822Date" + context, rfc822,
+                    DateUtils.formatRFC822Date(instant));
+            checkParse(rfc822);
+
+            String timestamp = jodaTimestamp.print(millis);
+            check("formatCompressedISO8601Date" + context, timestamp,
+                    DateUtils.formatCompressedISO8601Date(instant));
+            check("formatTimestamp" + context, timestamp,
+                    AWS4SignerUtils.formatTimestamp(millis));
+            checkParse(timestamp);
+        }
+        for (String s : EDGE_STRINGS)
+            checkParse(s);
+    }
+
+    /**
+     * Checks that the given string parses like Joda-Time does in each format
+     * of {@link DateUtils}, including whether parsing fails.
+     */
+    private void checkParse(String s) {
+        Long expected = jodaParse(jodaIso8601, s);
+        if (expected == null)
+            expected = jodaParse(jodaAlternateIso8601, s);
+        Long actual;
+        try {
+            actual = DateUtils.parseISO8601Date(s).getTime();
+        } catch (IllegalArgumentException e) {
+            actual = null;
+        }
+        check("parseISO8601Date of \"" + s + "\"", expected, actual);
+
+        try {
+            actual = DateUtils.parseRFC822Date(s).getTime();
+        } catch (IllegalArgumentException e) {
+            actual = null;
+        }
+        check("parseRFC822Date of \"" + s + "\"", jodaParse(jodaRfc822, s), actual);
+
+        try {
+            actual = DateUtils.parseCompressedISO8601Date(s).getTime();
+        } catch (IllegalArgumentException e) {
+            actual = null;
+        }
+        check("parseCompressedISO8601Date of \"" + s + "\"",
+                jodaParse(jodaTimestamp, s), actual);
+    }
+
+    private static Long jodaParse(DateTimeFormatter formatter, String s) {
+        try {
+            return formatter.parseMillis(s);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void check(String what, Object expected, Object actual) {
+        if (expected == null ? actual != null : !expected.equals(actual)) {
+            throw new IllegalStateException(what + " differs from Joda-Time: expected "
+                    + expected + " but was " + actual);
+        }
+    }
+
+    @Benchmark
+    public Date parseISO8601() {
+        return DateUtils.parseISO8601Date(ISO8601);
+    }
+
+    @Benchmark
+    public long parseISO8601Joda() {
+        return jodaIso8601.parseMillis(ISO8601);
+    }
+
+    @Benchmark
+    public String formatISO8601() {
+        return DateUtils.formatISO8601Date(date);
+    }
+
+    @Benchmark
+    public String formatISO8601Joda() {
+        return jodaIso8601.print(date.getTime());
+    }
+
+    @Benchmark
+    public Date parseRFC822() {
+        return DateUtils.parseRFC822Date(RFC822);
+    }
+
+    @Benchmark
+    public long parseRFC822Joda() {
+        return jodaRfc822.parseMillis(RFC822);
+    }
+
+    @Benchmark
+    public String formatRFC822() {
+        return DateUtils.formatRFC822Date(date);
+    }
+
+    @Benchmark
+    public String formatRFC822Joda() {
+        return jodaRfc822.print(date.getTime());
+    }
+
+    @Benchmark
+    public String formatSigningTimestamp() {
+        return AWS4SignerUtils.formatTimestamp(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public String formatSigningTimestampJoda() {
+        return jodaTimestamp.print(System.currentTimeMillis());
+    }
+}
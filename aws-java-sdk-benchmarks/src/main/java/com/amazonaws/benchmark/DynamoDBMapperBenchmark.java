@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmark;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBAttribute;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.PutItemRequest;
+import com.amazonaws.services.dynamodbv2.model.PutItemResult;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemRequest;
+import com.amazonaws.services.dynamodbv2.model.UpdateItemResult;
+
+/**
+ * Measures the conversion between annotated objects and DynamoDB items by
+ * {@link DynamoDBMapper}: saving an object through a client that discards
+ * the write, and unmarshalling an item into an object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DynamoDBMapperBenchmark {
+
+    private DynamoDBMapper mapper;
+    private Customer customer;
+    private Map<String, AttributeValue> item;
+
+    @Setup
+    public void setUp() {
+        mapper = new DynamoDBMapper(new DiscardingDynamoDBClient());
+        customer = new Customer();
+        customer.setId("customer-1");
+        customer.setName("Customer number 1");
+        customer.setEmail("customer1@example.com");
+        customer.setOrders(7);
+        customer.setBalance(1.25);
+        customer.setActive(true);
+        Set<String> tags = new HashSet<String>();
+        tags.add("gold");
+        tags.add("newsletter");
+        customer.setTags(tags);
+
+        item = new HashMap<String, AttributeValue>();
+        item.put("id", new AttributeValue().withS("customer-1"));
+        item.put("name", new AttributeValue().withS("Customer number 1"));
+        item.put("email", new AttributeValue().withS("customer1@example.com"));
+        item.put("orders", new AttributeValue().withN("7"));
+        item.put("balance", new AttributeValue().withN("1.25"));
+        item.put("active", new AttributeValue().withN("1"));
+        item.put("tags", new AttributeValue().withSS("gold", "newsletter"));
+    }
+
+    @Benchmark
+    public Customer marshall() {
+        mapper.save(customer);
+        return customer;
+    }
+
+    @Benchmark
+    public Customer unmarshall() {
+        return mapper.marshallIntoObject(Customer.class, item);
+    }
+
+    /**
+     * Client that acknowledges writes without sending them anywhere.
+     */
+    private static final class DiscardingDynamoDBClient extends AmazonDynamoDBClient {
+        DiscardingDynamoDBClient() {
+            super(new BasicAWSCredentials("AKIDEXAMPLE", "secret"));
+        }
+
+        @Override
+        public PutItemResult putItem(PutItemRequest putItemRequest) {
+            return new PutItemResult();
+        }
+
+        @Override
+        public UpdateItemResult updateItem(UpdateItemRequest updateItemRequest) {
+            return new UpdateItemResult();
+        }
+    }
+
+    @DynamoDBTable(tableName = "benchmark")
+    public static class Customer {
+        private String id;
+        private String name;
+        private String email;
+        private int orders;
+        private double balance;
+        private boolean active;
+        private Set<String> tags;
+
+        @DynamoDBHashKey
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        @DynamoDBAttribute
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        @DynamoDBAttribute
+        public String getEmail() { return email; }
+        public void setEmail(String email) { this.email = email; }
+
+        @DynamoDBAttribute
+        public int getOrders() { return orders; }
+        public void setOrders(int orders) { this.orders = orders; }
+
+        @DynamoDBAttribute
+        public double getBalance() { return balance; }
+        public void setBalance(double balance) { this.balance = balance; }
+
+        @DynamoDBAttribute
+        public boolean isActive() { return active; }
+        public void setActive(boolean active) { this.active = active; }
+
+        @DynamoDBAttribute
+        public Set<String> getTags() { return tags; }
+        public void setTags(Set<String> tags) { this.tags = tags; }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBAsyncClient;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClient;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.GetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.GetItemResult;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Measures the full request path of {@code AmazonHttpClient.execute} -
+ * marshalling, signing, connection pooling, HTTP exchange, unmarshalling
+ * and metrics - with DynamoDB GetItem calls against an in-process stub HTTP
+ * server on the loopback interface, for both the blocking transport and the
+ * non-blocking one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class HttpClientBenchmark {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private AmazonDynamoDBClient client;
+    private AmazonDynamoDBAsyncClient nonBlockingClient;
+    private GetItemRequest getItemRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Otherwise the stub server's separate writes of the response
+        // headers and body would stall on delayed acknowledgements.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        final byte[] response = Payloads.dynamoDBGetItemResponse();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                InputStream in = exchange.getRequestBody();
+                byte[] buffer = new byte[1024];
+                while (in.read(buffer) != -1)
+                    ;
+                exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.0");
+                exchange.getResponseHeaders().add("x-amzn-RequestId", "KCQG5CHQHBGB03M6MJ7O5AQJVVVV4KQNSO5AEMVJF66Q9ASUAAJG");
+                exchange.sendResponseHeaders(200, response.length);
+                OutputStream out = exchange.getResponseBody();
+                out.write(response);
+                out.close();
+            }
+        });
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.start();
+        String endpoint = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        BasicAWSCredentials credentials = new BasicAWSCredentials(
+                "AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY");
+        client = new AmazonDynamoDBClient(credentials, new ClientConfiguration());
+        client.setEndpoint(endpoint);
+        nonBlockingClient = new AmazonDynamoDBAsyncClient(credentials,
+                new ClientConfiguration().withNonBlockingTransport(true),
+                Executors.newFixedThreadPool(4));
+        nonBlockingClient.setEndpoint(endpoint);
+
+        Map<String, AttributeValue> key = new HashMap<String, AttributeValue>();
+        key.put("id", new AttributeValue().withS("customer-1"));
+        getItemRequest = new GetItemRequest().withTableName("benchmark").withKey(key);
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.shutdown();
+        nonBlockingClient.shutdown();
+        server.stop(0);
+        serverExecutor.shutdown();
+    }
+
+    @Benchmark
+    public GetItemResult getItem() {
+        return client.getItem(getItemRequest);
+    }
+
+    @Benchmark
+    public GetItemResult getItemNonBlocking() throws Exception {
+        return nonBlockingClient.getItemAsync(getItemRequest).get();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import com.amazonaws.util.StringUtils;
+
+/**
+ * Generates representative service response payloads of a given size.
+ */
+final class Payloads {
+
+    private Payloads() {}
+
+    /** Returns a DynamoDB Query response holding the given number of items. */
+    static byte[] dynamoDBQueryResponse(int items) {
+        StringBuilder json = new StringBuilder("{\"Count\":").append(items).append(",\"Items\":[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0)
+                json.append(',');
+            json.append(dynamoDBItem(i));
+        }
+        json.append("],\"ScannedCount\":").append(items).append('}');
+        return json.toString().getBytes(StringUtils.UTF8);
+    }
+
+    /** Returns a DynamoDB GetItem response. */
+    static byte[] dynamoDBGetItemResponse() {
+        return ("{\"Item\":" + dynamoDBItem(1) + "}").getBytes(StringUtils.UTF8);
+    }
+
+    /** Returns the attributes of one item of the benchmark table, in JSON. */
+    static String dynamoDBItem(int i) {
+        return "{\"id\":{\"S\":\"customer-" + i + "\"},"
+                + "\"name\":{\"S\":\"Customer number " + i + "\"},"
+                + "\"email\":{\"S\":\"customer" + i + "@example.com\"},"
+                + "\"orders\":{\"N\":\"" + (i * 7) + "\"},"
+                + "\"balance\":{\"N\":\"" + i + ".25\"},"
+                + "\"active\":{\"N\":\"1\"},"
+                + "\"tags\":{\"SS\":[\"gold\",\"newsletter\",\"region-" + (i % 5) + "\"]}}";
+    }
+
+    /**
+     * Returns an EC2 DescribeInstances response holding the given number of
+     * reservations, each with one instance.
+     */
+    static byte[] ec2DescribeInstancesResponse(int reservations) {
+        StringBuilder xml = new StringBuilder(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<DescribeInstancesResponse xmlns=\"http://ec2.amazonaws.com/doc/2014-10-01/\">"
+                + "<requestId>59dbff89-35bd-4eac-99ed-be587EXAMPLE</requestId><reservationSet>");
+        for (int i = 0; i < reservations; i++) {
+            xml.append("<item><reservationId>r-").append(1000000 + i).append("</reservationId>")
+               .append("<ownerId>123456789012</ownerId><groupSet/><instancesSet><item>")
+               .append("<instanceId>i-").append(2000000 + i).append("</instanceId>")
+               .append("<imageId>ami-1a2b3c4d</imageId>")
+               .append("<instanceState><code>16</code><name>running</name></instanceState>")
+               .append("<privateDnsName>ip-10-0-0-").append(i % 250).append(".ec2.internal</privateDnsName>")
+               .append("<dnsName>ec2-54-0-0-").append(i % 250).append(".compute-1.amazonaws.com</dnsName>")
+               .append("<keyName>my-key-pair</keyName><amiLaunchIndex>0</amiLaunchIndex>")
+               .append("<instanceType>m3.large</instanceType>")
+               .append("<launchTime>2015-01-14T20:15:41.000Z</launchTime>")
+               .append("<placement><availabilityZone>us-east-1a</availabilityZone><groupName/><tenancy>default</tenancy></placement>")
+               .append("<monitoring><state>disabled</state></monitoring>")
+               .append("<subnetId>subnet-1a2b3c4d</subnetId><vpcId>vpc-1a2b3c4d</vpcId>")
+               .append("<privateIpAddress>10.0.0.").append(i % 250).append("</privateIpAddress>")
+               .append("<ipAddress>54.0.0.").append(i % 250).append("</ipAddress>")
+               .append("<groupSet><item><groupId>sg-1a2b3c4d</groupId><groupName>web</groupName></item></groupSet>")
+               .append("<architecture>x86_64</architecture><rootDeviceType>ebs</rootDeviceType>")
+               .append("<rootDeviceName>/dev/xvda</rootDeviceName><blockDeviceMapping><item>")
+               .append("<deviceName>/dev/xvda</deviceName><ebs><volumeId>vol-").append(3000000 + i)
+               .append("</volumeId><status>attached</status><attachTime>2015-01-14T20:15:44.000Z</attachTime>")
+               .append("<deleteOnTermination>true</deleteOnTermination></ebs></item></blockDeviceMapping>")
+               .append("<virtualizationType>hvm</virtualizationType>")
+               .append("<tagSet><item><key>Name</key><value>web-").append(i).append("</value></item>")
+               .append("<item><key>stage</key><value>prod</value></item></tagSet>")
+               .append("<hypervisor>xen</hypervisor><ebsOptimized>false</ebsOptimized>")
+               .append("</item></instancesSet></item>");
+        }
+        xml.append("</reservationSet></DescribeInstancesResponse>");
+        return xml.toString().getBytes(StringUtils.UTF8);
+    }
+
+    /** Returns an S3 ListObjects response holding the given number of keys. */
+    static byte[] s3ListObjectsResponse(int keys) {
+        StringBuilder xml = new StringBuilder(
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">"
+                + "<Name>benchmark-bucket</Name><Prefix>logs/</Prefix><Marker></Marker>"
+                + "<MaxKeys>1000</MaxKeys><IsTruncated>false</IsTruncated>");
+        for (int i = 0; i < keys; i++) {
+            xml.append("<Contents><Key>logs/2015/01/14/host-").append(i % 16)
+               .append("/access-").append(i).append(".log.gz</Key>")
+               .append("<LastModified>2015-01-14T20:15:41.000Z</LastModified>")
+               .append("<ETag>&quot;828ef3fdfa96f00ad9f27c383fc9ac7f&quot;</ETag>")
+               .append("<Size>").append(1024 + i).append("</Size>")
+               .append("<Owner><ID>75aa57f09aa0c8caeab4f8c24e99d10f8e7faeebf76c078efc7c6caea54ba06a</ID>")
+               .append("<DisplayName>benchmark</DisplayName></Owner>")
+               .append("<StorageClass>STANDARD</StorageClass></Contents>");
+        }
+        xml.append("</ListBucketResult>");
+        return xml.toString().getBytes(StringUtils.UTF8);
+    }
+
+    static InputStream stream(byte[] payload) {
+        return new ByteArrayInputStream(payload);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.AmazonWebServiceResponse;
+import com.amazonaws.http.HttpResponse;
+import com.amazonaws.http.JsonResponseHandler;
+import com.amazonaws.http.StaxResponseHandler;
+import com.amazonaws.services.dynamodbv2.model.QueryResult;
+import com.amazonaws.services.dynamodbv2.model.transform.QueryResultJsonUnmarshaller;
+import com.amazonaws.services.ec2.model.DescribeInstancesResult;
+import com.amazonaws.services.ec2.model.transform.DescribeInstancesResultStaxUnmarshaller;
+
+/**
+ * Measures the unmarshalling of an EC2 DescribeInstances response through
+ * {@link StaxResponseHandler}, and of a DynamoDB Query response through
+ * {@link JsonResponseHandler}, for a small and a large response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseHandlerBenchmark {
+
+    /** Number of EC2 reservations, or DynamoDB items, in the response. */
+    @Param({"10", "100"})
+    public int size;
+
+    private byte[] ec2Payload;
+    private byte[] dynamoDBPayload;
+    private StaxResponseHandler<DescribeInstancesResult> staxResponseHandler;
+    private JsonResponseHandler<QueryResult> jsonResponseHandler;
+
+    @Setup
+    public void setUp() {
+        ec2Payload = Payloads.ec2DescribeInstancesResponse(size);
+        dynamoDBPayload = Payloads.dynamoDBQueryResponse(size);
+        staxResponseHandler = new StaxResponseHandler<DescribeInstancesResult>(
+                new DescribeInstancesResultStaxUnmarshaller());
+        jsonResponseHandler = new JsonResponseHandler<QueryResult>(
+                QueryResultJsonUnmarshaller.getInstance());
+    }
+
+    @Benchmark
+    public AmazonWebServiceResponse<DescribeInstancesResult> staxEc2DescribeInstances() throws Exception {
+        HttpResponse response = new HttpResponse(null, null);
+        response.addHeader("Content-Type", "text/xml;charset=UTF-8");
+        response.setContent(Payloads.stream(ec2Payload));
+        return staxResponseHandler.handle(response);
+    }
+
+    @Benchmark
+    public AmazonWebServiceResponse<QueryResult> jsonDynamoDBQuery() throws Exception {
+        HttpResponse response = new HttpResponse(null, null);
+        response.addHeader("Content-Type", "application/x-amz-json-1.0");
+        response.addHeader("x-amzn-RequestId", "KCQG5CHQHBGB03M6MJ7O5AQJVVVV4KQNSO5AEMVJF66Q9ASUAAJG");
+        response.setContent(Payloads.stream(dynamoDBPayload));
+        return jsonResponseHandler.handle(response);
+    }
+}
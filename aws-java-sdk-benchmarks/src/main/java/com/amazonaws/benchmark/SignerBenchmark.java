@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.benchmark;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.DefaultRequest;
+import com.amazonaws.Request;
+import com.amazonaws.auth.AWS4Signer;
+import com.amazonaws.auth.AWSCredentials;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.QueryStringSigner;
+import com.amazonaws.http.HttpMethodName;
+import com.amazonaws.util.StringInputStream;
+
+/**
+ * Measures the signatures per second of the AWS4 signer, on a DynamoDB-like
+ * JSON request, and of the query string signer, on an EC2-like query
+ * request. Each operation builds a fresh request, as the signers add headers
+ * or parameters to the requests they sign.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignerBenchmark {
+    private static final String DYNAMODB_BODY =
+        "{\"TableName\":\"benchmark\",\"Key\":{\"id\":{\"S\":\"customer-1\"}},\"ConsistentRead\":true}";
+
+    private final AWSCredentials credentials = new BasicAWSCredentials(
+            "AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY");
+    private final URI dynamoDBEndpoint = URI.create("https://dynamodb.us-east-1.amazonaws.com");
+    private final URI ec2Endpoint = URI.create("https://ec2.us-east-1.amazonaws.com");
+    private AWS4Signer aws4Signer;
+    private QueryStringSigner queryStringSigner;
+
+    @Setup
+    public void setUp() {
+        aws4Signer = new AWS4Signer();
+        aws4Signer.setServiceName("dynamodb");
+        aws4Signer.setRegionName("us-east-1");
+        queryStringSigner = new QueryStringSigner();
+    }
+
+    @Benchmark
+    public Request<?> aws4Sign() throws Exception {
+        Request<?> request = new DefaultRequest<Void>("AmazonDynamoDBv2");
+        request.setEndpoint(dynamoDBEndpoint);
+        request.setHttpMethod(HttpMethodName.POST);
+        request.addHeader("X-Amz-Target", "DynamoDB_20120810.GetItem");
+        request.addHeader("Content-Type", "application/x-amz-json-1.0");
+        request.addHeader("Content-Length", Integer.toString(DYNAMODB_BODY.length()));
+        request.setContent(new StringInputStream(DYNAMODB_BODY));
+        aws4Signer.sign(request, credentials);
+        return request;
+    }
+
+    @Benchmark
+    public Request<?> queryStringSign() {
+        Request<?> request = new DefaultRequest<Void>("AmazonEC2");
+        request.setEndpoint(ec2Endpoint);
+        request.setHttpMethod(HttpMethodName.POST);
+        request.addParameter("Action", "DescribeInstances");
+        request.addParameter("Version", "2014-10-01");
+        request.addParameter("Filter.1.Name", "instance-state-name");
+        request.addParameter("Filter.1.Value.1", "running");
+        request.addParameter("Filter.2.Name", "tag:stage");
+        request.addParameter("Filter.2.Value.1", "prod");
+        queryStringSigner.sign(request, credentials);
+        return request;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.internal.crypto;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the encryption and decryption of object content by
+ * {@link CipherLiteInputStream}, as set up by the S3 encryption client,
+ * against the chunking the stream used before, where each 2K chunk was
+ * processed into a newly allocated array. Each operation processes a whole
+ * object with a new cipher, read through the stream in 64K reads.
+ * <p>
+ * This benchmark lives in the package of the classes it measures, as they are
+ * not public. Only AES/CBC is measured by default, as AES/GCM requires
+ * Bouncy Castle, which is not a dependency of this module; to measure it,
+ * add it to the class path and select the scheme:
+ *
+ * <pre>
+ * java -cp aws-java-sdk-benchmarks/target/benchmarks.jar:bcprov.jar \
+ *     com.amazonaws.benchmark.BenchmarkRunner CipherLiteInputStreamBenchmark \
+ *     -p scheme=AES/CBC/PKCS5Padding,AES/GCM/NoPadding
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CipherLiteInputStreamBenchmark {
+    private static final int LEGACY_BUFFER_SIZE = 2 * 1024;
+
+    /** The content crypto scheme; AES/GCM/NoPadding requires Bouncy Castle. */
+    @Param({"AES/CBC/PKCS5Padding"})
+    public String scheme;
+
+    @Param({"ENCRYPT", "DECRYPT"})
+    public String mode;
+
+    /** Size of the object, in bytes. */
+    @Param({"8388608"})
+    public int size;
+
+    private ContentCryptoScheme contentCryptoScheme;
+    private int cipherMode;
+    private SecretKey cek;
+    private byte[] iv;
+    private byte[] content;
+    private final byte[] sink = new byte[64 * 1024];
+
+    @Setup
+    public void setUp() throws Exception {
+        if (ContentCryptoScheme.AES_GCM.getCipherAlgorithm().equals(scheme)) {
+            if (!CryptoRuntime.isAesGcmAvailable()) {
+                CryptoRuntime.enableBouncyCastle();
+                CryptoRuntime.recheckAesGcmAvailablility();
+            }
+            if (!CryptoRuntime.isAesGcmAvailable()) {
+                throw new IllegalStateException(
+                        "AES/GCM requires Bouncy Castle on the class path");
+            }
+            contentCryptoScheme = ContentCryptoScheme.AES_GCM;
+        } else {
+            contentCryptoScheme = ContentCryptoScheme.AES_CBC;
+        }
+        KeyGenerator generator = KeyGenerator.getInstance(
+                contentCryptoScheme.getKeyGeneratorAlgorithm());
+        generator.init(contentCryptoScheme.getKeyLengthInBits());
+        cek = generator.generateKey();
+        Random random = new Random(0);
+        iv = new byte[contentCryptoScheme.getIVLengthInBytes()];
+        random.nextBytes(iv);
+        byte[] plaintext = new byte[size];
+        random.nextBytes(plaintext);
+        if ("DECRYPT".equals(mode)) {
+            cipherMode = Cipher.DECRYPT_MODE;
+            content = contentCryptoScheme.createCipherLite(cek, iv,
+                    Cipher.ENCRYPT_MODE).doFinal(plaintext);
+        } else {
+            cipherMode = Cipher.ENCRYPT_MODE;
+            content = plaintext;
+        }
+    }
+
+    @Benchmark
+    public long cipherLiteInputStream() throws Exception {
+        return drain(new CipherLiteInputStream(
+                new ByteArrayInputStream(content),
+                contentCryptoScheme.createCipherLite(cek, iv, cipherMode),
+                S3CryptoModuleBase.DEFAULT_BUFFER_SIZE));
+    }
+
+    @Benchmark
+    public long legacyChunks() throws Exception {
+        CipherLite cipherLite =
+                contentCryptoScheme.createCipherLite(cek, iv, cipherMode);
+        InputStream in = new ByteArrayInputStream(content);
+        byte[] bufin = new byte[LEGACY_BUFFER_SIZE];
+        long total = 0;
+        int len;
+        while ((len = in.read(bufin, 0, LEGACY_BUFFER_SIZE)) != -1) {
+            byte[] bufout = cipherLite.update(bufin, 0, len);
+            if (bufout != null)
+                total += consume(bufout, bufout.length);
+        }
+        byte[] bufout = cipherLite.doFinal();
+        if (bufout != null)
+            total += consume(bufout, bufout.length);
+        return total;
+    }
+
+    private long drain(InputStream in) throws IOException {
+        long total = 0;
+        int len;
+        while ((len = in.read(sink)) != -1)
+            total += len;
+        in.close();
+        return total;
+    }
+
+    /** Copies the given output to the sink, as read would. */
+    private int consume(byte[] bufout, int len) {
+        for (int off = 0; off < len; off += sink.length)
+            System.arraycopy(bufout, off, sink, 0, Math.min(sink.length, len - off));
+        return len;
+    }
+}
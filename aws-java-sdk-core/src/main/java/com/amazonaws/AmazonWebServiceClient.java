@@ -423,6 +423,25 @@ public abstract class AmazonWebServiceClient {
         this.client = new AmazonHttpClient(clientConfiguration, requestMetricCollector);
     }
 
+    /**
+     * Opens up to the given number of connections to the endpoint of this
+     * client, completing their TLS handshakes, and keeps them in the
+     * connection pool, so that the first requests after startup don't each
+     * pay for opening a connection. This method blocks until the connections
+     * are open, or could not be opened.
+     *
+     * @param count
+     *            the number of connections to open; capped at the maximum
+     *            number of connections of the client configuration
+     *
+     * @return the number of connections to the endpoint open in the pool
+     *
+     * @see AmazonHttpClient#warmUpConnections(URI, int)
+     */
+    public int warmUpConnections(int count) {
+        return client.warmUpConnections(endpoint, count);
+    }
+
     /**
      * Shuts down this client object, releasing any resources that might be held
      * open. This is an optional method, and callers are not expected to call
@@ -511,7 +530,7 @@ public abstract class AmazonWebServiceClient {
 
     protected ExecutionContext createExecutionContext(AmazonWebServiceRequest req) {
         boolean isMetricsEnabled = isRequestMetricsEnabled(req) || isProfilingEnabled();
-        return new ExecutionContext(requestHandler2s, isMetricsEnabled, this);
+        return new ExecutionContext(requestHandler2s, isMetricsEnabled, this, req);
     }
 
     protected final ExecutionContext createExecutionContext(Request<?> req) {
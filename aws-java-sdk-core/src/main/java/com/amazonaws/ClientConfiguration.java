@@ -74,11 +74,58 @@ public class ClientConfiguration {
      */
     public static final long DEFAULT_CONNECTION_TTL = -1;
 
+    /**
+     * The default maximum time (in milliseconds) a connection may sit idle in
+     * the connection pool before being closed.
+     */
+    public static final long DEFAULT_CONNECTION_MAX_IDLE_MILLIS = 60 * 1000;
+
+    /**
+     * The default time (in milliseconds) a connection must have been idle in
+     * the connection pool before it is validated when leased.
+     */
+    public static final int DEFAULT_VALIDATE_AFTER_INACTIVITY_MILLIS = 5 * 1000;
+
     /**
      * The default on whether to use TCP KeepAlive.
      */
     public static final boolean DEFAULT_TCP_KEEP_ALIVE = false;
 
+    /**
+     * The default on whether to send requests from the asynchronous clients
+     * over a non-blocking transport.
+     */
+    public static final boolean DEFAULT_USE_NON_BLOCKING_TRANSPORT = false;
+
+    /**
+     * The default on whether to cache response metadata.
+     */
+    public static final boolean DEFAULT_CACHE_RESPONSE_METADATA = true;
+
+    /**
+     * The default on whether to adaptively rate limit the requests sent by
+     * a client.
+     */
+    public static final boolean DEFAULT_USE_ADAPTIVE_RATE_LIMITING = false;
+
+    /**
+     * The default ratio of retries to recent successful calls permitted per
+     * service endpoint; 0, ie the retry budget is disabled.
+     */
+    public static final double DEFAULT_RETRY_BUDGET_RATIO = 0;
+
+    /**
+     * The default proportion of failed calls at which the circuit breaker of
+     * a service endpoint opens; 0, ie the circuit breaker is disabled.
+     */
+    public static final double DEFAULT_CIRCUIT_BREAKER_ERROR_THRESHOLD = 0;
+
+    /**
+     * The default duration, in milliseconds, an open circuit breaker waits
+     * before letting a probe request through.
+     */
+    public static final long DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION = 10 * 1000;
+
     /** The HTTP user agent header passed with all HTTP requests. */
     private String userAgent = DEFAULT_USER_AGENT;
 
@@ -186,6 +233,21 @@ public class ClientConfiguration {
      */
     private long connectionTTL = DEFAULT_CONNECTION_TTL;
 
+    /**
+     * Optional maximum time a connection may sit idle in the connection pool.
+     * Idle connections are closed by the {@link IdleConnectionReaper} once
+     * this time, or the keep-alive time of the connection if shorter, has
+     * elapsed.
+     */
+    private long connectionMaxIdleMillis = DEFAULT_CONNECTION_MAX_IDLE_MILLIS;
+
+    /**
+     * Optional time a connection must have been idle in the connection pool
+     * before it is checked for staleness when leased; or a negative value to
+     * never check.
+     */
+    private int validateAfterInactivityMillis = DEFAULT_VALIDATE_AFTER_INACTIVITY_MILLIS;
+
     /**
      * Optional override to enable support for TCP KeepAlive (not to be confused
      * with HTTP KeepAlive). TCP KeepAlive can be used to detect misbehaving routers
@@ -195,7 +257,45 @@ public class ClientConfiguration {
      * the operating system (sysctl on Linux, and Registry values on Windows).
      */
     private boolean tcpKeepAlive = DEFAULT_TCP_KEEP_ALIVE;
-    
+
+    /**
+     * Optional whether the asynchronous clients should send requests over a
+     * non-blocking transport, backed by Apache HttpAsyncClient, instead of
+     * blocking a thread of their executor for the duration of each request.
+     * Requires the optional httpasyncclient dependency on the classpath.
+     */
+    private boolean useNonBlockingTransport = DEFAULT_USE_NON_BLOCKING_TRANSPORT;
+
+    /**
+     * Optional whether to cache the response metadata of recently executed
+     * requests, for retrieval via the clients' getCachedResponseMetadata.
+     */
+    private boolean cacheResponseMetadata = DEFAULT_CACHE_RESPONSE_METADATA;
+
+    /**
+     * Optional whether to pace the requests sent by a client to the rate the
+     * service accepts them at, as learned from throttling errors.
+     */
+    private boolean useAdaptiveRateLimiting = DEFAULT_USE_ADAPTIVE_RATE_LIMITING;
+
+    /**
+     * Optional ratio of retries to recent successful calls permitted per
+     * service endpoint; or 0 if retries are only limited by the retry policy.
+     */
+    private double retryBudgetRatio = DEFAULT_RETRY_BUDGET_RATIO;
+
+    /**
+     * Optional proportion of recent failed calls at which requests to a
+     * service endpoint start failing fast; or 0 if disabled.
+     */
+    private double circuitBreakerErrorThreshold = DEFAULT_CIRCUIT_BREAKER_ERROR_THRESHOLD;
+
+    /**
+     * The duration in milliseconds an open circuit breaker waits before
+     * letting a probe request through.
+     */
+    private long circuitBreakerOpenDuration = DEFAULT_CIRCUIT_BREAKER_OPEN_DURATION;
+
     /**
      * Can be used to specify custom specific Apache HTTP client configurations.
      */
@@ -226,6 +326,14 @@ public class ClientConfiguration {
         this.socketReceiveBufferSizeHint = other.socketReceiveBufferSizeHint;
         this.socketSendBufferSizeHint    = other.socketSendBufferSizeHint;
         this.signerOverride              = other.signerOverride;
+        this.useNonBlockingTransport     = other.useNonBlockingTransport;
+        this.cacheResponseMetadata       = other.cacheResponseMetadata;
+        this.useAdaptiveRateLimiting     = other.useAdaptiveRateLimiting;
+        this.retryBudgetRatio            = other.retryBudgetRatio;
+        this.circuitBreakerErrorThreshold = other.circuitBreakerErrorThreshold;
+        this.circuitBreakerOpenDuration  = other.circuitBreakerOpenDuration;
+        this.connectionMaxIdleMillis     = other.connectionMaxIdleMillis;
+        this.validateAfterInactivityMillis = other.validateAfterInactivityMillis;
         this.apacheHttpClientConfig =
             new ApacheHttpClientConfig(other.apacheHttpClientConfig);
     }
@@ -1117,6 +1225,76 @@ public class ClientConfiguration {
         return this;
     }
 
+    /**
+     * Returns the maximum time (in milliseconds) a connection may sit idle in
+     * the connection pool before being closed.
+     */
+    public long getConnectionMaxIdleMillis() {
+        return connectionMaxIdleMillis;
+    }
+
+    /**
+     * Sets the maximum time (in milliseconds) a connection may sit idle in
+     * the connection pool before being closed by the
+     * {@link IdleConnectionReaper}. Connections whose keep-alive time, as
+     * advertised by the service, is shorter are closed once their keep-alive
+     * time has elapsed. By default, it is set to 60 seconds.
+     *
+     * @see #setUseReaper(boolean)
+     */
+    public void setConnectionMaxIdleMillis(long connectionMaxIdleMillis) {
+        this.connectionMaxIdleMillis = connectionMaxIdleMillis;
+    }
+
+    /**
+     * Sets the maximum time (in milliseconds) a connection may sit idle in
+     * the connection pool before being closed.
+     *
+     * @return The updated ClientConfiguration object.
+     *
+     * @see #setConnectionMaxIdleMillis(long)
+     */
+    public ClientConfiguration withConnectionMaxIdleMillis(long connectionMaxIdleMillis) {
+        setConnectionMaxIdleMillis(connectionMaxIdleMillis);
+        return this;
+    }
+
+    /**
+     * Returns the time (in milliseconds) a connection must have been idle in
+     * the connection pool before it is validated when leased; or a negative
+     * value if connections are never validated.
+     */
+    public int getValidateAfterInactivityMillis() {
+        return validateAfterInactivityMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) a connection must have been idle in the
+     * connection pool before it is checked for staleness when leased, eg
+     * because the service closed it in the meantime. A stale connection is
+     * replaced by a new one before the request is sent on it. Checking a
+     * connection costs up to a millisecond, so connections reused shortly
+     * after being released are not checked. Set to 0 to check every leased
+     * connection, or to a negative value to never check. By default, it is
+     * set to 5 seconds.
+     */
+    public void setValidateAfterInactivityMillis(int validateAfterInactivityMillis) {
+        this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+    }
+
+    /**
+     * Sets the time (in milliseconds) a connection must have been idle in the
+     * connection pool before it is checked for staleness when leased.
+     *
+     * @return The updated ClientConfiguration object.
+     *
+     * @see #setValidateAfterInactivityMillis(int)
+     */
+    public ClientConfiguration withValidateAfterInactivityMillis(int validateAfterInactivityMillis) {
+        setValidateAfterInactivityMillis(validateAfterInactivityMillis);
+        return this;
+    }
+
     /**
      * Returns whether or not TCP KeepAlive support is enabled.
      */
@@ -1140,6 +1318,274 @@ public class ClientConfiguration {
         return this;
     }
 
+    /**
+     * Checks if the asynchronous clients send requests over a non-blocking
+     * transport.
+     *
+     * @return if the asynchronous clients send requests over a non-blocking
+     *         transport
+     */
+    public boolean useNonBlockingTransport() {
+        return useNonBlockingTransport;
+    }
+
+    /**
+     * Sets whether the asynchronous clients should send requests over a
+     * non-blocking transport. When enabled, an in-flight request no longer
+     * occupies a thread of the client's executor service while waiting for
+     * the response; the executor is only used to handle the response once it
+     * has been received. Responses are buffered in memory, so this is best
+     * suited to services with small response payloads, such as Amazon
+     * DynamoDB.
+     * <p>
+     * This requires the optional
+     * <code>org.apache.httpcomponents:httpasyncclient</code> dependency to be
+     * available on the classpath.
+     *
+     * @param use
+     *            whether to use a non-blocking transport
+     */
+    public void setUseNonBlockingTransport(boolean use) {
+        this.useNonBlockingTransport = use;
+    }
+
+    /**
+     * Sets whether the asynchronous clients should send requests over a
+     * non-blocking transport.
+     *
+     * @param use
+     *            whether to use a non-blocking transport
+     *
+     * @return The updated ClientConfiguration object.
+     *
+     * @see #setUseNonBlockingTransport(boolean)
+     */
+    public ClientConfiguration withNonBlockingTransport(boolean use) {
+        setUseNonBlockingTransport(use);
+        return this;
+    }
+
+    /**
+     * Checks if response metadata caching is enabled.
+     *
+     * @return if response metadata will be cached
+     */
+    public boolean getCacheResponseMetadata() {
+        return cacheResponseMetadata;
+    }
+
+    /**
+     * Sets whether or not to cache the response metadata of recently
+     * executed requests, for diagnostic purposes. Clients that never read the
+     * cached metadata can disable this to skip the bookkeeping on every
+     * request; getCachedResponseMetadata then always returns null.
+     *
+     * @param shouldCache
+     *            whether to cache response metadata
+     */
+    public void setCacheResponseMetadata(boolean shouldCache) {
+        this.cacheResponseMetadata = shouldCache;
+    }
+
+    /**
+     * Sets whether or not to cache response metadata.
+     *
+     * @param shouldCache
+     *            whether to cache response metadata
+     *
+     * @return The updated ClientConfiguration object.
+     *
+     * @see #setCacheResponseMetadata(boolean)
+     */
+    public ClientConfiguration withCacheResponseMetadata(final boolean shouldCache) {
+        setCacheResponseMetadata(shouldCache);
+        return this;
+    }
+
+    /**
+     * Checks if the requests sent by a client are adaptively rate limited.
+     *
+     * @return if the requests sent by a client are adaptively rate limited
+     */
+    public boolean useAdaptiveRateLimiting() {
+        return useAdaptiveRateLimiting;
+    }
+
+    /**
+     * Sets whether or not to adaptively rate limit the requests sent by a
+     * client. When enabled, each client keeps a token bucket, shared by all
+     * the threads using the client, which starts pacing requests once the
+     * service returns a throttling error. Its rate is cut on each throttling
+     * error and probed back up on successful responses, so that the client
+     * converges to the throughput the service accepts (such as the
+     * provisioned throughput of an Amazon DynamoDB table) rather than
+     * repeatedly exceeding it. This applies on top of the back-off of the
+     * retry policy.
+     * <p>
+     * The current rate, and the time requests spent waiting for the rate
+     * limiter, are captured in the request metrics.
+     *
+     * @param use
+     *            whether to adaptively rate limit requests
+     *
+     * @see com.amazonaws.retry.AdaptiveRateLimiter
+     */
+    public void setUseAdaptiveRateLimiting(boolean use) {
+        this.useAdaptiveRateLimiting = use;
+    }
+
+    /**
+     * Sets whether or not to adaptively rate limit the requests sent by a
+     * client.
+     *
+     * @param use
+     *            whether to adaptively rate limit requests
+     *
+     * @return The updated ClientConfiguration object.
+     *
+     * @see #setUseAdaptiveRateLimiting(boolean)
+     */
+    public ClientConfiguration withAdaptiveRateLimiting(boolean use) {
+        setUseAdaptiveRateLimiting(use);
+        return this;
+    }
+
+    /**
+     * Returns the ratio of retries to recent successful calls permitted per
+     * service endpoint; or 0 if the retry budget is disabled.
+     *
+     * @return The retry budget ratio.
+     */
+    public double getRetryBudgetRatio() {
+        return retryBudgetRatio;
+    }
+
+    /**
+     * Sets the ratio of retries to recent successful calls permitted per
+     * service endpoint. With a ratio of 0.1, retries to an endpoint are only
+     * sent while the number of retries over the last ten seconds stays under
+     * 10% of the calls to that endpoint that succeeded over the same period
+     * (plus a small allowance, so that lightly used clients can still
+     * retry). Beyond that, failed requests are not retried, even if the retry
+     * policy would retry them, so that retries don't multiply the load on an
+     * endpoint that is degraded.
+     * <p>
+     * The default is 0, which disables the retry budget.
+     *
+     * @param retryBudgetRatio
+     *            The retry budget ratio; or 0 to disable the retry budget.
+     *
+     * @see com.amazonaws.retry.EndpointHealth
+     */
+    public void setRetryBudgetRatio(double retryBudgetRatio) {
+        this.retryBudgetRatio = retryBudgetRatio;
+    }
+
+    /**
+     * Sets the ratio of retries to recent successful calls permitted per
+     * service endpoint.
+     *
+     * @param retryBudgetRatio
+     *            The retry budget ratio; or 0 to disable the retry budget.
+     *
+     * @return The updated ClientConfiguration object.
+     *
+     * @see #setRetryBudgetRatio(double)
+     */
+    public ClientConfiguration withRetryBudgetRatio(double retryBudgetRatio) {
+        setRetryBudgetRatio(retryBudgetRatio);
+        return this;
+    }
+
+    /**
+     * Returns the proportion of recent failed calls at which requests to a
+     * service endpoint start failing fast; or 0 if the circuit breaker is
+     * disabled.
+     *
+     * @return The circuit breaker error threshold.
+     */
+    public double getCircuitBreakerErrorThreshold() {
+        return circuitBreakerErrorThreshold;
+    }
+
+    /**
+     * Sets the proportion of recent failed calls, between 0 and 1, at which
+     * requests to a service endpoint start failing fast. Failed calls are the
+     * ones that failed with an I/O error, a 5xx response or a throttling
+     * error. Once the proportion of such calls over the last ten seconds
+     * reaches the threshold, the circuit breaker of the endpoint opens:
+     * requests to the endpoint fail with an AmazonClientException without
+     * being sent, until a probe request sent after the open duration
+     * succeeds.
+     * <p>
+     * The default is 0, which disables the circuit breaker.
+     *
+     * @param circuitBreakerErrorThreshold
+     *            The circuit breaker error threshold; or 0 to disable the
+     *            circuit breaker.
+     *
+     * @see #setCircuitBreakerOpenDuration(long)
+     * @see com.amazonaws.retry.EndpointHealth
+     */
+    public void setCircuitBreakerErrorThreshold(double circuitBreakerErrorThreshold) {
+        this.circuitBreakerErrorThreshold = circuitBreakerErrorThreshold;
+    }
+
+    /**
+     * Sets the proportion of recent failed calls at which requests to a
+     * service endpoint start failing fast.
+     *
+     * @param circuitBreakerErrorThreshold
+     *            The circuit breaker error threshold; or 0 to disable the
+     *            circuit breaker.
+     *
+     * @return The updated ClientConfiguration object.
+     *
+     * @see #setCircuitBreakerErrorThreshold(double)
+     */
+    public ClientConfiguration withCircuitBreakerErrorThreshold(double circuitBreakerErrorThreshold) {
+        setCircuitBreakerErrorThreshold(circuitBreakerErrorThreshold);
+        return this;
+    }
+
+    /**
+     * Returns the duration in milliseconds an open circuit breaker waits
+     * before letting a probe request through.
+     *
+     * @return The circuit breaker open duration in milliseconds.
+     */
+    public long getCircuitBreakerOpenDuration() {
+        return circuitBreakerOpenDuration;
+    }
+
+    /**
+     * Sets the duration in milliseconds an open circuit breaker waits before
+     * letting a probe request through, to find out if the endpoint has
+     * recovered.
+     *
+     * @param circuitBreakerOpenDuration
+     *            The circuit breaker open duration in milliseconds.
+     */
+    public void setCircuitBreakerOpenDuration(long circuitBreakerOpenDuration) {
+        this.circuitBreakerOpenDuration = circuitBreakerOpenDuration;
+    }
+
+    /**
+     * Sets the duration in milliseconds an open circuit breaker waits before
+     * letting a probe request through.
+     *
+     * @param circuitBreakerOpenDuration
+     *            The circuit breaker open duration in milliseconds.
+     *
+     * @return The updated ClientConfiguration object.
+     *
+     * @see #setCircuitBreakerOpenDuration(long)
+     */
+    public ClientConfiguration withCircuitBreakerOpenDuration(long circuitBreakerOpenDuration) {
+        setCircuitBreakerOpenDuration(circuitBreakerOpenDuration);
+        return this;
+    }
+
     /**
      * Returns a non-null object that can be used to specify Apache HTTP client
      * specific custom configurations.
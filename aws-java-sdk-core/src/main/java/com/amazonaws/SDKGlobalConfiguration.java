@@ -45,6 +45,21 @@ public class SDKGlobalConfiguration {
     public static final String DEFAULT_METRICS_SYSTEM_PROPERTY =
         "com.amazonaws.sdk.enableDefaultMetrics";
 
+    /**
+     * System property used when starting up the JVM to enable the histogram
+     * metrics, which record the latencies of the requests made by the AWS SDK
+     * into in-memory histograms.
+     *
+     * <pre>
+     * Example:
+     *  -Dcom.amazonaws.sdk.enableHistogramMetrics
+     * </pre>
+     *
+     * @see com.amazonaws.metrics.AwsSdkMetrics#enableHistogramMetrics()
+     */
+    public static final String HISTOGRAM_METRICS_SYSTEM_PROPERTY =
+        "com.amazonaws.sdk.enableHistogramMetrics";
+
     /** System property name for the AWS access key ID */
     public static final String ACCESS_KEY_SYSTEM_PROPERTY = "aws.accessKeyId";
 
@@ -115,6 +130,17 @@ public class SDKGlobalConfiguration {
     public static final String ENFORCE_S3_SIGV4_SYSTEM_PROPERTY =
         "com.amazonaws.services.s3.enforceV4";
 
+    /**
+     * By default, responses of the query and XML protocols are unmarshalled
+     * from the cursor of an XMLStreamReader, without allocating an XMLEvent
+     * per node. Setting this property to anything other than null reverts to
+     * reading the responses through an XMLEventReader, for custom StAX
+     * unmarshallers which inspect the events returned by the unmarshaller
+     * context beyond their type.
+     */
+    public static final String DISABLE_XML_CURSOR_UNMARSHALLING_SYSTEM_PROPERTY =
+        "com.amazonaws.sdk.disableXmlCursorUnmarshalling";
+
     /**
      * @deprecated with {@link AmazonWebServiceRequest#getRequestClientOptions()}
      * and {@link RequestClientOptions#setReadLimit(int)}.
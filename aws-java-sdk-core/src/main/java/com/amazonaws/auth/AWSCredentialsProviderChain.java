@@ -14,6 +14,7 @@
  */
 package com.amazonaws.auth;
 
+import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -36,7 +37,7 @@ import com.amazonaws.AmazonClientException;
  * credentials are requested in the future, instead of traversing the chain each time.
  * This behavior can be controlled through the {@link #setReuseLastProvider(boolean)} method.
  */
-public class AWSCredentialsProviderChain implements AWSCredentialsProvider {
+public class AWSCredentialsProviderChain implements ExpiringCredentialsProvider {
 
     private static final Log log = LogFactory.getLog(AWSCredentialsProviderChain.class);
 
@@ -44,7 +45,7 @@ public class AWSCredentialsProviderChain implements AWSCredentialsProvider {
             new LinkedList<AWSCredentialsProvider>();
 
     private boolean reuseLastProvider = true;
-    private AWSCredentialsProvider lastUsedProvider;
+    private volatile AWSCredentialsProvider lastUsedProvider;
 
 
     /**
@@ -122,4 +123,16 @@ public class AWSCredentialsProviderChain implements AWSCredentialsProvider {
             provider.refresh();
         }
     }
+
+    /**
+     * Returns the expiration of the credentials of the last provider which
+     * returned credentials, if it reports one.
+     */
+    @Override
+    public Date getCredentialsExpiration() {
+        AWSCredentialsProvider provider = lastUsedProvider;
+        if (provider instanceof ExpiringCredentialsProvider)
+            return ((ExpiringCredentialsProvider) provider).getCredentialsExpiration();
+        return null;
+    }
 }
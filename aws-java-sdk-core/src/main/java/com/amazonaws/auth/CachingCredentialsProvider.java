@@ -0,0 +1,389 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.auth;
+
+import java.lang.ref.WeakReference;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.AmazonClientException;
+
+/**
+ * Credentials provider that caches the credentials of another provider, and
+ * refreshes them in the background before they expire, so that requests never
+ * wait for credentials to be loaded once the first credentials are available.
+ * <p>
+ * Credentials of an {@link ExpiringCredentialsProvider} are refreshed at a
+ * random time within the prefetch time before their expiration, or within
+ * the first half of their remaining lifetime if shorter, so that clients
+ * started together don't all refresh at once. Credentials that don't expire
+ * are refreshed every refresh interval, if any.
+ * <p>
+ * A single refresh of the wrapped provider is in progress at any time:
+ * callers needing credentials while one is under way share its outcome. If a
+ * refresh fails while the current credentials are still valid, they keep
+ * being served, and the refresh is retried with an increasing delay. Callers
+ * only wait for the wrapped provider when there are no valid credentials to
+ * serve, that is for the first credentials, or once they have expired.
+ * <p>
+ * Background refreshes run on a small pool of daemon threads shared by all
+ * instances. An instance which is no longer referenced stops being
+ * refreshed, so it doesn't need to be shut down; {@link #shutdown()} stops
+ * its refreshes right away.
+ */
+@ThreadSafe
+public class CachingCredentialsProvider implements ExpiringCredentialsProvider {
+
+    private static final Log LOG = LogFactory.getLog(CachingCredentialsProvider.class);
+
+    /**
+     * The default time before the expiration of credentials within which
+     * they are refreshed.
+     */
+    public static final long DEFAULT_PREFETCH_MILLIS = 15 * 60 * 1000;
+
+    /** The default interval between refreshes of non-expiring credentials. */
+    public static final long DEFAULT_REFRESH_INTERVAL_MILLIS = 60 * 60 * 1000;
+
+    /** The shortest delay before a refresh, to bound the rate of refreshes. */
+    private static final long MIN_REFRESH_DELAY_MILLIS = 1000;
+
+    /** The longest delay before retrying a failed refresh. */
+    private static final long MAX_RETRY_DELAY_MILLIS = 60 * 1000;
+
+    private final AWSCredentialsProvider credentialsProvider;
+    private final long prefetchMillis;
+    private final long refreshIntervalMillis;
+    private final Random random = new Random();
+
+    /** The current credentials; or null until first loaded. */
+    private volatile Cached cached;
+
+    /** The refresh in progress, if any. */
+    private final AtomicReference<FutureTask<Cached>> refreshing =
+        new AtomicReference<FutureTask<Cached>>();
+
+    /** The number of refreshes failed in a row; only accessed by refreshes. */
+    private int failures;
+
+    private volatile ScheduledFuture<?> scheduledRefresh;
+    private volatile boolean shutdown;
+
+    /**
+     * Constructs a new provider caching the credentials of the given
+     * provider, with the default prefetch time and refresh interval.
+     *
+     * @param credentialsProvider
+     *            The provider to load credentials from.
+     */
+    public CachingCredentialsProvider(AWSCredentialsProvider credentialsProvider) {
+        this(credentialsProvider, DEFAULT_PREFETCH_MILLIS, DEFAULT_REFRESH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Constructs a new provider caching the credentials of the given
+     * provider.
+     *
+     * @param credentialsProvider
+     *            The provider to load credentials from.
+     * @param prefetchMillis
+     *            The time before the expiration of credentials within which
+     *            they are refreshed.
+     * @param refreshIntervalMillis
+     *            The interval between refreshes of credentials that don't
+     *            expire; or zero to never refresh them.
+     */
+    public CachingCredentialsProvider(AWSCredentialsProvider credentialsProvider,
+            long prefetchMillis, long refreshIntervalMillis) {
+        if (credentialsProvider == null)
+            throw new IllegalArgumentException("credentialsProvider must not be null");
+        if (prefetchMillis < 0 || refreshIntervalMillis < 0)
+            throw new IllegalArgumentException("prefetchMillis and refreshIntervalMillis must not be negative");
+        this.credentialsProvider = credentialsProvider;
+        this.prefetchMillis = prefetchMillis;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    @Override
+    public AWSCredentials getCredentials() {
+        Cached current = cached;
+        if (current != null && !current.isExpired(System.currentTimeMillis())) {
+            if (current.refreshAt <= System.currentTimeMillis()) {
+                // The scheduled refresh is late, or this instance is shut down
+                refreshInBackground();
+            }
+            return current.credentials;
+        }
+        return awaitRefresh().credentials;
+    }
+
+    /**
+     * Refreshes the credentials, waiting for the outcome, unless none have
+     * been loaded yet, in which case they will be on first use. If the
+     * refresh fails, the current credentials keep being used while valid.
+     */
+    @Override
+    public void refresh() {
+        if (cached != null) {
+            try {
+                awaitRefresh();
+            } catch (AmazonClientException e) {
+                LOG.debug("Unable to refresh credentials from " + credentialsProvider, e);
+            }
+        }
+    }
+
+    @Override
+    public Date getCredentialsExpiration() {
+        Cached current = cached;
+        return (current == null || current.expiration == Long.MAX_VALUE)
+             ? null : new Date(current.expiration);
+    }
+
+    /**
+     * Stops the background refreshes of this provider. The credentials are
+     * still refreshed on demand, once expired.
+     */
+    public void shutdown() {
+        shutdown = true;
+        ScheduledFuture<?> scheduled = scheduledRefresh;
+        if (scheduled != null)
+            scheduled.cancel(false);
+    }
+
+    /**
+     * Waits for the refresh in progress, or refreshes the credentials in the
+     * calling thread if none is.
+     */
+    private Cached awaitRefresh() {
+        FutureTask<Cached> task = refreshing.get();
+        while (task == null) {
+            FutureTask<Cached> newTask = newRefreshTask();
+            if (refreshing.compareAndSet(null, newTask)) {
+                newTask.run();
+                task = newTask;
+            } else {
+                task = refreshing.get();
+            }
+        }
+        try {
+            Cached current = getUninterruptibly(task);
+            if (current.credentials == null)
+                throw current.failure;
+            return current;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new AmazonClientException("Unable to load credentials", cause);
+        }
+    }
+
+    /**
+     * Starts a refresh on the refresh threads, unless one is in progress.
+     */
+    private void refreshInBackground() {
+        FutureTask<Cached> newTask = newRefreshTask();
+        if (refreshing.compareAndSet(null, newTask)) {
+            Scheduler.INSTANCE.execute(newTask);
+        }
+    }
+
+    private FutureTask<Cached> newRefreshTask() {
+        return new FutureTask<Cached>(new Callable<Cached>() {
+            @Override
+            public Cached call() {
+                try {
+                    return load();
+                } finally {
+                    refreshing.set(null);
+                }
+            }
+        });
+    }
+
+    /**
+     * Loads new credentials from the wrapped provider and schedules their
+     * refresh. If loading fails, keeps the current credentials while they
+     * are valid, and schedules a retry.
+     */
+    private Cached load() {
+        Cached previous = cached;
+        AWSCredentials credentials;
+        Date expiration = null;
+        try {
+            if (previous != null)
+                credentialsProvider.refresh();
+            credentials = credentialsProvider.getCredentials();
+            if (credentials == null)
+                throw new AmazonClientException("Unable to load credentials from " + credentialsProvider);
+            if (credentialsProvider instanceof ExpiringCredentialsProvider)
+                expiration = ((ExpiringCredentialsProvider) credentialsProvider).getCredentialsExpiration();
+        } catch (RuntimeException e) {
+            failures++;
+            long now = System.currentTimeMillis();
+            AmazonClientException failure = (e instanceof AmazonClientException)
+                    ? (AmazonClientException) e
+                    : new AmazonClientException("Unable to load credentials from " + credentialsProvider, e);
+            if (previous == null || previous.isExpired(now)) {
+                LOG.debug("Unable to load credentials from " + credentialsProvider, e);
+                return new Cached(null, 0, 0, failure);
+            }
+            LOG.warn("Unable to refresh credentials from " + credentialsProvider
+                    + ", continuing to use the current credentials", e);
+            long retryDelay = Math.min(MAX_RETRY_DELAY_MILLIS,
+                    MIN_REFRESH_DELAY_MILLIS << Math.min(failures - 1, 16));
+            long retryAt = Math.min(now + jitter(retryDelay), previous.expiration);
+            Cached current = new Cached(previous.credentials, previous.expiration, retryAt, failure);
+            cached = current;
+            scheduleRefresh(retryAt - now);
+            return current;
+        }
+
+        failures = 0;
+        long now = System.currentTimeMillis();
+        long expires = (expiration == null) ? Long.MAX_VALUE : expiration.getTime();
+        long refreshAt;
+        if (expiration != null) {
+            long lead = Math.min(prefetchMillis, Math.max(0, expires - now) / 2);
+            refreshAt = expires - lead + (long) (random.nextDouble() * lead / 2);
+        } else if (refreshIntervalMillis > 0) {
+            refreshAt = now + refreshIntervalMillis - (long) (random.nextDouble() * refreshIntervalMillis / 10);
+        } else {
+            refreshAt = Long.MAX_VALUE;
+        }
+        refreshAt = Math.max(refreshAt, now + MIN_REFRESH_DELAY_MILLIS);
+        Cached current = new Cached(credentials, expires, refreshAt, null);
+        cached = current;
+        if (refreshAt != Long.MAX_VALUE)
+            scheduleRefresh(refreshAt - now);
+        return current;
+    }
+
+    /** Returns a random delay between half and all of the given delay. */
+    private long jitter(long delay) {
+        return delay / 2 + (long) (random.nextDouble() * delay / 2);
+    }
+
+    private void scheduleRefresh(long delayMillis) {
+        if (shutdown)
+            return;
+        ScheduledFuture<?> previous = scheduledRefresh;
+        if (previous != null)
+            previous.cancel(false);
+        scheduledRefresh = Scheduler.INSTANCE.schedule(new ScheduledRefresh(this),
+                delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static <V> V getUninterruptibly(FutureTask<V> task) throws ExecutionException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return task.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + credentialsProvider + ")";
+    }
+
+    /**
+     * Credentials along with their expiration and the time at which to
+     * refresh them, all in milliseconds since epoch; and the failure of the
+     * last refresh, if any.
+     */
+    private static final class Cached {
+        final AWSCredentials credentials;
+        final long expiration;
+        final long refreshAt;
+        final AmazonClientException failure;
+
+        Cached(AWSCredentials credentials, long expiration, long refreshAt,
+                AmazonClientException failure) {
+            this.credentials = credentials;
+            this.expiration = expiration;
+            this.refreshAt = refreshAt;
+            this.failure = failure;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiration;
+        }
+    }
+
+    /**
+     * Refreshes a provider when due, unless it is no longer referenced by
+     * anything but its scheduled refresh.
+     */
+    private static final class ScheduledRefresh implements Runnable {
+        private final WeakReference<CachingCredentialsProvider> provider;
+
+        ScheduledRefresh(CachingCredentialsProvider provider) {
+            this.provider = new WeakReference<CachingCredentialsProvider>(provider);
+        }
+
+        @Override
+        public void run() {
+            CachingCredentialsProvider p = provider.get();
+            if (p != null && !p.shutdown)
+                p.refreshInBackground();
+        }
+    }
+
+    /**
+     * The daemon threads refreshing credentials, created on first use.
+     */
+    private static final class Scheduler {
+        static final ScheduledExecutorService INSTANCE = create();
+
+        private static ScheduledExecutorService create() {
+            final AtomicInteger threadCount = new AtomicInteger();
+            return new ScheduledThreadPoolExecutor(2, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "java-sdk-credentials-refresh-"
+                            + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+    }
+}
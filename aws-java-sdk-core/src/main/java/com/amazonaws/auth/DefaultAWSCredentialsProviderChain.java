@@ -22,7 +22,8 @@ import com.amazonaws.auth.profile.ProfileCredentialsProvider;
  *   <li>Environment Variables - AWS_ACCESS_KEY_ID and AWS_SECRET_KEY</li>
  *   <li>Java System Properties - aws.accessKeyId and aws.secretKey</li>
  *   <li>Credential profiles file at the default location (~/.aws/credentials) shared by all AWS SDKs and the AWS CLI</li>
- *   <li>Instance profile credentials delivered through the Amazon EC2 metadata service</li>
+ *   <li>Instance profile credentials delivered through the Amazon EC2 metadata service,
+ *       refreshed in the background before they expire</li>
  * </ul>
  *
  * @see EnvironmentVariableCredentialsProvider
@@ -35,6 +36,6 @@ public class DefaultAWSCredentialsProviderChain extends AWSCredentialsProviderCh
         super(new EnvironmentVariableCredentialsProvider(),
               new SystemPropertiesCredentialsProvider(),
               new ProfileCredentialsProvider(),
-              new InstanceProfileCredentialsProvider());
+              new CachingCredentialsProvider(new InstanceProfileCredentialsProvider()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.auth;
+
+import java.util.Date;
+
+/**
+ * A credentials provider whose credentials are only valid until a given time,
+ * which it reports so that they can be refreshed ahead of their expiration.
+ *
+ * @see CachingCredentialsProvider
+ */
+public interface ExpiringCredentialsProvider extends AWSCredentialsProvider {
+
+    /**
+     * Returns the expiration of the credentials last returned by
+     * {@link #getCredentials()}, or null if they don't expire, or their
+     * expiration is unknown.
+     */
+    public Date getCredentialsExpiration();
+
+}
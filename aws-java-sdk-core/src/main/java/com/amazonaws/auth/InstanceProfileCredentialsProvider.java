@@ -34,7 +34,7 @@ import com.fasterxml.jackson.databind.JsonNode;
  * Credentials provider implementation that loads credentials from the Amazon
  * EC2 Instance Metadata Service.
  */
-public class InstanceProfileCredentialsProvider implements AWSCredentialsProvider {
+public class InstanceProfileCredentialsProvider implements ExpiringCredentialsProvider {
 
     private static final Log LOG = LogFactory.getLog(InstanceProfileCredentialsProvider.class);
 
@@ -133,6 +133,12 @@ public class InstanceProfileCredentialsProvider implements AWSCredentialsProvide
         credentials = null;
     }
 
+    @Override
+    public Date getCredentialsExpiration() {
+        Date expiration = credentialsExpiration;
+        return (expiration == null) ? null : new Date(expiration.getTime());
+    }
+
     protected boolean needsToLoadCredentials() {
         if (credentials == null) return true;
 
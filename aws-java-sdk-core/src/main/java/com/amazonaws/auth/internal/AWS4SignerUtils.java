@@ -14,8 +14,9 @@
  */
 package com.amazonaws.auth.internal;
 
-import org.joda.time.format.DateTimeFormat;
-import org.joda.time.format.DateTimeFormatter;
+import java.util.Date;
+
+import com.amazonaws.util.DateUtils;
 
 /**
  * Utility methods that is used by the different AWS Signer implementations.
@@ -23,11 +24,13 @@ import org.joda.time.format.DateTimeFormatter;
  */
 public final class AWS4SignerUtils {
 
-    private static final DateTimeFormatter dateFormatter = DateTimeFormat
-            .forPattern("yyyyMMdd").withZoneUTC();
-
-    private static final DateTimeFormatter timeFormatter = DateTimeFormat
-            .forPattern("yyyyMMdd'T'HHmmss'Z'").withZoneUTC();
+    /**
+     * The formatted signing time of the most recently formatted second. Most
+     * requests are signed with the current time, so consecutive requests
+     * usually fall within the same second and can share the formatted
+     * strings.
+     */
+    private static volatile FormattedSecond lastFormatted = new FormattedSecond(0L);
 
     /**
      * Returns a string representation of the given date time in yyyyMMdd
@@ -36,7 +39,7 @@ public final class AWS4SignerUtils {
      * For example, given a time "1416863450581", this method returns "20141124"
      */
     public static String formatDateStamp(long timeMilli) {
-        return dateFormatter.print(timeMilli);
+        return formattedSecond(timeMilli).dateStamp;
     }
 
     /**
@@ -47,6 +50,32 @@ public final class AWS4SignerUtils {
      * "20141124T211050Z"
      */
     public static String formatTimestamp(long timeMilli) {
-        return timeFormatter.print(timeMilli);
+        return formattedSecond(timeMilli).timestamp;
+    }
+
+    private static FormattedSecond formattedSecond(long timeMilli) {
+        long second = timeMilli >= 0 ? timeMilli / 1000 : (timeMilli - 999) / 1000;
+        FormattedSecond formatted = lastFormatted;
+        if (formatted.second != second) {
+            formatted = new FormattedSecond(second);
+            lastFormatted = formatted;
+        }
+        return formatted;
+    }
+
+    /**
+     * The timestamp and date stamp of one second, published together so that
+     * readers never see the strings of one second paired with another.
+     */
+    private static final class FormattedSecond {
+        private final long second;
+        private final String timestamp;
+        private final String dateStamp;
+
+        FormattedSecond(long second) {
+            this.second = second;
+            this.timestamp = DateUtils.formatCompressedISO8601Date(new Date(second * 1000));
+            this.dateStamp = timestamp.substring(0, timestamp.indexOf('T'));
+        }
     }
 }
@@ -16,17 +16,20 @@ package com.amazonaws.event;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 import org.apache.http.annotation.NotThreadSafe;
 
 import com.amazonaws.AmazonWebServiceRequest;
 import com.amazonaws.internal.SdkFilterInputStream;
+import com.amazonaws.internal.TransferableContent;
 
 /**
  * Used for input stream progress tracking purposes.
  */
 @NotThreadSafe
-public abstract class ProgressInputStream extends SdkFilterInputStream {
+public abstract class ProgressInputStream extends SdkFilterInputStream
+        implements TransferableContent {
     /**
      * Returns an input stream for request progress tracking purposes. If
      * request/response progress tracking is not enabled, this method simply
@@ -156,6 +159,27 @@ public abstract class ProgressInputStream extends SdkFilterInputStream {
         return bytesRead;
     }
 
+    @Override
+    public boolean isTransferable() {
+        return in instanceof TransferableContent
+            && ((TransferableContent) in).isTransferable();
+    }
+
+    @Override
+    public int transferTo(OutputStream out, long count) throws IOException {
+        abortIfNeeded();
+        if (!hasBeenRead) {
+            onFirstRead();
+            hasBeenRead = true;
+        }
+        int bytesTransferred = ((TransferableContent) in).transferTo(out, count);
+        if (bytesTransferred == -1)
+            eof();
+        else
+            onBytesRead(bytesTransferred);
+        return bytesTransferred;
+    }
+
     private void eof() {
         if (doneEOF)
             return;
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.handlers;
+
+/**
+ * Transforms the result of an asynchronous request into another asynchronous
+ * computation, such as a dependent request.
+ *
+ * @param <I>
+ *            The input type.
+ * @param <O>
+ *            The output type.
+ * @see ListenableFutures#transform(ListenableFuture, AsyncFunction, java.util.concurrent.Executor)
+ */
+public interface AsyncFunction<I, O> {
+
+    /**
+     * Returns a future for the output computed from the given input. A
+     * function that computes its output synchronously can return it via
+     * {@link ListenableFutures#immediateFuture(Object)}.
+     *
+     * @param input
+     *            The result of the preceding asynchronous computation.
+     * @throws Exception
+     *             if the output can't be computed; the exception is used to
+     *             fail the transformed future.
+     */
+    public ListenableFuture<O> apply(I input) throws Exception;
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.handlers;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * A {@link Future} that accepts listeners to be run once it completes, so
+ * that dependent work can be chained onto an asynchronous request without
+ * blocking a thread on {@link #get()}.
+ *
+ * @param <V>
+ *            The result type of the future.
+ * @see ListenableFutures
+ */
+public interface ListenableFuture<V> extends Future<V> {
+
+    /**
+     * Registers a listener to be run on the given executor once this future
+     * completes, whether successfully, with a failure, or by cancellation.
+     * If the future has already completed, the listener is dispatched
+     * immediately.
+     *
+     * @param listener
+     *            The listener to run.
+     * @param executor
+     *            The executor to run the listener on.
+     */
+    public void addListener(Runnable listener, Executor executor);
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.handlers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.internal.ListenableFutureTask;
+import com.amazonaws.internal.SettableFuture;
+
+/**
+ * Static utility methods to compose the {@link ListenableFuture}s returned by
+ * the asynchronous clients, so that dependent requests can be chained without
+ * blocking a thread on each intermediate result. For example:
+ *
+ * <pre>
+ * ListenableFuture&lt;QueryResult&gt; query = dynamoDB.queryAsync(queryRequest);
+ * ListenableFuture&lt;SendMessageResult&gt; sent = ListenableFutures.transform(query,
+ *     new AsyncFunction&lt;QueryResult, SendMessageResult&gt;() {
+ *         public ListenableFuture&lt;SendMessageResult&gt; apply(QueryResult result) {
+ *             return sqs.sendMessageAsync(toMessage(result));
+ *         }
+ *     }, continuationExecutor);
+ * </pre>
+ *
+ * Each continuation runs on the executor given by the caller.
+ */
+public enum ListenableFutures {
+    ;
+
+    /**
+     * Submits the given task to the given executor and returns a listenable
+     * future for its result.
+     */
+    public static <V> ListenableFuture<V> submit(Executor executor, Callable<V> task) {
+        ListenableFutureTask<V> future = new ListenableFutureTask<V>(task);
+        executor.execute(future);
+        return future;
+    }
+
+    /**
+     * Returns a future that has already completed with the given value.
+     */
+    public static <V> ListenableFuture<V> immediateFuture(V value) {
+        SettableFuture<V> future = new SettableFuture<V>();
+        future.set(value);
+        return future;
+    }
+
+    /**
+     * Returns a future that has already failed with the given exception.
+     */
+    public static <V> ListenableFuture<V> immediateFailedFuture(Throwable exception) {
+        SettableFuture<V> future = new SettableFuture<V>();
+        future.setException(exception);
+        return future;
+    }
+
+    /**
+     * Returns a future for the result of applying the given function, on the
+     * given executor, to the result of the input future. A failure or
+     * cancellation of the input future, or a failure of the function, fails
+     * the returned future without calling the function; cancelling the
+     * returned future cancels the input future, or the future returned by the
+     * function if it has been called already.
+     *
+     * @param input
+     *            The future whose result is the function input.
+     * @param function
+     *            The function to apply to the result of the input future.
+     * @param executor
+     *            The executor to apply the function on.
+     */
+    public static <I, O> ListenableFuture<O> transform(
+            final ListenableFuture<I> input,
+            final AsyncFunction<? super I, ? extends O> function,
+            final Executor executor) {
+        final SettableFuture<O> output = new SettableFuture<O>();
+        input.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (output.isDone())
+                    return;
+                final ListenableFuture<? extends O> next;
+                try {
+                    next = function.apply(getDone(input));
+                } catch (CancellationException e) {
+                    output.cancel(false);
+                    return;
+                } catch (ExecutionException e) {
+                    output.setException(e.getCause());
+                    return;
+                } catch (Exception e) {
+                    output.setException(e);
+                    return;
+                } catch (Error e) {
+                    output.setException(e);
+                    return;
+                }
+                if (next == null) {
+                    output.setException(new AmazonClientException(
+                            "The async function returned a null future"));
+                    return;
+                }
+                next.addListener(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            output.set(getDone(next));
+                        } catch (CancellationException e) {
+                            output.cancel(false);
+                        } catch (ExecutionException e) {
+                            output.setException(e.getCause());
+                        }
+                    }
+                }, DirectExecutor.INSTANCE);
+                propagateCancellation(output, next);
+            }
+        }, executor);
+        propagateCancellation(output, input);
+        return output;
+    }
+
+    /**
+     * Notifies the given handler, on the given executor, of the outcome of
+     * the given future. The handler is notified of a cancellation as an error
+     * with a {@link CancellationException}.
+     *
+     * @param future
+     *            The future for the result of the given request.
+     * @param request
+     *            The request passed on to the handler on success.
+     * @param handler
+     *            The handler to notify.
+     * @param executor
+     *            The executor to notify the handler on.
+     */
+    public static <REQUEST extends AmazonWebServiceRequest, RESULT> void addHandler(
+            final ListenableFuture<RESULT> future,
+            final REQUEST request,
+            final AsyncHandler<REQUEST, RESULT> handler,
+            Executor executor) {
+        future.addListener(new Runnable() {
+            @Override
+            public void run() {
+                RESULT result;
+                try {
+                    result = getDone(future);
+                } catch (CancellationException e) {
+                    handler.onError(e);
+                    return;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    handler.onError(cause instanceof Exception
+                            ? (Exception) cause
+                            : new AmazonClientException(cause.getMessage(), cause));
+                    return;
+                }
+                handler.onSuccess(request, result);
+            }
+        }, executor);
+    }
+
+    /**
+     * Cancels the given source future when the given output future gets
+     * cancelled.
+     */
+    private static void propagateCancellation(final ListenableFuture<?> output,
+            final ListenableFuture<?> source) {
+        output.addListener(new Runnable() {
+            @Override
+            public void run() {
+                if (output.isCancelled())
+                    source.cancel(false);
+            }
+        }, DirectExecutor.INSTANCE);
+    }
+
+    /**
+     * Returns the result of the given completed future, retrying if the
+     * current thread gets interrupted.
+     */
+    private static <V> V getDone(Future<V> future)
+            throws ExecutionException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs tasks on the thread completing the future; only used internally
+     * for trivial bookkeeping that never blocks.
+     */
+    private enum DirectExecutor implements Executor {
+        INSTANCE;
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+}
@@ -20,14 +20,20 @@ import static com.amazonaws.event.SDKProgressPublisher.publishRequestContentLeng
 import static com.amazonaws.event.SDKProgressPublisher.publishResponseContentLength;
 import static com.amazonaws.util.AWSRequestMetrics.Field.AWSErrorCode;
 import static com.amazonaws.util.AWSRequestMetrics.Field.AWSRequestID;
+import static com.amazonaws.util.AWSRequestMetrics.Field.CircuitBreakerOpen;
 import static com.amazonaws.util.AWSRequestMetrics.Field.Exception;
 import static com.amazonaws.util.AWSRequestMetrics.Field.HttpClientPoolAvailableCount;
 import static com.amazonaws.util.AWSRequestMetrics.Field.HttpClientPoolLeasedCount;
 import static com.amazonaws.util.AWSRequestMetrics.Field.HttpClientPoolPendingCount;
 import static com.amazonaws.util.AWSRequestMetrics.Field.HttpRequestTime;
+import static com.amazonaws.util.AWSRequestMetrics.Field.RateLimit;
+import static com.amazonaws.util.AWSRequestMetrics.Field.RateLimitPauseTime;
 import static com.amazonaws.util.AWSRequestMetrics.Field.RedirectLocation;
+import static com.amazonaws.util.AWSRequestMetrics.Field.RequestContentLength;
 import static com.amazonaws.util.AWSRequestMetrics.Field.RequestCount;
 import static com.amazonaws.util.AWSRequestMetrics.Field.RequestSigningTime;
+import static com.amazonaws.util.AWSRequestMetrics.Field.ResponseContentLength;
+import static com.amazonaws.util.AWSRequestMetrics.Field.RetryBudgetExceeded;
 import static com.amazonaws.util.AWSRequestMetrics.Field.RetryPauseTime;
 import static com.amazonaws.util.AWSRequestMetrics.Field.ServiceEndpoint;
 import static com.amazonaws.util.AWSRequestMetrics.Field.ServiceName;
@@ -47,6 +53,13 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLContext;
 
@@ -55,15 +68,18 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHost;
 import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
 import org.apache.http.annotation.ThreadSafe;
 import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
 import org.apache.http.conn.ClientConnectionManager;
 import org.apache.http.conn.scheme.Scheme;
 import org.apache.http.conn.scheme.SchemeRegistry;
 import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.AbstractHttpClient;
 import org.apache.http.pool.ConnPoolControl;
 import org.apache.http.pool.PoolStats;
 import org.apache.http.protocol.BasicHttpContext;
@@ -87,16 +103,22 @@ import com.amazonaws.auth.Signer;
 import com.amazonaws.event.ProgressEventType;
 import com.amazonaws.event.ProgressInputStream;
 import com.amazonaws.event.ProgressListener;
+import com.amazonaws.handlers.AsyncHandler;
 import com.amazonaws.handlers.CredentialsRequestHandler;
+import com.amazonaws.handlers.ListenableFuture;
 import com.amazonaws.handlers.RequestHandler2;
 import com.amazonaws.http.conn.ssl.SdkTLSSocketFactory;
 import com.amazonaws.internal.CRC32MismatchException;
 import com.amazonaws.internal.ReleasableInputStream;
 import com.amazonaws.internal.ResettableInputStream;
 import com.amazonaws.internal.SdkBufferedInputStream;
+import com.amazonaws.internal.SettableFuture;
 import com.amazonaws.metrics.AwsSdkMetrics;
 import com.amazonaws.metrics.RequestMetricCollector;
 import com.amazonaws.retry.RetryPolicy;
+import com.amazonaws.retry.AdaptiveRateLimiter;
+import com.amazonaws.retry.EndpointHealth;
+import com.amazonaws.retry.EndpointHealthRegistry;
 import com.amazonaws.retry.RetryUtils;
 import com.amazonaws.retry.internal.AuthErrorRetryStrategy;
 import com.amazonaws.retry.internal.AuthRetryParameters;
@@ -146,11 +168,33 @@ public class AmazonHttpClient {
     /** Internal client for sending HTTP requests */
     private final HttpClient httpClient;
 
+    /**
+     * Internal non-blocking transport for sending HTTP requests
+     * asynchronously; or null if the non-blocking transport is not enabled.
+     */
+    private final HttpAsyncTransport httpAsyncTransport;
+
     /** Client configuration options, such as proxy settings, max retries, etc. */
     private final ClientConfiguration config;
 
-    /** Cache of metadata for recently executed requests for diagnostic purposes */
-    private final ResponseMetadataCache responseMetadataCache = new ResponseMetadataCache(50);
+    /**
+     * Cache of metadata for recently executed requests for diagnostic
+     * purposes; or null if disabled in the client configuration.
+     */
+    private final ResponseMetadataCache responseMetadataCache;
+
+    /**
+     * Paces the requests sent by this client, shared by all threads; or null
+     * if adaptive rate limiting is not enabled in the client configuration.
+     */
+    private final AdaptiveRateLimiter rateLimiter;
+
+    /**
+     * Tracks the recent calls to each service endpoint to enforce the retry
+     * budget and circuit breaker; or null if both are disabled in the client
+     * configuration.
+     */
+    private final EndpointHealthRegistry endpointHealthRegistry;
 
     /**
      * A request metric collector used specifically for this http client; or
@@ -204,6 +248,36 @@ public class AmazonHttpClient {
         this.config = config;
         this.httpClient = httpClient;
         this.requestMetricCollector = requestMetricCollector;
+        this.responseMetadataCache = config.getCacheResponseMetadata()
+                ? new ResponseMetadataCache(50)
+                : null;
+        this.rateLimiter = config.useAdaptiveRateLimiting()
+                ? new AdaptiveRateLimiter()
+                : null;
+        this.endpointHealthRegistry = config.getRetryBudgetRatio() > 0
+                || config.getCircuitBreakerErrorThreshold() > 0
+                ? new EndpointHealthRegistry(config.getRetryBudgetRatio(),
+                        config.getCircuitBreakerErrorThreshold(),
+                        config.getCircuitBreakerOpenDuration())
+                : null;
+        this.httpAsyncTransport = config.useNonBlockingTransport()
+                ? createHttpAsyncTransport(config)
+                : null;
+    }
+
+    /**
+     * Creates the non-blocking transport, which depends on the optional
+     * Apache HttpAsyncClient library.
+     */
+    private static HttpAsyncTransport createHttpAsyncTransport(ClientConfiguration config) {
+        try {
+            return new HttpAsyncClientFactory().createHttpAsyncTransport(config);
+        } catch (NoClassDefFoundError e) {
+            throw new AmazonClientException(
+                    "The non-blocking transport requires the "
+                    + "org.apache.httpcomponents:httpasyncclient library "
+                    + "to be available on the classpath", e);
+        }
     }
 
     /**
@@ -221,7 +295,9 @@ public class AmazonHttpClient {
      *         if there is no response metadata available for the request.
      */
     public ResponseMetadata getResponseMetadataForRequest(AmazonWebServiceRequest request) {
-        return responseMetadataCache.get(request);
+        return responseMetadataCache == null
+                ? null
+                : responseMetadataCache.get(request);
     }
 
     /**
@@ -283,7 +359,7 @@ public class AmazonHttpClient {
         final AWSRequestMetrics awsRequestMetrics = executionContext.getAwsRequestMetrics();
         Response<T> response = null;
         final InputStream origContent = request.getContent();
-        final InputStream toBeClosed = beforeRequest(request); // for progress tracking
+        final InputStream toBeClosed = beforeRequest(request, awsRequestMetrics); // for progress tracking
         // make "notCloseable", so reset would work with retries
         final InputStream notCloseable = (toBeClosed == null)
             ? null
@@ -310,7 +386,439 @@ public class AmazonHttpClient {
     }
 
     /**
-     * Publishes the "request content length" event, and returns an input
+     * Executes the request over the non-blocking transport, without tying up
+     * the calling thread while the request is in flight, and returns a future
+     * for the result.
+     * <p>
+     * The response is unmarshalled, and the given async handler notified, on
+     * a thread of the given response executor. Retries are scheduled after
+     * the back-off delay of the retry policy rather than slept on. The
+     * non-blocking transport must have been enabled via
+     * {@link ClientConfiguration#setUseNonBlockingTransport(boolean)}.
+     *
+     * @param request
+     *            The AmazonWebServices request to send to the remote server
+     * @param responseHandler
+     *            A response handler to accept a successful response from the
+     *            remote server
+     * @param errorResponseHandler
+     *            A response handler to accept an unsuccessful response from the
+     *            remote server
+     * @param executionContext
+     *            Additional information about the context of this web service
+     *            call
+     * @param responseExecutor
+     *            The executor used to handle the response and to notify the
+     *            async handler
+     * @param asyncHandler
+     *            Optional callback notified once the request completed,
+     *            before the returned future is completed; or null.
+     * @return A future for the response of the request.
+     */
+    public <T> ListenableFuture<Response<T>> executeAsync(Request<?> request,
+            HttpResponseHandler<AmazonWebServiceResponse<T>> responseHandler,
+            HttpResponseHandler<AmazonServiceException> errorResponseHandler,
+            ExecutionContext executionContext,
+            Executor responseExecutor,
+            AsyncHandler<AmazonWebServiceRequest, Response<T>> asyncHandler) {
+        if (executionContext == null)
+            throw new AmazonClientException("Internal SDK Error: No execution context parameter specified.");
+        if (httpAsyncTransport == null)
+            throw new IllegalStateException("The non-blocking transport is not enabled in the client configuration");
+        AsyncExecution<T> execution = new AsyncExecution<T>(request,
+                responseHandler, errorResponseHandler, executionContext,
+                responseExecutor, asyncHandler);
+        execution.start();
+        return execution.future;
+    }
+
+    /**
+     * Drives the execution of one request over the non-blocking transport,
+     * going through the same steps as {@link #execute} and
+     * {@link #executeHelper}, but continuing on callbacks instead of blocking.
+     */
+    private final class AsyncExecution<T> implements FutureCallback<org.apache.http.HttpResponse> {
+        private final Request<?> request;
+        private final HttpResponseHandler<AmazonWebServiceResponse<T>> responseHandler;
+        private final HttpResponseHandler<AmazonServiceException> errorResponseHandler;
+        private final ExecutionContext executionContext;
+        private final Executor responseExecutor;
+        private final AsyncHandler<AmazonWebServiceRequest, Response<T>> asyncHandler;
+        private final SettableFuture<Response<T>> future = new SettableFuture<Response<T>>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                if (!super.cancel(mayInterruptIfRunning))
+                    return false;
+                abortInFlight();
+                return true;
+            }
+        };
+        /** The transport's future of the request in flight, if any */
+        private volatile Future<org.apache.http.HttpResponse> inFlight;
+        private final ExecOneRequestParams p = new ExecOneRequestParams();
+        private final InputStream origContent;
+        private final ProgressListener listener;
+        private AWSRequestMetrics awsRequestMetrics;
+        private List<RequestHandler2> requestHandler2s = Collections.emptyList();
+        private InputStream toBeClosed;
+        private Map<String, String> originalParameters;
+        private Map<String, String> originalHeaders;
+        private InputStream originalContent;
+        /** Whether the current attempt is waiting for the rate limiter */
+        private boolean rateLimitPaused;
+
+        AsyncExecution(Request<?> request,
+                HttpResponseHandler<AmazonWebServiceResponse<T>> responseHandler,
+                HttpResponseHandler<AmazonServiceException> errorResponseHandler,
+                ExecutionContext executionContext,
+                Executor responseExecutor,
+                AsyncHandler<AmazonWebServiceRequest, Response<T>> asyncHandler) {
+            this.request = request;
+            this.responseHandler = responseHandler;
+            this.errorResponseHandler = errorResponseHandler;
+            this.executionContext = executionContext;
+            this.responseExecutor = responseExecutor;
+            this.asyncHandler = asyncHandler;
+            this.origContent = request.getContent();
+            this.listener = request.getOriginalRequest().getGeneralProgressListener();
+            this.awsRequestMetrics = executionContext.getAwsRequestMetrics();
+        }
+
+        void start() {
+            try {
+                requestHandler2s = requestHandler2s(request, executionContext);
+                AmazonWebServiceRequest awsreq = request.getOriginalRequest();
+                Map<String, String> customHeaders = awsreq.getCustomRequestHeaders();
+                if (customHeaders != null) {
+                    request.getHeaders().putAll(customHeaders);
+                }
+                toBeClosed = beforeRequest(request,
+                        executionContext.getAwsRequestMetrics()); // for progress tracking
+                // make "notCloseable", so reset would work with retries
+                request.setContent(toBeClosed == null
+                        ? null
+                        : ReleasableInputStream.wrap(toBeClosed).disableClose());
+                publishProgress(listener, ProgressEventType.CLIENT_REQUEST_STARTED_EVENT);
+                awsRequestMetrics = awsRequestMetrics
+                    .addPropertyWith(ServiceName, request.getServiceName())
+                    .addPropertyWith(ServiceEndpoint, request.getEndpoint())
+                    ;
+                setUserAgent(request);
+                originalParameters = new LinkedHashMap<String, String>(request.getParameters());
+                originalHeaders = new HashMap<String, String>(request.getHeaders());
+                // Always mark the input stream before execution.
+                originalContent = request.getContent();
+                if (originalContent != null && originalContent.markSupported()) {
+                    final int readLimit = awsreq.getRequestClientOptions().getReadLimit();
+                    originalContent.mark(readLimit);
+                }
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            } catch (Error e) {
+                fail(e);
+                return;
+            }
+            attempt();
+        }
+
+        /**
+         * Prepares the next attempt, and either sends it right away or
+         * schedules it after the retry back-off delay.
+         */
+        private void attempt() {
+            if (failIfCancelled())
+                return;
+            try {
+                p.initPerRetry();
+                prepareForAttempt(request, awsRequestMetrics, p,
+                        originalParameters, originalHeaders, originalContent);
+                prepareOneRequest(request, executionContext, awsRequestMetrics, p);
+            } catch (IOException ioe) {
+                retryOrFail(ioe);
+                return;
+            } catch (RuntimeException e) {
+                failAttempt(e);
+                return;
+            } catch (Error e) {
+                failAttempt(e);
+                return;
+            }
+            if (p.isRetry()) {
+                publishProgress(listener, ProgressEventType.CLIENT_REQUEST_RETRY_EVENT);
+                // don't pause if the retry was not due to a redirection
+                // ie when retried exception is null
+                if (p.retriedException != null) {
+                    long delay = delayBeforeNextRetry(request.getOriginalRequest(),
+                            p.retriedException, p.requestCount,
+                            config.getRetryPolicy());
+                    awsRequestMetrics.startEvent(RetryPauseTime);
+                    try {
+                        RetryScheduler.INSTANCE.schedule(new Runnable() {
+                            @Override
+                            public void run() {
+                                awsRequestMetrics.endEvent(RetryPauseTime);
+                                sendWhenPermitted();
+                            }
+                        }, delay, TimeUnit.MILLISECONDS);
+                    } catch (RejectedExecutionException e) {
+                        failAttempt(new AmazonClientException("Unable to schedule the retry of the request", e));
+                    }
+                    return;
+                }
+            }
+            sendWhenPermitted();
+        }
+
+        /**
+         * Sends the request right away if the adaptive rate limiter, if any,
+         * permits it; otherwise checks again after the delay it imposes.
+         */
+        private void sendWhenPermitted() {
+            if (failIfCancelled())
+                return;
+            if (rateLimiter == null) {
+                send();
+                return;
+            }
+            long delay = rateLimiter.tryAcquire();
+            if (delay <= 0) {
+                if (rateLimitPaused) {
+                    rateLimitPaused = false;
+                    awsRequestMetrics.endEvent(RateLimitPauseTime);
+                }
+                awsRequestMetrics.addProperty(RateLimit, rateLimiter.getRate());
+                send();
+                return;
+            }
+            if (!rateLimitPaused) {
+                rateLimitPaused = true;
+                awsRequestMetrics.startEvent(RateLimitPauseTime);
+            }
+            try {
+                RetryScheduler.INSTANCE.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        sendWhenPermitted();
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                failAttempt(new AmazonClientException("Unable to schedule the rate limited request", e));
+            }
+        }
+
+        private void send() {
+            try {
+                checkCircuitBreaker(awsRequestMetrics, p);
+                if (awsRequestMetrics.isEnabled())
+                    captureConnectionPoolMetrics(httpAsyncTransport.getTotalStats(), awsRequestMetrics);
+                HttpContext httpContext = new BasicHttpContext();
+                httpContext.setAttribute(
+                    AWSRequestMetrics.class.getSimpleName(),
+                    awsRequestMetrics);
+                p.resetBeforeHttpRequest();
+                publishProgress(listener, ProgressEventType.HTTP_REQUEST_STARTED_EVENT);
+                awsRequestMetrics.startEvent(HttpRequestTime);
+                inFlight = httpAsyncTransport.execute(p.apacheRequest, httpContext, this);
+                // the future may have been cancelled before the request was
+                // in flight, and so not have aborted it
+                if (future.isCancelled())
+                    abortInFlight();
+            } catch (RuntimeException e) {
+                failAttempt(e);
+            } catch (Error e) {
+                failAttempt(e);
+            }
+        }
+
+        @Override
+        public void completed(final org.apache.http.HttpResponse apacheResponse) {
+            awsRequestMetrics.endEvent(HttpRequestTime);
+            dispatch(new Runnable() {
+                @Override
+                public void run() {
+                    handle(apacheResponse);
+                }
+            });
+        }
+
+        @Override
+        public void failed(final Exception ex) {
+            awsRequestMetrics.endEvent(HttpRequestTime);
+            dispatch(new Runnable() {
+                @Override
+                public void run() {
+                    if (ex instanceof IOException) {
+                        retryOrFail((IOException) ex);
+                    } else {
+                        failAttempt(new AmazonClientException(
+                                "Unable to execute HTTP request: " + ex.getMessage(), ex));
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void cancelled() {
+            awsRequestMetrics.endEvent(HttpRequestTime);
+            dispatch(new Runnable() {
+                @Override
+                public void run() {
+                    fail(new AmazonClientException("The HTTP request was cancelled"));
+                }
+            });
+        }
+
+        /**
+         * Aborts the request in flight, if any, which releases its connection
+         * and notifies {@link #cancelled()}.
+         */
+        private void abortInFlight() {
+            Future<org.apache.http.HttpResponse> request = inFlight;
+            if (request != null)
+                request.cancel(true);
+        }
+
+        /**
+         * Fails the execution, rather than going on with the next attempt, if
+         * the returned future has been cancelled.
+         *
+         * @return true if the execution has been failed.
+         */
+        private boolean failIfCancelled() {
+            if (!future.isCancelled())
+                return false;
+            dispatch(new Runnable() {
+                @Override
+                public void run() {
+                    fail(new AmazonClientException("The request was cancelled"));
+                }
+            });
+            return true;
+        }
+
+        /**
+         * Hands the given task over to the response executor, so that no
+         * response handling takes place on the transport's I/O threads.
+         */
+        private void dispatch(Runnable task) {
+            try {
+                responseExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                fail(new AmazonClientException("Unable to handle the HTTP response", e));
+            }
+        }
+
+        private void handle(org.apache.http.HttpResponse apacheResponse) {
+            p.apacheResponse = apacheResponse;
+            publishProgress(listener, ProgressEventType.HTTP_REQUEST_COMPLETED_EVENT);
+            final Response<T> response;
+            try {
+                try {
+                    response = handleOneResponse(request, responseHandler,
+                            errorResponseHandler, executionContext,
+                            awsRequestMetrics, p);
+                } finally {
+                    closeResponseContent(p);
+                }
+            } catch (IOException ioe) {
+                retryOrFail(ioe);
+                return;
+            } catch (RuntimeException e) {
+                failAttempt(e);
+                return;
+            } catch (Error e) {
+                failAttempt(e);
+                return;
+            }
+            if (response == null)
+                attempt(); // => retry
+            else
+                succeed(response);
+        }
+
+        private void retryOrFail(IOException ioe) {
+            try {
+                handleIOException(ioe, request, awsRequestMetrics, p);
+            } catch (AmazonClientException e) {
+                fail(e);
+                return;
+            }
+            attempt();
+        }
+
+        private void failAttempt(Throwable t) {
+            fail(lastReset(captureExceptionMetrics(t, awsRequestMetrics), request));
+        }
+
+        private void succeed(Response<T> response) {
+            try {
+                publishProgress(listener, ProgressEventType.CLIENT_REQUEST_SUCCESS_EVENT);
+                TimingInfo timingInfo = awsRequestMetrics.getTimingInfo().endTiming();
+                afterResponse(request, requestHandler2s, response, timingInfo);
+            } catch (RuntimeException e) {
+                fail(e);
+                return;
+            }
+            cleanUp();
+            try {
+                if (asyncHandler != null)
+                    asyncHandler.onSuccess(request.getOriginalRequest(), response);
+            } catch (RuntimeException e) {
+                future.setException(e);
+                return;
+            }
+            future.set(response);
+        }
+
+        private void fail(Throwable t) {
+            try {
+                if (t instanceof AmazonClientException) {
+                    publishProgress(listener, ProgressEventType.CLIENT_REQUEST_FAILED_EVENT);
+                    afterError(request, null, requestHandler2s, (AmazonClientException) t);
+                }
+            } catch (RuntimeException e) {
+                t = e;
+            }
+            cleanUp();
+            try {
+                if (asyncHandler != null) {
+                    asyncHandler.onError(t instanceof Exception
+                            ? (Exception) t
+                            : new AmazonClientException(t.getMessage(), t));
+                }
+            } catch (RuntimeException e) {
+                log.warn("Unable to notify the async handler of the failed request", e);
+            }
+            future.setException(t);
+        }
+
+        private void cleanUp() {
+            // Always close so any progress tracking would get the final events propagated.
+            closeQuietly(toBeClosed, log);
+            request.setContent(origContent); // restore the original content
+        }
+    }
+
+    /**
+     * Lazily started daemon thread used to schedule the retries, and the rate
+     * limited attempts, of requests executed over the non-blocking transport.
+     */
+    private static final class RetryScheduler {
+        static final ScheduledExecutorService INSTANCE =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "java-sdk-retry-scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+    }
+
+    /**
+     * Publishes the "request content length" event, captures the request
+     * content length metric, and returns an input
      * stream, which will be made mark-and-resettable if possible, for progress
      * tracking purposes.
      *
@@ -318,7 +826,8 @@ public class AmazonHttpClient {
      *         possible, for progress tracking purposes; or null if the request
      *         doesn't have an input stream
      */
-    private InputStream beforeRequest(Request<?> request) {
+    private InputStream beforeRequest(Request<?> request,
+            AWSRequestMetrics awsRequestMetrics) {
         final AmazonWebServiceRequest awsreq = request.getOriginalRequest();
         ProgressListener listener = awsreq.getGeneralProgressListener();
         Map<String,String> headers = request.getHeaders();
@@ -327,6 +836,7 @@ public class AmazonHttpClient {
             try {
                 long contentLength = Long.parseLong(s);
                 publishRequestContentLength(listener, contentLength);
+                awsRequestMetrics.setCounter(RequestContentLength, contentLength);
             } catch (NumberFormatException e) {
                 log.warn("Cannot parse the Content-Length header of the request.");
             }
@@ -435,27 +945,8 @@ public class AmazonHttpClient {
         final ExecOneRequestParams p = new ExecOneRequestParams();
         while (true) {
             p.initPerRetry();
-            if (p.redirectedURI != null) {
-                /*
-                 * [scheme:][//authority][path][?query][#fragment]
-                 */
-                String scheme = p.redirectedURI.getScheme();
-                String beforeAuthority = scheme == null ? "" : scheme + "://";
-                String authority = p.redirectedURI.getAuthority();
-                String path = p.redirectedURI.getPath();
-
-                request.setEndpoint(URI.create(beforeAuthority + authority));
-                request.setResourcePath(path);
-            }
-            if (p.authRetryParam != null) {
-                request.setEndpoint(p.authRetryParam.getEndpointForRetry());
-            }
-            awsRequestMetrics.setCounter(RequestCount, p.requestCount);
-            if (p.isRetry()) {
-                request.setParameters(originalParameters);
-                request.setHeaders(originalHeaders);
-                request.setContent(originalContent);
-            }
+            prepareForAttempt(request, awsRequestMetrics, p,
+                    originalParameters, originalHeaders, originalContent);
             try {
                 Response<T> response = executeOneRequest(request, responseHandler,
                     errorResponseHandler, executionContext, awsRequestMetrics,
@@ -463,23 +954,7 @@ public class AmazonHttpClient {
                 if (response != null)
                     return response;
             } catch (IOException ioe) {
-                if (log.isInfoEnabled()) {
-                    log.info("Unable to execute HTTP request: " + ioe.getMessage(), ioe);
-                }
-                captureExceptionMetrics(ioe, awsRequestMetrics);
-                awsRequestMetrics.addProperty(AWSRequestID, null);
-                AmazonClientException ace = new AmazonClientException(
-                        "Unable to execute HTTP request: " + ioe.getMessage(),
-                        ioe);
-                if (!shouldRetry(request.getOriginalRequest(),
-                                p.apacheRequest,
-                                ace,
-                                p.requestCount,
-                                config.getRetryPolicy())) {
-                    throw lastReset(ace, request);
-                }
-                // Cache the retryable exception
-                p.retriedException = ace;
+                handleIOException(ioe, request, awsRequestMetrics, p);
             } catch(RuntimeException e) {
                 throw lastReset(
                         captureExceptionMetrics(e, awsRequestMetrics),
@@ -489,27 +964,97 @@ public class AmazonHttpClient {
                         captureExceptionMetrics(e, awsRequestMetrics),
                         request);
             } finally {
-                /*
-                 * Some response handlers need to manually manage the HTTP
-                 * connection and will take care of releasing the connection on
-                 * their own, but if this response handler doesn't need the
-                 * connection left open, we go ahead and release the it to free
-                 * up resources.
-                 */
-                if (!p.leaveHttpConnectionOpen) {
-                    if (p.apacheResponse != null) {
-                        HttpEntity entity = p.apacheResponse.getEntity();
-                        if (entity != null) {
-                            try {
-                                closeQuietly(entity.getContent(), log);
-                            } catch (IOException e) {
-                                log.warn("Cannot close the response content.", e);
-                            }
-                        }
+                closeResponseContent(p);
+            }
+        } /* end while (true) */
+    }
+
+    /**
+     * Points the request at the redirected or auth-retry endpoint, if any,
+     * and restores the original parameters, headers and content before a
+     * retry.
+     */
+    private void prepareForAttempt(final Request<?> request,
+            final AWSRequestMetrics awsRequestMetrics,
+            final ExecOneRequestParams p,
+            final Map<String, String> originalParameters,
+            final Map<String, String> originalHeaders,
+            final InputStream originalContent) {
+        if (p.redirectedURI != null) {
+            /*
+             * [scheme:][//authority][path][?query][#fragment]
+             */
+            String scheme = p.redirectedURI.getScheme();
+            String beforeAuthority = scheme == null ? "" : scheme + "://";
+            String authority = p.redirectedURI.getAuthority();
+            String path = p.redirectedURI.getPath();
+
+            request.setEndpoint(URI.create(beforeAuthority + authority));
+            request.setResourcePath(path);
+        }
+        if (p.authRetryParam != null) {
+            request.setEndpoint(p.authRetryParam.getEndpointForRetry());
+        }
+        awsRequestMetrics.setCounter(RequestCount, p.requestCount);
+        if (p.isRetry()) {
+            request.setParameters(originalParameters);
+            request.setHeaders(originalHeaders);
+            request.setContent(originalContent);
+        }
+    }
+
+    /**
+     * Handles an I/O failure of the current attempt, by either caching it as
+     * the retryable exception, or throwing it if the request should not be
+     * retried.
+     *
+     * @throws AmazonClientException
+     *             if the failed request should not be retried
+     */
+    private void handleIOException(IOException ioe, Request<?> request,
+            AWSRequestMetrics awsRequestMetrics, ExecOneRequestParams p) {
+        if (log.isInfoEnabled()) {
+            log.info("Unable to execute HTTP request: " + ioe.getMessage(), ioe);
+        }
+        captureExceptionMetrics(ioe, awsRequestMetrics);
+        awsRequestMetrics.addProperty(AWSRequestID, null);
+        EndpointHealth health = endpointHealth(p);
+        if (health != null)
+            health.onFailure();
+        AmazonClientException ace = new AmazonClientException(
+                "Unable to execute HTTP request: " + ioe.getMessage(),
+                ioe);
+        if (!shouldRetry(request.getOriginalRequest(),
+                        p.apacheRequest,
+                        ace,
+                        p.requestCount,
+                        config.getRetryPolicy())
+                || !isRetryWithinBudget(health, awsRequestMetrics)) {
+            throw lastReset(ace, request);
+        }
+        // Cache the retryable exception
+        p.retriedException = ace;
+    }
+
+    /**
+     * Some response handlers need to manually manage the HTTP connection and
+     * will take care of releasing the connection on their own, but if this
+     * response handler doesn't need the connection left open, we go ahead and
+     * release the it to free up resources.
+     */
+    private void closeResponseContent(ExecOneRequestParams p) {
+        if (!p.leaveHttpConnectionOpen) {
+            if (p.apacheResponse != null) {
+                HttpEntity entity = p.apacheResponse.getEntity();
+                if (entity != null) {
+                    try {
+                        closeQuietly(entity.getContent(), log);
+                    } catch (IOException e) {
+                        log.warn("Cannot close the response content.", e);
                     }
                 }
             }
-        } /* end while (true) */
+        }
     }
 
     /**
@@ -625,37 +1170,8 @@ public class AmazonHttpClient {
             final AWSRequestMetrics awsRequestMetrics,
             ExecOneRequestParams p)
             throws IOException {
-        // Reset the request input stream
-        if (p.isRetry()) {
-            InputStream requestInputStream = request.getContent();
-            if (requestInputStream != null) {
-                if (requestInputStream.markSupported()) {
-                    try {
-                        requestInputStream.reset();
-                    } catch(IOException ex) {
-                        throw new ResetException("Failed to reset the request input stream", ex);
-                    }
-                }
-            }
-        }
-        if (requestLog.isDebugEnabled())
-            requestLog.debug("Sending Request: " + request);
-        final AWSCredentials credentials = execContext.getCredentials();
-        final AmazonWebServiceRequest awsreq = request.getOriginalRequest();
-        // Sign the request if a signer was provided
-        p.newSigner(request, execContext);
-        if (p.signer != null && credentials != null) {
-            awsRequestMetrics.startEvent(RequestSigningTime);
-            try {
-                if (timeOffset != 0)
-                    request.setTimeOffset(timeOffset);
-                p.signer.sign(request, credentials);
-            } finally {
-                awsRequestMetrics.endEvent(RequestSigningTime);
-            }
-        }
-        p.newApacheRequest(httpRequestFactory, request, config, execContext);
-        final ProgressListener listener = awsreq.getGeneralProgressListener();
+        prepareOneRequest(request, execContext, awsRequestMetrics, p);
+        final ProgressListener listener = request.getOriginalRequest().getGeneralProgressListener();
 
         if (p.isRetry()) {
             publishProgress(listener, ProgressEventType.CLIENT_REQUEST_RETRY_EVENT);
@@ -673,6 +1189,8 @@ public class AmazonHttpClient {
                 awsRequestMetrics.endEvent(RetryPauseTime);
             }
         }
+        pauseForRateLimiter(awsRequestMetrics);
+        checkCircuitBreaker(awsRequestMetrics, p);
         captureConnectionPoolMetrics(httpClient.getConnectionManager(), awsRequestMetrics);
         HttpContext httpContext = new BasicHttpContext();
         httpContext.setAttribute(
@@ -687,10 +1205,75 @@ public class AmazonHttpClient {
             awsRequestMetrics.endEvent(HttpRequestTime);
         }
         publishProgress(listener, ProgressEventType.HTTP_REQUEST_COMPLETED_EVENT);
+        return handleOneResponse(request, responseHandler,
+                errorResponseHandler, execContext, awsRequestMetrics, p);
+    }
+
+    /**
+     * Resets the request content before a retry, signs the request, and
+     * creates the Apache HTTP request for the next attempt.
+     *
+     * @throws FakeIOException thrown only during test simulation
+     */
+    private void prepareOneRequest(final Request<?> request,
+            final ExecutionContext execContext,
+            final AWSRequestMetrics awsRequestMetrics,
+            ExecOneRequestParams p) throws FakeIOException {
+        // Reset the request input stream
+        if (p.isRetry()) {
+            InputStream requestInputStream = request.getContent();
+            if (requestInputStream != null) {
+                if (requestInputStream.markSupported()) {
+                    try {
+                        requestInputStream.reset();
+                    } catch(IOException ex) {
+                        throw new ResetException("Failed to reset the request input stream", ex);
+                    }
+                }
+            }
+        }
+        if (requestLog.isDebugEnabled())
+            requestLog.debug("Sending Request: " + request);
+        final AWSCredentials credentials = execContext.getCredentials();
+        // Sign the request if a signer was provided
+        p.newSigner(request, execContext);
+        if (p.signer != null && credentials != null) {
+            awsRequestMetrics.startEvent(RequestSigningTime);
+            try {
+                if (timeOffset != 0)
+                    request.setTimeOffset(timeOffset);
+                p.signer.sign(request, credentials);
+            } finally {
+                awsRequestMetrics.endEvent(RequestSigningTime);
+            }
+        }
+        p.newApacheRequest(httpRequestFactory, request, config, execContext);
+    }
+
+    /**
+     * Handles the HTTP response received for one attempt, returning the
+     * unmarshalled response; or null for retry.
+     *
+     * @throws AmazonServiceException
+     *             if an error response was received that should not be
+     *             retried
+     */
+    private <T> Response<T> handleOneResponse(final Request<?> request,
+            final HttpResponseHandler<AmazonWebServiceResponse<T>> responseHandler,
+            final HttpResponseHandler<AmazonServiceException> errorResponseHandler,
+            final ExecutionContext execContext,
+            final AWSRequestMetrics awsRequestMetrics,
+            ExecOneRequestParams p)
+            throws IOException {
         final StatusLine statusLine = p.apacheResponse.getStatusLine();
         final int statusCode = statusLine == null ? -1 : statusLine.getStatusCode();
         if (isRequestSuccessful(p.apacheResponse)) {
             awsRequestMetrics.addProperty(StatusCode, statusCode);
+            if (rateLimiter != null)
+                rateLimiter.onSuccess();
+            EndpointHealth health = endpointHealth(p);
+            if (health != null)
+                health.onSuccess();
             /*
              * If we get back any 2xx status code, then we know we should
              * treat the service call as successful.
@@ -728,6 +1311,15 @@ public class AmazonHttpClient {
             .addPropertyWith(AWSRequestID, ase.getRequestId())
             .addPropertyWith(AWSErrorCode, ase.getErrorCode())
             .addPropertyWith(StatusCode, ase.getStatusCode());
+        if (rateLimiter != null)
+            rateLimiter.onResponse(ase);
+        EndpointHealth health = endpointHealth(p);
+        if (health != null) {
+            if (isEndpointFailure(ase))
+                health.onFailure();
+            else
+                health.onSuccess();
+        }
         // Check whether we should internally retry the auth error
         p.authRetryParam = null;
         AuthErrorRetryStrategy authRetry = execContext.getAuthErrorRetryStrategy();
@@ -735,11 +1327,12 @@ public class AmazonHttpClient {
             p.authRetryParam = authRetry.shouldRetryWithAuthParam(request, ase);
         }
         if (p.authRetryParam == null &&
-            !shouldRetry(request.getOriginalRequest(),
+            (!shouldRetry(request.getOriginalRequest(),
                 p.apacheRequest,
                 ase,
                 p.requestCount,
-                config.getRetryPolicy())) {
+                config.getRetryPolicy())
+             || !isRetryWithinBudget(health, awsRequestMetrics))) {
             throw ase;
         }
         // Comment out for now. Ref: CR2662349
@@ -771,7 +1364,16 @@ public class AmazonHttpClient {
         if (awsRequestMetrics.isEnabled()
                 && connectionManager instanceof ConnPoolControl) {
             ConnPoolControl<?> control = (ConnPoolControl<?>) connectionManager;
-            PoolStats stats = control.getTotalStats();
+            captureConnectionPoolMetrics(control.getTotalStats(), awsRequestMetrics);
+        }
+    }
+
+    /**
+     * Captures the given connection pool statistics.
+     */
+    private void captureConnectionPoolMetrics(PoolStats stats,
+            AWSRequestMetrics awsRequestMetrics) {
+        if (awsRequestMetrics.isEnabled()) {
             awsRequestMetrics
                 .withCounter(HttpClientPoolAvailableCount, stats.getAvailable())
                 .withCounter(HttpClientPoolLeasedCount, stats.getLeased())
@@ -831,6 +1433,36 @@ public class AmazonHttpClient {
         }
     }
 
+    /**
+     * Opens up to the given number of connections to the given endpoint, and
+     * keeps them in the connection pool so that the next requests to the
+     * endpoint don't pay for the TCP and TLS handshakes. Connections already
+     * open in the pool count towards the given number, which is capped at the
+     * maximum number of connections of the client configuration. Like any
+     * other pooled connection, the connections are closed once idle for
+     * longer than the connection pool allows.
+     * <p>
+     * Only the connection pool of the blocking transport is warmed up.
+     * Connections tunnelled through a proxy are not warmed up.
+     *
+     * @param endpoint
+     *            the endpoint to open the connections to, eg
+     *            https://dynamodb.us-east-1.amazonaws.com
+     * @param count
+     *            the number of connections to open
+     *
+     * @return the number of connections to the endpoint open in the pool
+     */
+    public int warmUpConnections(URI endpoint, int count) {
+        if (count <= 0 || !(httpClient instanceof AbstractHttpClient))
+            return 0;
+        HttpHost target = new HttpHost(endpoint.getHost(), endpoint.getPort(),
+                endpoint.getScheme());
+        return ConnectionManagerFactory.warmUp((AbstractHttpClient) httpClient,
+                target, Math.min(count, config.getMaxConnections()),
+                config.getConnectionTimeout(), config.getConnectionTTL());
+    }
+
     /**
      * Shuts down this HTTP client object, releasing any resources that might be
      * held open. This is an optional method, and callers are not expected to
@@ -840,6 +1472,64 @@ public class AmazonHttpClient {
     public void shutdown() {
         IdleConnectionReaper.removeConnectionManager(httpClient.getConnectionManager());
         httpClient.getConnectionManager().shutdown();
+        if (httpAsyncTransport != null) {
+            httpAsyncTransport.shutdown();
+        }
+        if (endpointHealthRegistry != null) {
+            endpointHealthRegistry.shutdown();
+        }
+    }
+
+    /**
+     * Returns the health of the endpoint the current attempt is sent to; or
+     * null if neither the retry budget nor the circuit breaker is enabled, or
+     * the attempt has not been created.
+     */
+    private EndpointHealth endpointHealth(ExecOneRequestParams p) {
+        if (endpointHealthRegistry == null || p.apacheRequest == null)
+            return null;
+        return endpointHealthRegistry.get(p.apacheRequest.getURI());
+    }
+
+    /**
+     * Fails the current attempt fast if the circuit breaker of its endpoint
+     * is open.
+     *
+     * @throws AmazonClientException
+     *             if the circuit breaker is open
+     */
+    private void checkCircuitBreaker(AWSRequestMetrics awsRequestMetrics,
+            ExecOneRequestParams p) {
+        EndpointHealth health = endpointHealth(p);
+        if (health != null && !health.allowRequest()) {
+            awsRequestMetrics.incrementCounter(CircuitBreakerOpen);
+            throw new AmazonClientException("Unable to execute HTTP request: "
+                    + "the circuit breaker for " + health.getEndpoint()
+                    + " is open following too many failed requests");
+        }
+    }
+
+    /**
+     * Returns true if the retry budget of the endpoint, if any, permits
+     * another retry; in which case the retry is accounted for.
+     */
+    private boolean isRetryWithinBudget(EndpointHealth health,
+            AWSRequestMetrics awsRequestMetrics) {
+        if (health == null || health.allowRetry())
+            return true;
+        awsRequestMetrics.incrementCounter(RetryBudgetExceeded);
+        if (log.isDebugEnabled())
+            log.debug("Retry budget exhausted for " + health.getEndpoint());
+        return false;
+    }
+
+    /**
+     * Returns true if the given error indicates the endpoint itself is
+     * struggling, as opposed to a problem with the request.
+     */
+    private static boolean isEndpointFailure(AmazonServiceException ase) {
+        return ase.getStatusCode() >= 500
+                || RetryUtils.isThrottlingException(ase);
     }
 
     /**
@@ -955,18 +1645,22 @@ public class AmazonHttpClient {
                 httpResponse.setContent(
                     ProgressInputStream.inputStreamForResponse(is, awsreq));
             }
+            AWSRequestMetrics awsRequestMetrics = executionContext.getAwsRequestMetrics();
             Map<String,String> headers = httpResponse.getHeaders();
             String s = headers.get("Content-Length");
             if (s != null) {
                 try {
                     long contentLength = Long.parseLong(s);
                     publishResponseContentLength(listener, contentLength);
+                    if (request.getHttpMethod() != HttpMethodName.HEAD) {
+                        // the length of a HEAD response is that of the entity
+                        awsRequestMetrics.setCounter(ResponseContentLength, contentLength);
+                    }
                 } catch (NumberFormatException e) {
                     log.warn("Cannot parse the Content-Length header of the response.");
                 }
             }
 
-            AWSRequestMetrics awsRequestMetrics = executionContext.getAwsRequestMetrics();
             AmazonWebServiceResponse<? extends T> awsResponse;
             awsRequestMetrics.startEvent(Field.ResponseProcessingTime);
             publishProgress(listener, ProgressEventType.HTTP_RESPONSE_STARTED_EVENT);
@@ -985,7 +1679,9 @@ public class AmazonHttpClient {
                 throw new RuntimeException("Unable to unmarshall response metadata. Response Code: " +
                         httpResponse.getStatusCode() + ", Response Text: " + httpResponse.getStatusText());
 
-            responseMetadataCache.add(request.getOriginalRequest(), awsResponse.getResponseMetadata());
+            if (responseMetadataCache != null) {
+                responseMetadataCache.add(request.getOriginalRequest(), awsResponse.getResponseMetadata());
+            }
 
             if (requestLog.isDebugEnabled()) {
                 final StatusLine statusLine = apacheHttpResponse.getStatusLine();
@@ -1127,6 +1823,47 @@ public class AmazonHttpClient {
                                     AmazonClientException previousException,
                                     int requestCount,
                                     RetryPolicy retryPolicy) {
+        long delay = delayBeforeNextRetry(originalRequest, previousException,
+                requestCount, retryPolicy);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Waits until the adaptive rate limiter, if enabled, permits the next
+     * attempt to be sent.
+     */
+    private void pauseForRateLimiter(AWSRequestMetrics awsRequestMetrics) {
+        if (rateLimiter == null)
+            return;
+        awsRequestMetrics.startEvent(RateLimitPauseTime);
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmazonClientException(e.getMessage(), e);
+        } finally {
+            awsRequestMetrics.endEvent(RateLimitPauseTime);
+        }
+        awsRequestMetrics.addProperty(RateLimit, rateLimiter.getRate());
+    }
+
+    /**
+     * Returns the delay in milliseconds to wait for on a failed request
+     * before the next attempt, as determined by the back-off strategy of the
+     * retry policy.
+     *
+     * @param requestCount
+     *            current request count (including the next attempt after the delay)
+     */
+    private long delayBeforeNextRetry(AmazonWebServiceRequest originalRequest,
+                                      AmazonClientException previousException,
+                                      int requestCount,
+                                      RetryPolicy retryPolicy) {
         final int retries = requestCount // including next attempt
                             - 1          // number of attempted requests
                             - 1;         // number of attempted retries
@@ -1138,13 +1875,7 @@ public class AmazonHttpClient {
             log.debug("Retriable error detected, " +
                     "will retry in " + delay + "ms, attempt number: " + retries);
         }
-
-        try {
-            Thread.sleep(delay);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new AmazonClientException(e.getMessage(), e);
-        }
+        return delay;
     }
 
     // SWF: Signature not yet current: 20140819T173921Z is still later than 20140819T173829Z (20140819T173329Z + 5 min.)
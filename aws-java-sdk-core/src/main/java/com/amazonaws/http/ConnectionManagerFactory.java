@@ -14,26 +14,182 @@
  */
 package com.amazonaws.http;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.AbstractHttpClient;
 import org.apache.http.impl.conn.PoolingClientConnectionManager;
 import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.message.BasicHttpRequest;
 import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.BasicHttpContext;
 
+import com.amazonaws.AmazonClientException;
 import com.amazonaws.ClientConfiguration;
 
 /** Responsible for creating and configuring instances of Apache HttpClient4's Connection Manager. */
 class ConnectionManagerFactory {
+    private static final Log log = LogFactory.getLog(ConnectionManagerFactory.class);
+
+    /** Maximum number of connections opened concurrently during a warm-up. */
+    private static final int MAX_WARM_UP_THREADS = 8;
 
     public static PoolingClientConnectionManager createPoolingClientConnManager( ClientConfiguration config, HttpParams httpClientParams ) {
-        PoolingClientConnectionManager connectionManager = new PoolingClientConnectionManager(
+        PoolingClientConnectionManager connectionManager = new SdkPoolingClientConnectionManager(
                 SchemeRegistryFactory.createDefault(),
-                config.getConnectionTTL(), TimeUnit.MILLISECONDS);
+                config.getConnectionTTL(), TimeUnit.MILLISECONDS,
+                config.getValidateAfterInactivityMillis());
         connectionManager.setDefaultMaxPerRoute(config.getMaxConnections());
         connectionManager.setMaxTotal(config.getMaxConnections());
         if (config.useReaper()) {
-            IdleConnectionReaper.registerConnectionManager(connectionManager);
+            IdleConnectionReaper.registerConnectionManager(connectionManager,
+                    config.getConnectionMaxIdleMillis());
         }
         return connectionManager;
     }
-}
\ No newline at end of file
+
+    /**
+     * Opens up to the given number of connections to the given target in the
+     * connection pool of the given client, completing the TLS handshake of
+     * secure connections, and releases them to the pool to be reused by
+     * subsequent requests. Connections already open in the pool are counted
+     * towards the given number.
+     * <p>
+     * The first connection is opened on its own, so that the other
+     * connections can resume its TLS session with an abbreviated handshake
+     * rather than each negotiating a session of their own; they are then
+     * opened concurrently.
+     *
+     * @param httpClient
+     *            the client whose connection pool is warmed up
+     * @param target
+     *            the host the connections are opened to
+     * @param count
+     *            the number of connections to open
+     * @param timeout
+     *            the maximum number of milliseconds to wait for a connection
+     *            to be leased from the pool
+     * @param keepAlive
+     *            the number of milliseconds the connections may be kept idle
+     *            in the pool; or a non-positive value for indefinitely
+     *
+     * @return the number of connections to the target open in the pool
+     */
+    static int warmUp(AbstractHttpClient httpClient, HttpHost target,
+            int count, long timeout, long keepAlive) {
+        final HttpRoute route;
+        try {
+            route = httpClient.getRoutePlanner().determineRoute(target,
+                    new BasicHttpRequest("HEAD", "/"), new BasicHttpContext());
+        } catch (HttpException e) {
+            throw new AmazonClientException("Unable to determine the route to " + target, e);
+        }
+        if (route.isTunnelled()) {
+            log.debug("Connections tunnelled through a proxy are not warmed up: " + route);
+            return 0;
+        }
+        final HttpParams params = httpClient.getParams();
+        ClientConnectionManager connectionManager = httpClient.getConnectionManager();
+        List<ManagedClientConnection> connections = new ArrayList<ManagedClientConnection>(count);
+        ExecutorService executor = null;
+        try {
+            for (int i = 0; i < count; i++) {
+                connections.add(connectionManager.requestConnection(route, null)
+                        .getConnection(timeout, TimeUnit.MILLISECONDS));
+            }
+        } catch (ConnectionPoolTimeoutException e) {
+            log.debug("Connection pool exhausted after leasing " + connections.size()
+                    + " connections to warm up", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            List<ManagedClientConnection> closed = new ArrayList<ManagedClientConnection>();
+            for (ManagedClientConnection connection : connections) {
+                if (!connection.isOpen())
+                    closed.add(connection);
+            }
+            if (!closed.isEmpty() && open(closed.get(0), route, params)
+                    && closed.size() > 1) {
+                executor = Executors.newFixedThreadPool(
+                        Math.min(closed.size() - 1, MAX_WARM_UP_THREADS),
+                        new WarmUpThreadFactory());
+                List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+                for (final ManagedClientConnection connection
+                        : closed.subList(1, closed.size())) {
+                    futures.add(executor.submit(new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() {
+                            return open(connection, route, params);
+                        }
+                    }));
+                }
+                for (Future<Boolean> future : futures)
+                    future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.debug("Unable to warm up a connection to " + target, e.getCause());
+        } finally {
+            if (executor != null)
+                executor.shutdownNow();
+        }
+        int open = 0;
+        for (ManagedClientConnection connection : connections) {
+            if (connection.isOpen()) {
+                open++;
+                connection.markReusable();
+                connectionManager.releaseConnection(connection,
+                        keepAlive, TimeUnit.MILLISECONDS);
+            } else {
+                connectionManager.releaseConnection(connection, 0, TimeUnit.MILLISECONDS);
+            }
+        }
+        return open;
+    }
+
+    /**
+     * Opens the given connection, returning false if it could not be opened.
+     */
+    private static boolean open(ManagedClientConnection connection,
+            HttpRoute route, HttpParams params) {
+        try {
+            connection.open(route, new BasicHttpContext(), params);
+            return true;
+        } catch (IOException e) {
+            log.debug("Unable to warm up a connection to " + route.getTargetHost(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Names the threads opening connections during a warm-up.
+     */
+    private static final class WarmUpThreadFactory implements ThreadFactory {
+        private int threadCount;
+
+        @Override
+        public synchronized Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "java-sdk-connection-warm-up-" + ++threadCount);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
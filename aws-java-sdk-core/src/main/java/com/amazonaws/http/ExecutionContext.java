@@ -20,12 +20,16 @@ import java.util.List;
 import org.apache.http.annotation.NotThreadSafe;
 
 import com.amazonaws.AmazonWebServiceClient;
+import com.amazonaws.AmazonWebServiceRequest;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.Signer;
 import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.metrics.AwsSdkMetrics;
+import com.amazonaws.metrics.RequestHistograms;
 import com.amazonaws.retry.internal.AuthErrorRetryStrategy;
 import com.amazonaws.util.AWSRequestMetrics;
 import com.amazonaws.util.AWSRequestMetricsFullSupport;
+import com.amazonaws.util.AWSRequestMetricsHistogramSupport;
 
 @NotThreadSafe
 public class ExecutionContext {
@@ -53,13 +57,40 @@ public class ExecutionContext {
     public ExecutionContext(List<RequestHandler2> requestHandler2s,
                             boolean isMetricEnabled,
                             AmazonWebServiceClient awsClient) {
+        this(requestHandler2s, isMetricEnabled, awsClient, null);
+    }
+
+    /**
+     * @param originalRequest
+     *            the request being executed, which identifies the operation
+     *            in histogram metrics; or null if unknown.
+     */
+    public ExecutionContext(List<RequestHandler2> requestHandler2s,
+                            boolean isMetricEnabled,
+                            AmazonWebServiceClient awsClient,
+                            AmazonWebServiceRequest originalRequest) {
         this.requestHandler2s = requestHandler2s;
         awsRequestMetrics = isMetricEnabled
                           ? new AWSRequestMetricsFullSupport()
-                          : new AWSRequestMetrics();
+                          : newMinimalRequestMetrics(originalRequest);
         this.awsClient = awsClient;
     }
 
+    /**
+     * Returns the request metrics to use when request metric collection is
+     * not required, which record into the histogram metrics if enabled.
+     */
+    private static AWSRequestMetrics newMinimalRequestMetrics(
+            AmazonWebServiceRequest originalRequest) {
+        RequestHistograms histograms = AwsSdkMetrics.getRequestHistograms();
+        if (histograms == null)
+            return new AWSRequestMetrics();
+        return new AWSRequestMetricsHistogramSupport(histograms,
+                originalRequest == null
+                        ? AmazonWebServiceRequest.class
+                        : originalRequest.getClass());
+    }
+
     public String getContextUserAgent() {
         return contextUserAgent;
     }
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http;
+
+import static com.amazonaws.SDKGlobalConfiguration.DISABLE_CERT_CHECKING_SYSTEM_PROPERTY;
+
+import java.io.IOException;
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.ProtocolException;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.NTCredentials;
+import org.apache.http.client.RedirectStrategy;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.conn.NoopIOSessionStrategy;
+import org.apache.http.nio.conn.SchemeIOSessionStrategy;
+import org.apache.http.nio.conn.ssl.SSLIOSessionStrategy;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.ClientConfiguration;
+
+/**
+ * Responsible for creating and configuring the non-blocking transport used by
+ * {@link AmazonHttpClient}, on top of Apache HttpAsyncClient.
+ * <p>
+ * This class, and the nested transport implementation, are the only places
+ * referencing the optional HttpAsyncClient library.
+ */
+class HttpAsyncClientFactory {
+
+    /**
+     * Creates a new non-blocking transport using the specified AWS
+     * ClientConfiguration to configure the underlying HttpAsyncClient, and
+     * starts its I/O reactor.
+     *
+     * @param config
+     *            Client configuration options (ex: proxy settings, connection
+     *            limits, etc).
+     *
+     * @return The new, started transport.
+     */
+    public HttpAsyncTransport createHttpAsyncTransport(ClientConfiguration config) {
+        int socketSendBufferSizeHint = config.getSocketBufferSizeHints()[0];
+        int socketReceiveBufferSizeHint = config.getSocketBufferSizeHints()[1];
+        IOReactorConfig.Builder ioReactorConfig = IOReactorConfig.custom()
+                .setConnectTimeout(config.getConnectionTimeout())
+                .setSoTimeout(config.getSocketTimeout())
+                .setTcpNoDelay(true)
+                .setSoKeepAlive(config.useTcpKeepAlive());
+        if (socketSendBufferSizeHint > 0) {
+            ioReactorConfig.setSndBufSize(socketSendBufferSizeHint);
+        }
+        if (socketReceiveBufferSizeHint > 0) {
+            ioReactorConfig.setRcvBufSize(socketReceiveBufferSizeHint);
+        }
+
+        PoolingNHttpClientConnectionManager connectionManager;
+        try {
+            DefaultConnectingIOReactor ioReactor = new DefaultConnectingIOReactor(
+                    ioReactorConfig.build(), new IOThreadFactory());
+            connectionManager = new PoolingNHttpClientConnectionManager(
+                    ioReactor, createSessionStrategyRegistry(config));
+        } catch (IOReactorException e) {
+            throw new AmazonClientException("Unable to create the I/O reactor of the non-blocking transport", e);
+        }
+        connectionManager.setDefaultMaxPerRoute(config.getMaxConnections());
+        connectionManager.setMaxTotal(config.getMaxConnections());
+
+        RequestConfig.Builder requestConfig = RequestConfig.custom()
+                .setConnectTimeout(config.getConnectionTimeout())
+                .setSocketTimeout(config.getSocketTimeout())
+                .setLocalAddress(config.getLocalAddress())
+                .setRedirectsEnabled(false);
+
+        HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setRedirectStrategy(new NeverFollowRedirectStrategy());
+
+        /* Set proxy if configured */
+        String proxyHost = config.getProxyHost();
+        int proxyPort = config.getProxyPort();
+        if (proxyHost != null && proxyPort > 0) {
+            AmazonHttpClient.log.info("Configuring Proxy. Proxy Host: " + proxyHost + " " + "Proxy Port: " + proxyPort);
+            HttpHost proxyHttpHost = new HttpHost(proxyHost, proxyPort);
+            requestConfig.setProxy(proxyHttpHost);
+
+            String proxyUsername = config.getProxyUsername();
+            String proxyPassword = config.getProxyPassword();
+            if (proxyUsername != null && proxyPassword != null) {
+                BasicCredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+                credentialsProvider.setCredentials(
+                        new AuthScope(proxyHost, proxyPort),
+                        new NTCredentials(proxyUsername, proxyPassword,
+                                config.getProxyWorkstation(), config.getProxyDomain()));
+                builder.setDefaultCredentialsProvider(credentialsProvider);
+            }
+        }
+        builder.setDefaultRequestConfig(requestConfig.build());
+
+        /* Accept Gzip response if configured */
+        if (config.useGzip()) {
+            builder.addInterceptorLast(new HttpRequestInterceptor() {
+                public void process(final HttpRequest request,
+                        final HttpContext context) throws HttpException,
+                        IOException {
+                    if (!request.containsHeader("Accept-Encoding")) {
+                        request.addHeader("Accept-Encoding", "gzip");
+                    }
+                }
+            });
+            builder.addInterceptorLast(new HttpResponseInterceptor() {
+                public void process(final HttpResponse response,
+                        final HttpContext context) throws HttpException,
+                        IOException {
+                    HttpEntity entity = response.getEntity();
+                    if (entity != null) {
+                        Header ceheader = entity.getContentEncoding();
+                        if (ceheader != null) {
+                            for (HeaderElement codec : ceheader.getElements()) {
+                                if (codec.getName().equalsIgnoreCase("gzip")) {
+                                    response.setEntity(new GzipDecompressingEntity(entity));
+                                    return;
+                                }
+                            }
+                        }
+                    }
+                }
+            });
+        }
+
+        CloseableHttpAsyncClient httpAsyncClient = builder.build();
+        httpAsyncClient.start();
+        return new ApacheHttpAsyncTransport(httpAsyncClient, connectionManager);
+    }
+
+    /**
+     * Returns the I/O session strategies for the http and https schemes,
+     * honoring the system property to disable SSL certificate checking.
+     */
+    private Registry<SchemeIOSessionStrategy> createSessionStrategyRegistry(ClientConfiguration config) {
+        SSLIOSessionStrategy https;
+        try {
+            if (System.getProperty(DISABLE_CERT_CHECKING_SYSTEM_PROPERTY) != null) {
+                SSLContext context = SSLContext.getInstance("TLS");
+                context.init(null, new TrustManager[] { new TrustingX509TrustManager() }, null);
+                https = new SSLIOSessionStrategy(context,
+                        SSLIOSessionStrategy.ALLOW_ALL_HOSTNAME_VERIFIER);
+            } else {
+                https = new SSLIOSessionStrategy(SSLContext.getDefault(),
+                        SSLIOSessionStrategy.STRICT_HOSTNAME_VERIFIER);
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new AmazonClientException("Unable to access default SSL context", e);
+        } catch (KeyManagementException e) {
+            throw new AmazonClientException("Unable to initialize SSL context", e);
+        }
+        return RegistryBuilder.<SchemeIOSessionStrategy>create()
+                .register("http", NoopIOSessionStrategy.INSTANCE)
+                .register("https", https)
+                .build();
+    }
+
+    /**
+     * Non-blocking transport backed by an Apache HttpAsyncClient, which
+     * buffers each response in memory before handing it to the callback.
+     */
+    private static final class ApacheHttpAsyncTransport implements HttpAsyncTransport {
+        private final CloseableHttpAsyncClient httpAsyncClient;
+        private final PoolingNHttpClientConnectionManager connectionManager;
+
+        ApacheHttpAsyncTransport(CloseableHttpAsyncClient httpAsyncClient,
+                PoolingNHttpClientConnectionManager connectionManager) {
+            this.httpAsyncClient = httpAsyncClient;
+            this.connectionManager = connectionManager;
+        }
+
+        @Override
+        public Future<HttpResponse> execute(HttpUriRequest request,
+                HttpContext context, FutureCallback<HttpResponse> callback) {
+            return httpAsyncClient.execute(request, context, callback);
+        }
+
+        @Override
+        public PoolStats getTotalStats() {
+            return connectionManager.getTotalStats();
+        }
+
+        @Override
+        public void shutdown() {
+            try {
+                httpAsyncClient.close();
+            } catch (IOException e) {
+                AmazonHttpClient.log.debug("Unable to shut down the non-blocking transport", e);
+            }
+        }
+    }
+
+    /**
+     * Disable http redirect inside Apache HttpAsyncClient.
+     */
+    private static final class NeverFollowRedirectStrategy implements RedirectStrategy {
+
+        @Override
+        public boolean isRedirected(HttpRequest request, HttpResponse response,
+                HttpContext context) throws ProtocolException {
+            return false;
+        }
+
+        @Override
+        public HttpUriRequest getRedirect(HttpRequest request,
+                HttpResponse response, HttpContext context)
+                throws ProtocolException {
+            return null;
+        }
+    }
+
+    /**
+     * Names the I/O dispatch threads and makes them daemon threads, so that
+     * an unclosed client does not prevent the JVM from exiting.
+     */
+    private static final class IOThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r);
+            thread.setName("java-sdk-nio-dispatcher-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Simple implementation of X509TrustManager that trusts all certificates.
+     * This class is only intended to be used for testing purposes.
+     */
+    private static class TrustingX509TrustManager implements X509TrustManager {
+        private static final X509Certificate[] X509_CERTIFICATES = new X509Certificate[0];
+
+        public X509Certificate[] getAcceptedIssuers() {
+            return X509_CERTIFICATES;
+        }
+
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            // No-op, to trust all certs
+        }
+
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            // No-op, to trust all certs
+        }
+    }
+}
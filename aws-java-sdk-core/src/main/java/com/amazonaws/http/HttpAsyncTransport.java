@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http;
+
+import java.util.concurrent.Future;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * A non-blocking HTTP transport used by {@link AmazonHttpClient} to send
+ * requests without tying up a thread while the request is in flight.
+ * <p>
+ * Only types from the mandatory Apache HttpCore/HttpClient dependencies are
+ * referenced here, so that {@link AmazonHttpClient} can be loaded even when
+ * the optional library the implementation is built on is not available.
+ */
+interface HttpAsyncTransport {
+
+    /**
+     * Sends the given request, and notifies the given callback once the
+     * response has been received in full, or the request failed. The callback
+     * is invoked on one of the transport's I/O threads, so it must not block.
+     *
+     * @return a future which aborts the request, and releases its connection,
+     *         when cancelled; the callback is then notified of the
+     *         cancellation.
+     */
+    Future<HttpResponse> execute(HttpUriRequest request, HttpContext context,
+            FutureCallback<HttpResponse> callback);
+
+    /** Returns the statistics of the transport's connection pool. */
+    PoolStats getTotalStats();
+
+    /**
+     * Shuts down the transport, releasing its I/O threads and connections.
+     */
+    void shutdown();
+}
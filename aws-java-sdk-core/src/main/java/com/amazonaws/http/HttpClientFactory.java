@@ -90,7 +90,8 @@ class HttpClientFactory {
         HttpParams httpClientParams = new BasicHttpParams();
         HttpConnectionParams.setConnectionTimeout(httpClientParams, config.getConnectionTimeout());
         HttpConnectionParams.setSoTimeout(httpClientParams, config.getSocketTimeout());
-        HttpConnectionParams.setStaleCheckingEnabled(httpClientParams, true);
+        // Idle connections are validated when leased from the pool instead
+        HttpConnectionParams.setStaleCheckingEnabled(httpClientParams, false);
         HttpConnectionParams.setTcpNoDelay(httpClientParams, true);
         HttpConnectionParams.setSoKeepalive(httpClientParams, config.useTcpKeepAlive());
 
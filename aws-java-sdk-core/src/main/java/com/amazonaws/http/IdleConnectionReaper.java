@@ -14,16 +14,25 @@
  */
 package com.amazonaws.http;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.conn.ClientConnectionManager;
 
+import com.amazonaws.ClientConfiguration;
+
 /**
- * Daemon thread to periodically check connection pools for idle connections.
+ * Closes the idle connections of connection pools once they have been idle
+ * for too long.
  * <p>
  * Connections sitting around idle in the HTTP connection pool for too long will
  * eventually be terminated by the AWS end of the connection, and will go into
@@ -32,54 +41,79 @@ import org.apache.http.conn.ClientConnectionManager;
  * in CLOSE_WAIT can prevent the OS from creating new connections.
  * <p>
  * This class closes idle connections before they can move into the CLOSE_WAIT
- * state.
+ * state. Rather than periodically sweeping every registered connection pool,
+ * the idle connections of each pool are closed when they are due: pools
+ * created by the SDK report each connection released to the pool, and the
+ * pool is scheduled to be swept once the keep-alive time of the connection,
+ * or the maximum idle time of the pool if shorter, has elapsed. Deadlines are
+ * rounded up to the second, so that connections released within the same
+ * second are closed by a single sweep. Other connection pools are swept
+ * periodically, every maximum idle time.
  * <p>
- * This thread is important because by default, we disable Apache HttpClient's
- * stale connection checking, so without this thread running in the background,
- * cleaning up old/inactive HTTP connections, we'd see more IO exceptions when
- * stale connections (i.e. closed on the AWS side) are left in the connection
- * pool, and requests grab one of them to begin executing a request.
+ * The sweeps of all pools are run by a small number of daemon threads, which
+ * are started when the first connection pool is registered, and stopped when
+ * the last one is removed.
  */
-public final class IdleConnectionReaper extends Thread {
+public final class IdleConnectionReaper {
 
-    /** The period between invocations of the idle connection reaper. */
-    private static final int PERIOD_MILLISECONDS = 1000 * 60 * 1;
+    /** The default maximum time connections may sit idle in a pool. */
+    private static final long DEFAULT_MAX_IDLE_MILLISECONDS =
+        ClientConfiguration.DEFAULT_CONNECTION_MAX_IDLE_MILLIS;
+
+    /** The resolution of the deadlines, which bounds the number of sweeps. */
+    private static final long RESOLUTION_MILLISECONDS = 1000;
+
+    /** The maximum number of threads sweeping connection pools. */
+    private static final int MAX_THREADS = 4;
 
     /**
-     * The list of registered connection managers, whose connections
-     * will be periodically checked and idle connections closed.
-     */
-    private static final ArrayList<ClientConnectionManager> connectionManagers = new ArrayList<ClientConnectionManager>();
-    /**
-     * Set to true when shutting down the reaper;  Once set to true, this
-     * flag is never set back to false.
+     * The registered connection managers, whose idle connections will be
+     * closed when due, and their evictors.
      */
-    private volatile boolean shuttingDown;
+    private static final Map<ClientConnectionManager, Evictor> evictors =
+        new ConcurrentHashMap<ClientConnectionManager, Evictor>();
 
-    /** Singleton instance of the connection reaper. */
-    private static IdleConnectionReaper instance;
+    /** The scheduler running the sweeps; or null if none is registered. */
+    private static ScheduledExecutorService scheduler;
 
     /** Shared log for any errors during connection reaping. */
     static final Log log = LogFactory.getLog(IdleConnectionReaper.class);
 
-    /** Private constructor - singleton pattern. */
-    private IdleConnectionReaper() {
-        super("java-sdk-http-connection-reaper");
-        setDaemon(true);
-    }
+    private IdleConnectionReaper() {}
 
     /**
-     * Registers the given connection manager with this reaper;
+     * Registers the given connection manager with this reaper, closing its
+     * connections once idle for more than 60 seconds.
      * 
      * @return true if the connection manager has been successfully registered;
      * false otherwise.
      */
-    public static synchronized boolean registerConnectionManager(ClientConnectionManager connectionManager) {
-        if (instance == null) {
-            instance = new IdleConnectionReaper();
-            instance.start();
-        }
-        return connectionManagers.add(connectionManager);
+    public static boolean registerConnectionManager(ClientConnectionManager connectionManager) {
+        return registerConnectionManager(connectionManager, DEFAULT_MAX_IDLE_MILLISECONDS);
+    }
+
+    /**
+     * Registers the given connection manager with this reaper, closing its
+     * connections once idle for more than the given time.
+     *
+     * @param maxIdleMillis
+     *            the maximum time in milliseconds connections may sit idle
+     *            in the pool
+     *
+     * @return true if the connection manager has been successfully registered;
+     * false otherwise.
+     */
+    public static synchronized boolean registerConnectionManager(
+            ClientConnectionManager connectionManager, long maxIdleMillis) {
+        if (evictors.containsKey(connectionManager))
+            return false;
+        if (scheduler == null)
+            scheduler = createScheduler();
+        Evictor evictor = new Evictor(connectionManager,
+                Math.max(maxIdleMillis, RESOLUTION_MILLISECONDS), scheduler);
+        evictors.put(connectionManager, evictor);
+        evictor.schedulePeriodic();
+        return true;
     }
 
     /**
@@ -90,68 +124,48 @@ public final class IdleConnectionReaper extends Thread {
      * false otherwise.
      */
     public static synchronized boolean removeConnectionManager(ClientConnectionManager connectionManager) {
-        boolean b = connectionManagers.remove(connectionManager);
-        if (connectionManagers.isEmpty())
+        Evictor evictor = evictors.remove(connectionManager);
+        if (evictor != null)
+            evictor.cancel();
+        if (evictors.isEmpty())
             shutdown();
-        return b;
-    }
-    
-    private void markShuttingDown() {
-        shuttingDown = true;
+        return evictor != null;
     }
 
-    @SuppressWarnings("unchecked")
-    @Override
-    public void run() {
-        while (true) {
-            if (shuttingDown) {
-                log.debug("Shutting down reaper thread.");
-                return;
-            }
-            try {
-                Thread.sleep(PERIOD_MILLISECONDS);
-
-                // Copy the list of managed ConnectionManagers to avoid possible
-                // ConcurrentModificationExceptions if registerConnectionManager or
-                // removeConnectionManager are called while we're iterating (rather
-                // than block/lock while this loop executes).
-                List<ClientConnectionManager> connectionManagers = null;
-                synchronized (IdleConnectionReaper.class) {
-                    connectionManagers = (List<ClientConnectionManager>)IdleConnectionReaper.connectionManagers.clone();
-                }
-                for (ClientConnectionManager connectionManager : connectionManagers) {
-                    // When we release connections, the connection manager leaves them
-                    // open so they can be reused.  We want to close out any idle
-                    // connections so that they don't sit around in CLOSE_WAIT.
-                    try {
-                        connectionManager.closeIdleConnections(60, TimeUnit.SECONDS);
-                    } catch (Exception t) {
-                        log.warn("Unable to close idle connections", t);
-                    }
-                }
-            } catch (Throwable t) {
-                log.debug("Reaper thread: ",  t);
-            }
-        }
+    /**
+     * Notifies this reaper that a connection of the given connection manager
+     * has been released to its pool, so that the pool is swept once the
+     * connection is due to be closed.
+     *
+     * @param keepAliveMillis
+     *            the time in milliseconds the connection may be kept alive;
+     *            or a non-positive value if not limited
+     */
+    static void connectionReleased(ClientConnectionManager connectionManager,
+            long keepAliveMillis) {
+        Evictor evictor = evictors.get(connectionManager);
+        if (evictor != null)
+            evictor.connectionReleased(keepAliveMillis);
     }
 
     /**
-     * Shuts down the thread, allowing the class and instance to be collected.
+     * Shuts down the threads sweeping the connection pools, and removes every
+     * registered connection manager, allowing the class to be collected.
      * <p>
-     * Since this is a daemon thread, its running will not prevent JVM shutdown.
-     * It will, however, prevent this class from being unloaded or garbage
-     * collected, in the context of a long-running application, until it is
-     * interrupted. This method will stop the thread's execution and clear its
-     * state. Any use of a service client will cause the thread to be restarted.
+     * Since the threads are daemon threads, their running will not prevent JVM
+     * shutdown. They will, however, prevent this class from being unloaded or
+     * garbage collected, in the context of a long-running application, until
+     * they are stopped. Any use of a service client will cause the threads to
+     * be restarted.
      * 
      * @return true if an actual shutdown has been made; false otherwise.
      */
     public static synchronized boolean shutdown() {
-        if ( instance != null ) {
-            instance.markShuttingDown();
-            instance.interrupt();
-            connectionManagers.clear();
-            instance = null;
+        if (scheduler != null) {
+            log.debug("Shutting down reaper threads.");
+            scheduler.shutdownNow();
+            scheduler = null;
+            evictors.clear();
             return true;
         }
         return false;
@@ -162,5 +176,112 @@ public final class IdleConnectionReaper extends Thread {
      * Returns the number of connection managers currently monitored by this
      * reaper.
      */
-    static synchronized int size() { return connectionManagers.size(); }
-}
\ No newline at end of file
+    static int size() { return evictors.size(); }
+
+    private static ScheduledExecutorService createScheduler() {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return new ScheduledThreadPoolExecutor(
+                Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()),
+                new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r,
+                                "java-sdk-http-connection-reaper-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+    }
+
+    /**
+     * Closes the idle connections of one connection pool when due.
+     */
+    private static final class Evictor implements Runnable {
+        private final ClientConnectionManager connectionManager;
+        private final long maxIdleMillis;
+        private final ScheduledExecutorService scheduler;
+        /** The times the idle connections of the pool are due to be closed. */
+        private final ConcurrentSkipListSet<Long> deadlines = new ConcurrentSkipListSet<Long>();
+        /** True once the pool reported a released connection. */
+        private volatile boolean reportsReleases;
+        private ScheduledFuture<?> sweep;
+        private long sweepTime;
+        private boolean cancelled;
+
+        Evictor(ClientConnectionManager connectionManager, long maxIdleMillis,
+                ScheduledExecutorService scheduler) {
+            this.connectionManager = connectionManager;
+            this.maxIdleMillis = maxIdleMillis;
+            this.scheduler = scheduler;
+        }
+
+        /**
+         * Schedules the next sweep of a pool which doesn't report released
+         * connections.
+         */
+        void schedulePeriodic() {
+            scheduleAt(System.currentTimeMillis() + maxIdleMillis);
+        }
+
+        void connectionReleased(long keepAliveMillis) {
+            reportsReleases = true;
+            long idleMillis = keepAliveMillis > 0
+                    ? Math.min(keepAliveMillis, maxIdleMillis)
+                    : maxIdleMillis;
+            long deadline = roundUp(System.currentTimeMillis() + idleMillis);
+            if (deadlines.add(deadline))
+                scheduleAt(deadline);
+        }
+
+        @Override
+        public void run() {
+            long now = System.currentTimeMillis();
+            synchronized (this) {
+                sweep = null;
+            }
+            try {
+                connectionManager.closeExpiredConnections();
+                connectionManager.closeIdleConnections(maxIdleMillis, TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                log.warn("Unable to close idle connections", e);
+            }
+            deadlines.headSet(now, true).clear();
+            if (!reportsReleases) {
+                schedulePeriodic();
+            } else if (!deadlines.isEmpty()) {
+                scheduleAt(deadlines.first());
+            }
+        }
+
+        /**
+         * Schedules a sweep at the given time, unless one is already
+         * scheduled at or before that time.
+         */
+        private synchronized void scheduleAt(long time) {
+            if (cancelled || (sweep != null && sweepTime <= time))
+                return;
+            if (sweep != null)
+                sweep.cancel(false);
+            sweepTime = time;
+            try {
+                sweep = scheduler.schedule(this,
+                        Math.max(0, time - System.currentTimeMillis()),
+                        TimeUnit.MILLISECONDS);
+            } catch (RuntimeException e) {
+                // the reaper has been shut down
+                sweep = null;
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (sweep != null)
+                sweep.cancel(false);
+        }
+
+        private static long roundUp(long time) {
+            return (time + RESOLUTION_MILLISECONDS - 1)
+                    / RESOLUTION_MILLISECONDS * RESOLUTION_MILLISECONDS;
+        }
+    }
+}
@@ -47,7 +47,15 @@ public class JsonResponseHandler<T> implements HttpResponseHandler<AmazonWebServ
     /** Shared logger for profiling information */
     private static final Log log = LogFactory.getLog("com.amazonaws.request");
 
-    private static JsonFactory jsonFactory = new JsonFactory();
+    /**
+     * Shared factory for creating JSON parsers. Parsers created by the same
+     * factory share its canonicalized field names, so that the field names
+     * of the responses are not copied into new strings, and recycle their
+     * buffers per thread.
+     */
+    private static final JsonFactory jsonFactory = new JsonFactory()
+            .enable(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES)
+            .enable(JsonFactory.Feature.INTERN_FIELD_NAMES);
 
     public boolean needsConnectionLeftOpen = false;
 
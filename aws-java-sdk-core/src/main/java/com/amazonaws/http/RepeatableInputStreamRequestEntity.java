@@ -24,6 +24,7 @@ import org.apache.http.entity.BasicHttpEntity;
 import org.apache.http.entity.InputStreamEntity;
 
 import com.amazonaws.Request;
+import com.amazonaws.internal.TransferableContent;
 import com.amazonaws.metrics.MetricInputStreamEntity;
 import com.amazonaws.metrics.ServiceMetricType;
 import com.amazonaws.metrics.ThroughputMetricType;
@@ -142,6 +143,11 @@ class RepeatableInputStreamRequestEntity extends BasicHttpEntity {
      * cause if we continue to encounter errors, rather than masking the
      * original error.
      *
+     * <p>
+     * Content which is transferable is written out directly in large chunks,
+     * rather than being copied out through the input stream in small
+     * increments.
+     *
      * @see org.apache.commons.httpclient.methods.RequestEntity#writeRequest(java.io.OutputStream)
      */
     @Override
@@ -150,11 +156,43 @@ class RepeatableInputStreamRequestEntity extends BasicHttpEntity {
             if (!firstAttempt && isRepeatable()) content.reset();
 
             firstAttempt = false;
-            inputStreamRequestEntity.writeTo(output);
+            if (isTransferable()) {
+                transferTo(output);
+            } else {
+                inputStreamRequestEntity.writeTo(output);
+            }
         } catch (IOException ioe) {
             if (originalException == null) originalException = ioe;
             throw originalException;
         }
     }
 
+    /**
+     * Returns true if the content can be written out directly; false if it
+     * needs to be copied out through the input stream, including when the
+     * bytes written out are counted for throughput metrics.
+     */
+    private boolean isTransferable() {
+        return content instanceof TransferableContent
+            && ((TransferableContent) content).isTransferable()
+            && !(inputStreamRequestEntity instanceof MetricInputStreamEntity);
+    }
+
+    /**
+     * Writes out the content, up to the content length if known, the same
+     * way as {@link InputStreamEntity#writeTo(OutputStream)} would.
+     */
+    private void transferTo(OutputStream output) throws IOException {
+        TransferableContent transferable = (TransferableContent) content;
+        long remaining = getContentLength();
+        while (remaining != 0) {
+            int n = transferable.transferTo(output,
+                    remaining < 0 ? Long.MAX_VALUE : remaining);
+            if (n == -1)
+                break;
+            if (remaining > 0)
+                remaining -= n;
+        }
+        output.flush();
+    }
 }
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.http;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.annotation.ThreadSafe;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+
+/**
+ * Connection pool which reports the connections released to the pool to the
+ * {@link IdleConnectionReaper}, so that they are closed once idle for too
+ * long, and which validates connections leased from the pool only when they
+ * have been idle for some time.
+ * <p>
+ * Checking whether a connection is stale costs a blocking read with a short
+ * timeout; checking every connection on each request, as done by
+ * HttpClient's stale connection check, adds this cost to every request. A
+ * connection released recently is unlikely to have been closed by the
+ * server, so only those idle for longer than a given time are checked.
+ */
+@ThreadSafe
+class SdkPoolingClientConnectionManager extends PoolingClientConnectionManager {
+    private static final Log log = LogFactory.getLog(SdkPoolingClientConnectionManager.class);
+
+    /**
+     * The times connections were last released to the pool, by their socket;
+     * the socket of a connection is the same for as long as it stays open.
+     */
+    private final Map<Socket, Long> releaseTimes =
+            Collections.synchronizedMap(new WeakHashMap<Socket, Long>());
+
+    private final int validateAfterInactivityMillis;
+
+    /**
+     * @param validateAfterInactivityMillis
+     *            the time in milliseconds after which idle connections are
+     *            validated before being leased; 0 to validate connections on
+     *            every lease, or a negative value to never validate them
+     */
+    SdkPoolingClientConnectionManager(SchemeRegistry schemeRegistry,
+            long timeToLive, TimeUnit timeUnit, int validateAfterInactivityMillis) {
+        super(schemeRegistry, timeToLive, timeUnit);
+        this.validateAfterInactivityMillis = validateAfterInactivityMillis;
+    }
+
+    @Override
+    public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+        final ClientConnectionRequest request = super.requestConnection(route, state);
+        if (validateAfterInactivityMillis < 0)
+            return request;
+        return new ClientConnectionRequest() {
+            @Override
+            public ManagedClientConnection getConnection(long timeout, TimeUnit tunit)
+                    throws InterruptedException, ConnectionPoolTimeoutException {
+                ManagedClientConnection conn = request.getConnection(timeout, tunit);
+                validate(conn);
+                return conn;
+            }
+
+            @Override
+            public void abortRequest() {
+                request.abortRequest();
+            }
+        };
+    }
+
+    @Override
+    public void releaseConnection(ManagedClientConnection conn,
+            long keepalive, TimeUnit tunit) {
+        boolean pooled = false;
+        try {
+            if (conn.isOpen() && conn.isMarkedReusable()) {
+                releaseTimes.put(conn.getSocket(), System.currentTimeMillis());
+                pooled = true;
+            }
+        } catch (RuntimeException e) {
+            // the connection has already been released or shut down
+        }
+        super.releaseConnection(conn, keepalive, tunit);
+        if (pooled) {
+            IdleConnectionReaper.connectionReleased(this,
+                    keepalive > 0 && tunit != null ? tunit.toMillis(keepalive) : -1);
+        }
+    }
+
+    /**
+     * Closes the given connection, newly leased from the pool, if it has
+     * been idle for longer than the validation threshold and has been
+     * closed by the other end, so that a new connection is opened in its
+     * place.
+     */
+    private void validate(ManagedClientConnection conn) {
+        if (!conn.isOpen())
+            return;
+        Long releaseTime = releaseTimes.get(conn.getSocket());
+        if (releaseTime != null && System.currentTimeMillis() - releaseTime
+                <= validateAfterInactivityMillis)
+            return;
+        if (conn.isStale()) {
+            log.debug("Closing stale connection idle since " + releaseTime);
+            try {
+                conn.close();
+            } catch (IOException e) {
+                log.debug("Unable to close stale connection", e);
+            }
+        }
+    }
+}
@@ -21,11 +21,13 @@ import java.util.Map;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import com.amazonaws.AmazonWebServiceResponse;
+import com.amazonaws.SDKGlobalConfiguration;
 import com.amazonaws.ResponseMetadata;
 import com.amazonaws.transform.StaxUnmarshallerContext;
 import com.amazonaws.transform.Unmarshaller;
@@ -50,6 +52,35 @@ public class StaxResponseHandler<T> implements HttpResponseHandler<AmazonWebServ
     /** Shared factory for creating XML event readers */
     private static final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
 
+    /**
+     * Name of the JDK StAX implementation's property that makes a factory
+     * recycle the last stream reader it created, once it has been closed,
+     * rather than allocate a new one with new buffers and symbol tables.
+     */
+    private static final String REUSE_INSTANCE_PROPERTY = "reuse-instance";
+
+    /**
+     * Per thread factories for creating XML stream readers. Factories are not
+     * thread safe, all the more when recycling their readers; a thread only
+     * ever has one response being parsed at a time, and closes its reader
+     * before parsing the next.
+     */
+    private static final ThreadLocal<XMLInputFactory> streamReaderFactory =
+        new ThreadLocal<XMLInputFactory>() {
+            @Override
+            protected XMLInputFactory initialValue() {
+                XMLInputFactory factory = XMLInputFactory.newInstance();
+                if (factory.isPropertySupported(REUSE_INSTANCE_PROPERTY)) {
+                    try {
+                        factory.setProperty(REUSE_INSTANCE_PROPERTY, Boolean.TRUE);
+                    } catch (IllegalArgumentException e) {
+                        log.debug("Unable to enable the reuse of XML stream readers", e);
+                    }
+                }
+                return factory;
+            }
+        };
+
 
     /**
      * Constructs a new response handler that will use the specified StAX
@@ -84,33 +115,33 @@ public class StaxResponseHandler<T> implements HttpResponseHandler<AmazonWebServ
         InputStream content = response.getContent();
         if (content == null) content = new ByteArrayInputStream("<eof/>".getBytes());
 
+        if (System.getProperty(SDKGlobalConfiguration.DISABLE_XML_CURSOR_UNMARSHALLING_SYSTEM_PROPERTY) != null) {
+            return handleWithEventReader(response, content);
+        }
+
+        XMLStreamReader streamReader = streamReaderFactory.get().createXMLStreamReader(content);
+        try {
+            return unmarshall(response,
+                    new StaxUnmarshallerContext(streamReader, response.getHeaders()));
+        } finally {
+            try {
+                streamReader.close();
+            } catch (XMLStreamException e) {
+                log.warn("Error closing xml parser", e);
+            }
+        }
+    }
+
+    private AmazonWebServiceResponse<T> handleWithEventReader(HttpResponse response,
+            InputStream content) throws Exception {
         XMLEventReader eventReader;
         synchronized (xmlInputFactory) {
             eventReader = xmlInputFactory.createXMLEventReader(content);
         }
 
         try {
-            AmazonWebServiceResponse<T> awsResponse = new AmazonWebServiceResponse<T>();
-            StaxUnmarshallerContext unmarshallerContext = new StaxUnmarshallerContext(eventReader, response.getHeaders());
-            unmarshallerContext.registerMetadataExpression("ResponseMetadata/RequestId", 2, ResponseMetadata.AWS_REQUEST_ID);
-            unmarshallerContext.registerMetadataExpression("requestId", 2, ResponseMetadata.AWS_REQUEST_ID);
-            registerAdditionalMetadataExpressions(unmarshallerContext);
-
-            T result = responseUnmarshaller.unmarshall(unmarshallerContext);
-            awsResponse.setResult(result);
-
-            Map<String, String> metadata = unmarshallerContext.getMetadata();
-            Map<String, String> responseHeaders = response.getHeaders();
-            if (responseHeaders != null) {
-                if (responseHeaders.get("x-amzn-RequestId") != null) {
-                    metadata.put(ResponseMetadata.AWS_REQUEST_ID,
-                            responseHeaders.get("x-amzn-RequestId"));
-                }
-            }
-            awsResponse.setResponseMetadata(new ResponseMetadata(metadata));
-
-            log.trace("Done parsing service response");
-            return awsResponse;
+            return unmarshall(response,
+                    new StaxUnmarshallerContext(eventReader, response.getHeaders()));
         } finally {
             try {
                 eventReader.close();
@@ -120,6 +151,30 @@ public class StaxResponseHandler<T> implements HttpResponseHandler<AmazonWebServ
         }
     }
 
+    private AmazonWebServiceResponse<T> unmarshall(HttpResponse response,
+            StaxUnmarshallerContext unmarshallerContext) throws Exception {
+        AmazonWebServiceResponse<T> awsResponse = new AmazonWebServiceResponse<T>();
+        unmarshallerContext.registerMetadataExpression("ResponseMetadata/RequestId", 2, ResponseMetadata.AWS_REQUEST_ID);
+        unmarshallerContext.registerMetadataExpression("requestId", 2, ResponseMetadata.AWS_REQUEST_ID);
+        registerAdditionalMetadataExpressions(unmarshallerContext);
+
+        T result = responseUnmarshaller.unmarshall(unmarshallerContext);
+        awsResponse.setResult(result);
+
+        Map<String, String> metadata = unmarshallerContext.getMetadata();
+        Map<String, String> responseHeaders = response.getHeaders();
+        if (responseHeaders != null) {
+            if (responseHeaders.get("x-amzn-RequestId") != null) {
+                metadata.put(ResponseMetadata.AWS_REQUEST_ID,
+                        responseHeaders.get("x-amzn-RequestId"));
+            }
+        }
+        awsResponse.setResponseMetadata(new ResponseMetadata(metadata));
+
+        log.trace("Done parsing service response");
+        return awsResponse;
+    }
+
     /**
      * Hook for subclasses to override in order to collect additional metadata
      * from service responses.
@@ -34,12 +34,15 @@ import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.conn.ssl.SSLSocketFactory;
 import org.apache.http.conn.ssl.X509HostnameVerifier;
 import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
 
 import com.amazonaws.internal.SdkSSLSocket;
 import com.amazonaws.internal.SdkSocket;
 
 /**
- * Used to enforce the preferred TLS protocol during SSL handshake.
+ * Used to enforce the preferred TLS protocol during SSL handshake, and to
+ * allow pooled connections to the same host to resume each other's TLS
+ * sessions.
  */
 @ThreadSafe
 public class SdkTLSSocketFactory extends SSLSocketFactory {
@@ -105,6 +108,23 @@ public class SdkTLSSocketFactory extends SSLSocketFactory {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * Returns a plain, unconnected socket, so that once connected the TLS
+     * layer is created with the host name and port of the target. This
+     * allows the TLS session of a previous connection to the same host and
+     * port to be looked up in the client session cache of the SSL context and
+     * resumed with an abbreviated handshake, and the host name to be sent as
+     * the server name indication, regardless of the JRE version. An SSL
+     * socket created unconnected has no peer host on older JREs, so its
+     * every connection negotiates a new session.
+     */
+    @Override
+    public Socket createSocket(final HttpContext context) throws IOException {
+        return new Socket();
+    }
+
     @Override
     public Socket connectSocket(
             final Socket socket,
@@ -115,11 +135,22 @@ public class SdkTLSSocketFactory extends SSLSocketFactory {
         if (log.isDebugEnabled())
             log.debug("connecting to " + remoteAddress.getAddress() + ":"
                     + remoteAddress.getPort());
-        verifyMasterSecret(
-            super.connectSocket(socket, remoteAddress, localAddress, params));
-        if (socket instanceof SSLSocket)
-            return new SdkSSLSocket((SSLSocket)socket);
-        return new SdkSocket(socket);
+        final long startTime = System.currentTimeMillis();
+        final Socket connected =
+            super.connectSocket(socket, remoteAddress, localAddress, params);
+        verifyMasterSecret(connected);
+        if (connected instanceof SSLSocket) {
+            SSLSocket ssl = (SSLSocket)connected;
+            if (log.isDebugEnabled()) {
+                SSLSession session = ssl.getSession();
+                log.debug((session.getCreationTime() < startTime
+                        ? "resumed" : "negotiated")
+                        + " TLS session with " + remoteAddress.getAddress()
+                        + ":" + remoteAddress.getPort());
+            }
+            return new SdkSSLSocket(ssl);
+        }
+        return new SdkSocket(connected);
     }
 
     /**
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.internal;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.annotation.ThreadSafe;
+
+/**
+ * A shared pool of byte arrays, used by the streaming wrappers of request and
+ * response content for their buffers, so that large transfers don't allocate
+ * a new buffer for every stream they go through.
+ * <p>
+ * Arrays are pooled in size classes, from 4 KB to 256 KB in powers of two; a
+ * requested size is rounded up to the next size class, so an array leased
+ * from the pool may be larger than requested. Larger arrays are allocated as
+ * requested and are not pooled. The number of arrays retained by each size
+ * class is bounded, so that at most 2 MB are kept per size class.
+ * <p>
+ * An array returned to the pool must no longer be used by the code which
+ * returned it; streams leasing a buffer typically return it on
+ * {@link java.io.InputStream#close() close} or {@link Releasable#release()
+ * release}, and lease another one should they be used again.
+ */
+@ThreadSafe
+public enum BufferPool {
+    ;
+    /** The size of the smallest size class. */
+    private static final int MIN_POOLED_SIZE = 4 * 1024;
+    /** The size of the largest size class. */
+    public static final int MAX_POOLED_SIZE = 256 * 1024;
+    /** The maximum number of bytes retained by each size class. */
+    private static final int MAX_RETAINED_BYTES = 2 * 1024 * 1024;
+
+    private static final SizeClass[] sizeClasses;
+    static {
+        int n = Integer.numberOfTrailingZeros(MAX_POOLED_SIZE)
+              - Integer.numberOfTrailingZeros(MIN_POOLED_SIZE) + 1;
+        sizeClasses = new SizeClass[n];
+        for (int i = 0; i < n; i++)
+            sizeClasses[i] = new SizeClass(MIN_POOLED_SIZE << i);
+    }
+
+    /**
+     * Leases a byte array of at least the given size from the pool.
+     */
+    public static byte[] acquire(int size) {
+        if (size > MAX_POOLED_SIZE)
+            return new byte[size];
+        return sizeClasses[indexOf(size)].acquire();
+    }
+
+    /**
+     * Returns the given byte array, leased from the pool, to the pool. Arrays
+     * of a size other than one of the size classes, and null, are ignored.
+     */
+    public static void release(byte[] array) {
+        if (array == null || array.length < MIN_POOLED_SIZE
+                || array.length > MAX_POOLED_SIZE
+                || Integer.bitCount(array.length) != 1)
+            return;
+        sizeClasses[indexOf(array.length)].release(array);
+    }
+
+    /** Returns the index of the smallest size class fitting the given size. */
+    private static int indexOf(int size) {
+        if (size <= MIN_POOLED_SIZE)
+            return 0;
+        return 32 - Integer.numberOfLeadingZeros(size - 1)
+             - Integer.numberOfTrailingZeros(MIN_POOLED_SIZE);
+    }
+
+    /**
+     * The arrays of one size available in the pool.
+     */
+    private static final class SizeClass {
+        private final int size;
+        private final int maxRetained;
+        private final ConcurrentLinkedQueue<byte[]> arrays = new ConcurrentLinkedQueue<byte[]>();
+        private final AtomicInteger retained = new AtomicInteger();
+
+        SizeClass(int size) {
+            this.size = size;
+            this.maxRetained = Math.max(1, MAX_RETAINED_BYTES / size);
+        }
+
+        byte[] acquire() {
+            byte[] array = arrays.poll();
+            if (array == null)
+                return new byte[size];
+            retained.decrementAndGet();
+            return array;
+        }
+
+        void release(byte[] array) {
+            if (retained.incrementAndGet() > maxRetained) {
+                retained.decrementAndGet();
+                return;
+            }
+            arrays.offer(array);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.apache.http.annotation.NotThreadSafe;
+
+/**
+ * An input stream over the remaining content of a byte buffer. The position
+ * and limit of the given buffer are not changed by reading from this stream.
+ * <p>
+ * Mark and reset are supported without any buffering, so that the content
+ * can be re-sent on retries. The content can also be written out directly
+ * to an output stream via {@link #transferTo(OutputStream, long)}: straight
+ * from the backing array of a heap buffer, or in large chunks from a direct
+ * buffer.
+ */
+@NotThreadSafe
+public class ByteBufferInputStream extends SdkInputStream implements
+        TransferableContent {
+    /** The maximum size of the chunks in which the content is transferred. */
+    private static final int TRANSFER_SIZE = 128 * 1024;
+
+    private final ByteBuffer buffer;
+    private int markPosition;
+    /**
+     * Used to transfer content out of a direct buffer; leased from the
+     * {@link BufferPool} on first use, and returned when closed.
+     */
+    private byte[] transferBuffer;
+
+    public ByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+        this.markPosition = this.buffer.position();
+    }
+
+    @Override
+    public int read() {
+        abortIfNeeded();
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        abortIfNeeded();
+        if (len == 0)
+            return 0;
+        if (!buffer.hasRemaining())
+            return -1;
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public boolean isTransferable() {
+        return true;
+    }
+
+    @Override
+    public int transferTo(OutputStream out, long count) throws IOException {
+        abortIfNeeded();
+        if (!buffer.hasRemaining())
+            return -1;
+        int n = (int) Math.min(Math.min(count, TRANSFER_SIZE), buffer.remaining());
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), n);
+            buffer.position(buffer.position() + n);
+        } else {
+            if (transferBuffer == null)
+                transferBuffer = BufferPool.acquire(Math.min(TRANSFER_SIZE, buffer.remaining()));
+            n = Math.min(n, transferBuffer.length);
+            buffer.get(transferBuffer, 0, n);
+            out.write(transferBuffer, 0, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        abortIfNeeded();
+        int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(int readlimit) {
+        abortIfNeeded();
+        markPosition = buffer.position();
+    }
+
+    @Override
+    public void reset() {
+        abortIfNeeded();
+        buffer.position(markPosition);
+    }
+
+    @Override
+    public void close() {
+        BufferPool.release(transferBuffer);
+        transferBuffer = null;
+    }
+
+    @Override
+    protected InputStream getWrappedInputStream() {
+        return null;
+    }
+}
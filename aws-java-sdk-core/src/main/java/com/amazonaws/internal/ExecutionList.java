@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.annotation.ThreadSafe;
+
+/**
+ * The listeners registered on a listenable future, each paired with the
+ * executor to run it on. Listeners added after {@link #execute()} has been
+ * called are dispatched immediately.
+ */
+@ThreadSafe
+public class ExecutionList {
+    private static final Log log = LogFactory.getLog(ExecutionList.class);
+
+    /** Guarded by this; null once the list has been executed. */
+    private List<Runnable> listeners = new ArrayList<Runnable>(2);
+    private List<Executor> executors = new ArrayList<Executor>(2);
+
+    /**
+     * Adds the given listener to be run on the given executor when this list
+     * is executed; or runs it right away if it has already been executed.
+     */
+    public void add(Runnable listener, Executor executor) {
+        if (listener == null || executor == null)
+            throw new IllegalArgumentException("listener and executor must not be null");
+        synchronized (this) {
+            if (listeners != null) {
+                listeners.add(listener);
+                executors.add(executor);
+                return;
+            }
+        }
+        dispatch(listener, executor);
+    }
+
+    /**
+     * Runs all the listeners added so far. Subsequent calls have no effect.
+     */
+    public void execute() {
+        List<Runnable> toRun;
+        List<Executor> runOn;
+        synchronized (this) {
+            if (listeners == null)
+                return;
+            toRun = listeners;
+            runOn = executors;
+            listeners = null;
+            executors = null;
+        }
+        for (int i = 0; i < toRun.size(); i++) {
+            dispatch(toRun.get(i), runOn.get(i));
+        }
+    }
+
+    private static void dispatch(Runnable listener, Executor executor) {
+        try {
+            executor.execute(listener);
+        } catch (RejectedExecutionException e) {
+            log.error("Unable to run listener " + listener + " on executor " + executor, e);
+        } catch (RuntimeException e) {
+            log.error("Listener " + listener + " failed on executor " + executor, e);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.internal;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.apache.http.annotation.NotThreadSafe;
+
+import com.amazonaws.AmazonClientException;
+
+/**
+ * An input stream over a region of a file channel, which is read with
+ * positional reads; the position of the channel itself is neither used nor
+ * changed. Multiple streams can therefore read different regions of the same
+ * channel concurrently, such as the parts of a file uploaded in parallel.
+ * <p>
+ * Mark and reset are supported without any buffering, so that the content
+ * can be re-sent on retries. The content can also be written out directly
+ * to an output stream, in large chunks, via
+ * {@link #transferTo(OutputStream, long)}.
+ * <p>
+ * A channel given to this stream is not closed when the stream is closed,
+ * whereas a file opened by this stream is.
+ */
+@NotThreadSafe
+public class FileChannelInputStream extends SdkInputStream implements
+        TransferableContent {
+    /** The size of the chunks in which the content is transferred. */
+    private static final int TRANSFER_BUFFER_SIZE = 128 * 1024;
+
+    private final FileChannel channel;
+    /** True if the channel has been opened by, and is closed with, this stream. */
+    private final boolean closeChannel;
+    private final long end;
+    private long position;
+    private long markPosition;
+    /**
+     * Buffer the content is transferred through; leased from the
+     * {@link BufferPool} on first use, and returned when closed.
+     */
+    private byte[] transferBuffer;
+    private boolean closed;
+
+    /**
+     * Opens an input stream over the entire content of the given file.
+     */
+    public FileChannelInputStream(File file) throws IOException {
+        this(file, 0, file.length());
+    }
+
+    /**
+     * Opens an input stream over the given region of the given file.
+     *
+     * @param position
+     *            the position in the file the region starts at
+     * @param length
+     *            the length in bytes of the region
+     */
+    public FileChannelInputStream(File file, long position, long length)
+            throws IOException {
+        this(new RandomAccessFile(file, "r").getChannel(), position, length, true);
+    }
+
+    /**
+     * Creates an input stream over the given region of the given channel,
+     * which is not closed when this stream is closed.
+     *
+     * @param position
+     *            the position in the channel the region starts at
+     * @param length
+     *            the length in bytes of the region
+     */
+    public FileChannelInputStream(FileChannel channel, long position, long length) {
+        this(channel, position, length, false);
+    }
+
+    private FileChannelInputStream(FileChannel channel, long position,
+            long length, boolean closeChannel) {
+        if (position < 0 || length < 0)
+            throw new IllegalArgumentException("position: " + position + ", length: " + length);
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.position = this.markPosition = position;
+        this.end = position + length;
+    }
+
+    /**
+     * Convenient factory method to open an input stream over the given region
+     * of the given file, converting any IOException into
+     * AmazonClientException with the given error message.
+     */
+    public static FileChannelInputStream newFileChannelInputStream(File file,
+            long position, long length, String errmsg) {
+        try {
+            return new FileChannelInputStream(file, position, length);
+        } catch (IOException e) {
+            throw errmsg == null
+                ? new AmazonClientException(e)
+                : new AmazonClientException(errmsg, e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n;
+        while ((n = read(b, 0, 1)) == 0)
+            ;
+        return n == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Note the end of the stream is reported early if the file is shorter
+     * than the region of this stream.
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        abortIfNeeded();
+        if (len == 0)
+            return 0;
+        if (position >= end)
+            return -1;
+        int n = channel.read(ByteBuffer.wrap(b, off,
+                (int) Math.min(len, end - position)), position);
+        if (n > 0)
+            position += n;
+        return n;
+    }
+
+    @Override
+    public boolean isTransferable() {
+        return true;
+    }
+
+    @Override
+    public int transferTo(OutputStream out, long count) throws IOException {
+        abortIfNeeded();
+        if (position >= end)
+            return -1;
+        if (transferBuffer == null)
+            transferBuffer = BufferPool.acquire(
+                    (int) Math.min(TRANSFER_BUFFER_SIZE, end - position));
+        int n = channel.read(ByteBuffer.wrap(transferBuffer, 0,
+                (int) Math.min(transferBuffer.length,
+                        Math.min(count, end - position))), position);
+        if (n > 0) {
+            out.write(transferBuffer, 0, n);
+            position += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        abortIfNeeded();
+        long skipped = Math.max(0, Math.min(n, end - position));
+        position += skipped;
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, end - position));
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(int readlimit) {
+        abortIfNeeded();
+        markPosition = position;
+    }
+
+    @Override
+    public void reset() throws IOException {
+        abortIfNeeded();
+        position = markPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        BufferPool.release(transferBuffer);
+        transferBuffer = null;
+        if (closeChannel && !closed) {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    @Override
+    protected InputStream getWrappedInputStream() {
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.internal;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.handlers.ListenableFuture;
+
+/**
+ * A {@link FutureTask} that runs its listeners once the task completes.
+ *
+ * @param <V>
+ *            The result type of the task.
+ */
+@ThreadSafe
+public class ListenableFutureTask<V> extends FutureTask<V> implements ListenableFuture<V> {
+    private final ExecutionList executionList = new ExecutionList();
+
+    public ListenableFutureTask(Callable<V> callable) {
+        super(callable);
+    }
+
+    @Override
+    public void addListener(Runnable listener, Executor executor) {
+        executionList.add(listener, executor);
+    }
+
+    @Override
+    protected void done() {
+        executionList.execute();
+    }
+}
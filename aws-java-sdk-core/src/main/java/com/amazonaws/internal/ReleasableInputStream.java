@@ -18,7 +18,9 @@
 package com.amazonaws.internal;
 
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -39,7 +41,8 @@ import org.apache.http.annotation.NotThreadSafe;
  * @see ResettableInputStream
  */
 @NotThreadSafe
-public class ReleasableInputStream extends SdkFilterInputStream implements Releasable {
+public class ReleasableInputStream extends SdkFilterInputStream implements
+        Releasable, TransferableContent {
     private static final Log log = LogFactory
             .getLog(ReleasableInputStream.class);
     /**
@@ -95,6 +98,22 @@ public class ReleasableInputStream extends SdkFilterInputStream implements Relea
         abortIfNeeded();
     }
 
+    /**
+     * Returns true if the underlying input stream is transferable; false
+     * otherwise.
+     */
+    @Override
+    public boolean isTransferable() {
+        return in instanceof TransferableContent
+            && ((TransferableContent) in).isTransferable();
+    }
+
+    @Override
+    public int transferTo(OutputStream out, long count) throws IOException {
+        abortIfNeeded();
+        return ((TransferableContent) in).transferTo(out, count);
+    }
+
     /**
      * Returns true if the close method has been disabled; false otherwise. Once
      * the close method is disabled, caller would be responsible to release
@@ -21,19 +21,29 @@ import java.io.IOException;
 import java.io.InputStream;
 
 import com.amazonaws.AbortedException;
+import com.amazonaws.util.IOUtils;
 
 /**
  * A buffered input stream that is both SDK metric aware, and can be aborted
  * via thread interrupt.
+ * <p>
+ * The buffer is leased from the {@link BufferPool}, and returned to the pool
+ * when the stream is closed.
  */
 public class SdkBufferedInputStream extends BufferedInputStream implements
-        MetricAware {
+        MetricAware, Releasable {
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
     public SdkBufferedInputStream(InputStream in) {
-        super(in);
+        this(in, DEFAULT_BUFFER_SIZE);
     }
 
     public SdkBufferedInputStream(InputStream in, int size) {
-        super(in, size);
+        // the buffer allocated by the super class is replaced right away
+        super(in, 1);
+        if (size <= 0)
+            throw new IllegalArgumentException("Buffer size <= 0");
+        buf = BufferPool.acquire(size);
     }
 
     @Override
@@ -90,10 +100,31 @@ public class SdkBufferedInputStream extends BufferedInputStream implements
 
     @Override
     public void close() throws IOException {
-        super.close();
+        byte[] buffer = buf;
+        try {
+            super.close();
+        } finally {
+            // the buffer is no longer in use once the stream is closed
+            BufferPool.release(buffer);
+        }
         abortIfNeeded();
     }
 
+    /**
+     * Closes this stream, returning its buffer to the pool, and releases the
+     * underlying input stream.
+     */
+    @Override
+    public void release() {
+        InputStream wrapped = in;
+        IOUtils.closeQuietly(this, null);
+        if (wrapped instanceof Releasable) {
+            // This allows any underlying stream that has the close operation
+            // disabled to be truly released
+            ((Releasable) wrapped).release();
+        }
+    }
+
     @Override
     public void mark(int readlimit) {
         abortIfNeeded();
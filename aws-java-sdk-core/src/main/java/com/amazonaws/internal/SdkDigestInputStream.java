@@ -69,16 +69,20 @@ public class SdkDigestInputStream extends DigestInputStream implements
     public final long skip(final long n) throws IOException {
         if (n <= 0)
             return n;
-        byte[] b = new byte[(int)Math.min(SKIP_BUF_SIZE, n)];
-        long m = n; // remaining number of bytes to read
-        while (m > 0) {
-            int len = read(b, 0, (int)Math.min(m, b.length));
-            if (len == -1)
-                return (m == n) ? -1 : (n - m);
-            m -= len;
+        byte[] b = BufferPool.acquire(SKIP_BUF_SIZE);
+        try {
+            long m = n; // remaining number of bytes to read
+            while (m > 0) {
+                int len = read(b, 0, (int)Math.min(m, b.length));
+                if (len == -1)
+                    return (m == n) ? -1 : (n - m);
+                m -= len;
+            }
+            assert (m == 0);
+            return n;
+        } finally {
+            BufferPool.release(b);
         }
-        assert (m == 0);
-        return n;
     }
 
     @Override
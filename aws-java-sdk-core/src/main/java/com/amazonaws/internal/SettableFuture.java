@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.internal;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.handlers.ListenableFuture;
+
+/**
+ * A {@link Future} whose outcome is set explicitly, rather than computed by
+ * a task. Used to complete the futures of requests that are executed without
+ * a thread waiting on their response.
+ * <p>
+ * The outcome can be set only once; subsequent attempts to set a value, an
+ * exception or to cancel the future are ignored. Listeners are run once the
+ * outcome has been set.
+ *
+ * @param <V>
+ *            value type
+ */
+@ThreadSafe
+public class SettableFuture<V> implements ListenableFuture<V> {
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final ExecutionList executionList = new ExecutionList();
+    private final AtomicBoolean completing = new AtomicBoolean();
+    private volatile V value;
+    private volatile Throwable exception;
+    private volatile boolean cancelled;
+
+    /**
+     * Completes this future with the given value.
+     *
+     * @return true if this call completed the future; false if it had already
+     *         been completed.
+     */
+    public boolean set(V value) {
+        if (!completing.compareAndSet(false, true))
+            return false;
+        this.value = value;
+        done.countDown();
+        executionList.execute();
+        return true;
+    }
+
+    /**
+     * Completes this future with the given failure, which will be reported
+     * as the cause of the {@link ExecutionException} thrown by {@link #get()}.
+     *
+     * @return true if this call completed the future; false if it had already
+     *         been completed.
+     */
+    public boolean setException(Throwable exception) {
+        if (exception == null)
+            throw new IllegalArgumentException("exception must not be null");
+        if (!completing.compareAndSet(false, true))
+            return false;
+        this.exception = exception;
+        done.countDown();
+        executionList.execute();
+        return true;
+    }
+
+    /**
+     * Cancels this future. Note any work already in progress on behalf of
+     * this future is not interrupted by this class; its outcome is simply
+     * discarded. Subclasses aware of such work may override this method to
+     * abort it once the future has been cancelled.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!completing.compareAndSet(false, true))
+            return false;
+        this.cancelled = true;
+        done.countDown();
+        executionList.execute();
+        return true;
+    }
+
+    @Override
+    public void addListener(Runnable listener, Executor executor) {
+        executionList.add(listener, executor);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    @Override
+    public V get() throws InterruptedException, ExecutionException {
+        done.await();
+        return outcome();
+    }
+
+    @Override
+    public V get(long timeout, TimeUnit unit) throws InterruptedException,
+            ExecutionException, TimeoutException {
+        if (!done.await(timeout, unit))
+            throw new TimeoutException();
+        return outcome();
+    }
+
+    private V outcome() throws ExecutionException {
+        if (cancelled)
+            throw new CancellationException();
+        if (exception != null)
+            throw new ExecutionException(exception);
+        return value;
+    }
+}
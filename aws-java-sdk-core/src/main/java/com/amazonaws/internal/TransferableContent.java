@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.internal;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Implemented by input streams whose content can be written out directly to
+ * an output stream, from wherever the content is held, rather than being
+ * copied out through the read methods in small increments.
+ * <p>
+ * Input streams wrapping other input streams may implement this interface by
+ * delegating to the wrapped stream, in which case whether the content can be
+ * transferred depends on the wrapped stream; much like whether an input
+ * stream supports mark and reset.
+ *
+ * @see FileChannelInputStream
+ * @see ByteBufferInputStream
+ */
+public interface TransferableContent {
+
+    /**
+     * Returns true if this content can be written out via
+     * {@link #transferTo(OutputStream, long)}; false otherwise.
+     */
+    boolean isTransferable();
+
+    /**
+     * Writes up to the given number of bytes of the remaining content to the
+     * given output stream, as if they had been read from this stream and
+     * written out, and advances the position of this stream accordingly.
+     * Fewer bytes than requested may be written by a single call.
+     *
+     * @param out
+     *            the output stream to write the content to
+     * @param count
+     *            the maximum number of bytes to write
+     *
+     * @return the number of bytes written; or -1 if the end of the content
+     *         has been reached.
+     */
+    int transferTo(OutputStream out, long count) throws IOException;
+}
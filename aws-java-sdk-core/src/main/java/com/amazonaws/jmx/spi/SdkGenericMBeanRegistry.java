@@ -0,0 +1,29 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.jmx.spi;
+
+/**
+ * Optional extension of {@link SdkMBeanRegistry} for registering MBeans other
+ * than the metric admin MBean. Callers check whether the registry in use
+ * implements this interface, so that implementations of
+ * {@link SdkMBeanRegistry} which don't are still supported.
+ */
+public interface SdkGenericMBeanRegistry {
+    /**
+     * Returns true if the registration of the given MBean under the given
+     * object name succeeded; false otherwise.
+     */
+    public boolean registerMBean(String objectName, Object mbean);
+}
@@ -15,6 +15,7 @@
 
 package com.amazonaws.metrics;
 import static com.amazonaws.SDKGlobalConfiguration.DEFAULT_METRICS_SYSTEM_PROPERTY;
+import static com.amazonaws.SDKGlobalConfiguration.HISTOGRAM_METRICS_SYSTEM_PROPERTY;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -23,7 +24,9 @@ import java.net.InetAddress;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.logging.LogFactory;
 
@@ -238,6 +241,17 @@ public enum AwsSdkMetrics {
      * false otherwise.
      */
     private static volatile boolean singleMetricNamespace;
+    /**
+     * The latency histograms the requests are recorded into when histogram
+     * metrics are enabled; or null if disabled.
+     */
+    private static volatile RequestHistograms requestHistograms =
+        System.getProperty(HISTOGRAM_METRICS_SYSTEM_PROPERTY) != null
+            ? new RequestHistograms()
+            : null;
+    /** The running metric exporters. */
+    private static final List<MetricExporter> metricExporters =
+        new CopyOnWriteArrayList<MetricExporter>();
 
     static {
         String defaultMetrics = System.getProperty(DEFAULT_METRICS_SYSTEM_PROPERTY);
@@ -535,6 +549,86 @@ public enum AwsSdkMetrics {
         setMetricCollector(MetricCollector.NONE);
     }
 
+    /**
+     * Enables the histogram metrics, which record the duration of the timed
+     * events of every request, such as {@link Field#ClientExecuteTime} and
+     * {@link Field#HttpRequestTime}, into in-memory latency histograms per
+     * service, operation and HTTP status code. Percentiles such as the p99
+     * latency can then be read from {@link #getRequestHistograms()}.
+     * <p>
+     * Unlike the request metric collectors, recording a request into the
+     * histograms allocates no object per event, so histogram metrics can be
+     * left on at all times. Requests for which a request metric collector is
+     * enabled are not recorded into the histograms. Histogram metrics can
+     * also be enabled at startup with the system property
+     * {@link SDKGlobalConfiguration#HISTOGRAM_METRICS_SYSTEM_PROPERTY}.
+     */
+    public static synchronized void enableHistogramMetrics() {
+        if (requestHistograms == null)
+            requestHistograms = new RequestHistograms();
+    }
+
+    /**
+     * Disables the histogram metrics, discarding the recorded histograms.
+     */
+    public static synchronized void disableHistogramMetrics() {
+        requestHistograms = null;
+    }
+
+    /**
+     * Returns true if histogram metrics are enabled; false otherwise.
+     */
+    public static boolean isHistogramMetricsEnabled() {
+        return requestHistograms != null;
+    }
+
+    /**
+     * Returns the latency histograms the requests are recorded into, which
+     * support taking snapshots and resetting; or null if histogram metrics
+     * are not enabled.
+     *
+     * @see #enableHistogramMetrics()
+     */
+    public static RequestHistograms getRequestHistograms() {
+        return requestHistograms;
+    }
+
+    /**
+     * Starts the given metric exporter, which periodically or on demand
+     * publishes the request histograms and counters to a local monitoring
+     * system. Histogram metrics are enabled if necessary.
+     *
+     * @return true if the exporter is successfully started; false otherwise.
+     *
+     * @see #enableHistogramMetrics()
+     */
+    public static synchronized boolean addMetricExporter(MetricExporter exporter) {
+        if (exporter == null || metricExporters.contains(exporter))
+            return false;
+        enableHistogramMetrics();
+        if (!exporter.start())
+            return false;
+        metricExporters.add(exporter);
+        return true;
+    }
+
+    /**
+     * Stops and removes the given metric exporter.
+     *
+     * @return true if the exporter was running and is successfully stopped;
+     *         false otherwise.
+     */
+    public static synchronized boolean removeMetricExporter(MetricExporter exporter) {
+        return metricExporters.remove(exporter) && exporter.stop();
+    }
+
+    /**
+     * Returns the running metric exporters.
+     */
+    public static List<MetricExporter> getMetricExporters() {
+        return Collections.unmodifiableList(metricExporters);
+    }
+
     /**
      * Adds the given metric type to the registry of predefined metrics to be
      * captured at the AWS SDK level.
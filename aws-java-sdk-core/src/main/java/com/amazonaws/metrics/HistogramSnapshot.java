@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics;
+
+/**
+ * An immutable snapshot of a {@link LatencyHistogram}. All values are in
+ * microseconds.
+ */
+public class HistogramSnapshot {
+    private final long[] counts;
+    private final long totalCount;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long sum, long min, long max) {
+        this.counts = counts;
+        long total = 0;
+        for (long count : counts)
+            total += count;
+        this.totalCount = total;
+        this.sum = sum;
+        this.min = total == 0 ? 0 : min;
+        this.max = max;
+    }
+
+    /** Returns the number of recorded values. */
+    public long getCount() {
+        return totalCount;
+    }
+
+    /** Returns the sum of the recorded values. */
+    public long getSum() {
+        return sum;
+    }
+
+    /** Returns the lowest recorded value; or 0 if none was recorded. */
+    public long getMin() {
+        return min;
+    }
+
+    /** Returns the highest recorded value; or 0 if none was recorded. */
+    public long getMax() {
+        return max;
+    }
+
+    /** Returns the mean of the recorded values; or 0 if none was recorded. */
+    public double getMean() {
+        return totalCount == 0 ? 0 : (double) sum / totalCount;
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded
+     * values fall, eg 99 for the p99 latency; or 0 if no value was recorded.
+     *
+     * @param percentile
+     *            the percentile, between 0 and 100.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0)
+            return 0;
+        double p = Math.min(Math.max(percentile, 0), 100);
+        long countAtPercentile = Math.max(1,
+                (long) Math.ceil(p / 100 * totalCount));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative >= countAtPercentile)
+                return Math.min(LatencyHistogram.highestEquivalentValue(i), max);
+        }
+        return max;
+    }
+
+    /**
+     * Returns a snapshot of the values recorded between the given earlier
+     * snapshot of the same histogram and this one, eg to report the latency
+     * percentiles of each reporting interval. The minimum and maximum of the
+     * returned snapshot are only as precise as the buckets of the histogram.
+     * If the histogram was reset in between, this snapshot is returned.
+     *
+     * @param earlier
+     *            an earlier snapshot of the same histogram
+     */
+    public HistogramSnapshot since(HistogramSnapshot earlier) {
+        if (earlier.totalCount > totalCount)
+            return this;
+        long[] delta = new long[counts.length];
+        long deltaMin = Long.MAX_VALUE;
+        long deltaMax = 0;
+        for (int i = 0; i < counts.length; i++) {
+            delta[i] = counts[i] - earlier.counts[i];
+            if (delta[i] < 0)
+                return this; // reset in between
+            if (delta[i] > 0) {
+                long value = Math.min(LatencyHistogram.highestEquivalentValue(i), max);
+                deltaMin = Math.min(deltaMin, value);
+                deltaMax = value;
+            }
+        }
+        return new HistogramSnapshot(delta, sum - earlier.sum, deltaMin, deltaMax);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + totalCount + ", min=" + min + ", mean="
+                + Math.round(getMean()) + ", p50=" + getValueAtPercentile(50)
+                + ", p99=" + getValueAtPercentile(99) + ", p999="
+                + getValueAtPercentile(99.9) + ", max=" + max;
+    }
+}
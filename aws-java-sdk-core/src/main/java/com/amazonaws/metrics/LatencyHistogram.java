@@ -0,0 +1,125 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.apache.http.annotation.ThreadSafe;
+
+/**
+ * A lock-free histogram of latencies, in microseconds, which allocates all of
+ * its storage upfront so that recording a value never allocates.
+ * <p>
+ * Like an HDR histogram, values are counted in buckets whose width grows
+ * with the magnitude of the values: each power of two is split into
+ * {@value #SUB_BUCKET_COUNT} linear sub-buckets, so that any recorded value
+ * is reported within about 3% of its actual value, from 1 microsecond up to
+ * {@link #HIGHEST_TRACKABLE_VALUE} (about 71 minutes). Larger values are
+ * counted as the highest trackable value.
+ * <p>
+ * Snapshots taken while values are being recorded may be slightly
+ * inconsistent, eg the count and the sum might not include exactly the same
+ * values.
+ */
+@ThreadSafe
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    /** The number of linear sub-buckets each power of two is split into. */
+    public static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /** The highest trackable value, in microseconds. */
+    public static final long HIGHEST_TRACKABLE_VALUE = (1L << 32) - 1;
+    private static final int BUCKET_COUNT = indexOf(HIGHEST_TRACKABLE_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records the given value.
+     *
+     * @param micros
+     *            the value in microseconds; negative values are counted as 0.
+     */
+    public void recordValue(long micros) {
+        if (micros < 0)
+            micros = 0;
+        else if (micros > HIGHEST_TRACKABLE_VALUE)
+            micros = HIGHEST_TRACKABLE_VALUE;
+        counts.incrementAndGet(indexOf(micros));
+        sum.addAndGet(micros);
+        long current;
+        while (micros < (current = min.get())
+                && !min.compareAndSet(current, micros))
+            ;
+        while (micros > (current = max.get())
+                && !max.compareAndSet(current, micros))
+            ;
+    }
+
+    /**
+     * Returns an immutable snapshot of the values recorded so far.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            snapshot[i] = counts.get(i);
+        return new HistogramSnapshot(snapshot, sum.get(), min.get(), max.get());
+    }
+
+    /**
+     * Returns an immutable snapshot of the values recorded so far, and
+     * clears the histogram, so that the next snapshot only covers the values
+     * recorded from now on. Even if values are being recorded concurrently,
+     * each value is counted in exactly one snapshot.
+     */
+    public HistogramSnapshot snapshotAndReset() {
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            snapshot[i] = counts.getAndSet(i, 0);
+        return new HistogramSnapshot(snapshot, sum.getAndSet(0),
+                min.getAndSet(Long.MAX_VALUE), max.getAndSet(0));
+    }
+
+    /**
+     * Clears the histogram.
+     */
+    public void reset() {
+        snapshotAndReset();
+    }
+
+    /**
+     * Returns the index of the bucket the given value is counted in.
+     */
+    static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return ((exponent + 1) << SUB_BUCKET_BITS)
+                + (int) ((value >>> exponent) - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * Returns the highest value counted in the bucket with the given index.
+     */
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+        int exponent = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = index & (SUB_BUCKET_COUNT - 1);
+        return ((SUB_BUCKET_COUNT + subBucket + 1) << exponent) - 1;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics;
+
+/**
+ * Metric Exporter SPI. An exporter publishes the request histograms and
+ * counters of {@link AwsSdkMetrics#getRequestHistograms()} to a local
+ * monitoring system, such as a Prometheus scraper or a StatsD agent, rather
+ * than to Amazon CloudWatch.
+ * <p>
+ * Exporters read the histograms when they export, so no work is done on the
+ * request path beyond recording into the histograms. This is a class instead
+ * of interface so in case of adding new methods in the future we can do that
+ * safely without breaking any existing exporters.
+ *
+ * @see AwsSdkMetrics#addMetricExporter(MetricExporter)
+ */
+public abstract class MetricExporter {
+    /**
+     * Starts the exporter.
+     *
+     * @return true if the exporter is successfully started; false otherwise.
+     */
+    public abstract boolean start();
+
+    /**
+     * Stops the exporter, releasing its threads and sockets.
+     *
+     * @return true if the exporter is successfully stopped; false if the
+     *         exporter is not running and therefore the call has no effect.
+     */
+    public abstract boolean stop();
+}
@@ -21,6 +21,7 @@ import java.io.OutputStream;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.InputStreamEntity;
 
+import com.amazonaws.internal.BufferPool;
 import com.amazonaws.internal.MetricAware;
 
 /**
@@ -74,12 +75,12 @@ public class MetricInputStreamEntity extends InputStreamEntity {
         final InputStream content = getContent();
         final long length = getContentLength();
         InputStream instream = content;
+        byte[] buffer = BufferPool.acquire(BUFFER_SIZE);
         try {
-            byte[] buffer = new byte[BUFFER_SIZE];
             int l;
             if (length < 0) {
                 // consume until EOF
-                while ((l = instream.read(buffer)) != -1) {
+                while ((l = instream.read(buffer, 0, buffer.length)) != -1) {
                     long startNano = helper.startTiming();
                     outstream.write(buffer, 0, l);
                     helper.increment(l, startNano);
@@ -88,7 +89,7 @@ public class MetricInputStreamEntity extends InputStreamEntity {
                 // consume no more than length
                 long remaining = length;
                 while (remaining > 0) {
-                    l = instream.read(buffer, 0, (int)Math.min(BUFFER_SIZE, remaining));
+                    l = instream.read(buffer, 0, (int)Math.min(buffer.length, remaining));
                     if (l == -1) {
                         break;
                     }
@@ -99,6 +100,7 @@ public class MetricInputStreamEntity extends InputStreamEntity {
                 }
             }
         } finally {
+            BufferPool.release(buffer);
             helper.reportMetrics();
             instream.close();
         }
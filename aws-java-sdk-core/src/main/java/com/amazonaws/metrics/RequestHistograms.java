@@ -0,0 +1,459 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.util.AWSRequestMetrics.Field;
+
+/**
+ * Latency histograms of the timed request metrics, ie
+ * {@link Field#ClientExecuteTime}, {@link Field#HttpRequestTime}, etc., and
+ * totals of the counted request metrics, such as
+ * {@link Field#ThrottleException}, per service, operation and HTTP status
+ * code; as well as the latest value of the gauges, such as
+ * {@link Field#HttpClientPoolLeasedCount}, per service.
+ * <p>
+ * Each histogram is allocated the first time a value is recorded for its
+ * combination of service, operation, status code and metric; recording
+ * values for a combination seen before does not allocate. Counters and
+ * gauges are allocated the first time a combination of service, operation
+ * and status code, or service, is seen.
+ *
+ * @see AwsSdkMetrics#enableHistogramMetrics()
+ */
+@ThreadSafe
+public class RequestHistograms {
+    /** Status codes beyond this are recorded as 0, like missing responses */
+    private static final int MAX_STATUS_CODE = 599;
+    private static final Field[] FIELDS = Field.values();
+
+    private final ConcurrentMap<String, ConcurrentMap<Class<?>, OperationHistograms>> services =
+        new ConcurrentHashMap<String, ConcurrentMap<Class<?>, OperationHistograms>>();
+    /** The gauges of each service, indexed by field */
+    private final ConcurrentMap<String, AtomicLongArray> gauges =
+        new ConcurrentHashMap<String, AtomicLongArray>();
+    private volatile boolean connectionPoolGauges;
+
+    /**
+     * Returns true if the connection pool gauges, such as
+     * {@link Field#HttpClientPoolLeasedCount}, are captured; false by
+     * default.
+     */
+    public boolean isConnectionPoolGaugesEnabled() {
+        return connectionPoolGauges;
+    }
+
+    /**
+     * Sets whether the connection pool gauges, such as
+     * {@link Field#HttpClientPoolLeasedCount}, are captured. Capturing them
+     * takes the lock of the connection pool on every request attempt, so
+     * they are not captured by default.
+     */
+    public void setConnectionPoolGaugesEnabled(boolean enabled) {
+        this.connectionPoolGauges = enabled;
+    }
+
+    /**
+     * Records the given duration.
+     *
+     * @param serviceName
+     *            the name of the service, eg AmazonDynamoDBv2
+     * @param operation
+     *            the class of the original request, which identifies the
+     *            operation
+     * @param statusCode
+     *            the HTTP status code of the response; or 0 if no response
+     *            was received
+     * @param field
+     *            the timed metric
+     * @param nanos
+     *            the duration in nanoseconds
+     */
+    public void record(String serviceName, Class<?> operation, int statusCode,
+            Field field, long nanos) {
+        operationHistograms(serviceName, operation)
+            .histogram(statusCode, field)
+            .recordValue(nanos / 1000);
+    }
+
+    /**
+     * Adds the given value to a counter.
+     *
+     * @param serviceName
+     *            the name of the service
+     * @param operation
+     *            the class of the original request
+     * @param statusCode
+     *            the HTTP status code of the response; or 0 if no response
+     *            was received
+     * @param field
+     *            the counted metric
+     * @param value
+     *            the value to add
+     */
+    public void add(String serviceName, Class<?> operation, int statusCode,
+            Field field, long value) {
+        operationHistograms(serviceName, operation)
+            .counters(statusCode)
+            .addAndGet(field.ordinal(), value);
+    }
+
+    /**
+     * Sets the latest value of a gauge of a service.
+     *
+     * @param serviceName
+     *            the name of the service
+     * @param field
+     *            the gauge
+     * @param value
+     *            the latest value
+     */
+    public void setGauge(String serviceName, Field field, long value) {
+        if (serviceName == null)
+            serviceName = "Unknown";
+        AtomicLongArray values = gauges.get(serviceName);
+        if (values == null) {
+            AtomicLongArray created = new AtomicLongArray(FIELDS.length);
+            for (int i = 0; i < FIELDS.length; i++)
+                created.set(i, -1);
+            values = gauges.putIfAbsent(serviceName, created);
+            if (values == null)
+                values = created;
+        }
+        values.set(field.ordinal(), value);
+    }
+
+    /**
+     * Returns the histograms of the given operation, creating them if
+     * necessary.
+     */
+    OperationHistograms operationHistograms(String serviceName,
+            Class<?> operation) {
+        if (serviceName == null)
+            serviceName = "Unknown";
+        ConcurrentMap<Class<?>, OperationHistograms> operations = services.get(serviceName);
+        if (operations == null) {
+            ConcurrentMap<Class<?>, OperationHistograms> created =
+                new ConcurrentHashMap<Class<?>, OperationHistograms>();
+            operations = services.putIfAbsent(serviceName, created);
+            if (operations == null)
+                operations = created;
+        }
+        OperationHistograms histograms = operations.get(operation);
+        if (histograms == null) {
+            OperationHistograms created = new OperationHistograms(serviceName, operation);
+            histograms = operations.putIfAbsent(operation, created);
+            if (histograms == null)
+                histograms = created;
+        }
+        return histograms;
+    }
+
+    /**
+     * Returns a snapshot of every histogram with recorded values.
+     */
+    public List<Entry> snapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * Returns a snapshot of every histogram with recorded values, and clears
+     * them, so that the next snapshot only covers the values recorded from
+     * now on.
+     */
+    public List<Entry> snapshotAndReset() {
+        return snapshot(true);
+    }
+
+    /**
+     * Clears every histogram and counter.
+     */
+    public void reset() {
+        snapshot(true);
+        for (Map<Class<?>, OperationHistograms> operations : services.values()) {
+            for (OperationHistograms histograms : operations.values())
+                histograms.resetCounters();
+        }
+    }
+
+    /**
+     * Returns the totals of every counter with a non-zero value since the
+     * histograms were created or last {@link #reset()}, followed by the
+     * latest value of every gauge that was set.
+     */
+    public List<CounterEntry> counters() {
+        List<CounterEntry> entries = new ArrayList<CounterEntry>();
+        for (Map<Class<?>, OperationHistograms> operations : services.values()) {
+            for (OperationHistograms histograms : operations.values())
+                histograms.counters(entries);
+        }
+        for (Map.Entry<String, AtomicLongArray> e : gauges.entrySet()) {
+            AtomicLongArray values = e.getValue();
+            for (int i = 0; i < FIELDS.length; i++) {
+                long value = values.get(i);
+                if (value >= 0) {
+                    entries.add(new CounterEntry(e.getKey(), null, 0,
+                            FIELDS[i], value, true));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private List<Entry> snapshot(boolean reset) {
+        List<Entry> entries = new ArrayList<Entry>();
+        for (Map<Class<?>, OperationHistograms> operations : services.values()) {
+            for (OperationHistograms histograms : operations.values())
+                histograms.snapshot(reset, entries);
+        }
+        return entries;
+    }
+
+    /**
+     * The histograms of one operation of a service, per status code and
+     * metric.
+     */
+    static final class OperationHistograms {
+        private final String serviceName;
+        private final String operationName;
+        private final AtomicReferenceArray<AtomicReferenceArray<LatencyHistogram>> byStatusCode =
+            new AtomicReferenceArray<AtomicReferenceArray<LatencyHistogram>>(MAX_STATUS_CODE + 1);
+        private final AtomicReferenceArray<AtomicLongArray> countersByStatusCode =
+            new AtomicReferenceArray<AtomicLongArray>(MAX_STATUS_CODE + 1);
+
+        OperationHistograms(String serviceName, Class<?> operation) {
+            this.serviceName = serviceName;
+            String name = operation.getSimpleName();
+            this.operationName = name.endsWith("Request")
+                    ? name.substring(0, name.length() - "Request".length())
+                    : name;
+        }
+
+        /**
+         * Returns the histogram of the given status code and metric, creating
+         * it if necessary.
+         */
+        LatencyHistogram histogram(int statusCode, Field field) {
+            if (statusCode < 0 || statusCode > MAX_STATUS_CODE)
+                statusCode = 0;
+            AtomicReferenceArray<LatencyHistogram> byField = byStatusCode.get(statusCode);
+            if (byField == null) {
+                byStatusCode.compareAndSet(statusCode, null,
+                        new AtomicReferenceArray<LatencyHistogram>(FIELDS.length));
+                byField = byStatusCode.get(statusCode);
+            }
+            int i = field.ordinal();
+            LatencyHistogram histogram = byField.get(i);
+            if (histogram == null) {
+                byField.compareAndSet(i, null, new LatencyHistogram());
+                histogram = byField.get(i);
+            }
+            return histogram;
+        }
+
+        /**
+         * Returns the counters of the given status code, indexed by field,
+         * creating them if necessary.
+         */
+        AtomicLongArray counters(int statusCode) {
+            if (statusCode < 0 || statusCode > MAX_STATUS_CODE)
+                statusCode = 0;
+            AtomicLongArray counters = countersByStatusCode.get(statusCode);
+            if (counters == null) {
+                countersByStatusCode.compareAndSet(statusCode, null,
+                        new AtomicLongArray(FIELDS.length));
+                counters = countersByStatusCode.get(statusCode);
+            }
+            return counters;
+        }
+
+        void counters(List<CounterEntry> entries) {
+            for (int statusCode = 0; statusCode <= MAX_STATUS_CODE; statusCode++) {
+                AtomicLongArray counters = countersByStatusCode.get(statusCode);
+                if (counters == null)
+                    continue;
+                for (int i = 0; i < FIELDS.length; i++) {
+                    long value = counters.get(i);
+                    if (value != 0) {
+                        entries.add(new CounterEntry(serviceName, operationName,
+                                statusCode, FIELDS[i], value, false));
+                    }
+                }
+            }
+        }
+
+        void resetCounters() {
+            for (int statusCode = 0; statusCode <= MAX_STATUS_CODE; statusCode++) {
+                AtomicLongArray counters = countersByStatusCode.get(statusCode);
+                if (counters == null)
+                    continue;
+                for (int i = 0; i < FIELDS.length; i++)
+                    counters.set(i, 0);
+            }
+        }
+
+        void snapshot(boolean reset, List<Entry> entries) {
+            for (int statusCode = 0; statusCode <= MAX_STATUS_CODE; statusCode++) {
+                AtomicReferenceArray<LatencyHistogram> byField = byStatusCode.get(statusCode);
+                if (byField == null)
+                    continue;
+                for (int i = 0; i < FIELDS.length; i++) {
+                    LatencyHistogram histogram = byField.get(i);
+                    if (histogram == null)
+                        continue;
+                    HistogramSnapshot snapshot = reset
+                            ? histogram.snapshotAndReset()
+                            : histogram.snapshot();
+                    if (snapshot.getCount() > 0) {
+                        entries.add(new Entry(serviceName, operationName,
+                                statusCode, FIELDS[i], snapshot));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The snapshot of the histogram of one metric, for one operation of a
+     * service and one status code.
+     */
+    public static final class Entry {
+        private final String serviceName;
+        private final String operationName;
+        private final int statusCode;
+        private final Field metricType;
+        private final HistogramSnapshot histogram;
+
+        Entry(String serviceName, String operationName, int statusCode,
+                Field metricType, HistogramSnapshot histogram) {
+            this.serviceName = serviceName;
+            this.operationName = operationName;
+            this.statusCode = statusCode;
+            this.metricType = metricType;
+            this.histogram = histogram;
+        }
+
+        /** Returns the name of the service, eg AmazonDynamoDBv2. */
+        public String getServiceName() {
+            return serviceName;
+        }
+
+        /** Returns the name of the operation, eg GetItem. */
+        public String getOperationName() {
+            return operationName;
+        }
+
+        /**
+         * Returns the HTTP status code of the responses; or 0 for requests
+         * that failed without a response.
+         */
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /** Returns the timed metric, eg {@link Field#ClientExecuteTime}. */
+        public Field getMetricType() {
+            return metricType;
+        }
+
+        /** Returns the snapshot of the histogram, in microseconds. */
+        public HistogramSnapshot getHistogram() {
+            return histogram;
+        }
+
+        @Override
+        public String toString() {
+            return serviceName + "." + operationName + " " + statusCode + " "
+                    + metricType + ": " + histogram;
+        }
+    }
+
+    /**
+     * The total of a counter, for one operation of a service and one status
+     * code; or the latest value of a gauge of a service.
+     */
+    public static final class CounterEntry {
+        private final String serviceName;
+        private final String operationName;
+        private final int statusCode;
+        private final Field metricType;
+        private final long value;
+        private final boolean gauge;
+
+        CounterEntry(String serviceName, String operationName, int statusCode,
+                Field metricType, long value, boolean gauge) {
+            this.serviceName = serviceName;
+            this.operationName = operationName;
+            this.statusCode = statusCode;
+            this.metricType = metricType;
+            this.value = value;
+            this.gauge = gauge;
+        }
+
+        /** Returns the name of the service, eg AmazonDynamoDBv2. */
+        public String getServiceName() {
+            return serviceName;
+        }
+
+        /**
+         * Returns the name of the operation, eg GetItem; or null for a gauge,
+         * which applies to the service as a whole.
+         */
+        public String getOperationName() {
+            return operationName;
+        }
+
+        /**
+         * Returns the HTTP status code of the responses; or 0 for requests
+         * that failed without a response, and for gauges.
+         */
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /** Returns the metric, eg {@link Field#ThrottleException}. */
+        public Field getMetricType() {
+            return metricType;
+        }
+
+        /** Returns the total of the counter, or the value of the gauge. */
+        public long getValue() {
+            return value;
+        }
+
+        /**
+         * Returns true if this is the latest value of a gauge; false if this
+         * is the total of a counter.
+         */
+        public boolean isGauge() {
+            return gauge;
+        }
+
+        @Override
+        public String toString() {
+            return serviceName + (gauge ? "" : "." + operationName + " " + statusCode)
+                    + " " + metricType + ": " + value;
+        }
+    }
+}
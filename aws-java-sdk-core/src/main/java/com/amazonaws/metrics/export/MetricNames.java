@@ -0,0 +1,59 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics.export;
+
+/**
+ * Naming conventions shared by the metric exporters.
+ */
+enum MetricNames {
+    ;
+
+    /**
+     * Returns the given camel case name in snake case, eg
+     * "http_client_pool_leased_count" for "HttpClientPoolLeasedCount".
+     */
+    static String snakeCase(String camelCase) {
+        StringBuilder sb = new StringBuilder(camelCase.length() + 8);
+        for (int i = 0; i < camelCase.length(); i++) {
+            char c = camelCase.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0 && !Character.isUpperCase(camelCase.charAt(i - 1)))
+                    sb.append('_');
+                sb.append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the given name with every character other than a letter, a
+     * digit, a hyphen or an underscore replaced by an underscore, so that it
+     * can be used as one segment of a dotted metric name.
+     */
+    static String sanitize(String name) {
+        if (name == null)
+            return "unknown";
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            boolean valid = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                    || (c >= '0' && c <= '9') || c == '-' || c == '_';
+            sb.append(valid ? c : '_');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics.export;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.metrics.AwsSdkMetrics;
+import com.amazonaws.metrics.HistogramSnapshot;
+import com.amazonaws.metrics.MetricExporter;
+import com.amazonaws.metrics.RequestHistograms;
+import com.amazonaws.metrics.RequestHistograms.CounterEntry;
+import com.amazonaws.metrics.RequestHistograms.Entry;
+import com.amazonaws.util.AWSRequestMetrics.Field;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * A metric exporter serving the request histograms and counters over HTTP in
+ * the Prometheus text exposition format, to be scraped by a Prometheus
+ * server or any compatible agent.
+ * <p>
+ * Each timed metric is exposed as a summary in seconds, eg
+ * <code>aws_sdk_client_execute_time_seconds</code>, with the 0.5, 0.99 and
+ * 0.999 quantiles, labeled by service, operation and status code; each
+ * counter as a counter, eg <code>aws_sdk_throttle_exception_total</code>,
+ * with the same labels; and each connection pool gauge as a gauge, eg
+ * <code>aws_sdk_http_client_pool_leased_count</code>, labeled by service.
+ * <p>
+ * Scrapes are served one at a time by a single daemon thread, on any path.
+ *
+ * @see AwsSdkMetrics#addMetricExporter(MetricExporter)
+ */
+@ThreadSafe
+public class PrometheusExporter extends MetricExporter {
+    private static final Log log = LogFactory.getLog(PrometheusExporter.class);
+    private static final String PREFIX = "aws_sdk_";
+    private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    /** Time in milliseconds a scrape may take to send its request. */
+    private static final int SOCKET_TIMEOUT = 10 * 1000;
+
+    private final InetSocketAddress address;
+    private volatile ServerSocket serverSocket;
+
+    /**
+     * Creates an exporter listening on the given port of the loopback
+     * interface.
+     *
+     * @param port
+     *            the port; or 0 for any free port, which can then be read
+     *            from {@link #getPort()}
+     */
+    public PrometheusExporter(int port) {
+        this(new InetSocketAddress("127.0.0.1", port));
+    }
+
+    /**
+     * Creates an exporter listening on the given address.
+     */
+    public PrometheusExporter(InetSocketAddress address) {
+        this.address = address;
+    }
+
+    @Override
+    public synchronized boolean start() {
+        if (serverSocket != null)
+            return false;
+        final ServerSocket ss;
+        try {
+            ss = new ServerSocket();
+            ss.setReuseAddress(true);
+            ss.bind(address);
+        } catch (IOException e) {
+            log.warn("Unable to listen on " + address + " for metric scrapes", e);
+            return false;
+        }
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                serve(ss);
+            }
+        }, "java-sdk-metrics-prometheus");
+        thread.setDaemon(true);
+        thread.start();
+        serverSocket = ss;
+        return true;
+    }
+
+    @Override
+    public synchronized boolean stop() {
+        ServerSocket ss = serverSocket;
+        if (ss == null)
+            return false;
+        serverSocket = null;
+        try {
+            ss.close();
+        } catch (IOException e) {
+            log.debug("Unable to close the metric scrape socket", e);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the port the exporter is listening on; or -1 if it is not
+     * running.
+     */
+    public int getPort() {
+        ServerSocket ss = serverSocket;
+        return ss == null ? -1 : ss.getLocalPort();
+    }
+
+    private void serve(ServerSocket ss) {
+        while (!ss.isClosed()) {
+            Socket socket;
+            try {
+                socket = ss.accept();
+            } catch (IOException e) {
+                if (!ss.isClosed())
+                    log.debug("Unable to accept a metric scrape", e);
+                continue;
+            }
+            try {
+                handle(socket);
+            } catch (IOException e) {
+                log.debug("Unable to serve a metric scrape", e);
+            } finally {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    log.debug("Unable to close a metric scrape connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Responds to one HTTP request with the metrics, ignoring the request
+     * headers.
+     */
+    private void handle(Socket socket) throws IOException {
+        socket.setSoTimeout(SOCKET_TIMEOUT);
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                socket.getInputStream(), StringUtils.UTF8));
+        String requestLine = in.readLine();
+        if (requestLine == null)
+            return;
+        String line;
+        while ((line = in.readLine()) != null && line.length() > 0) {
+            // skip the headers
+        }
+        boolean get = requestLine.startsWith("GET ");
+        boolean head = requestLine.startsWith("HEAD ");
+        byte[] body = get || head
+                ? scrape().getBytes(StringUtils.UTF8)
+                : new byte[0];
+        String header = (get || head ? "HTTP/1.1 200 OK" : "HTTP/1.1 405 Method Not Allowed")
+                + "\r\nContent-Type: " + CONTENT_TYPE
+                + "\r\nContent-Length: " + body.length
+                + "\r\nConnection: close\r\n\r\n";
+        OutputStream out = socket.getOutputStream();
+        out.write(header.getBytes(StringUtils.UTF8));
+        if (!head)
+            out.write(body);
+        out.flush();
+    }
+
+    /**
+     * Returns the current request histograms, counters and gauges in the
+     * Prometheus text exposition format; or an empty string if histogram
+     * metrics are disabled.
+     */
+    public String scrape() {
+        RequestHistograms histograms = AwsSdkMetrics.getRequestHistograms();
+        if (histograms == null)
+            return "";
+        List<Entry> entries = histograms.snapshot();
+        List<CounterEntry> counters = histograms.counters();
+        StringBuilder sb = new StringBuilder(4096);
+        for (Field field : Field.values()) {
+            String name = PREFIX + MetricNames.snakeCase(field.name()) + "_seconds";
+            boolean typed = false;
+            for (Entry e : entries) {
+                if (e.getMetricType() != field)
+                    continue;
+                if (!typed) {
+                    sb.append("# TYPE ").append(name).append(" summary\n");
+                    typed = true;
+                }
+                String labels = labels(e.getServiceName(), e.getOperationName(),
+                        e.getStatusCode());
+                HistogramSnapshot snapshot = e.getHistogram();
+                for (double q : QUANTILES) {
+                    sb.append(name).append('{').append(labels)
+                      .append(",quantile=\"").append(q).append("\"} ")
+                      .append(seconds(snapshot.getValueAtPercentile(q * 100)))
+                      .append('\n');
+                }
+                sb.append(name).append("_sum{").append(labels).append("} ")
+                  .append(seconds(snapshot.getSum())).append('\n');
+                sb.append(name).append("_count{").append(labels).append("} ")
+                  .append(snapshot.getCount()).append('\n');
+            }
+        }
+        for (Field field : Field.values()) {
+            String name = PREFIX + MetricNames.snakeCase(field.name());
+            boolean typed = false;
+            for (CounterEntry c : counters) {
+                if (c.getMetricType() != field)
+                    continue;
+                String metric = c.isGauge() ? name : name + "_total";
+                if (!typed) {
+                    sb.append("# TYPE ").append(metric)
+                      .append(c.isGauge() ? " gauge\n" : " counter\n");
+                    typed = true;
+                }
+                sb.append(metric).append('{');
+                if (c.isGauge()) {
+                    sb.append("service=\"").append(escape(c.getServiceName())).append('"');
+                } else {
+                    sb.append(labels(c.getServiceName(), c.getOperationName(),
+                            c.getStatusCode()));
+                }
+                sb.append("} ").append(c.getValue()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String labels(String service, String operation, int statusCode) {
+        return "service=\"" + escape(service) + "\",operation=\""
+                + escape(operation) + "\",status=\"" + statusCode + '"';
+    }
+
+    private static String seconds(long micros) {
+        return String.valueOf(micros / 1e6);
+    }
+
+    /** Escapes the given label value. */
+    private static String escape(String value) {
+        if (value == null)
+            return "";
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.metrics.export;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.metrics.AwsSdkMetrics;
+import com.amazonaws.metrics.HistogramSnapshot;
+import com.amazonaws.metrics.MetricExporter;
+import com.amazonaws.metrics.RequestHistograms;
+import com.amazonaws.metrics.RequestHistograms.CounterEntry;
+import com.amazonaws.metrics.RequestHistograms.Entry;
+import com.amazonaws.util.StringUtils;
+
+/**
+ * A metric exporter periodically sending the request histograms and counters
+ * over UDP in the StatsD line protocol, to a local StatsD, Telegraf or
+ * DogStatsD agent.
+ * <p>
+ * At each interval, for each timed metric of each service, operation and
+ * status code with values recorded during the interval, the exporter sends
+ * the number of values as a counter and the p50, p99, p999 and maximum in
+ * milliseconds as gauges, eg
+ * <code>aws.sdk.AmazonS3.PutObject.200.client_execute_time.p99:12.5|g</code>;
+ * the increase of each counter as a counter, eg
+ * <code>aws.sdk.AmazonS3.PutObject.503.throttle_exception:2|c</code>; and
+ * each connection pool gauge as a gauge, eg
+ * <code>aws.sdk.AmazonS3.http_client_pool_leased_count:4|g</code>.
+ *
+ * @see AwsSdkMetrics#addMetricExporter(MetricExporter)
+ */
+@ThreadSafe
+public class StatsDExporter extends MetricExporter {
+    /** Default prefix of the metric names. */
+    public static final String DEFAULT_PREFIX = "aws.sdk";
+
+    /** Default interval between exports in milliseconds. */
+    public static final long DEFAULT_INTERVAL_MILLIS = 10 * 1000;
+
+    private static final Log log = LogFactory.getLog(StatsDExporter.class);
+    /** Maximum payload of a packet, so that it is not fragmented on Ethernet. */
+    private static final int MAX_PACKET_SIZE = 1432;
+
+    private final InetSocketAddress address;
+    private final String prefix;
+    private final long intervalMillis;
+    /** The histograms and counters at the previous export, by metric name. */
+    private final Map<String, HistogramSnapshot> previousHistograms =
+        new HashMap<String, HistogramSnapshot>();
+    private final Map<String, Long> previousCounters = new HashMap<String, Long>();
+    private ScheduledExecutorService executor;
+    private DatagramSocket socket;
+
+    /**
+     * Creates an exporter sending to the StatsD agent at the given host and
+     * port, with the default prefix and interval.
+     */
+    public StatsDExporter(String host, int port) {
+        this(new InetSocketAddress(host, port), DEFAULT_PREFIX, DEFAULT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param address
+     *            the address of the StatsD agent
+     * @param prefix
+     *            the prefix of the metric names, eg "aws.sdk"
+     * @param intervalMillis
+     *            the interval between exports in milliseconds
+     */
+    public StatsDExporter(InetSocketAddress address, String prefix,
+            long intervalMillis) {
+        if (intervalMillis <= 0)
+            throw new IllegalArgumentException("intervalMillis must be positive");
+        this.address = address;
+        this.prefix = prefix;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @Override
+    public synchronized boolean start() {
+        if (executor != null)
+            return false;
+        try {
+            socket = new DatagramSocket();
+        } catch (SocketException e) {
+            log.warn("Unable to open a socket to send metrics to " + address, e);
+            return false;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "java-sdk-metrics-statsd");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    export();
+                } catch (RuntimeException e) {
+                    log.debug("Unable to export metrics to " + address, e);
+                }
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean stop() {
+        if (executor == null)
+            return false;
+        executor.shutdownNow();
+        executor = null;
+        socket.close();
+        socket = null;
+        previousHistograms.clear();
+        previousCounters.clear();
+        return true;
+    }
+
+    /**
+     * Sends the values recorded since the previous export. Called at each
+     * interval once started, but can also be called to export immediately,
+     * eg before shutting down.
+     */
+    public synchronized void export() {
+        RequestHistograms histograms = AwsSdkMetrics.getRequestHistograms();
+        if (socket == null || histograms == null)
+            return;
+        StringBuilder packet = new StringBuilder(MAX_PACKET_SIZE);
+        for (Entry e : histograms.snapshot()) {
+            String name = name(e.getServiceName(), e.getOperationName(),
+                    e.getStatusCode(), e.getMetricType().name());
+            HistogramSnapshot snapshot = e.getHistogram();
+            HistogramSnapshot previous = previousHistograms.put(name, snapshot);
+            HistogramSnapshot interval = previous == null
+                    ? snapshot
+                    : snapshot.since(previous);
+            if (interval.getCount() == 0)
+                continue;
+            append(packet, name + ".count:" + interval.getCount() + "|c");
+            append(packet, name + ".p50:" + millis(interval.getValueAtPercentile(50)) + "|g");
+            append(packet, name + ".p99:" + millis(interval.getValueAtPercentile(99)) + "|g");
+            append(packet, name + ".p999:" + millis(interval.getValueAtPercentile(99.9)) + "|g");
+            append(packet, name + ".max:" + millis(interval.getMax()) + "|g");
+        }
+        for (CounterEntry c : histograms.counters()) {
+            if (c.isGauge()) {
+                append(packet, prefix + "." + MetricNames.sanitize(c.getServiceName())
+                        + "." + MetricNames.snakeCase(c.getMetricType().name())
+                        + ":" + c.getValue() + "|g");
+                continue;
+            }
+            String name = name(c.getServiceName(), c.getOperationName(),
+                    c.getStatusCode(), c.getMetricType().name());
+            Long previous = previousCounters.put(name, c.getValue());
+            long delta = previous == null || previous > c.getValue()
+                    ? c.getValue()
+                    : c.getValue() - previous;
+            if (delta > 0)
+                append(packet, name + ":" + delta + "|c");
+        }
+        send(packet);
+    }
+
+    private String name(String service, String operation, int statusCode,
+            String metric) {
+        return prefix + "." + MetricNames.sanitize(service) + "."
+                + MetricNames.sanitize(operation) + "." + statusCode + "."
+                + MetricNames.snakeCase(metric);
+    }
+
+    /**
+     * Appends the given line to the packet, sending the packet first if the
+     * line would not fit.
+     */
+    private void append(StringBuilder packet, String line) {
+        if (packet.length() > 0 && packet.length() + 1 + line.length() > MAX_PACKET_SIZE)
+            send(packet);
+        if (packet.length() > 0)
+            packet.append('\n');
+        packet.append(line);
+    }
+
+    private void send(StringBuilder packet) {
+        if (packet.length() == 0)
+            return;
+        byte[] bytes = packet.toString().getBytes(StringUtils.UTF8);
+        packet.setLength(0);
+        try {
+            socket.send(new DatagramPacket(bytes, bytes.length, address));
+        } catch (IOException e) {
+            log.debug("Unable to send metrics to " + address, e);
+        }
+    }
+
+    private static String millis(long micros) {
+        return String.valueOf(micros / 1000.0);
+    }
+}
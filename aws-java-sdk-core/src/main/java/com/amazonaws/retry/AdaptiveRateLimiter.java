@@ -0,0 +1,222 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.retry;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.AmazonServiceException;
+
+/**
+ * A client-side token bucket that adapts the rate at which a client sends
+ * requests to the rate at which the service accepts them.
+ * <p>
+ * The limiter lets every request through until the first throttling error is
+ * received. From then on, requests are paced at the fill rate of the bucket,
+ * which is cut down on each throttling error, and probed back up on
+ * successful responses following a cubic function of the time since the
+ * last throttling error: the rate first recovers quickly towards the rate at
+ * which throttling last occurred, levels off around it, and then grows again
+ * to discover any additional capacity. The fill rate never exceeds twice the
+ * rate at which requests are actually being sent, so an idle client does not
+ * build up an unbounded allowance.
+ * <p>
+ * Unlike the back-off of the retry policy, which only delays the retries of
+ * a throttled request, the limiter paces all the requests of the client,
+ * across all threads, so that the client converges to the throughput the
+ * service accepts instead of repeatedly exceeding it.
+ *
+ * @see com.amazonaws.ClientConfiguration#setUseAdaptiveRateLimiting(boolean)
+ */
+@ThreadSafe
+public class AdaptiveRateLimiter {
+    /** The factor the fill rate is multiplied by on a throttling error. */
+    private static final double BETA = 0.7;
+    /** The scaling constant of the cubic rate recovery. */
+    private static final double SCALE_CONSTANT = 0.4;
+    /** The smoothing factor of the measured send rate. */
+    private static final double SMOOTH = 0.8;
+    /** The duration of each bucket the send rate is measured over. */
+    private static final double MEASUREMENT_INTERVAL_SECONDS = 0.5;
+    /** The lowest fill rate, in requests per second. */
+    private static final double MIN_FILL_RATE = 0.5;
+    /** The lowest capacity of the bucket, in requests. */
+    private static final double MIN_CAPACITY = 1;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final long startNanos = System.nanoTime();
+
+    private boolean enabled;
+    private double fillRate;
+    private double capacity;
+    private double tokens;
+    private double lastRefillSeconds;
+
+    private double lastMaxRate;
+    private double lastThrottleSeconds;
+
+    private double measuredTxRate;
+    /** The number of requests sent since the start of the current bucket */
+    private long requestCount;
+    private double lastTxRateBucket;
+
+    /**
+     * Takes a token for sending a request if one is available; otherwise
+     * returns how long until the next token is expected. Callers that cannot
+     * block can schedule another attempt after the returned delay. No token
+     * is held back for the caller in the meantime, so that the delay always
+     * reflects the current fill rate, however much it changes while the
+     * caller waits.
+     *
+     * @return 0 if a token was taken, and the request may be sent right away;
+     *         otherwise the delay in milliseconds before trying again.
+     */
+    public synchronized long tryAcquire() {
+        double now = now();
+        updateMeasuredRate(now);
+        if (enabled) {
+            refill(now);
+            if (tokens < 1)
+                return Math.max(1, (long) Math.ceil((1 - tokens) / fillRate * 1000));
+            tokens -= 1;
+        }
+        requestCount++;
+        return 0;
+    }
+
+    /**
+     * Blocks until a request may be sent.
+     *
+     * @throws InterruptedException
+     *             if the thread is interrupted while paused.
+     */
+    public void acquire() throws InterruptedException {
+        long delay;
+        while ((delay = tryAcquire()) > 0)
+            Thread.sleep(delay);
+    }
+
+    /**
+     * Updates the fill rate according to the outcome of a request: a
+     * throttling error cuts the rate, whereas any other response probes it
+     * back up.
+     *
+     * @param ase
+     *            The error returned by the service; or null if the request
+     *            succeeded.
+     */
+    public void onResponse(AmazonServiceException ase) {
+        if (RetryUtils.isThrottlingException(ase))
+            onThrottle();
+        else
+            onSuccess();
+    }
+
+    /**
+     * Cuts the fill rate following a throttling error, enabling the limiter
+     * if it wasn't yet.
+     */
+    public synchronized void onThrottle() {
+        double now = now();
+        updateMeasuredRate(now);
+        // The requests in flight when the rate was cut are likely to be
+        // throttled too; cut at most once per measurement interval
+        if (enabled && now - lastThrottleSeconds < MEASUREMENT_INTERVAL_SECONDS)
+            return;
+        double rateToUse = enabled
+                ? Math.min(sendRate(now), fillRate)
+                : sendRate(now);
+        lastMaxRate = rateToUse;
+        lastThrottleSeconds = now;
+        updateFillRate(now, rateToUse * BETA);
+        enabled = true;
+    }
+
+    /**
+     * Probes the fill rate back up following a successful response.
+     */
+    public synchronized void onSuccess() {
+        double now = now();
+        updateMeasuredRate(now);
+        if (!enabled)
+            return;
+        double k = Math.cbrt(lastMaxRate * (1 - BETA) / SCALE_CONSTANT);
+        double t = now - lastThrottleSeconds - k;
+        double cubicRate = SCALE_CONSTANT * t * t * t + lastMaxRate;
+        updateFillRate(now, Math.min(cubicRate, 2 * sendRate(now)));
+    }
+
+    /**
+     * Returns the current fill rate, in requests per second; or a negative
+     * value if no throttling error has been received yet, and requests are
+     * therefore not being rate limited.
+     */
+    public synchronized double getRate() {
+        return enabled ? fillRate : -1;
+    }
+
+    /**
+     * Returns the smoothed rate, in requests per second, at which requests
+     * are being sent.
+     */
+    public synchronized double getMeasuredRate() {
+        return measuredTxRate;
+    }
+
+    private void updateFillRate(double now, double newRate) {
+        refill(now);
+        fillRate = Math.max(newRate, MIN_FILL_RATE);
+        capacity = Math.max(fillRate, MIN_CAPACITY);
+        // Drop any allowance above the new capacity, but keep the debt of
+        // waiting threads
+        tokens = Math.min(tokens, capacity);
+    }
+
+    private void refill(double now) {
+        if (enabled) {
+            tokens = Math.min(capacity,
+                    tokens + (now - lastRefillSeconds) * fillRate);
+        } else {
+            tokens = capacity;
+        }
+        lastRefillSeconds = now;
+    }
+
+    private void updateMeasuredRate(double now) {
+        double bucket = Math.floor(now / MEASUREMENT_INTERVAL_SECONDS)
+                * MEASUREMENT_INTERVAL_SECONDS;
+        if (bucket > lastTxRateBucket) {
+            double currentRate = requestCount / (bucket - lastTxRateBucket);
+            measuredTxRate = currentRate * SMOOTH
+                    + measuredTxRate * (1 - SMOOTH);
+            requestCount = 0;
+            lastTxRateBucket = bucket;
+        }
+    }
+
+    /**
+     * Returns the measured send rate; or, until the first bucket has been
+     * completed, the send rate over the current bucket so far.
+     */
+    private double sendRate(double now) {
+        if (measuredTxRate > 0)
+            return measuredTxRate;
+        double elapsed = Math.max(now - lastTxRateBucket, 0.1);
+        return requestCount / elapsed;
+    }
+
+    private double now() {
+        return (System.nanoTime() - startNanos) / NANOS_PER_SECOND;
+    }
+}
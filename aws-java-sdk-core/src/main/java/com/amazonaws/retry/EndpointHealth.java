@@ -0,0 +1,249 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.annotation.ThreadSafe;
+
+/**
+ * Tracks the recent outcome of the calls made by a client to one service
+ * endpoint, in order to enforce a retry budget and an optional circuit
+ * breaker for that endpoint.
+ * <p>
+ * Outcomes are counted over a sliding window of {@value #WINDOW_SECONDS}
+ * seconds. Failures are the outcomes indicating the endpoint itself is
+ * struggling, ie I/O errors, 5xx responses and throttling errors, as
+ * opposed to client errors.
+ * <ul>
+ * <li>The retry budget only permits a retry while the number of retries
+ * within the window stays under the configured ratio of successful calls
+ * within the window, plus a floor of {@value #MIN_RETRIES_PER_WINDOW}
+ * retries so that lightly used clients can still retry. When an endpoint
+ * degrades, retries therefore stop multiplying the load on it.</li>
+ * <li>The circuit breaker opens once the proportion of failed calls within
+ * the window reaches the configured threshold, provided at least
+ * {@value #MIN_CALLS_PER_WINDOW} calls were made. While open, requests fail
+ * fast without being sent. Once the open duration has elapsed, a single
+ * probe request is let through: the circuit closes again if it succeeds, or
+ * stays open for another open duration if it fails.</li>
+ * </ul>
+ *
+ * @see com.amazonaws.ClientConfiguration#setRetryBudgetRatio(double)
+ * @see com.amazonaws.ClientConfiguration#setCircuitBreakerErrorThreshold(double)
+ */
+@ThreadSafe
+public class EndpointHealth implements EndpointHealthMBean {
+    /** The length of the sliding window, in one second buckets. */
+    static final int WINDOW_SECONDS = 10;
+    /** The number of retries always permitted within the window. */
+    static final int MIN_RETRIES_PER_WINDOW = 10;
+    /** The number of calls within the window before the circuit can open. */
+    static final int MIN_CALLS_PER_WINDOW = 20;
+
+    private enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    private final String endpoint;
+    private final double retryBudgetRatio;
+    private final double errorThreshold;
+    private final long openDurationNanos;
+
+    private final long[] successes = new long[WINDOW_SECONDS];
+    private final long[] failures = new long[WINDOW_SECONDS];
+    private final long[] retries = new long[WINDOW_SECONDS];
+    /** The second the most recent bucket is for */
+    private long currentSecond;
+
+    private CircuitState state = CircuitState.CLOSED;
+    private long openedAtNanos;
+    private long probeStartedAtNanos;
+
+    private final AtomicLong retriesDenied = new AtomicLong();
+    private final AtomicLong requestsRejected = new AtomicLong();
+
+    /**
+     * @param endpoint
+     *            the service endpoint
+     * @param retryBudgetRatio
+     *            the ratio of retries to successful calls permitted; or 0 to
+     *            disable the retry budget
+     * @param errorThreshold
+     *            the proportion of failed calls at which the circuit opens,
+     *            between 0 and 1; or 0 to disable the circuit breaker
+     * @param openDurationMillis
+     *            how long the circuit stays open before a probe request is let
+     *            through
+     */
+    public EndpointHealth(String endpoint, double retryBudgetRatio,
+            double errorThreshold, long openDurationMillis) {
+        this.endpoint = endpoint;
+        this.retryBudgetRatio = retryBudgetRatio;
+        this.errorThreshold = errorThreshold;
+        this.openDurationNanos = openDurationMillis * 1000000L;
+        this.currentSecond = System.nanoTime() / 1000000000L;
+    }
+
+    /**
+     * Returns true if a request may be sent to the endpoint; false if the
+     * circuit is open, and the request should fail fast.
+     */
+    public synchronized boolean allowRequest() {
+        if (errorThreshold <= 0 || state == CircuitState.CLOSED)
+            return true;
+        long now = System.nanoTime();
+        if (state == CircuitState.OPEN && now - openedAtNanos >= openDurationNanos
+         || state == CircuitState.HALF_OPEN && now - probeStartedAtNanos >= openDurationNanos) {
+            // Let a single probe through; or another one if the previous
+            // probe never reported back
+            state = CircuitState.HALF_OPEN;
+            probeStartedAtNanos = now;
+            return true;
+        }
+        requestsRejected.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Returns true and accounts for the retry if the retry budget permits
+     * another retry to the endpoint; false otherwise.
+     */
+    public synchronized boolean allowRetry() {
+        int i = roll();
+        if (retryBudgetRatio > 0) {
+            long permitted = (long) (sum(successes) * retryBudgetRatio)
+                    + MIN_RETRIES_PER_WINDOW;
+            if (sum(retries) >= permitted) {
+                retriesDenied.incrementAndGet();
+                return false;
+            }
+        }
+        retries[i]++;
+        return true;
+    }
+
+    /** Records a successful call to the endpoint. */
+    public synchronized void onSuccess() {
+        successes[roll()]++;
+        if (state == CircuitState.HALF_OPEN) {
+            state = CircuitState.CLOSED;
+            clear();
+        }
+    }
+
+    /** Records a failed call to the endpoint. */
+    public synchronized void onFailure() {
+        failures[roll()]++;
+        if (errorThreshold <= 0)
+            return;
+        if (state == CircuitState.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == CircuitState.CLOSED) {
+            long failed = sum(failures);
+            long total = failed + sum(successes);
+            if (total >= MIN_CALLS_PER_WINDOW
+                    && failed >= errorThreshold * total)
+                open();
+        }
+    }
+
+    private void open() {
+        state = CircuitState.OPEN;
+        openedAtNanos = System.nanoTime();
+    }
+
+    /**
+     * Advances the window to the current second, clearing the buckets that
+     * have expired, and returns the index of the current bucket.
+     */
+    private int roll() {
+        long second = System.nanoTime() / 1000000000L;
+        long elapsed = second - currentSecond;
+        if (elapsed > 0) {
+            for (long s = currentSecond + 1;
+                    s <= second && s <= currentSecond + WINDOW_SECONDS; s++) {
+                int i = (int) (s % WINDOW_SECONDS);
+                successes[i] = failures[i] = retries[i] = 0;
+            }
+            currentSecond = second;
+        }
+        return (int) (currentSecond % WINDOW_SECONDS);
+    }
+
+    private void clear() {
+        for (int i = 0; i < WINDOW_SECONDS; i++)
+            successes[i] = failures[i] = retries[i] = 0;
+    }
+
+    private static long sum(long[] buckets) {
+        long sum = 0;
+        for (long count : buckets)
+            sum += count;
+        return sum;
+    }
+
+    @Override
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public synchronized String getCircuitState() {
+        return state.name();
+    }
+
+    @Override
+    public synchronized long getRecentSuccessCount() {
+        roll();
+        return sum(successes);
+    }
+
+    @Override
+    public synchronized long getRecentFailureCount() {
+        roll();
+        return sum(failures);
+    }
+
+    @Override
+    public synchronized long getRecentRetryCount() {
+        roll();
+        return sum(retries);
+    }
+
+    @Override
+    public synchronized double getRecentErrorRate() {
+        roll();
+        long failed = sum(failures);
+        long total = failed + sum(successes);
+        return total == 0 ? 0 : (double) failed / total;
+    }
+
+    @Override
+    public long getRetriesDenied() {
+        return retriesDenied.get();
+    }
+
+    @Override
+    public long getRequestsRejected() {
+        return requestsRejected.get();
+    }
+
+    @Override
+    public synchronized void reset() {
+        state = CircuitState.CLOSED;
+        clear();
+    }
+}
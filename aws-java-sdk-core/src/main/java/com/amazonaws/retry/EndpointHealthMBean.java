@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.retry;
+
+/**
+ * MBean interface exposing the retry budget and circuit breaker state of a
+ * client for one service endpoint.
+ *
+ * @see EndpointHealth
+ */
+public interface EndpointHealthMBean {
+    /** Returns the service endpoint, such as https://dynamodb.us-east-1.amazonaws.com. */
+    public String getEndpoint();
+
+    /** Returns the state of the circuit breaker: CLOSED, OPEN or HALF_OPEN. */
+    public String getCircuitState();
+
+    /** Returns the number of successful calls within the sliding window. */
+    public long getRecentSuccessCount();
+
+    /** Returns the number of failed calls within the sliding window. */
+    public long getRecentFailureCount();
+
+    /** Returns the number of retries sent within the sliding window. */
+    public long getRecentRetryCount();
+
+    /**
+     * Returns the proportion of failed calls within the sliding window,
+     * between 0 and 1.
+     */
+    public double getRecentErrorRate();
+
+    /**
+     * Returns the total number of retries denied because the retry budget
+     * was exhausted.
+     */
+    public long getRetriesDenied();
+
+    /**
+     * Returns the total number of requests failed fast because the circuit
+     * breaker was open.
+     */
+    public long getRequestsRejected();
+
+    /**
+     * Closes the circuit breaker and clears the sliding window.
+     */
+    public void reset();
+}
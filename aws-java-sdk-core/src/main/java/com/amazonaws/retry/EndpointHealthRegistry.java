@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.retry;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.annotation.ThreadSafe;
+
+import com.amazonaws.jmx.spi.SdkGenericMBeanRegistry;
+import com.amazonaws.jmx.spi.SdkMBeanRegistry;
+
+/**
+ * Holds the {@link EndpointHealth} of each service endpoint called by a
+ * client, and exports each of them as an MBean for JMX access, under the
+ * object name
+ * <code>com.amazonaws.management:type=EndpointHealth,client=&lt;n&gt;,endpoint="&lt;endpoint&gt;"</code>.
+ */
+@ThreadSafe
+public class EndpointHealthRegistry {
+    private static final String MBEAN_OBJECT_NAME_PREFIX =
+        "com.amazonaws.management:type=" + EndpointHealth.class.getSimpleName();
+    private static final AtomicInteger clientCount = new AtomicInteger();
+
+    private final int clientId = clientCount.incrementAndGet();
+    private final double retryBudgetRatio;
+    private final double errorThreshold;
+    private final long openDurationMillis;
+    private final ConcurrentMap<String, EndpointHealth> endpoints =
+        new ConcurrentHashMap<String, EndpointHealth>();
+
+    /**
+     * @see EndpointHealth#EndpointHealth(String, double, double, long)
+     */
+    public EndpointHealthRegistry(double retryBudgetRatio,
+            double errorThreshold, long openDurationMillis) {
+        this.retryBudgetRatio = retryBudgetRatio;
+        this.errorThreshold = errorThreshold;
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    /**
+     * Returns the health of the given endpoint, creating and exporting it
+     * if it is called for the first time.
+     */
+    public EndpointHealth get(URI endpoint) {
+        String key = endpoint.getScheme() + "://" + endpoint.getAuthority();
+        EndpointHealth health = endpoints.get(key);
+        if (health == null) {
+            EndpointHealth created = new EndpointHealth(key, retryBudgetRatio,
+                    errorThreshold, openDurationMillis);
+            health = endpoints.putIfAbsent(key, created);
+            if (health == null) {
+                health = created;
+                SdkMBeanRegistry registry = SdkMBeanRegistry.Factory.getMBeanRegistry();
+                if (registry instanceof SdkGenericMBeanRegistry) {
+                    ((SdkGenericMBeanRegistry) registry).registerMBean(
+                            objectName(key), created);
+                }
+            }
+        }
+        return health;
+    }
+
+    /**
+     * Unregisters the MBeans of all the endpoints from JMX.
+     */
+    public void shutdown() {
+        SdkMBeanRegistry registry = SdkMBeanRegistry.Factory.getMBeanRegistry();
+        for (String key : endpoints.keySet())
+            registry.unregisterMBean(objectName(key));
+    }
+
+    private String objectName(String endpoint) {
+        return MBEAN_OBJECT_NAME_PREFIX + ",client=" + clientId
+                + ",endpoint=" + quote(endpoint);
+    }
+
+    /**
+     * Quotes the given value for use in an object name, as
+     * javax.management.ObjectName#quote would, without depending on JMX.
+     */
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\\': case '"': case '*': case '?':
+                sb.append('\\');
+                // fall through
+            default:
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -16,9 +16,12 @@ package com.amazonaws.transform;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Date;
 import java.util.Map;
 
 import com.amazonaws.http.HttpResponse;
+import com.amazonaws.util.Base64;
+import com.amazonaws.util.DateUtils;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
 
@@ -77,6 +80,85 @@ public abstract class JsonUnmarshallerContext {
         return null;
     }
 
+    /**
+     * Returns the value of the current token as an Integer. By default, the
+     * value is parsed from the text returned by {@link #readText()}.
+     *
+     * @return The value of the current token, or null if it has no text.
+     *
+     * @throws IOException
+     */
+    public Integer readInteger() throws IOException {
+        String text = readText();
+        return (text == null) ? null : Integer.parseInt(text);
+    }
+
+    /**
+     * Returns the value of the current token as a Long. By default, the value
+     * is parsed from the text returned by {@link #readText()}.
+     *
+     * @return The value of the current token, or null if it has no text.
+     *
+     * @throws IOException
+     */
+    public Long readLong() throws IOException {
+        String text = readText();
+        return (text == null) ? null : Long.parseLong(text);
+    }
+
+    /**
+     * Returns the value of the current token as a Double. By default, the
+     * value is parsed from the text returned by {@link #readText()}.
+     *
+     * @return The value of the current token, or null if it has no text.
+     *
+     * @throws IOException
+     */
+    public Double readDouble() throws IOException {
+        String text = readText();
+        return (text == null) ? null : Double.parseDouble(text);
+    }
+
+    /**
+     * Returns the value of the current token as a Boolean. By default, the
+     * value is parsed from the text returned by {@link #readText()}.
+     *
+     * @return The value of the current token, or null if it has no text.
+     *
+     * @throws IOException
+     */
+    public Boolean readBoolean() throws IOException {
+        String text = readText();
+        return (text == null) ? null : Boolean.parseBoolean(text);
+    }
+
+    /**
+     * Returns the value of the current token as a date, given in seconds
+     * since epoch. By default, the value is parsed from the text returned by
+     * {@link #readText()}.
+     *
+     * @return The value of the current token, or null if it has no text.
+     *
+     * @throws IOException
+     */
+    public Date readDate() throws IOException {
+        return DateUtils.parseServiceSpecificDate(readText());
+    }
+
+    /**
+     * Returns the bytes of the current token, a Base64 encoded string. By
+     * default, the bytes are decoded from the text returned by
+     * {@link #readText()}.
+     *
+     * @return The bytes of the current token, or null if it has no text.
+     *
+     * @throws IOException
+     */
+    public byte[] readBinary() throws IOException {
+        String text = readText();
+        return (text == null) ? null : Base64.decode(text);
+    }
+
     /**
      * Returns true if parsing of the Json document is yet to start. Returns
      * false by default or if the parsing of Json document is not yet started.
@@ -19,18 +19,27 @@ import static com.fasterxml.jackson.core.JsonToken.END_OBJECT;
 import static com.fasterxml.jackson.core.JsonToken.FIELD_NAME;
 import static com.fasterxml.jackson.core.JsonToken.START_ARRAY;
 import static com.fasterxml.jackson.core.JsonToken.START_OBJECT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_FALSE;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_FLOAT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_STRING;
+import static com.fasterxml.jackson.core.JsonToken.VALUE_TRUE;
 
 import java.io.IOException;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Stack;
 
 import com.amazonaws.http.HttpResponse;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
 import com.fasterxml.jackson.core.JsonToken;
 
 public class JsonUnmarshallerContextImpl extends JsonUnmarshallerContext {
 
+    /** Dates are given in seconds since epoch, with up to millisecond precision */
+    private static final int AWS_DATE_MILLI_SECOND_PRECISION = 3;
+
     /** The current JsonToken that the private JsonParser is currently pointing to. **/
     private JsonToken currentToken;
 
@@ -42,7 +51,8 @@ public class JsonUnmarshallerContextImpl extends JsonUnmarshallerContext {
     private String currentHeader;
 
     /**
-     * A stack of JsonFieldTokenPair objects that indicates the current state of the context.
+     * A stack of field names, each paired in {@link #stackTokens} with the
+     * token following it, that indicates the current state of the context.
      * For example, if we have a JSON object:
      * {
      *   A :
@@ -59,14 +69,15 @@ public class JsonUnmarshallerContextImpl extends JsonUnmarshallerContext {
      * When the parser points to "D", the state of this stack should be (from top to bottom):
      *  [ (C, START_OBJECT), (B, START_ARRAY), (A, START_OBJECT) ]
      */
-    private final Stack<JsonFieldTokenPair> stack = new Stack<JsonFieldTokenPair>();
+    private String[] stackFields = new String[8];
+    private JsonToken[] stackTokens = new JsonToken[8];
+    private int stackSize;
 
     /**
      * The name of the field that is currently being parsed. This value is
      * nulled out when the parser reaches into the object/array structure of the
      * corresponding value, and then it will be pushed into the stack after
-     * wrapped into a JsonFieldTokenPair object with the START_OBJECT or
-     * START_ARRAY token following it.
+     * along with the START_OBJECT or START_ARRAY token following it.
      * So in the same example as shown above:
      *   (1) when the parser moves from "C" to "{", (currentField, START_OBJECT)
      *       will be pushed into the stack and currentField will be set null;
@@ -109,7 +120,7 @@ public class JsonUnmarshallerContextImpl extends JsonUnmarshallerContext {
 
     @Override
     public int getCurrentDepth() {
-        int depth = stack.size();
+        int depth = stackSize;
         if (currentField != null) depth++;
         return depth;
     }
@@ -142,6 +153,64 @@ public class JsonUnmarshallerContextImpl extends JsonUnmarshallerContext {
         }
     }
 
+    @Override
+    public Integer readInteger() throws IOException {
+        if (currentToken == VALUE_NUMBER_INT
+                && jsonParser.getNumberType() == NumberType.INT) {
+            return jsonParser.getIntValue();
+        }
+        return super.readInteger();
+    }
+
+    @Override
+    public Long readLong() throws IOException {
+        if (currentToken == VALUE_NUMBER_INT
+                && jsonParser.getNumberType() != NumberType.BIG_INTEGER) {
+            return jsonParser.getLongValue();
+        }
+        return super.readLong();
+    }
+
+    @Override
+    public Double readDouble() throws IOException {
+        if (currentToken == VALUE_NUMBER_FLOAT || currentToken == VALUE_NUMBER_INT) {
+            return jsonParser.getDoubleValue();
+        }
+        return super.readDouble();
+    }
+
+    @Override
+    public Boolean readBoolean() throws IOException {
+        if (currentToken == VALUE_TRUE) return Boolean.TRUE;
+        if (currentToken == VALUE_FALSE) return Boolean.FALSE;
+        return super.readBoolean();
+    }
+
+    @Override
+    public Date readDate() throws IOException {
+        if (currentToken == VALUE_NUMBER_INT
+                && jsonParser.getNumberType() != NumberType.BIG_INTEGER) {
+            return new Date(jsonParser.getLongValue() * 1000);
+        }
+        if (currentToken == VALUE_NUMBER_FLOAT) {
+            return new Date(jsonParser.getDecimalValue()
+                    .scaleByPowerOfTen(AWS_DATE_MILLI_SECOND_PRECISION).longValue());
+        }
+        return super.readDate();
+    }
+
+    /**
+     * Decodes the current string token straight from the parser's input,
+     * without reading it into a string first.
+     */
+    @Override
+    public byte[] readBinary() throws IOException {
+        if (currentToken == VALUE_STRING) {
+            return jsonParser.getBinaryValue();
+        }
+        return super.readBinary();
+    }
+
     @Override
     public boolean isInsideResponseHeader() {
         return currentToken == null && nextToken == null;
@@ -160,8 +229,8 @@ public class JsonUnmarshallerContextImpl extends JsonUnmarshallerContext {
             if (currentField != null) {
                 return currentField.equals(expression);
             } else {
-                return (!stack.isEmpty())
-                        && stack.peek().getField().equals(expression);
+                return stackSize > 0
+                        && stackFields[stackSize - 1].equals(expression);
             }
         }
     }
@@ -171,8 +240,8 @@ public class JsonUnmarshallerContextImpl extends JsonUnmarshallerContext {
         String parentElement;
         if (currentField != null) {
             parentElement = currentField;
-        } else if ( !stack.isEmpty() ) {
-            parentElement = stack.peek().getField();
+        } else if (stackSize > 0) {
+            parentElement = stackFields[stackSize - 1];
         } else {
             parentElement = "";
         }
@@ -184,8 +253,8 @@ public class JsonUnmarshallerContextImpl extends JsonUnmarshallerContext {
         if (expression.equals(".")) {
             return true;
         } else {
-            return testExpression(expression)
-                    && stackDepth == getCurrentDepth();
+            return stackDepth == getCurrentDepth()
+                    && testExpression(expression);
         }
     }
 
@@ -237,15 +306,17 @@ public class JsonUnmarshallerContextImpl extends JsonUnmarshallerContext {
 
         if (currentToken == START_OBJECT || currentToken == START_ARRAY) {
             if (currentField != null) {
-                stack.push(new JsonFieldTokenPair(currentField, currentToken));
+                push(currentField, currentToken);
                 currentField = null;
             }
         } else if (currentToken == END_OBJECT || currentToken == END_ARRAY) {
-            if (!stack.isEmpty()) {
-                boolean squareBracketsMatch = currentToken == END_ARRAY && stack.peek().getToken() == START_ARRAY;
-                boolean curlyBracketsMatch = currentToken == END_OBJECT && stack.peek().getToken() == START_OBJECT;
+            if (stackSize > 0) {
+                JsonToken top = stackTokens[stackSize - 1];
+                boolean squareBracketsMatch = currentToken == END_ARRAY && top == START_ARRAY;
+                boolean curlyBracketsMatch = currentToken == END_OBJECT && top == START_OBJECT;
                 if (squareBracketsMatch || curlyBracketsMatch) {
-                    lastParsedParentElement = stack.pop().getField();
+                    lastParsedParentElement = stackFields[--stackSize];
+                    stackFields[stackSize] = null;
                 }
             }
             currentField = null;
@@ -259,9 +330,9 @@ public class JsonUnmarshallerContextImpl extends JsonUnmarshallerContext {
     public String toString() {
         StringBuilder stackString = new StringBuilder();
 
-        for (JsonFieldTokenPair jsonFieldTokenPair : stack) {
+        for (int i = 0; i < stackSize; i++) {
             stackString.append("/")
-                       .append(jsonFieldTokenPair.getField());
+                       .append(stackFields[i]);
         }
 
         if (currentField != null) {
@@ -277,36 +348,17 @@ public class JsonUnmarshallerContextImpl extends JsonUnmarshallerContext {
         return lastParsedParentElement;
     }
 
-    /**
-     * An immutable class used to indicate a JSON field value followed by a
-     * subsequent JSON token. This inner class should only be used by the
-     * private stack to indicate the current state of the context.
-     */
-    private static class JsonFieldTokenPair {
-        private final String field;
-        private final JsonToken jsonToken;
-
-        /**
-         * @param fieldString
-         *            Not null.
-         * @param token
-         *            Not null.
-         */
-        public JsonFieldTokenPair(String fieldString, JsonToken token) {
-            field = fieldString;
-            jsonToken = token;
-        }
-
-        public String getField() {
-            return field;
-        }
-
-        public JsonToken getToken() {
-            return jsonToken;
-        }
-
-        public String toString() {
-            return field + ": " + jsonToken.asString();
+    private void push(String field, JsonToken token) {
+        if (stackSize == stackFields.length) {
+            String[] newFields = new String[stackSize * 2];
+            JsonToken[] newTokens = new JsonToken[stackSize * 2];
+            System.arraycopy(stackFields, 0, newFields, 0, stackSize);
+            System.arraycopy(stackTokens, 0, newTokens, 0, stackSize);
+            stackFields = newFields;
+            stackTokens = newTokens;
         }
+        stackFields[stackSize] = field;
+        stackTokens[stackSize] = token;
+        stackSize++;
     }
 }
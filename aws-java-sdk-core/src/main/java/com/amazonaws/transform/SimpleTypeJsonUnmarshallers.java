@@ -19,8 +19,6 @@ import java.nio.ByteBuffer;
 import java.util.Date;
 
 import com.amazonaws.AmazonClientException;
-import com.amazonaws.util.Base64;
-import com.amazonaws.util.DateUtils;
 
 public class SimpleTypeJsonUnmarshallers {
     /**
@@ -43,8 +41,7 @@ public class SimpleTypeJsonUnmarshallers {
      */
     public static class DoubleJsonUnmarshaller implements Unmarshaller<Double, JsonUnmarshallerContext> {
         public Double unmarshall(JsonUnmarshallerContext unmarshallerContext) throws Exception {
-            String doubleString = unmarshallerContext.readText();
-            return (doubleString == null) ? null : Double.parseDouble(doubleString);
+            return unmarshallerContext.readDouble();
         }
 
         private static final DoubleJsonUnmarshaller instance = new DoubleJsonUnmarshaller();
@@ -59,8 +56,7 @@ public class SimpleTypeJsonUnmarshallers {
      */
     public static class IntegerJsonUnmarshaller implements Unmarshaller<Integer, JsonUnmarshallerContext> {
         public Integer unmarshall(JsonUnmarshallerContext unmarshallerContext) throws Exception {
-            String intString = unmarshallerContext.readText();
-            return (intString == null) ? null : Integer.parseInt(intString);
+            return unmarshallerContext.readInteger();
         }
 
         private static final IntegerJsonUnmarshaller instance = new IntegerJsonUnmarshaller();
@@ -101,8 +97,7 @@ public class SimpleTypeJsonUnmarshallers {
      */
     public static class BooleanJsonUnmarshaller implements Unmarshaller<Boolean, JsonUnmarshallerContext> {
         public Boolean unmarshall(JsonUnmarshallerContext unmarshallerContext) throws Exception {
-            String booleanString = unmarshallerContext.readText();
-            return (booleanString == null) ? null : Boolean.parseBoolean(booleanString);
+            return unmarshallerContext.readBoolean();
         }
 
         private static final BooleanJsonUnmarshaller instance = new BooleanJsonUnmarshaller();
@@ -133,8 +128,7 @@ public class SimpleTypeJsonUnmarshallers {
      */
     public static class LongJsonUnmarshaller implements Unmarshaller<Long, JsonUnmarshallerContext> {
         public Long unmarshall(JsonUnmarshallerContext unmarshallerContext) throws Exception {
-            String longString = unmarshallerContext.readText();
-            return (longString == null) ? null : Long.parseLong(longString);
+            return unmarshallerContext.readLong();
         }
 
         private static final LongJsonUnmarshaller instance = new LongJsonUnmarshaller();
@@ -166,8 +160,7 @@ public class SimpleTypeJsonUnmarshallers {
     public static class DateJsonUnmarshaller implements Unmarshaller<Date, JsonUnmarshallerContext> {
         public Date unmarshall(JsonUnmarshallerContext unmarshallerContext)
                 throws Exception {
-            return DateUtils.parseServiceSpecificDate(unmarshallerContext
-                    .readText());
+            return unmarshallerContext.readDate();
         }
 
         private static final DateJsonUnmarshaller instance = new DateJsonUnmarshaller();
@@ -182,10 +175,8 @@ public class SimpleTypeJsonUnmarshallers {
      */
     public static class ByteBufferJsonUnmarshaller implements Unmarshaller<ByteBuffer, JsonUnmarshallerContext> {
         public ByteBuffer unmarshall(JsonUnmarshallerContext unmarshallerContext) throws Exception {
-            String base64EncodedString = unmarshallerContext.readText();
-            byte[] decodedBytes = Base64.decode(base64EncodedString);
-            return ByteBuffer.wrap(decodedBytes);
-
+            byte[] decodedBytes = unmarshallerContext.readBinary();
+            return (decodedBytes == null) ? null : ByteBuffer.wrap(decodedBytes);
         }
 
         private static final ByteBufferJsonUnmarshaller instance = new ByteBufferJsonUnmarshaller();
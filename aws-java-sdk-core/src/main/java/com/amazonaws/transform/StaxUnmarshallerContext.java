@@ -14,17 +14,26 @@
  */
 package com.amazonaws.transform;
 
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Characters;
+import javax.xml.stream.events.EndElement;
+import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
 
 /**
@@ -34,14 +43,37 @@ import javax.xml.stream.events.XMLEvent;
  * response. It also tracks the current position and element depth of the
  * document being parsed and provides utilties for accessing the next XML event
  * from the parser, reading element text, handling attribute XML events, etc.
+ * <p>
+ * A context can read either from an {@link XMLEventReader}, or from the cursor
+ * of an {@link XMLStreamReader}. In the latter case no event object is
+ * allocated while parsing: {@link #nextEvent()} returns one of a fixed set of
+ * events per context, which only report their type; all the other
+ * {@link XMLEvent} methods throw UnsupportedOperationException.
  */
 public class StaxUnmarshallerContext {
 
+    /**
+     * Compiled form of the expressions tested against the current position,
+     * keyed by the expression string. Expressions are string constants of the
+     * unmarshallers, so the number of entries is bounded in practice; the
+     * limit only guards against callers building expressions dynamically.
+     */
+    private static final ConcurrentMap<String, PathExpression> pathExpressions =
+        new ConcurrentHashMap<String, PathExpression>();
+    private static final int MAX_PATH_EXPRESSIONS = 8192;
+
     private XMLEvent currentEvent;
     private final XMLEventReader eventReader;
+    private final XMLStreamReader streamReader;
 
     public final Stack<String> stack = new Stack<String>();
-    private String stackString = "";
+
+    /** The element names of the current position, mirroring {@link #stack} */
+    private String[] path = new String[16];
+    private int depth;
+    /** The local name of the current attribute, if positioned on one */
+    private String attributeName;
+    private String attributeValue;
 
     private Map<String, String> metadata = new HashMap<String, String>();
     private List<MetadataExpression> metadataExpressions = new ArrayList<MetadataExpression>();
@@ -49,6 +81,20 @@ public class StaxUnmarshallerContext {
     private Iterator<?> attributeIterator;
     private final Map<String, String> headers;
 
+    /*
+     * Cursor state: whether the stream reader is positioned on an event that
+     * has been peeked at but not yet returned by nextEvent(), and the
+     * attributes of the last start element, which are returned as separate
+     * events after it.
+     */
+    private boolean peeked;
+    private int currentEventType;
+    private String[] attributeNames;
+    private String[] attributeValues;
+    private int attributeCount;
+    private int attributeIndex;
+    private CursorEvent[] cursorEvents;
+
     /**
      * Constructs a new unmarshaller context using the specified source of XML events.
      *
@@ -71,7 +117,26 @@ public class StaxUnmarshallerContext {
      */
     public StaxUnmarshallerContext(XMLEventReader eventReader, Map<String, String> headers) {
         this.eventReader = eventReader;
+        this.streamReader = null;
+        this.headers = headers;
+    }
+
+    /**
+     * Constructs a new unmarshaller context reading from the cursor of the
+     * specified stream reader, and a set of response headers. The stream
+     * reader must be positioned at the start of the document.
+     *
+     * @param streamReader
+     *            The XML stream reader for this unmarshalling context.
+     * @param headers
+     *            The set of response headers associated with this unmarshaller
+     *            context.
+     */
+    public StaxUnmarshallerContext(XMLStreamReader streamReader, Map<String, String> headers) {
+        this.eventReader = null;
+        this.streamReader = streamReader;
         this.headers = headers;
+        this.peeked = true;
     }
 
     /**
@@ -97,9 +162,11 @@ public class StaxUnmarshallerContext {
      * @throws XMLStreamException
      */
     public String readText() throws XMLStreamException {
-        if (currentEvent.isAttribute()) {
-            Attribute attribute = (Attribute)currentEvent;
-            return attribute.getValue();
+        if (attributeName != null) {
+            return attributeValue;
+        }
+        if (streamReader != null) {
+            return readCursorText();
         }
 
         StringBuilder sb = new StringBuilder();
@@ -116,6 +183,38 @@ public class StaxUnmarshallerContext {
         }
     }
 
+    /**
+     * Reads the text of the current element from the stream reader, leaving
+     * its end element to be returned by the next call to nextEvent().
+     */
+    private String readCursorText() throws XMLStreamException {
+        String text = "";
+        StringBuilder sb = null;
+        while (true) {
+            int eventType = peek();
+            if (eventType == XMLStreamConstants.CHARACTERS
+                    || eventType == XMLStreamConstants.CDATA
+                    || eventType == XMLStreamConstants.SPACE) {
+                peeked = false;
+                if (sb != null) {
+                    sb.append(streamReader.getTextCharacters(),
+                            streamReader.getTextStart(), streamReader.getTextLength());
+                } else if (text.length() == 0) {
+                    text = streamReader.getText();
+                } else {
+                    sb = new StringBuilder(text);
+                    sb.append(streamReader.getTextCharacters(),
+                            streamReader.getTextStart(), streamReader.getTextLength());
+                }
+            } else if (eventType == XMLStreamConstants.END_ELEMENT) {
+                return sb == null ? text : sb.toString();
+            } else {
+                throw new RuntimeException("Encountered unexpected event: "
+                        + eventTypeName(eventType));
+            }
+        }
+    }
+
     /**
      * Returns the element depth of the parser's current position in the XML
      * document being parsed.
@@ -124,7 +223,7 @@ public class StaxUnmarshallerContext {
      *         document being parsed.
      */
     public int getCurrentDepth() {
-        return stack.size();
+        return depth;
     }
 
     /**
@@ -138,7 +237,7 @@ public class StaxUnmarshallerContext {
      */
     public boolean testExpression(String expression) {
         if (expression.equals(".")) return true;
-        return stackString.endsWith(expression);
+        return currentPath().endsWith(expression);
     }
 
     /**
@@ -158,6 +257,30 @@ public class StaxUnmarshallerContext {
     public boolean testExpression(String expression, int startingStackDepth) {
         if (expression.equals(".")) return true;
 
+        PathExpression pathExpression = compile(expression);
+        if (pathExpression == null) {
+            return testUncompiledExpression(expression, startingStackDepth);
+        }
+
+        // The expression starts matching one level below the starting depth
+        String[] elements = pathExpression.elements;
+        if (startingStackDepth + elements.length - 1 != depth) return false;
+        if (pathExpression.attribute == null
+                ? attributeName != null
+                : !pathExpression.attribute.equals(attributeName)) {
+            return false;
+        }
+        for (int i = elements.length - 1, j = depth - 1; i >= 0; i--, j--) {
+            if (!elements[i].equals(path[j])) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tests an expression that can't be compiled, by matching it against the
+     * string form of the current position.
+     */
+    private boolean testUncompiledExpression(String expression, int startingStackDepth) {
         int index = -1;
         while ((index = expression.indexOf("/", index + 1)) > -1) {
             // Don't consider attributes a new depth level
@@ -166,9 +289,8 @@ public class StaxUnmarshallerContext {
             }
         }
 
-
         return (startingStackDepth == getCurrentDepth()
-                && stackString.endsWith("/" + expression));
+                && currentPath().endsWith("/" + expression));
     }
 
     /**
@@ -180,6 +302,9 @@ public class StaxUnmarshallerContext {
      *         yet).
      */
     public boolean isStartOfDocument() throws XMLStreamException {
+        if (streamReader != null) {
+            return peek() == XMLStreamConstants.START_DOCUMENT;
+        }
         return eventReader.peek().isStartDocument();
     }
 
@@ -191,6 +316,11 @@ public class StaxUnmarshallerContext {
      * @throws XMLStreamException
      */
     public XMLEvent nextEvent() throws XMLStreamException {
+        if (streamReader != null) {
+            return nextCursorEvent();
+        }
+
+        attributeName = null;
         if (attributeIterator != null && attributeIterator.hasNext()) {
             currentEvent = (XMLEvent)attributeIterator.next();
         } else {
@@ -199,24 +329,128 @@ public class StaxUnmarshallerContext {
 
         if (currentEvent.isStartElement()) {
             attributeIterator = currentEvent.asStartElement().getAttributes();
+            pushElement(currentEvent.asStartElement().getName().getLocalPart());
+        } else if (currentEvent.isEndElement()) {
+            popElement();
+        } else if (currentEvent.isAttribute()) {
+            Attribute attribute = (Attribute)currentEvent;
+            attributeName = attribute.getName().getLocalPart();
+            attributeValue = attribute.getValue();
         }
 
-        updateContext(currentEvent);
-
-        if (eventReader.hasNext()) {
+        if (matchesMetadataExpression() && eventReader.hasNext()) {
             XMLEvent nextEvent = eventReader.peek();
             if (nextEvent != null && nextEvent.isCharacters()) {
-                for (MetadataExpression metadataExpression : metadataExpressions) {
-                    if (testExpression(metadataExpression.expression, metadataExpression.targetDepth)) {
-                        metadata.put(metadataExpression.key, nextEvent.asCharacters().getData());
-                    }
-                }
+                collectMetadata(nextEvent.asCharacters().getData());
             }
         }
 
         return currentEvent;
     }
 
+    private XMLEvent nextCursorEvent() throws XMLStreamException {
+        attributeName = null;
+        if (attributeIndex < attributeCount) {
+            attributeName = attributeNames[attributeIndex];
+            attributeValue = attributeValues[attributeIndex];
+            attributeIndex++;
+            currentEventType = XMLStreamConstants.ATTRIBUTE;
+        } else {
+            currentEventType = peeked ? streamReader.getEventType() : streamReader.next();
+            peeked = false;
+            if (currentEventType == XMLStreamConstants.START_ELEMENT) {
+                pushElement(streamReader.getLocalName());
+                captureAttributes();
+            } else if (currentEventType == XMLStreamConstants.END_ELEMENT) {
+                popElement();
+            }
+        }
+
+        if (matchesMetadataExpression() && (peeked || streamReader.hasNext())
+                && peek() == XMLStreamConstants.CHARACTERS) {
+            collectMetadata(streamReader.getText());
+        }
+
+        return cursorEvent(currentEventType);
+    }
+
+    /**
+     * Moves the stream reader to the event following the current one, unless
+     * it is already there, and returns its type.
+     */
+    private int peek() throws XMLStreamException {
+        if (!peeked) {
+            streamReader.next();
+            peeked = true;
+        }
+        return streamReader.getEventType();
+    }
+
+    /**
+     * Copies the attributes of the current start element, so that they remain
+     * available after the stream reader has moved past it.
+     */
+    private void captureAttributes() {
+        attributeIndex = 0;
+        attributeCount = streamReader.getAttributeCount();
+        if (attributeCount == 0) return;
+        if (attributeNames == null || attributeNames.length < attributeCount) {
+            attributeNames = new String[attributeCount];
+            attributeValues = new String[attributeCount];
+        }
+        for (int i = 0; i < attributeCount; i++) {
+            attributeNames[i] = streamReader.getAttributeLocalName(i);
+            attributeValues[i] = streamReader.getAttributeValue(i);
+        }
+    }
+
+    private void pushElement(String name) {
+        if (depth == path.length) {
+            String[] newPath = new String[depth * 2];
+            System.arraycopy(path, 0, newPath, 0, depth);
+            path = newPath;
+        }
+        path[depth++] = name;
+        stack.push(name);
+    }
+
+    private void popElement() {
+        path[--depth] = null;
+        stack.pop();
+    }
+
+    /**
+     * Returns the string form of the current position, as in
+     * "/Response/Result/@attribute".
+     */
+    private String currentPath() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            sb.append('/').append(path[i]);
+        }
+        if (attributeName != null) {
+            sb.append("/@").append(attributeName);
+        }
+        return sb.toString();
+    }
+
+    private boolean matchesMetadataExpression() {
+        for (MetadataExpression metadataExpression : metadataExpressions) {
+            if (testExpression(metadataExpression.expression, metadataExpression.targetDepth)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void collectMetadata(String data) {
+        for (MetadataExpression metadataExpression : metadataExpressions) {
+            if (testExpression(metadataExpression.expression, metadataExpression.targetDepth)) {
+                metadata.put(metadataExpression.key, data);
+            }
+        }
+    }
+
     /**
      * Returns any metadata collected through metadata expressions while this
      * context was reading the XML events from the XML document.
@@ -267,26 +501,118 @@ public class StaxUnmarshallerContext {
         }
     }
 
-    private void updateContext(XMLEvent event) {
-        if (event == null) return;
+    /**
+     * An expression split into its element names, with an optional trailing
+     * attribute name, as in "Name/@encoding".
+     */
+    private static class PathExpression {
+        final String[] elements;
+        final String attribute;
 
-        if (event.isEndElement()) {
-            stack.pop();
-            stackString = "";
-            for (String s : stack) {
-                stackString += "/" + s;
-            }
-        } else if (event.isStartElement()) {
-            stack.push(event.asStartElement().getName().getLocalPart());
-            stackString += "/" + event.asStartElement().getName().getLocalPart();
-        } else if (event.isAttribute()) {
-            Attribute attribute = (Attribute)event;
-            stackString = "";
-            for (String s : stack) {
-                stackString += "/" + s;
-            }
-            stackString += "/@" + attribute.getName().getLocalPart();
+        PathExpression(String[] elements, String attribute) {
+            this.elements = elements;
+            this.attribute = attribute;
+        }
+    }
+
+    /**
+     * Returns the compiled form of the given expression, or null if it
+     * contains an attribute step anywhere but at its end.
+     */
+    private static PathExpression compile(String expression) {
+        PathExpression pathExpression = pathExpressions.get(expression);
+        if (pathExpression != null) return pathExpression;
+
+        String[] steps = expression.split("/", -1);
+        String attribute = null;
+        int elementCount = steps.length;
+        if (steps[elementCount - 1].startsWith("@")) {
+            attribute = steps[--elementCount].substring(1).intern();
+        }
+        String[] elements = new String[elementCount];
+        for (int i = 0; i < elementCount; i++) {
+            if (steps[i].startsWith("@")) return null;
+            elements[i] = steps[i].intern();
+        }
+        pathExpression = new PathExpression(elements, attribute);
+        if (pathExpressions.size() < MAX_PATH_EXPRESSIONS) {
+            pathExpressions.putIfAbsent(expression, pathExpression);
+        }
+        return pathExpression;
+    }
+
+    private XMLEvent cursorEvent(int eventType) {
+        if (cursorEvents == null) {
+            cursorEvents = new CursorEvent[XMLStreamConstants.ENTITY_DECLARATION + 1];
+        }
+        if (eventType < 0 || eventType >= cursorEvents.length) {
+            return new CursorEvent(eventType);
+        }
+        CursorEvent event = cursorEvents[eventType];
+        if (event == null) {
+            cursorEvents[eventType] = event = new CursorEvent(eventType);
         }
+        return event;
     }
 
+    private static String eventTypeName(int eventType) {
+        switch (eventType) {
+        case XMLStreamConstants.START_ELEMENT: return "START_ELEMENT";
+        case XMLStreamConstants.END_ELEMENT: return "END_ELEMENT";
+        case XMLStreamConstants.ATTRIBUTE: return "ATTRIBUTE";
+        case XMLStreamConstants.CHARACTERS: return "CHARACTERS";
+        case XMLStreamConstants.CDATA: return "CDATA";
+        case XMLStreamConstants.SPACE: return "SPACE";
+        case XMLStreamConstants.PROCESSING_INSTRUCTION: return "PROCESSING_INSTRUCTION";
+        case XMLStreamConstants.COMMENT: return "COMMENT";
+        case XMLStreamConstants.START_DOCUMENT: return "START_DOCUMENT";
+        case XMLStreamConstants.END_DOCUMENT: return "END_DOCUMENT";
+        case XMLStreamConstants.ENTITY_REFERENCE: return "ENTITY_REFERENCE";
+        case XMLStreamConstants.DTD: return "DTD";
+        default: return "event type " + eventType;
+        }
+    }
+
+    /**
+     * The event returned by {@link StaxUnmarshallerContext#nextEvent()} when
+     * reading from a stream reader. It only reports its type; the details of
+     * the current position are available through the context.
+     */
+    private static final class CursorEvent implements XMLEvent {
+        private final int eventType;
+
+        CursorEvent(int eventType) {
+            this.eventType = eventType;
+        }
+
+        public int getEventType() { return eventType; }
+        public boolean isStartElement() { return eventType == START_ELEMENT; }
+        public boolean isAttribute() { return eventType == ATTRIBUTE; }
+        public boolean isNamespace() { return eventType == NAMESPACE; }
+        public boolean isEndElement() { return eventType == END_ELEMENT; }
+        public boolean isEntityReference() { return eventType == ENTITY_REFERENCE; }
+        public boolean isProcessingInstruction() { return eventType == PROCESSING_INSTRUCTION; }
+        public boolean isCharacters() {
+            return eventType == CHARACTERS || eventType == CDATA || eventType == SPACE;
+        }
+        public boolean isStartDocument() { return eventType == START_DOCUMENT; }
+        public boolean isEndDocument() { return eventType == END_DOCUMENT; }
+
+        public Location getLocation() { throw unsupported(); }
+        public StartElement asStartElement() { throw unsupported(); }
+        public EndElement asEndElement() { throw unsupported(); }
+        public Characters asCharacters() { throw unsupported(); }
+        public QName getSchemaType() { return null; }
+        public void writeAsEncodedUnicode(Writer writer) { throw unsupported(); }
+
+        private UnsupportedOperationException unsupported() {
+            return new UnsupportedOperationException(
+                    "Events of a stream reader backed unmarshaller context only report their type");
+        }
+
+        @Override
+        public String toString() {
+            return eventTypeName(eventType);
+        }
+    }
 }
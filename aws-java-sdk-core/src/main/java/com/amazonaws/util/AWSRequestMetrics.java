@@ -131,6 +131,37 @@ public class AWSRequestMetrics {
          */
         HttpClientPoolPendingCount,
         RetryPauseTime,
+        /**
+         * Number of milliseconds a request waited for the adaptive rate
+         * limiter of the client before being sent.
+         */
+        RateLimitPauseTime,
+        /**
+         * The send rate, in requests per second, the adaptive rate limiter of
+         * the client was pacing requests at when the request was sent; or a
+         * negative value if requests were not being paced.
+         */
+        RateLimit,
+        /**
+         * Number of retries of a request denied because the retry budget of
+         * the service endpoint was exhausted.
+         */
+        RetryBudgetExceeded,
+        /**
+         * Number of attempts of a request failed fast because the circuit
+         * breaker of the service endpoint was open.
+         */
+        CircuitBreakerOpen,
+        /**
+         * Number of bytes of the content of a request, as declared by its
+         * Content-Length header.
+         */
+        RequestContentLength,
+        /**
+         * Number of bytes of the content of a response, as declared by its
+         * Content-Length header.
+         */
+        ResponseContentLength,
 //      S3DownloadThroughput, // migrated to S3RequestMetric in the S3 clint library
 //      S3UploadThroughput,   // migrated to S3RequestMetric in the S3 clint library
         ServiceEndpoint,
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.util;
+
+import java.util.Arrays;
+
+import org.apache.http.annotation.NotThreadSafe;
+
+import com.amazonaws.metrics.AwsSdkMetrics;
+import com.amazonaws.metrics.MetricType;
+import com.amazonaws.metrics.RequestHistograms;
+
+/**
+ * A support of AWS SDK request metrics which records the duration of the
+ * timed events of a request, such as {@link Field#HttpRequestTime}, into the
+ * latency histograms of {@link RequestHistograms}, keyed by service,
+ * operation and HTTP status code.
+ * <p>
+ * In contrast to {@link AWSRequestMetricsFullSupport}, no object is
+ * allocated per event: the start time and accumulated duration of each
+ * event are kept in a single array indexed by {@link Field}, leased from a
+ * per-thread cache and returned to it once recorded, and are
+ * recorded into the histograms once the {@link Field#ClientExecuteTime}
+ * event ends, when the status code of the request is known. Events started
+ * more than once, such as the HTTP request time of a retried request, are
+ * recorded as their total duration.
+ * <p>
+ * Likewise, the counters of the request, such as
+ * {@link Field#ThrottleException}, are kept in an array indexed by
+ * {@link Field}, and are added to the counters of {@link RequestHistograms}
+ * at the same time; the {@link Field#RequestCount} is also added as a
+ * {@link Field#RetryCount}, and the connection pool counters, such as
+ * {@link Field#HttpClientPoolLeasedCount}, are set as gauges of the service
+ * if {@link RequestHistograms#isConnectionPoolGaugesEnabled()}.
+ * Properties, counters and events named by strings are ignored.
+ * <p>
+ * This class is instantiated instead of {@link AWSRequestMetrics} when
+ * request metric collection is not required, but histogram metrics are
+ * enabled.
+ *
+ * @see AwsSdkMetrics#enableHistogramMetrics()
+ */
+@NotThreadSafe
+public class AWSRequestMetricsHistogramSupport extends AWSRequestMetrics {
+    private static final Field[] FIELDS = Field.values();
+    /**
+     * The state last returned on each thread, ready to be leased by the
+     * next request started on it. A request completed on another thread
+     * than the one it started on returns its state to the completing
+     * thread, if that thread has none.
+     */
+    private static final ThreadLocal<Scratch> CACHE = new ThreadLocal<Scratch>();
+
+    private final RequestHistograms histograms;
+    private final Class<?> operation;
+    /** The state of this request, or null once recorded. */
+    private Scratch scratch;
+    private String serviceName;
+    private int statusCode;
+
+    /**
+     * @param histograms
+     *            the histograms to record the durations of the events into
+     * @param operation
+     *            the class of the original request
+     */
+    public AWSRequestMetricsHistogramSupport(RequestHistograms histograms,
+            Class<?> operation) {
+        this.histograms = histograms;
+        this.operation = operation;
+        Scratch cached = CACHE.get();
+        if (cached == null) {
+            scratch = new Scratch();
+        } else {
+            CACHE.set(null);
+            scratch = cached;
+        }
+        scratch.reset();
+    }
+
+    /**
+     * Returns true if the connection pool gauges are enabled, so that the
+     * connection pool counters are only captured when recorded.
+     */
+    @Override
+    public boolean isEnabled() {
+        return histograms.isConnectionPoolGaugesEnabled();
+    }
+
+    @Override
+    public void startEvent(MetricType f) {
+        if (f instanceof Field && scratch != null)
+            scratch.events[((Field) f).ordinal() * 2] = System.nanoTime();
+    }
+
+    @Override
+    public void endEvent(MetricType f) {
+        if (!(f instanceof Field) || scratch == null)
+            return;
+        long[] events = scratch.events;
+        int i = ((Field) f).ordinal() * 2;
+        long startTime = events[i];
+        if (startTime == 0)
+            return; // never started
+        long duration = System.nanoTime() - startTime;
+        events[i] = 0;
+        events[i + 1] = events[i + 1] < 0 ? duration : events[i + 1] + duration;
+        if (f == Field.ClientExecuteTime)
+            record();
+    }
+
+    @Override
+    public void incrementCounter(MetricType f) {
+        if (f instanceof Field && scratch != null) {
+            long[] counters = scratch.counters;
+            int i = ((Field) f).ordinal();
+            counters[i] = counters[i] < 0 ? 1 : counters[i] + 1;
+        }
+    }
+
+    @Override
+    public void setCounter(MetricType f, long count) {
+        if (f instanceof Field && scratch != null && count >= 0)
+            scratch.counters[((Field) f).ordinal()] = count;
+    }
+
+    @Override
+    public void addProperty(MetricType f, Object value) {
+        if (f == Field.ServiceName && value instanceof String)
+            serviceName = (String) value;
+        else if (f == Field.StatusCode && value instanceof Integer)
+            statusCode = (Integer) value;
+    }
+
+    /**
+     * Records the duration of every event that ended into the histograms, and
+     * the value of every counter that was set into the counters and gauges,
+     * and returns the state to the cache of the current thread.
+     */
+    private void record() {
+        long[] events = scratch.events;
+        long[] counters = scratch.counters;
+        for (int i = 0; i < FIELDS.length; i++) {
+            long duration = events[i * 2 + 1];
+            if (duration >= 0)
+                histograms.record(serviceName, operation, statusCode,
+                        FIELDS[i], duration);
+        }
+        for (int i = 0; i < FIELDS.length; i++) {
+            long count = counters[i];
+            if (count < 0)
+                continue;
+            Field field = FIELDS[i];
+            switch (field) {
+            case HttpClientPoolAvailableCount:
+            case HttpClientPoolLeasedCount:
+            case HttpClientPoolPendingCount:
+                histograms.setGauge(serviceName, field, count);
+                break;
+            case RequestCount:
+                if (count > 1) {
+                    histograms.add(serviceName, operation, statusCode,
+                            Field.RetryCount, count - 1);
+                }
+                // fall through
+            default:
+                if (count > 0)
+                    histograms.add(serviceName, operation, statusCode, field, count);
+            }
+        }
+        if (CACHE.get() == null)
+            CACHE.set(scratch);
+        scratch = null;
+    }
+
+    /**
+     * The per-request state, reused across requests.
+     */
+    private static final class Scratch {
+        /**
+         * The start time in nanoseconds of each event at index 2 * ordinal,
+         * and its accumulated duration at index 2 * ordinal + 1, or -1 if the
+         * event hasn't ended yet.
+         */
+        final long[] events = new long[FIELDS.length * 2];
+        /** The value of each counter, or -1 if the counter hasn't been set. */
+        final long[] counters = new long[FIELDS.length];
+
+        void reset() {
+            for (int i = 0; i < events.length; i += 2) {
+                events[i] = 0;
+                events[i + 1] = -1;
+            }
+            Arrays.fill(counters, -1);
+        }
+    }
+}
@@ -33,6 +33,13 @@ import com.amazonaws.AmazonClientException;
 
 /**
  * Utilities for parsing and formatting dates.
+ * <p>
+ * The fixed-width forms of the ISO 8601, RFC 822 and compressed ISO 8601
+ * formats exchanged with AWS services are parsed and printed by hand, in UTC,
+ * without going through a formatter. Anything else, such as an explicit zone
+ * offset, a fractional second of other than three digits, or a year beyond
+ * four digits, is handed to the equivalent Joda-Time formatter, so the set of
+ * accepted inputs and the resulting errors are unchanged.
  */
 @ThreadSafe
 public class DateUtils {
@@ -41,6 +48,19 @@ public class DateUtils {
 
     private static final int AWS_DATE_MILLI_SECOND_PRECISION = 3;
 
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    /** Days from 0000-03-01 to 1970-01-01 in the proleptic Gregorian calendar */
+    private static final long DAYS_0000_TO_1970 = 719468L;
+    /** Range of instants whose year fits the fixed-width fast paths: 0001 to 9999 */
+    private static final long MIN_FAST_MILLIS = -62135596800000L;
+    private static final long MAX_FAST_MILLIS = 253402300799999L;
+
+    private static final String[] DAY_NAMES = {
+        "Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat" };
+    private static final String[] MONTH_NAMES = {
+        "Jan", "Feb", "Mar", "Apr", "May", "Jun",
+        "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+
     /** ISO 8601 format */
     protected static final DateTimeFormatter iso8601DateFormat =
         ISODateTimeFormat.dateTime().withZone(GMT);
@@ -88,6 +108,9 @@ public class DateUtils {
     }
 
     static Date doParseISO8601Date(final String dateStringOrig) {
+        long millis = fastParseISO8601(dateStringOrig);
+        if (millis != Long.MIN_VALUE)
+            return new Date(millis);
         // https://github.com/aws/aws-sdk-java/issues/233
         final String temp = tempDateStringForJodaTime(dateStringOrig);
         try {
@@ -164,8 +187,29 @@ public class DateUtils {
      * @return The ISO 8601 string representing the specified date.
      */
     public static String formatISO8601Date(Date date) {
+        final long millis = date.getTime();
+        if (isFastFormattable(millis)) {
+            // yyyy-MM-dd'T'HH:mm:ss.SSS'Z'
+            char[] buf = new char[24];
+            int[] fields = fields(millis);
+            appendDigits(buf, 0, fields[YEAR], 4);
+            buf[4] = '-';
+            appendDigits(buf, 5, fields[MONTH], 2);
+            buf[7] = '-';
+            appendDigits(buf, 8, fields[DAY], 2);
+            buf[10] = 'T';
+            appendDigits(buf, 11, fields[HOUR], 2);
+            buf[13] = ':';
+            appendDigits(buf, 14, fields[MINUTE], 2);
+            buf[16] = ':';
+            appendDigits(buf, 17, fields[SECOND], 2);
+            buf[19] = '.';
+            appendDigits(buf, 20, fields[MILLI], 3);
+            buf[23] = 'Z';
+            return new String(buf);
+        }
         try {
-            return iso8601DateFormat.print(date.getTime());
+            return iso8601DateFormat.print(millis);
         } catch(RuntimeException ex) {
             throw handleException(ex);
         }
@@ -189,6 +233,9 @@ public class DateUtils {
      * @return The parsed Date object.
      */
     public static Date parseRFC822Date(String dateString) {
+        long millis = fastParseRFC822(dateString);
+        if (millis != Long.MIN_VALUE)
+            return new Date(millis);
         try {
             return new Date(rfc822DateFormat.parseMillis(dateString));
         } catch(RuntimeException ex) {
@@ -213,8 +260,30 @@ public class DateUtils {
      * @return The RFC 822 string representing the specified date.
      */
     public static String formatRFC822Date(Date date) {
+        final long millis = date.getTime();
+        if (isFastFormattable(millis)) {
+            // EEE, dd MMM yyyy HH:mm:ss 'GMT'
+            char[] buf = new char[29];
+            int[] fields = fields(millis);
+            DAY_NAMES[fields[DAY_OF_WEEK]].getChars(0, 3, buf, 0);
+            buf[3] = ',';
+            buf[4] = ' ';
+            appendDigits(buf, 5, fields[DAY], 2);
+            buf[7] = ' ';
+            MONTH_NAMES[fields[MONTH] - 1].getChars(0, 3, buf, 8);
+            buf[11] = ' ';
+            appendDigits(buf, 12, fields[YEAR], 4);
+            buf[16] = ' ';
+            appendDigits(buf, 17, fields[HOUR], 2);
+            buf[19] = ':';
+            appendDigits(buf, 20, fields[MINUTE], 2);
+            buf[22] = ':';
+            appendDigits(buf, 23, fields[SECOND], 2);
+            " GMT".getChars(0, 4, buf, 25);
+            return new String(buf);
+        }
         try {
-            return rfc822DateFormat.print(date.getTime());
+            return rfc822DateFormat.print(millis);
         } catch(RuntimeException ex) {
             throw handleException(ex);
         }
@@ -238,12 +307,46 @@ public class DateUtils {
      * @return The parsed Date object.
      */
     public static Date parseCompressedISO8601Date(String dateString) {
+        long millis = fastParseCompressedISO8601(dateString);
+        if (millis != Long.MIN_VALUE)
+            return new Date(millis);
         try {
             return new Date(compressedIso8601DateFormat.parseMillis(dateString));
         } catch (RuntimeException ex) {
             throw handleException(ex);
         }
-   }
+    }
+
+    /**
+     * Formats the specified date as a compressed ISO 8601 string
+     * ("yyyyMMdd'T'HHmmss'Z'"), as used by the AWS4 signer.
+     *
+     * @param date
+     *            The date to format.
+     *
+     * @return The compressed ISO 8601 string representing the specified date.
+     */
+    public static String formatCompressedISO8601Date(Date date) {
+        final long millis = date.getTime();
+        if (isFastFormattable(millis)) {
+            char[] buf = new char[16];
+            int[] fields = fields(millis);
+            appendDigits(buf, 0, fields[YEAR], 4);
+            appendDigits(buf, 4, fields[MONTH], 2);
+            appendDigits(buf, 6, fields[DAY], 2);
+            buf[8] = 'T';
+            appendDigits(buf, 9, fields[HOUR], 2);
+            appendDigits(buf, 11, fields[MINUTE], 2);
+            appendDigits(buf, 13, fields[SECOND], 2);
+            buf[15] = 'Z';
+            return new String(buf);
+        }
+        try {
+            return compressedIso8601DateFormat.print(millis);
+        } catch (RuntimeException ex) {
+            throw handleException(ex);
+        }
+    }
 
     /**
      * Parses the given date string returned by the AWS service into a Date
@@ -284,4 +387,192 @@ public class DateUtils {
     public static long numberOfDaysSinceEpoch(long milliSinceEpoch) {
         return TimeUnit.MILLISECONDS.toDays(milliSinceEpoch);
     }
+
+    private static final int YEAR = 0;
+    private static final int MONTH = 1;
+    private static final int DAY = 2;
+    private static final int HOUR = 3;
+    private static final int MINUTE = 4;
+    private static final int SECOND = 5;
+    private static final int MILLI = 6;
+    private static final int DAY_OF_WEEK = 7;
+
+    private static boolean isFastFormattable(long millis) {
+        return millis >= MIN_FAST_MILLIS && millis <= MAX_FAST_MILLIS;
+    }
+
+    /**
+     * Splits the given instant into its UTC calendar fields, in the
+     * proleptic Gregorian calendar used by Joda-Time's ISO chronology.
+     */
+    private static int[] fields(long millis) {
+        long days = floorDiv(millis, MILLIS_PER_DAY);
+        int millisOfDay = (int) (millis - days * MILLIS_PER_DAY);
+        // Civil-from-days over 400 year eras starting on March 1st, so that
+        // the leap day falls at the end of each era year
+        long z = days + DAYS_0000_TO_1970;
+        long era = floorDiv(z, 146097);
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524
+                - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+
+        int[] fields = new int[8];
+        fields[YEAR] = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+        fields[MONTH] = month;
+        fields[DAY] = dayOfYear - (153 * mp + 2) / 5 + 1;
+        fields[HOUR] = millisOfDay / 3600000;
+        fields[MINUTE] = millisOfDay / 60000 % 60;
+        fields[SECOND] = millisOfDay / 1000 % 60;
+        fields[MILLI] = millisOfDay % 1000;
+        fields[DAY_OF_WEEK] = (int) floorMod(days + 4, 7); // 1970-01-01 was a Thursday
+        return fields;
+    }
+
+    /**
+     * Returns the milliseconds since epoch of the given UTC date and time,
+     * or Long.MIN_VALUE if any of the fields is out of range.
+     */
+    private static long toMillis(int year, int month, int day, int hour,
+            int minute, int second, int milli) {
+        if (year < 1 || month < 1 || month > 12 || day < 1
+                || day > daysInMonth(year, month) || hour > 23
+                || minute > 59 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        // Days-from-civil, the inverse of fields(long)
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        long days = era * 146097L + dayOfEra - DAYS_0000_TO_1970;
+        return days * MILLIS_PER_DAY + hour * 3600000L + minute * 60000L
+                + second * 1000L + milli;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        switch (month) {
+        case 2:
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        case 4: case 6: case 9: case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    /**
+     * Parses "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'" or "yyyy-MM-dd'T'HH:mm:ss'Z'";
+     * returns Long.MIN_VALUE if the string is in any other form.
+     */
+    private static long fastParseISO8601(String s) {
+        final int len = s.length();
+        if ((len != 24 && len != 20) || s.charAt(4) != '-' || s.charAt(7) != '-'
+                || s.charAt(10) != 'T' || s.charAt(13) != ':'
+                || s.charAt(16) != ':' || s.charAt(len - 1) != 'Z') {
+            return Long.MIN_VALUE;
+        }
+        int milli = 0;
+        if (len == 24) {
+            if (s.charAt(19) != '.' || (milli = parseDigits(s, 20, 3)) < 0)
+                return Long.MIN_VALUE;
+        }
+        int year = parseDigits(s, 0, 4);
+        int month = parseDigits(s, 5, 2);
+        int day = parseDigits(s, 8, 2);
+        int hour = parseDigits(s, 11, 2);
+        int minute = parseDigits(s, 14, 2);
+        int second = parseDigits(s, 17, 2);
+        if ((year | month | day | hour | minute | second) < 0)
+            return Long.MIN_VALUE;
+        return toMillis(year, month, day, hour, minute, second, milli);
+    }
+
+    /**
+     * Parses "EEE, dd MMM yyyy HH:mm:ss 'GMT'"; returns Long.MIN_VALUE if the
+     * string is in any other form, or names a day of the week other than the
+     * one of its date, which Joda-Time resolves by moving the date.
+     */
+    private static long fastParseRFC822(String s) {
+        if (s.length() != 29 || s.charAt(3) != ',' || s.charAt(4) != ' '
+                || s.charAt(7) != ' ' || s.charAt(11) != ' '
+                || s.charAt(16) != ' ' || s.charAt(19) != ':'
+                || s.charAt(22) != ':' || !s.endsWith(" GMT")) {
+            return Long.MIN_VALUE;
+        }
+        int month = indexOfName(MONTH_NAMES, s, 8) + 1;
+        int day = parseDigits(s, 5, 2);
+        int year = parseDigits(s, 12, 4);
+        int hour = parseDigits(s, 17, 2);
+        int minute = parseDigits(s, 20, 2);
+        int second = parseDigits(s, 23, 2);
+        if (month == 0 || (year | day | hour | minute | second) < 0)
+            return Long.MIN_VALUE;
+        long millis = toMillis(year, month, day, hour, minute, second, 0);
+        if (millis == Long.MIN_VALUE
+                || indexOfName(DAY_NAMES, s, 0) != floorMod(floorDiv(millis, MILLIS_PER_DAY) + 4, 7)) {
+            return Long.MIN_VALUE;
+        }
+        return millis;
+    }
+
+    /**
+     * Parses "yyyyMMdd'T'HHmmss'Z'"; returns Long.MIN_VALUE if the string is
+     * in any other form.
+     */
+    private static long fastParseCompressedISO8601(String s) {
+        if (s.length() != 16 || s.charAt(8) != 'T' || s.charAt(15) != 'Z')
+            return Long.MIN_VALUE;
+        int year = parseDigits(s, 0, 4);
+        int month = parseDigits(s, 4, 2);
+        int day = parseDigits(s, 6, 2);
+        int hour = parseDigits(s, 9, 2);
+        int minute = parseDigits(s, 11, 2);
+        int second = parseDigits(s, 13, 2);
+        if ((year | month | day | hour | minute | second) < 0)
+            return Long.MIN_VALUE;
+        return toMillis(year, month, day, hour, minute, second, 0);
+    }
+
+    /**
+     * Returns the value of the given number of ASCII digits starting at the
+     * given offset, or -1 if any of them is not a digit.
+     */
+    private static int parseDigits(String s, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int indexOfName(String[] names, String s, int offset) {
+        for (int i = 0; i < names.length; i++) {
+            if (s.regionMatches(offset, names[i], 0, 3))
+                return i;
+        }
+        return -1;
+    }
+
+    private static void appendDigits(char[] buf, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        return (x % y != 0 && ((x ^ y) < 0)) ? q - 1 : q;
+    }
+
+    private static long floorMod(long x, long y) {
+        return x - floorDiv(x, y) * y;
+    }
 }
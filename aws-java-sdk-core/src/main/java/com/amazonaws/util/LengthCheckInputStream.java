@@ -16,18 +16,21 @@ package com.amazonaws.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 import org.apache.http.annotation.NotThreadSafe;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.internal.SdkFilterInputStream;
+import com.amazonaws.internal.TransferableContent;
 
 /**
  * Used to perform length check to ensure the number of bytes read from the
  * underlying input stream is the same as the expected total.
  */
 @NotThreadSafe
-public class LengthCheckInputStream extends SdkFilterInputStream {
+public class LengthCheckInputStream extends SdkFilterInputStream implements
+        TransferableContent {
     public static final boolean INCLUDE_SKIPPED_BYTES = true;
     public static final boolean EXCLUDE_SKIPPED_BYTES = false;
     /**
@@ -111,6 +114,29 @@ public class LengthCheckInputStream extends SdkFilterInputStream {
         return readLen;
     }
 
+    @Override
+    public boolean isTransferable() {
+        return in instanceof TransferableContent
+            && ((TransferableContent) in).isTransferable();
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @throws AmazonClientException
+     *             if the data length transferred has exceeded the expected
+     *             total, or if the total data length is not the same as the
+     *             expected total.
+     */
+    @Override
+    public int transferTo(OutputStream out, long count) throws IOException {
+        abortIfNeeded();
+        int len = ((TransferableContent) in).transferTo(out, count);
+        dataLength += len >= 0 ? len : 0;
+        checkLength(len == -1);
+        return len;
+    }
+
     @Override
     public void mark(int readlimit) {
         if (markSupported()) {
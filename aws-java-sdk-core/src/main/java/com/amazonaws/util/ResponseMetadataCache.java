@@ -14,19 +14,31 @@
  */
 package com.amazonaws.util;
 
+import java.lang.ref.WeakReference;
 import java.util.LinkedHashMap;
 import java.util.Map.Entry;
 
+import org.apache.http.annotation.ThreadSafe;
+
 import com.amazonaws.ResponseMetadata;
 
 /**
  * Cache of response metadata for recently executed requests for diagnostic
  * purposes. This cache has a max size and as entries are added, the oldest
  * entry is aged out once the max size has been reached.
+ * <p>
+ * Entries are keyed by the identity of the request object, which is only
+ * weakly referenced, so that requests can be garbage collected while cached
+ * and distinct requests never share an entry. The cache is split into
+ * independently locked segments, so that concurrent requests rarely contend
+ * with each other; the oldest entry is aged out per segment.
  */
+@ThreadSafe
 public class ResponseMetadataCache {
-    private final InternalCache internalCache;
+    /** The maximum number of segments. */
+    private static final int MAX_SEGMENTS = 8;
 
+    private final InternalCache[] segments;
 
     /**
      * Creates a new cache that will contain, at most the specified number of
@@ -36,7 +48,17 @@ public class ResponseMetadataCache {
      *            The maximum size of this cache.
      */
     public ResponseMetadataCache(int maxEntries) {
-        internalCache = new InternalCache(maxEntries);
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries " + maxEntries
+                    + " must be at least 1");
+        }
+        int numSegments = Math.min(MAX_SEGMENTS, maxEntries);
+        segments = new InternalCache[numSegments];
+        for (int i = 0; i < numSegments; i++) {
+            // spread the remainder over the first segments
+            segments[i] = new InternalCache(maxEntries / numSegments
+                    + (i < maxEntries % numSegments ? 1 : 0));
+        }
     }
 
     /**
@@ -48,9 +70,13 @@ public class ResponseMetadataCache {
      * @param metadata
      *            The metadata for this entry.
      */
-    public synchronized void add(Object obj, ResponseMetadata metadata) {
+    public void add(Object obj, ResponseMetadata metadata) {
         if (obj == null) return;
-        internalCache.put(System.identityHashCode(obj), metadata);
+        WeakIdentityKey key = new WeakIdentityKey(obj);
+        InternalCache segment = segmentFor(key.hash);
+        synchronized (segment) {
+            segment.put(key, metadata);
+        }
     }
 
     /**
@@ -64,21 +90,92 @@ public class ResponseMetadataCache {
      *         otherwise null if no metadata is associated with that object.
      */
     public ResponseMetadata get(Object obj) {
-        // System.identityHashCode isn't guaranteed to be unique
-        // on all platforms, but should be reasonable enough to use
-        // for a few requests at a time.  We can always easily move
-        // to our own unique IDs if needed.
-        return internalCache.get(System.identityHashCode(obj));
+        if (obj == null) return null;
+        IdentityKey key = new StrongIdentityKey(obj);
+        InternalCache segment = segmentFor(key.hash);
+        synchronized (segment) {
+            return segment.get(key);
+        }
     }
 
+    private InternalCache segmentFor(int hash) {
+        // identity hash codes are well spread, but not necessarily in the
+        // low bits
+        int h = hash ^ (hash >>> 16);
+        return segments[(h & 0x7fffffff) % segments.length];
+    }
+
+    /**
+     * Key comparing the objects it refers to by identity.
+     */
+    private static abstract class IdentityKey {
+        final int hash;
+
+        IdentityKey(Object obj) {
+            this.hash = System.identityHashCode(obj);
+        }
+
+        /** Returns the object referred to; or null if it has been collected. */
+        abstract Object referent();
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof IdentityKey)) return false;
+            Object referent = referent();
+            return referent != null && referent == ((IdentityKey) o).referent();
+        }
+    }
+
+    /**
+     * Key stored in the cache, which does not prevent the request from being
+     * garbage collected. Entries of collected requests can no longer be looked
+     * up, and are aged out like any other entry.
+     */
+    private static final class WeakIdentityKey extends IdentityKey {
+        private final WeakReference<Object> ref;
+
+        WeakIdentityKey(Object obj) {
+            super(obj);
+            this.ref = new WeakReference<Object>(obj);
+        }
+
+        @Override
+        Object referent() {
+            return ref.get();
+        }
+    }
+
+    /**
+     * Key used for lookups only.
+     */
+    private static final class StrongIdentityKey extends IdentityKey {
+        private final Object obj;
+
+        StrongIdentityKey(Object obj) {
+            super(obj);
+            this.obj = obj;
+        }
+
+        @Override
+        Object referent() {
+            return obj;
+        }
+    }
 
     /**
      * Simple implementation of LinkedHashMap that overrides the
      * <code>removeEldestEntry</code> method to turn LinkedHashMap into a
      * LRU(ish) cache that automatically evicts old entries.
      */
-    private static final class InternalCache extends LinkedHashMap<Integer, ResponseMetadata> {
-        private int maxSize;
+    private static final class InternalCache extends LinkedHashMap<IdentityKey, ResponseMetadata> {
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
 
         public InternalCache(int maxSize) {
             super(maxSize);
@@ -86,7 +183,7 @@ public class ResponseMetadataCache {
         }
 
         @Override
-        protected boolean removeEldestEntry(Entry eldest) {
+        protected boolean removeEldestEntry(Entry<IdentityKey, ResponseMetadata> eldest) {
             return size() > maxSize;
         }
     }
@@ -17,23 +17,27 @@ package com.amazonaws.services.dynamodbv2;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.handlers.ListenableFuture;
+import com.amazonaws.handlers.ListenableFutures;
 import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
 
 import com.amazonaws.services.dynamodbv2.model.*;
+import com.amazonaws.services.dynamodbv2.model.transform.*;
 
 /**
  * Asynchronous client for accessing AmazonDynamoDBv2.
  * All asynchronous calls made using this client are non-blocking. Callers could either
  * process the result and handle the exceptions in the worker thread by providing a callback handler
  * when making the call, or use the returned Future object to check the result of the call in the calling thread.
+ * The returned futures are {@link ListenableFuture}s, so dependent calls can also be chained
+ * onto them, on an executor of the caller's choosing, via {@link ListenableFutures}.
  * Amazon DynamoDB <p>
  * <b>Overview</b>
  * </p>
@@ -470,9 +474,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ScanResult> scanAsync(final ScanRequest scanRequest) 
+    public ListenableFuture<ScanResult> scanAsync(final ScanRequest scanRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ScanResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(scanRequest, new ScanRequestMarshaller(),
+                    new ScanResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<ScanResult>() {
             public ScanResult call() throws Exception {
                 return scan(scanRequest);
         }
@@ -526,11 +534,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ScanResult> scanAsync(
+    public ListenableFuture<ScanResult> scanAsync(
             final ScanRequest scanRequest,
             final AsyncHandler<ScanRequest, ScanResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ScanResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(scanRequest, new ScanRequestMarshaller(),
+                    new ScanResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<ScanResult>() {
             public ScanResult call() throws Exception {
               ScanResult result;
                 try {
@@ -589,9 +601,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<UpdateTableResult> updateTableAsync(final UpdateTableRequest updateTableRequest) 
+    public ListenableFuture<UpdateTableResult> updateTableAsync(final UpdateTableRequest updateTableRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<UpdateTableResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(updateTableRequest, new UpdateTableRequestMarshaller(),
+                    new UpdateTableResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<UpdateTableResult>() {
             public UpdateTableResult call() throws Exception {
                 return updateTable(updateTableRequest);
         }
@@ -646,11 +662,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<UpdateTableResult> updateTableAsync(
+    public ListenableFuture<UpdateTableResult> updateTableAsync(
             final UpdateTableRequest updateTableRequest,
             final AsyncHandler<UpdateTableRequest, UpdateTableResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<UpdateTableResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(updateTableRequest, new UpdateTableRequestMarshaller(),
+                    new UpdateTableResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<UpdateTableResult>() {
             public UpdateTableResult call() throws Exception {
               UpdateTableResult result;
                 try {
@@ -704,9 +724,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<DeleteTableResult> deleteTableAsync(final DeleteTableRequest deleteTableRequest) 
+    public ListenableFuture<DeleteTableResult> deleteTableAsync(final DeleteTableRequest deleteTableRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<DeleteTableResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(deleteTableRequest, new DeleteTableRequestMarshaller(),
+                    new DeleteTableResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<DeleteTableResult>() {
             public DeleteTableResult call() throws Exception {
                 return deleteTable(deleteTableRequest);
         }
@@ -756,11 +780,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<DeleteTableResult> deleteTableAsync(
+    public ListenableFuture<DeleteTableResult> deleteTableAsync(
             final DeleteTableRequest deleteTableRequest,
             final AsyncHandler<DeleteTableRequest, DeleteTableResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<DeleteTableResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(deleteTableRequest, new DeleteTableRequestMarshaller(),
+                    new DeleteTableResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<DeleteTableResult>() {
             public DeleteTableResult call() throws Exception {
               DeleteTableResult result;
                 try {
@@ -892,9 +920,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<BatchWriteItemResult> batchWriteItemAsync(final BatchWriteItemRequest batchWriteItemRequest) 
+    public ListenableFuture<BatchWriteItemResult> batchWriteItemAsync(final BatchWriteItemRequest batchWriteItemRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<BatchWriteItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(batchWriteItemRequest, new BatchWriteItemRequestMarshaller(),
+                    new BatchWriteItemResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<BatchWriteItemResult>() {
             public BatchWriteItemResult call() throws Exception {
                 return batchWriteItem(batchWriteItemRequest);
         }
@@ -1022,11 +1054,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<BatchWriteItemResult> batchWriteItemAsync(
+    public ListenableFuture<BatchWriteItemResult> batchWriteItemAsync(
             final BatchWriteItemRequest batchWriteItemRequest,
             final AsyncHandler<BatchWriteItemRequest, BatchWriteItemResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<BatchWriteItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(batchWriteItemRequest, new BatchWriteItemRequestMarshaller(),
+                    new BatchWriteItemResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<BatchWriteItemResult>() {
             public BatchWriteItemResult call() throws Exception {
               BatchWriteItemResult result;
                 try {
@@ -1071,9 +1107,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<DescribeTableResult> describeTableAsync(final DescribeTableRequest describeTableRequest) 
+    public ListenableFuture<DescribeTableResult> describeTableAsync(final DescribeTableRequest describeTableRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<DescribeTableResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(describeTableRequest, new DescribeTableRequestMarshaller(),
+                    new DescribeTableResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<DescribeTableResult>() {
             public DescribeTableResult call() throws Exception {
                 return describeTable(describeTableRequest);
         }
@@ -1114,11 +1154,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<DescribeTableResult> describeTableAsync(
+    public ListenableFuture<DescribeTableResult> describeTableAsync(
             final DescribeTableRequest describeTableRequest,
             final AsyncHandler<DescribeTableRequest, DescribeTableResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<DescribeTableResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(describeTableRequest, new DescribeTableRequestMarshaller(),
+                    new DescribeTableResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<DescribeTableResult>() {
             public DescribeTableResult call() throws Exception {
               DescribeTableResult result;
                 try {
@@ -1162,9 +1206,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<GetItemResult> getItemAsync(final GetItemRequest getItemRequest) 
+    public ListenableFuture<GetItemResult> getItemAsync(final GetItemRequest getItemRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<GetItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(getItemRequest, new GetItemRequestMarshaller(),
+                    new GetItemResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<GetItemResult>() {
             public GetItemResult call() throws Exception {
                 return getItem(getItemRequest);
         }
@@ -1204,11 +1252,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<GetItemResult> getItemAsync(
+    public ListenableFuture<GetItemResult> getItemAsync(
             final GetItemRequest getItemRequest,
             final AsyncHandler<GetItemRequest, GetItemResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<GetItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(getItemRequest, new GetItemRequestMarshaller(),
+                    new GetItemResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<GetItemResult>() {
             public GetItemResult call() throws Exception {
               GetItemResult result;
                 try {
@@ -1260,9 +1312,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<DeleteItemResult> deleteItemAsync(final DeleteItemRequest deleteItemRequest) 
+    public ListenableFuture<DeleteItemResult> deleteItemAsync(final DeleteItemRequest deleteItemRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<DeleteItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(deleteItemRequest, new DeleteItemRequestMarshaller(),
+                    new DeleteItemResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<DeleteItemResult>() {
             public DeleteItemResult call() throws Exception {
                 return deleteItem(deleteItemRequest);
         }
@@ -1310,11 +1366,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<DeleteItemResult> deleteItemAsync(
+    public ListenableFuture<DeleteItemResult> deleteItemAsync(
             final DeleteItemRequest deleteItemRequest,
             final AsyncHandler<DeleteItemRequest, DeleteItemResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<DeleteItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(deleteItemRequest, new DeleteItemRequestMarshaller(),
+                    new DeleteItemResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<DeleteItemResult>() {
             public DeleteItemResult call() throws Exception {
               DeleteItemResult result;
                 try {
@@ -1370,9 +1430,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<CreateTableResult> createTableAsync(final CreateTableRequest createTableRequest) 
+    public ListenableFuture<CreateTableResult> createTableAsync(final CreateTableRequest createTableRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<CreateTableResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(createTableRequest, new CreateTableRequestMarshaller(),
+                    new CreateTableResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<CreateTableResult>() {
             public CreateTableResult call() throws Exception {
                 return createTable(createTableRequest);
         }
@@ -1424,11 +1488,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<CreateTableResult> createTableAsync(
+    public ListenableFuture<CreateTableResult> createTableAsync(
             final CreateTableRequest createTableRequest,
             final AsyncHandler<CreateTableRequest, CreateTableResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<CreateTableResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(createTableRequest, new CreateTableRequestMarshaller(),
+                    new CreateTableResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<CreateTableResult>() {
             public CreateTableResult call() throws Exception {
               CreateTableResult result;
                 try {
@@ -1489,9 +1557,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<QueryResult> queryAsync(final QueryRequest queryRequest) 
+    public ListenableFuture<QueryResult> queryAsync(final QueryRequest queryRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<QueryResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(queryRequest, new QueryRequestMarshaller(),
+                    new QueryResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<QueryResult>() {
             public QueryResult call() throws Exception {
                 return query(queryRequest);
         }
@@ -1548,11 +1620,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<QueryResult> queryAsync(
+    public ListenableFuture<QueryResult> queryAsync(
             final QueryRequest queryRequest,
             final AsyncHandler<QueryRequest, QueryResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<QueryResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(queryRequest, new QueryRequestMarshaller(),
+                    new QueryResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<QueryResult>() {
             public QueryResult call() throws Exception {
               QueryResult result;
                 try {
@@ -1620,9 +1696,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<PutItemResult> putItemAsync(final PutItemRequest putItemRequest) 
+    public ListenableFuture<PutItemResult> putItemAsync(final PutItemRequest putItemRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<PutItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(putItemRequest, new PutItemRequestMarshaller(),
+                    new PutItemResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<PutItemResult>() {
             public PutItemResult call() throws Exception {
                 return putItem(putItemRequest);
         }
@@ -1686,11 +1766,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<PutItemResult> putItemAsync(
+    public ListenableFuture<PutItemResult> putItemAsync(
             final PutItemRequest putItemRequest,
             final AsyncHandler<PutItemRequest, PutItemResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<PutItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(putItemRequest, new PutItemRequestMarshaller(),
+                    new PutItemResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<PutItemResult>() {
             public PutItemResult call() throws Exception {
               PutItemResult result;
                 try {
@@ -1727,9 +1811,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ListTablesResult> listTablesAsync(final ListTablesRequest listTablesRequest) 
+    public ListenableFuture<ListTablesResult> listTablesAsync(final ListTablesRequest listTablesRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ListTablesResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(listTablesRequest, new ListTablesRequestMarshaller(),
+                    new ListTablesResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<ListTablesResult>() {
             public ListTablesResult call() throws Exception {
                 return listTables(listTablesRequest);
         }
@@ -1762,11 +1850,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ListTablesResult> listTablesAsync(
+    public ListenableFuture<ListTablesResult> listTablesAsync(
             final ListTablesRequest listTablesRequest,
             final AsyncHandler<ListTablesRequest, ListTablesResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ListTablesResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(listTablesRequest, new ListTablesRequestMarshaller(),
+                    new ListTablesResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<ListTablesResult>() {
             public ListTablesResult call() throws Exception {
               ListTablesResult result;
                 try {
@@ -1811,9 +1903,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<UpdateItemResult> updateItemAsync(final UpdateItemRequest updateItemRequest) 
+    public ListenableFuture<UpdateItemResult> updateItemAsync(final UpdateItemRequest updateItemRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<UpdateItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(updateItemRequest, new UpdateItemRequestMarshaller(),
+                    new UpdateItemResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<UpdateItemResult>() {
             public UpdateItemResult call() throws Exception {
                 return updateItem(updateItemRequest);
         }
@@ -1854,11 +1950,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<UpdateItemResult> updateItemAsync(
+    public ListenableFuture<UpdateItemResult> updateItemAsync(
             final UpdateItemRequest updateItemRequest,
             final AsyncHandler<UpdateItemRequest, UpdateItemResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<UpdateItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(updateItemRequest, new UpdateItemRequestMarshaller(),
+                    new UpdateItemResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<UpdateItemResult>() {
             public UpdateItemResult call() throws Exception {
               UpdateItemResult result;
                 try {
@@ -1955,9 +2055,13 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<BatchGetItemResult> batchGetItemAsync(final BatchGetItemRequest batchGetItemRequest) 
+    public ListenableFuture<BatchGetItemResult> batchGetItemAsync(final BatchGetItemRequest batchGetItemRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<BatchGetItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(batchGetItemRequest, new BatchGetItemRequestMarshaller(),
+                    new BatchGetItemResultJsonUnmarshaller(), null, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<BatchGetItemResult>() {
             public BatchGetItemResult call() throws Exception {
                 return batchGetItem(batchGetItemRequest);
         }
@@ -2050,11 +2154,15 @@ public class AmazonDynamoDBAsyncClient extends AmazonDynamoDBClient
      *             If an error response is returned by AmazonDynamoDBv2 indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<BatchGetItemResult> batchGetItemAsync(
+    public ListenableFuture<BatchGetItemResult> batchGetItemAsync(
             final BatchGetItemRequest batchGetItemRequest,
             final AsyncHandler<BatchGetItemRequest, BatchGetItemResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<BatchGetItemResult>() {
+        if (clientConfiguration.useNonBlockingTransport()) {
+            return invokeAsync(batchGetItemRequest, new BatchGetItemRequestMarshaller(),
+                    new BatchGetItemResultJsonUnmarshaller(), asyncHandler, executorService);
+        }
+        return ListenableFutures.submit(executorService, new Callable<BatchGetItemResult>() {
             public BatchGetItemResult call() throws Exception {
               BatchGetItemResult result;
                 try {
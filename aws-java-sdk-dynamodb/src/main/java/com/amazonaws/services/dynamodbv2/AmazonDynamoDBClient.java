@@ -16,6 +16,9 @@ package com.amazonaws.services.dynamodbv2;
 
 import java.net.*;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.logging.*;
 
@@ -3127,5 +3130,127 @@ public class AmazonDynamoDBClient extends AmazonWebServiceClient implements Amaz
                 errorResponseHandler, executionContext);
         return result;
     }
+
+    /**
+     * Executes the given request over the non-blocking transport of the
+     * underlying HTTP client, and returns a future for its result.
+     * <p>
+     * The request is marshalled and signed on a thread of the given executor,
+     * so that the caller never blocks, and the executor is released as soon as
+     * the request has been sent; the response is then unmarshalled, and the
+     * async handler notified, on a thread of the same executor. Cancelling
+     * the returned future aborts the request in flight and stops its retries.
+     *
+     * @param originalRequest
+     *            The original request to execute.
+     * @param marshaller
+     *            The marshaller for the request.
+     * @param unmarshaller
+     *            The unmarshaller for the result of the request.
+     * @param asyncHandler
+     *            Optional async handler to notify of the outcome; or null.
+     * @param executor
+     *            The executor used to prepare the request and to handle its
+     *            response.
+     */
+    protected <X, Y extends AmazonWebServiceRequest> ListenableFuture<X> invokeAsync(
+            final Y originalRequest,
+            final Marshaller<Request<Y>, Y> marshaller,
+            final Unmarshaller<X, JsonUnmarshallerContext> unmarshaller,
+            final AsyncHandler<Y, X> asyncHandler,
+            final Executor executor) {
+        // The execution of the request by the HTTP client, once started
+        final AtomicReference<Future<Response<X>>> execution =
+                new AtomicReference<Future<Response<X>>>();
+        final SettableFuture<X> future = new SettableFuture<X>() {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                if (!super.cancel(mayInterruptIfRunning))
+                    return false;
+                Future<Response<X>> started = execution.get();
+                if (started != null)
+                    started.cancel(mayInterruptIfRunning);
+                return true;
+            }
+        };
+        executor.execute(new Runnable() {
+            public void run() {
+                if (future.isCancelled()) {
+                    notifyError(new AmazonClientException("The request was cancelled"));
+                    return;
+                }
+                ExecutionContext executionContext = createExecutionContext(originalRequest);
+                final AWSRequestMetrics awsRequestMetrics = executionContext.getAwsRequestMetrics();
+                awsRequestMetrics.startEvent(Field.ClientExecuteTime);
+                Request<Y> request = null;
+                try {
+                    awsRequestMetrics.startEvent(Field.RequestMarshallTime);
+                    try {
+                        request = marshaller.marshall(originalRequest);
+                        // Binds the request metrics to the current request.
+                        request.setAWSRequestMetrics(awsRequestMetrics);
+                    } finally {
+                        awsRequestMetrics.endEvent(Field.RequestMarshallTime);
+                    }
+                    request.setEndpoint(endpoint);
+                    request.setTimeOffset(timeOffset);
+
+                    AWSCredentials credentials;
+                    awsRequestMetrics.startEvent(Field.CredentialsRequestTime);
+                    try {
+                        credentials = awsCredentialsProvider.getCredentials();
+                    } finally {
+                        awsRequestMetrics.endEvent(Field.CredentialsRequestTime);
+                    }
+                    if (originalRequest.getRequestCredentials() != null) {
+                        credentials = originalRequest.getRequestCredentials();
+                    }
+                    executionContext.setCredentials(credentials);
+
+                    final Request<Y> sentRequest = request;
+                    execution.set(client.executeAsync(request,
+                            new JsonResponseHandler<X>(unmarshaller),
+                            new JsonErrorResponseHandler(jsonErrorUnmarshallers),
+                            executionContext, executor,
+                            new AsyncHandler<AmazonWebServiceRequest, Response<X>>() {
+                        public void onError(Exception exception) {
+                            endClientExecution(awsRequestMetrics, sentRequest, null, LOGGING_AWS_REQUEST_METRIC);
+                            notifyError(exception);
+                        }
+
+                        public void onSuccess(AmazonWebServiceRequest ignored, Response<X> response) {
+                            endClientExecution(awsRequestMetrics, sentRequest, response, LOGGING_AWS_REQUEST_METRIC);
+                            X result = response.getAwsResponse();
+                            try {
+                                if (asyncHandler != null)
+                                    asyncHandler.onSuccess(originalRequest, result);
+                            } catch (RuntimeException e) {
+                                future.setException(e);
+                                return;
+                            }
+                            future.set(result);
+                        }
+                    }));
+                    // the future may have been cancelled before the execution
+                    // started, and so not have cancelled it
+                    if (future.isCancelled())
+                        execution.get().cancel(true);
+                } catch (Exception e) {
+                    endClientExecution(awsRequestMetrics, request, null, LOGGING_AWS_REQUEST_METRIC);
+                    notifyError(e);
+                }
+            }
+
+            private void notifyError(Exception exception) {
+                try {
+                    if (asyncHandler != null)
+                        asyncHandler.onError(exception);
+                } finally {
+                    future.setException(exception);
+                }
+            }
+        });
+        return future;
+    }
 }
         
\ No newline at end of file
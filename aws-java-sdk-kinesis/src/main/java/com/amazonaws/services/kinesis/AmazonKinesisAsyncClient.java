@@ -17,11 +17,12 @@ package com.amazonaws.services.kinesis;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.handlers.ListenableFuture;
+import com.amazonaws.handlers.ListenableFutures;
 import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSCredentialsProvider;
@@ -34,6 +35,8 @@ import com.amazonaws.services.kinesis.model.*;
  * All asynchronous calls made using this client are non-blocking. Callers could either
  * process the result and handle the exceptions in the worker thread by providing a callback handler
  * when making the call, or use the returned Future object to check the result of the call in the calling thread.
+ * The returned futures are {@link ListenableFuture}s, so dependent calls can also be chained
+ * onto them, on an executor of the caller's choosing, via {@link ListenableFutures}.
  * Amazon Kinesis Service API Reference <p>
  * Amazon Kinesis is a managed service that scales elastically for real
  * time processing of streaming big data.
@@ -297,9 +300,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> addTagsToStreamAsync(final AddTagsToStreamRequest addTagsToStreamRequest) 
+    public ListenableFuture<Void> addTagsToStreamAsync(final AddTagsToStreamRequest addTagsToStreamRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 addTagsToStream(addTagsToStreamRequest);
                 return null;
@@ -337,11 +340,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> addTagsToStreamAsync(
+    public ListenableFuture<Void> addTagsToStreamAsync(
             final AddTagsToStreamRequest addTagsToStreamRequest,
             final AsyncHandler<AddTagsToStreamRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 addTagsToStream(addTagsToStreamRequest);
@@ -429,9 +432,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<PutRecordResult> putRecordAsync(final PutRecordRequest putRecordRequest) 
+    public ListenableFuture<PutRecordResult> putRecordAsync(final PutRecordRequest putRecordRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<PutRecordResult>() {
+        return ListenableFutures.submit(executorService, new Callable<PutRecordResult>() {
             public PutRecordResult call() throws Exception {
                 return putRecord(putRecordRequest);
         }
@@ -516,11 +519,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<PutRecordResult> putRecordAsync(
+    public ListenableFuture<PutRecordResult> putRecordAsync(
             final PutRecordRequest putRecordRequest,
             final AsyncHandler<PutRecordRequest, PutRecordResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<PutRecordResult>() {
+        return ListenableFutures.submit(executorService, new Callable<PutRecordResult>() {
             public PutRecordResult call() throws Exception {
               PutRecordResult result;
                 try {
@@ -609,9 +612,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> createStreamAsync(final CreateStreamRequest createStreamRequest) 
+    public ListenableFuture<Void> createStreamAsync(final CreateStreamRequest createStreamRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 createStream(createStreamRequest);
                 return null;
@@ -697,11 +700,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> createStreamAsync(
+    public ListenableFuture<Void> createStreamAsync(
             final CreateStreamRequest createStreamRequest,
             final AsyncHandler<CreateStreamRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 createStream(createStreamRequest);
@@ -762,9 +765,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> deleteStreamAsync(final DeleteStreamRequest deleteStreamRequest) 
+    public ListenableFuture<Void> deleteStreamAsync(final DeleteStreamRequest deleteStreamRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 deleteStream(deleteStreamRequest);
                 return null;
@@ -823,11 +826,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> deleteStreamAsync(
+    public ListenableFuture<Void> deleteStreamAsync(
             final DeleteStreamRequest deleteStreamRequest,
             final AsyncHandler<DeleteStreamRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 deleteStream(deleteStreamRequest);
@@ -912,9 +915,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> mergeShardsAsync(final MergeShardsRequest mergeShardsRequest) 
+    public ListenableFuture<Void> mergeShardsAsync(final MergeShardsRequest mergeShardsRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 mergeShards(mergeShardsRequest);
                 return null;
@@ -997,11 +1000,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> mergeShardsAsync(
+    public ListenableFuture<Void> mergeShardsAsync(
             final MergeShardsRequest mergeShardsRequest,
             final AsyncHandler<MergeShardsRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 mergeShards(mergeShardsRequest);
@@ -1106,9 +1109,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<PutRecordsResult> putRecordsAsync(final PutRecordsRequest putRecordsRequest) 
+    public ListenableFuture<PutRecordsResult> putRecordsAsync(final PutRecordsRequest putRecordsRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<PutRecordsResult>() {
+        return ListenableFutures.submit(executorService, new Callable<PutRecordsResult>() {
             public PutRecordsResult call() throws Exception {
                 return putRecords(putRecordsRequest);
         }
@@ -1210,11 +1213,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<PutRecordsResult> putRecordsAsync(
+    public ListenableFuture<PutRecordsResult> putRecordsAsync(
             final PutRecordsRequest putRecordsRequest,
             final AsyncHandler<PutRecordsRequest, PutRecordsResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<PutRecordsResult>() {
+        return ListenableFutures.submit(executorService, new Callable<PutRecordsResult>() {
             public PutRecordsResult call() throws Exception {
               PutRecordsResult result;
                 try {
@@ -1278,9 +1281,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<DescribeStreamResult> describeStreamAsync(final DescribeStreamRequest describeStreamRequest) 
+    public ListenableFuture<DescribeStreamResult> describeStreamAsync(final DescribeStreamRequest describeStreamRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<DescribeStreamResult>() {
+        return ListenableFutures.submit(executorService, new Callable<DescribeStreamResult>() {
             public DescribeStreamResult call() throws Exception {
                 return describeStream(describeStreamRequest);
         }
@@ -1340,11 +1343,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<DescribeStreamResult> describeStreamAsync(
+    public ListenableFuture<DescribeStreamResult> describeStreamAsync(
             final DescribeStreamRequest describeStreamRequest,
             final AsyncHandler<DescribeStreamRequest, DescribeStreamResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<DescribeStreamResult>() {
+        return ListenableFutures.submit(executorService, new Callable<DescribeStreamResult>() {
             public DescribeStreamResult call() throws Exception {
               DescribeStreamResult result;
                 try {
@@ -1430,9 +1433,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<GetShardIteratorResult> getShardIteratorAsync(final GetShardIteratorRequest getShardIteratorRequest) 
+    public ListenableFuture<GetShardIteratorResult> getShardIteratorAsync(final GetShardIteratorRequest getShardIteratorRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<GetShardIteratorResult>() {
+        return ListenableFutures.submit(executorService, new Callable<GetShardIteratorResult>() {
             public GetShardIteratorResult call() throws Exception {
                 return getShardIterator(getShardIteratorRequest);
         }
@@ -1514,11 +1517,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<GetShardIteratorResult> getShardIteratorAsync(
+    public ListenableFuture<GetShardIteratorResult> getShardIteratorAsync(
             final GetShardIteratorRequest getShardIteratorRequest,
             final AsyncHandler<GetShardIteratorRequest, GetShardIteratorResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<GetShardIteratorResult>() {
+        return ListenableFutures.submit(executorService, new Callable<GetShardIteratorResult>() {
             public GetShardIteratorResult call() throws Exception {
               GetShardIteratorResult result;
                 try {
@@ -1553,9 +1556,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ListTagsForStreamResult> listTagsForStreamAsync(final ListTagsForStreamRequest listTagsForStreamRequest) 
+    public ListenableFuture<ListTagsForStreamResult> listTagsForStreamAsync(final ListTagsForStreamRequest listTagsForStreamRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ListTagsForStreamResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ListTagsForStreamResult>() {
             public ListTagsForStreamResult call() throws Exception {
                 return listTagsForStream(listTagsForStreamRequest);
         }
@@ -1586,11 +1589,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ListTagsForStreamResult> listTagsForStreamAsync(
+    public ListenableFuture<ListTagsForStreamResult> listTagsForStreamAsync(
             final ListTagsForStreamRequest listTagsForStreamRequest,
             final AsyncHandler<ListTagsForStreamRequest, ListTagsForStreamResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ListTagsForStreamResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ListTagsForStreamResult>() {
             public ListTagsForStreamResult call() throws Exception {
               ListTagsForStreamResult result;
                 try {
@@ -1683,9 +1686,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<GetRecordsResult> getRecordsAsync(final GetRecordsRequest getRecordsRequest) 
+    public ListenableFuture<GetRecordsResult> getRecordsAsync(final GetRecordsRequest getRecordsRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<GetRecordsResult>() {
+        return ListenableFutures.submit(executorService, new Callable<GetRecordsResult>() {
             public GetRecordsResult call() throws Exception {
                 return getRecords(getRecordsRequest);
         }
@@ -1774,11 +1777,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<GetRecordsResult> getRecordsAsync(
+    public ListenableFuture<GetRecordsResult> getRecordsAsync(
             final GetRecordsRequest getRecordsRequest,
             final AsyncHandler<GetRecordsRequest, GetRecordsResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<GetRecordsResult>() {
+        return ListenableFutures.submit(executorService, new Callable<GetRecordsResult>() {
             public GetRecordsResult call() throws Exception {
               GetRecordsResult result;
                 try {
@@ -1880,9 +1883,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> splitShardAsync(final SplitShardRequest splitShardRequest) 
+    public ListenableFuture<Void> splitShardAsync(final SplitShardRequest splitShardRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 splitShard(splitShardRequest);
                 return null;
@@ -1981,11 +1984,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> splitShardAsync(
+    public ListenableFuture<Void> splitShardAsync(
             final SplitShardRequest splitShardRequest,
             final AsyncHandler<SplitShardRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 splitShard(splitShardRequest);
@@ -2023,9 +2026,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> removeTagsFromStreamAsync(final RemoveTagsFromStreamRequest removeTagsFromStreamRequest) 
+    public ListenableFuture<Void> removeTagsFromStreamAsync(final RemoveTagsFromStreamRequest removeTagsFromStreamRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 removeTagsFromStream(removeTagsFromStreamRequest);
                 return null;
@@ -2061,11 +2064,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> removeTagsFromStreamAsync(
+    public ListenableFuture<Void> removeTagsFromStreamAsync(
             final RemoveTagsFromStreamRequest removeTagsFromStreamRequest,
             final AsyncHandler<RemoveTagsFromStreamRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 removeTagsFromStream(removeTagsFromStreamRequest);
@@ -2122,9 +2125,9 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ListStreamsResult> listStreamsAsync(final ListStreamsRequest listStreamsRequest) 
+    public ListenableFuture<ListStreamsResult> listStreamsAsync(final ListStreamsRequest listStreamsRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ListStreamsResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ListStreamsResult>() {
             public ListStreamsResult call() throws Exception {
                 return listStreams(listStreamsRequest);
         }
@@ -2178,11 +2181,11 @@ public class AmazonKinesisAsyncClient extends AmazonKinesisClient
      *             If an error response is returned by AmazonKinesis indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ListStreamsResult> listStreamsAsync(
+    public ListenableFuture<ListStreamsResult> listStreamsAsync(
             final ListStreamsRequest listStreamsRequest,
             final AsyncHandler<ListStreamsRequest, ListStreamsResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ListStreamsResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ListStreamsResult>() {
             public ListStreamsResult call() throws Exception {
               ListStreamsResult result;
                 try {
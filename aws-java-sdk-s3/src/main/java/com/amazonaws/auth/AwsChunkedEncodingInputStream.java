@@ -22,6 +22,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import com.amazonaws.AmazonClientException;
+import com.amazonaws.internal.BufferPool;
 import com.amazonaws.internal.SdkInputStream;
 import com.amazonaws.util.BinaryUtils;
 
@@ -60,6 +61,13 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
      */
     private DecodedStreamBuffer decodedStreamBuffer;
 
+    /**
+     * Buffer the data of each chunk is read into; leased from the
+     * {@link BufferPool} when the first chunk is set up, and returned once
+     * the final chunk has been set up or when closed.
+     */
+    private byte[] chunkData;
+
     private boolean isAtStart = true;
     private boolean isTerminating = false;
 
@@ -172,13 +180,17 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
         }
         long remaining = n;
         int toskip = (int) Math.min(DEFAULT_BUFFER_SIZE, n);
-        byte[] temp = new byte[toskip];
-        while (remaining > 0) {
-            int count;
-            if ( (count = read(temp, 0, toskip)) < 0) {
-                break;
+        byte[] temp = BufferPool.acquire(toskip);
+        try {
+            while (remaining > 0) {
+                int count;
+                if ( (count = read(temp, 0, (int) Math.min(toskip, remaining))) < 0) {
+                    break;
+                }
+                remaining -= count;
             }
-            remaining -= count;
+        } finally {
+            BufferPool.release(temp);
         }
         return n - remaining;
     }
@@ -275,7 +287,8 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
      * 		Returns true if next chunk is the last empty chunk.
      */
     private boolean setUpNextChunk() throws IOException {
-        byte[] chunkData = new byte[DEFAULT_CHUNK_SIZE];
+        if (chunkData == null)
+            chunkData = BufferPool.acquire(DEFAULT_CHUNK_SIZE);
         int chunkSizeInBytes = 0;
         while (chunkSizeInBytes < DEFAULT_CHUNK_SIZE) {
             /** Read from the buffer of the decoded stream */
@@ -297,26 +310,26 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
             }
         }
         if (chunkSizeInBytes == 0){
-            byte[] signedFinalChunk = createSignedChunk(FINAL_CHUNK);
-            currentChunkIterator = new ChunkContentIterator(signedFinalChunk);
+            // The chunk buffer is no longer needed, unless the stream is reset
+            BufferPool.release(chunkData);
+            chunkData = null;
+            currentChunkIterator = createSignedChunk(FINAL_CHUNK, 0);
             return true;
         }
         else {
-            if (chunkSizeInBytes < chunkData.length) {
-                byte[] temp = new byte[chunkSizeInBytes];
-                System.arraycopy(chunkData, 0, temp, 0, chunkSizeInBytes);
-                chunkData = temp;
-            }
-            byte[] signedChunkContent = createSignedChunk(chunkData);
-            currentChunkIterator = new ChunkContentIterator(signedChunkContent);
+            currentChunkIterator = createSignedChunk(chunkData, chunkSizeInBytes);
             return false;
         }
     }
 
-    private byte[] createSignedChunk(byte[] chunkData) {
+    /**
+     * Signs the chunk of the given data, and returns an iterator over the
+     * signed chunk, which reads the given data in place.
+     */
+    private ChunkContentIterator createSignedChunk(byte[] chunkData, int chunkLength) {
         StringBuilder chunkHeader = new StringBuilder();
         // chunk-size
-        chunkHeader.append(Integer.toHexString(chunkData.length));
+        chunkHeader.append(Integer.toHexString(chunkLength));
         // nonsig-extension
         String nonsigExtension = "";
         // sig-extension
@@ -326,7 +339,7 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
                 keyPath + "\n" +
                 priorChunkSignature + "\n" +
                 BinaryUtils.toHex(aws4Signer.hash(nonsigExtension)) + "\n" +
-                BinaryUtils.toHex(aws4Signer.hash(chunkData));
+                BinaryUtils.toHex(aws4Signer.hash(chunkData, 0, chunkLength));
         String chunkSignature = BinaryUtils.toHex(aws4Signer.sign(chunkStringToSign, kSigning, SigningAlgorithm.HmacSHA256));
         priorChunkSignature = chunkSignature;
         chunkHeader.append(nonsigExtension + CHUNK_SIGNATURE_HEADER + chunkSignature);
@@ -335,18 +348,22 @@ public final class AwsChunkedEncodingInputStream extends SdkInputStream {
         try {
             byte[] header = chunkHeader.toString().getBytes(UTF8);
             byte[] trailer = CLRF.getBytes(UTF8);
-            byte[] signedChunk = new byte[header.length + chunkData.length + trailer.length];
-            System.arraycopy(header, 0, signedChunk, 0, header.length);
-            System.arraycopy(chunkData, 0, signedChunk, header.length, chunkData.length);
-            System.arraycopy(trailer, 0,
-                    signedChunk, header.length + chunkData.length,
-                    trailer.length);
-            return signedChunk;
+            return new ChunkContentIterator(header, chunkData, chunkLength, trailer);
         } catch (Exception e) {
             throw new AmazonClientException("Unable to sign the chunked data. " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Returns the chunk buffer to the pool. The wrapped stream is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        currentChunkIterator = null;
+        BufferPool.release(chunkData);
+        chunkData = null;
+    }
+
     @Override
     protected InputStream getWrappedInputStream() {
         return is;
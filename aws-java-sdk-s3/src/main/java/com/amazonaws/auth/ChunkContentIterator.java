@@ -14,17 +14,35 @@
  */
 package com.amazonaws.auth;
 
+/**
+ * Iterates over the content of a signed chunk: the chunk header, the chunk
+ * data and the chunk trailer, which are read in place rather than being
+ * copied into a single array first.
+ */
 class ChunkContentIterator {
 
-    private final byte[] signedChunk;
+    private final byte[][] segments;
+    private final int[] lengths;
+    private int segment;
     private int pos;
 
-    public ChunkContentIterator(byte[] signedChunk) {
-        this.signedChunk = signedChunk;
+    /**
+     * @param dataLength
+     *            the length of the chunk data, at the start of the given
+     *            array
+     */
+    public ChunkContentIterator(byte[] header, byte[] data, int dataLength,
+            byte[] trailer) {
+        this.segments = new byte[][] { header, data, trailer };
+        this.lengths = new int[] { header.length, dataLength, trailer.length };
     }
 
     public boolean hasNext() {
-        return pos < signedChunk.length;
+        while (segment < segments.length && pos >= lengths[segment]) {
+            segment++;
+            pos = 0;
+        }
+        return segment < segments.length;
     }
 
     public int read(byte[] output, int offset, int length) {
@@ -32,10 +50,13 @@ class ChunkContentIterator {
             return 0;
         if ( !hasNext() )
             return -1;
-        int remaingBytesNum = signedChunk.length - pos;
-        int bytesToRead = Math.min(remaingBytesNum, length);
-        System.arraycopy(signedChunk, pos, output, offset, bytesToRead);
-        pos += bytesToRead;
-        return bytesToRead;
+        int count = 0;
+        while (count < length && hasNext()) {
+            int bytesToRead = Math.min(lengths[segment] - pos, length - count);
+            System.arraycopy(segments[segment], pos, output, offset + count, bytesToRead);
+            pos += bytesToRead;
+            count += bytesToRead;
+        }
+        return count;
     }
-}
\ No newline at end of file
+}
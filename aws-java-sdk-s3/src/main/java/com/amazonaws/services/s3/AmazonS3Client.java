@@ -15,7 +15,7 @@
 package com.amazonaws.services.s3;
 
 import static com.amazonaws.event.SDKProgressPublisher.publishProgress;
-import static com.amazonaws.internal.ResettableInputStream.newResettableInputStream;
+import static com.amazonaws.internal.FileChannelInputStream.newFileChannelInputStream;
 import static com.amazonaws.services.s3.model.S3DataSource.Utils.cleanupDataSource;
 import static com.amazonaws.util.LengthCheckInputStream.EXCLUDE_SKIPPED_BYTES;
 import static com.amazonaws.util.LengthCheckInputStream.INCLUDE_SKIPPED_BYTES;
@@ -87,7 +87,7 @@ import com.amazonaws.handlers.RequestHandler2;
 import com.amazonaws.http.ExecutionContext;
 import com.amazonaws.http.HttpMethodName;
 import com.amazonaws.http.HttpResponseHandler;
-import com.amazonaws.internal.ResettableInputStream;
+import com.amazonaws.internal.FileChannelInputStream;
 import com.amazonaws.internal.StaticCredentialsProvider;
 import com.amazonaws.metrics.AwsSdkMetrics;
 import com.amazonaws.metrics.RequestMetricCollector;
@@ -109,6 +109,7 @@ import com.amazonaws.services.s3.internal.S3MetadataResponseHandler;
 import com.amazonaws.services.s3.internal.S3ObjectResponseHandler;
 import com.amazonaws.services.s3.internal.S3QueryStringSigner;
 import com.amazonaws.services.s3.internal.S3Signer;
+import com.amazonaws.services.s3.internal.S3StreamingXmlResponseHandler;
 import com.amazonaws.services.s3.internal.S3StringResponseHandler;
 import com.amazonaws.services.s3.internal.S3V4AuthErrorRetryStrategy;
 import com.amazonaws.services.s3.internal.S3VersionHeaderHandler;
@@ -210,6 +211,7 @@ import com.amazonaws.services.s3.model.transform.BucketConfigurationXmlFactory;
 import com.amazonaws.services.s3.model.transform.MultiObjectDeleteXmlFactory;
 import com.amazonaws.services.s3.model.transform.RequestPaymentConfigurationXmlFactory;
 import com.amazonaws.services.s3.model.transform.RequestXmlFactory;
+import com.amazonaws.services.s3.model.transform.StreamingListBucketParser;
 import com.amazonaws.services.s3.model.transform.Unmarshallers;
 import com.amazonaws.services.s3.model.transform.XmlResponsesSaxParser.CompleteMultipartUploadHandler;
 import com.amazonaws.services.s3.model.transform.XmlResponsesSaxParser.CopyObjectResultHandler;
@@ -628,6 +630,51 @@ public class AmazonS3Client extends AmazonWebServiceClient implements AmazonS3 {
      */
     public ObjectListing listObjects(ListObjectsRequest listObjectsRequest)
             throws AmazonClientException, AmazonServiceException {
+        Request<ListObjectsRequest> request = createListObjectsRequest(listObjectsRequest);
+        return invoke(request, new Unmarshallers.ListObjectsUnmarshaller(), listObjectsRequest.getBucketName(), null);
+    }
+
+    /**
+     * Returns a page of the objects in a bucket, like
+     * {@link #listObjects(ListObjectsRequest)}, but parses the object
+     * summaries one at a time as they are read from the response rather than
+     * reading the whole page into memory first. The first object summaries
+     * can therefore be processed while the rest of the page is still being
+     * downloaded.
+     * <p>
+     * The returned parser keeps the HTTP connection of the request open until
+     * it has been iterated to the end; callers that stop iterating early
+     * <b>must</b> close it, or the connection will not be released to the
+     * connection pool. The listing metadata, such as whether the listing is
+     * truncated and the marker of the next page, is complete once the parser
+     * has been iterated to the end.
+     *
+     * @param listObjectsRequest
+     *            The request object containing all options for listing the
+     *            objects in a specified bucket.
+     *
+     * @return A parser returning the object summaries of the page as they are
+     *         read.
+     *
+     * @throws AmazonClientException
+     *             If any errors are encountered in the client while making the
+     *             request or handling the response.
+     * @throws AmazonServiceException
+     *             If any errors occurred in Amazon S3 while processing the
+     *             request.
+     *
+     * @see AmazonS3Client#listObjects(ListObjectsRequest)
+     */
+    public StreamingListBucketParser listObjectsStreaming(ListObjectsRequest listObjectsRequest)
+            throws AmazonClientException, AmazonServiceException {
+        Request<ListObjectsRequest> request = createListObjectsRequest(listObjectsRequest);
+        return invoke(request,
+                new S3StreamingXmlResponseHandler<StreamingListBucketParser>(
+                        new Unmarshallers.StreamingListObjectsUnmarshaller()),
+                listObjectsRequest.getBucketName(), null);
+    }
+
+    private Request<ListObjectsRequest> createListObjectsRequest(ListObjectsRequest listObjectsRequest) {
         assertParameterNotNull(listObjectsRequest.getBucketName(), "The bucket name parameter must be specified when listing objects in a bucket");
 
         Request<ListObjectsRequest> request = createRequest(listObjectsRequest.getBucketName(), null, listObjectsRequest, HttpMethodName.GET);
@@ -636,8 +683,7 @@ public class AmazonS3Client extends AmazonWebServiceClient implements AmazonS3 {
         if (listObjectsRequest.getDelimiter() != null) request.addParameter("delimiter", listObjectsRequest.getDelimiter());
         if (listObjectsRequest.getMaxKeys() != null && listObjectsRequest.getMaxKeys().intValue() >= 0) request.addParameter("max-keys", listObjectsRequest.getMaxKeys().toString());
         if (listObjectsRequest.getEncodingType() != null) request.addParameter("encoding-type", listObjectsRequest.getEncodingType());
-
-        return invoke(request, new Unmarshallers.ListObjectsUnmarshaller(), listObjectsRequest.getBucketName(), null);
+        return request;
     }
 
     /* (non-Javadoc)
@@ -1351,7 +1397,10 @@ public class AmazonS3Client extends AmazonWebServiceClient implements AmazonS3 {
         if (file != null) {
             // Always set the content length, even if it's already set
             metadata.setContentLength(file.length());
-            final boolean calculateMD5 = metadata.getContentMD5() == null;
+            // With single-pass uploads, the MD5 is calculated as the file is
+            // sent, and validated against the returned ETag
+            final boolean calculateMD5 = metadata.getContentMD5() == null
+                    && !clientOptions.isSinglePassUpload();
             // Only set the content type if it hasn't already been set
             if (metadata.getContentType() == null) {
                 metadata.setContentType(Mimetypes.getInstance().getMimetype(file));
@@ -1366,7 +1415,8 @@ public class AmazonS3Client extends AmazonWebServiceClient implements AmazonS3 {
                             "Unable to calculate MD5 hash: " + e.getMessage(), e);
                 }
             }
-            input = newResettableInputStream(file, "Unable to find file to upload");
+            input = newFileChannelInputStream(file, 0, file.length(),
+                    "Unable to find file to upload");
         }
         final ProgressListener listener;
         final ObjectMetadata returnedMetadata;
@@ -2776,18 +2826,21 @@ public class AmazonS3Client extends AmazonWebServiceClient implements AmazonS3 {
                     awsreq.getRequestClientOptions()
                         .setReadLimit(bufsize.intValue());
                 }
+                isCurr = new InputSubstream(isCurr,
+                        uploadPartRequest.getFileOffset(),
+                        partSize,
+                        uploadPartRequest.isLastPart());
             } else {
+                // Read the part with positional reads, so that the parts of
+                // a file can be read concurrently without skipping through it
                 try {
-                    isCurr = new ResettableInputStream(fileOrig);
+                    isCurr = new FileChannelInputStream(fileOrig,
+                            uploadPartRequest.getFileOffset(), partSize);
                 } catch(IOException e) {
                     throw new IllegalArgumentException("Failed to open file "
                             + fileOrig, e);
                 }
             }
-            isCurr = new InputSubstream(isCurr,
-                    uploadPartRequest.getFileOffset(),
-                    partSize,
-                    uploadPartRequest.isLastPart());
             MD5DigestCalculatingInputStream md5DigestStream = null;
             if (uploadPartRequest.getMd5Digest() == null
              && !skipContentMd5IntegrityCheck(uploadPartRequest)) {
@@ -3689,7 +3742,7 @@ public class AmazonS3Client extends AmazonWebServiceClient implements AmazonS3 {
     @Override
     protected final ExecutionContext createExecutionContext(AmazonWebServiceRequest req) {
         boolean isMetricsEnabled = isRequestMetricsEnabled(req) || isProfilingEnabled();
-        return new S3ExecutionContext(requestHandler2s, isMetricsEnabled, this);
+        return new S3ExecutionContext(requestHandler2s, isMetricsEnabled, this, req);
     }
 
     private <X, Y extends AmazonWebServiceRequest> X invoke(Request<Y> request,
@@ -22,13 +22,20 @@ public class S3ClientOptions {
     /** The default setting for use of path-style access */
     public static final boolean DEFAULT_PATH_STYLE_ACCESS = false;
 
+    /** The default setting for single-pass uploads of files */
+    public static final boolean DEFAULT_SINGLE_PASS_UPLOAD = false;
+
     /** Flag for use of path-style access */
     private boolean pathStyleAccess = DEFAULT_PATH_STYLE_ACCESS;
 
+    /** Flag for reading each byte of an uploaded file only once */
+    private boolean singlePassUpload = DEFAULT_SINGLE_PASS_UPLOAD;
+
     public S3ClientOptions() {}
 
     public S3ClientOptions( S3ClientOptions other ) {
         this.pathStyleAccess = other.pathStyleAccess;
+        this.singlePassUpload = other.singlePassUpload;
     }
 
     /**
@@ -103,4 +110,62 @@ public class S3ClientOptions {
       return this;
     }
 
-}
\ No newline at end of file
+    /**
+     * <p>
+     * Returns whether the client computes the MD5 digest of the files it
+     * uploads while sending them, rather than before sending them.
+     * </p>
+     *
+     * @return True if each byte of an uploaded file is read only once.
+     * @see #setSinglePassUpload(boolean)
+     */
+    public boolean isSinglePassUpload() {
+        return singlePassUpload;
+    }
+
+    /**
+     * <p>
+     * Configures the client to compute the MD5 digest of the files it
+     * uploads while sending them, so that each byte is read from disk only
+     * once.
+     * </p>
+     * <p>
+     * By default, the MD5 digest of a file uploaded with
+     * {@link AmazonS3#putObject(com.amazonaws.services.s3.model.PutObjectRequest)}
+     * is computed before sending it, and sent as the Content-MD5 header, so
+     * that Amazon S3 rejects the upload if the data it receives is corrupted.
+     * With this option, the digest is instead computed as the file is sent,
+     * and checked against the ETag returned by Amazon S3, as for uploads of
+     * streams and parts: a corrupted upload is then reported as an
+     * <code>AmazonClientException</code> after the object has been stored.
+     * Files for which the Content-MD5 has been set explicitly are not
+     * affected.
+     * </p>
+     *
+     * @param singlePassUpload
+     *            True to read each byte of an uploaded file only once.
+     */
+    public void setSinglePassUpload(boolean singlePassUpload) {
+        this.singlePassUpload = singlePassUpload;
+    }
+
+    /**
+     * <p>
+     * Configures the client to compute the MD5 digest of the files it
+     * uploads while sending them, so that each byte is read from disk only
+     * once.
+     * </p>
+     *
+     * @param singlePassUpload
+     *            True to read each byte of an uploaded file only once.
+     *
+     * @return The updated S3ClientOptions object with the new single-pass
+     *         upload setting.
+     * @see #setSinglePassUpload(boolean)
+     */
+    public S3ClientOptions withSinglePassUpload(boolean singlePassUpload) {
+        setSinglePassUpload(singlePassUpload);
+        return this;
+    }
+
+}
@@ -16,15 +16,18 @@ package com.amazonaws.services.s3.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.internal.SdkFilterInputStream;
+import com.amazonaws.internal.TransferableContent;
 
 /**
  * Filtered input stream implementation that exposes a range of an input stream
  * as a new input stream.
  */
-public final class InputSubstream extends SdkFilterInputStream {
+public final class InputSubstream extends SdkFilterInputStream implements
+        TransferableContent {
     private static final int MAX_SKIPS = 100;
     private long currentPosition;
     private final long requestedOffset;
@@ -71,6 +74,49 @@ public final class InputSubstream extends SdkFilterInputStream {
 
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
+        skipToOffset();
+
+        long bytesRemaining = 
+            (requestedLength + requestedOffset) - currentPosition;
+        if (bytesRemaining <= 0)
+            return -1;
+
+        len = (int) Math.min(len, bytesRemaining);
+        int bytesRead = super.read(b, off, len);
+        currentPosition += bytesRead;
+
+        return bytesRead;
+    }
+
+    @Override
+    public boolean isTransferable() {
+        return in instanceof TransferableContent
+            && ((TransferableContent) in).isTransferable();
+    }
+
+    @Override
+    public int transferTo(OutputStream out, long count) throws IOException {
+        abortIfNeeded();
+        skipToOffset();
+
+        long bytesRemaining = 
+            (requestedLength + requestedOffset) - currentPosition;
+        if (bytesRemaining <= 0)
+            return -1;
+
+        int bytesTransferred = ((TransferableContent) in).transferTo(out,
+                Math.min(count, bytesRemaining));
+        if (bytesTransferred > 0)
+            currentPosition += bytesTransferred;
+
+        return bytesTransferred;
+    }
+
+    /**
+     * Skips the wrapped input stream forward to the requested offset, if not
+     * already past it.
+     */
+    private void skipToOffset() throws IOException {
         int count = 0;
         while (currentPosition < requestedOffset) {
             long skippedBytes = super.skip(requestedOffset - currentPosition);
@@ -85,17 +131,6 @@ public final class InputSubstream extends SdkFilterInputStream {
             }
             currentPosition += skippedBytes;
         }
-
-        long bytesRemaining = 
-            (requestedLength + requestedOffset) - currentPosition;
-        if (bytesRemaining <= 0)
-            return -1;
-
-        len = (int) Math.min(len, bytesRemaining);
-        int bytesRead = super.read(b, off, len);
-        currentPosition += bytesRead;
-
-        return bytesRead;
     }
 
     @Override
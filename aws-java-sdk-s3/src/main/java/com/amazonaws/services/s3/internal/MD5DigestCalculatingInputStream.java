@@ -16,16 +16,20 @@ package com.amazonaws.services.s3.internal;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 
 import com.amazonaws.internal.SdkFilterInputStream;
+import com.amazonaws.internal.TransferableContent;
 
 /**
  * Simple InputStream wrapper that examines the wrapped stream's contents as
  * they are read and calculates and MD5 digest.
  */
-public class MD5DigestCalculatingInputStream extends SdkFilterInputStream {
+public class MD5DigestCalculatingInputStream extends SdkFilterInputStream
+        implements TransferableContent {
     /** The MD5 message digest being calculated by this input stream */
     private MessageDigest digest;
     /**
@@ -101,4 +105,21 @@ public class MD5DigestCalculatingInputStream extends SdkFilterInputStream {
         }
         return result;
     }
+
+    @Override
+    public boolean isTransferable() {
+        return in instanceof TransferableContent
+            && ((TransferableContent) in).isTransferable();
+    }
+
+    /**
+     * Transfers the content of the wrapped input stream, updating the
+     * message digest with the bytes as they are written out.
+     */
+    @Override
+    public int transferTo(OutputStream out, long count) throws IOException {
+        abortIfNeeded();
+        return ((TransferableContent) in).transferTo(
+                new DigestOutputStream(out, digest), count);
+    }
 }
@@ -21,6 +21,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import com.amazonaws.AmazonWebServiceClient;
+import com.amazonaws.AmazonWebServiceRequest;
 import com.amazonaws.auth.RegionAwareSigner;
 import com.amazonaws.auth.Signer;
 import com.amazonaws.handlers.RequestHandler2;
@@ -40,6 +41,12 @@ public class S3ExecutionContext extends ExecutionContext {
         super(requestHandler2s, isMetricEnabled, awsClient);
     }
 
+    public S3ExecutionContext(List<RequestHandler2> requestHandler2s,
+            boolean isMetricEnabled, AmazonWebServiceClient awsClient,
+            AmazonWebServiceRequest originalRequest) {
+        super(requestHandler2s, isMetricEnabled, awsClient, originalRequest);
+    }
+
     @Override
     public void setSigner(Signer signer) {
         this.signer = signer;
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.internal;
+
+import java.io.InputStream;
+
+import com.amazonaws.transform.Unmarshaller;
+
+/**
+ * S3 XML response handler for unmarshallers that keep reading the response
+ * after it has been handled, such as those returning the items of a listing
+ * as they are parsed. The unmarshaller, or the caller it returns its result
+ * to, becomes responsible for closing the response content.
+ */
+public class S3StreamingXmlResponseHandler<T> extends S3XmlResponseHandler<T> {
+
+    /**
+     * Constructs a new S3 response handler that will hand the response
+     * content over to the specified unmarshaller.
+     *
+     * @param responseUnmarshaller
+     *            The unmarshaller to use on the response from S3.
+     */
+    public S3StreamingXmlResponseHandler(Unmarshaller<T, InputStream> responseUnmarshaller) {
+        super(responseUnmarshaller);
+    }
+
+    /**
+     * Returns true, since the response content is read after this response
+     * handler has returned. This enables us to keep the underlying HTTP
+     * connection open, so that the caller can stream it off.
+     *
+     * @see com.amazonaws.http.HttpResponseHandler#needsConnectionLeftOpen()
+     */
+    @Override
+    public boolean needsConnectionLeftOpen() {
+        return true;
+    }
+}
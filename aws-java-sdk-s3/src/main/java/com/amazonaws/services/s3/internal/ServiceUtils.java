@@ -40,6 +40,7 @@ import org.apache.commons.logging.LogFactory;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.Request;
+import com.amazonaws.internal.BufferPool;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3Object;
@@ -258,10 +259,10 @@ public class ServiceUtils {
         }
 
         OutputStream outputStream = null;
+        byte[] buffer = BufferPool.acquire(1024*10);
         try {
             outputStream = new BufferedOutputStream(new FileOutputStream(
                     destinationFile, appendData));
-            byte[] buffer = new byte[1024*10];
             int bytesRead;
             while ((bytesRead = s3Object.getObjectContent().read(buffer)) > -1) {
                 outputStream.write(buffer, 0, bytesRead);
@@ -271,6 +272,7 @@ public class ServiceUtils {
             throw new AmazonClientException(
                     "Unable to store object contents to disk: " + e.getMessage(), e);
         } finally {
+            BufferPool.release(buffer);
             closeQuietly(outputStream, log);
             closeQuietly(s3Object.getObjectContent(), log);
         }
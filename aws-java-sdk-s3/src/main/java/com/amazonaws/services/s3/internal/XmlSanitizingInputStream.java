@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.amazonaws.internal.BufferPool;
+import com.amazonaws.internal.SdkFilterInputStream;
+
+/**
+ * Filtered input stream that replaces any carriage return (\r) characters of
+ * a UTF-8 encoded XML document with explicit XML character entities, to
+ * prevent the XML parser from misinterpreting 0x0D characters as 0x0A and
+ * being unable to parse the XML.
+ * <p>
+ * The document is escaped as it is read, so unlike buffering the whole
+ * document before parsing, the memory used does not depend on the size of
+ * the document. Since 0x0D never occurs within a multi-byte UTF-8 sequence,
+ * the escaping is done on the raw bytes.
+ */
+public class XmlSanitizingInputStream extends SdkFilterInputStream {
+    private static final byte[] ESCAPED_CARRIAGE_RETURN = { '&', '#', '0', '1', '3', ';' };
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Leased from the {@link BufferPool} on first use, and returned when
+     * closed.
+     */
+    private byte[] buffer;
+    private int position;
+    private int limit;
+    /** Index of the next byte of a pending escape sequence to return */
+    private int escapeIndex = ESCAPED_CARRIAGE_RETURN.length;
+
+    public XmlSanitizingInputStream(InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (escapeIndex < ESCAPED_CARRIAGE_RETURN.length) {
+            return ESCAPED_CARRIAGE_RETURN[escapeIndex++];
+        }
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        byte b = buffer[position++];
+        if (b == '\r') {
+            escapeIndex = 1;
+            return ESCAPED_CARRIAGE_RETURN[0];
+        }
+        return b & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int count = 0;
+        while (count < len) {
+            if (escapeIndex < ESCAPED_CARRIAGE_RETURN.length) {
+                b[off + count++] = ESCAPED_CARRIAGE_RETURN[escapeIndex++];
+                continue;
+            }
+            if (position == limit) {
+                // Only block on the wrapped stream if nothing has been read yet
+                if (count > 0 || !fill()) {
+                    break;
+                }
+            }
+            byte next = buffer[position++];
+            if (next == '\r') {
+                escapeIndex = 0;
+            } else {
+                b[off + count++] = next;
+            }
+        }
+        return count == 0 ? -1 : count;
+    }
+
+    /**
+     * Reads the next chunk of the wrapped stream into the buffer, returning
+     * false if the end of the wrapped stream has been reached.
+     */
+    private boolean fill() throws IOException {
+        if (buffer == null) {
+            buffer = BufferPool.acquire(BUFFER_SIZE);
+        }
+        int bytesRead = super.read(buffer, 0, buffer.length);
+        if (bytesRead == -1) {
+            return false;
+        }
+        position = 0;
+        limit = bytesRead;
+        return true;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && read() != -1) {
+            skipped++;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (limit - position)
+                + (ESCAPED_CARRIAGE_RETURN.length - escapeIndex);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        BufferPool.release(buffer);
+        buffer = null;
+        position = limit = 0;
+        super.close();
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+        // mark is not supported
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+}
@@ -14,6 +14,7 @@
  */
 package com.amazonaws.services.s3.internal.crypto;
 
+import java.nio.ByteBuffer;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -26,6 +27,7 @@ import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.NullCipher;
 import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 
 /**
  * Functions like a {@link Cipher} but provides only a subset of all the
@@ -297,6 +299,35 @@ class CipherLite {
         return cipher.update(input, inputOffset, inputLen);
     }
 
+    /**
+     * Continues a multiple-part encryption or decryption operation, processing
+     * all the remaining bytes of the <code>input</code> buffer and storing the
+     * result in the <code>output</code> buffer, without allocating a new
+     * buffer for the result.
+     * <p>
+     * Upon return, the position of the input buffer is equal to its limit, and
+     * the position of the output buffer has been advanced by the number of
+     * bytes stored.
+     * 
+     * @param input
+     *            the input buffer
+     * @param output
+     *            the output buffer
+     * 
+     * @return the number of bytes stored in <code>output</code>
+     * 
+     * @exception ShortBufferException
+     *                if there is insufficient space in the output buffer, in
+     *                which case no input has been processed
+     * @exception IllegalStateException
+     *                if the underlying cipher is in a wrong state (e.g., has
+     *                not been initialized)
+     */
+    int update(ByteBuffer input, ByteBuffer output)
+            throws ShortBufferException {
+        return cipher.update(input, output);
+    }
+
     /**
      * Returns the algorithm name of the underlying cipher.
      */
@@ -16,10 +16,13 @@ package com.amazonaws.services.s3.internal.crypto;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.ShortBufferException;
 
+import com.amazonaws.internal.BufferPool;
 import com.amazonaws.internal.SdkFilterInputStream;
 
 /**
@@ -31,6 +34,12 @@ import com.amazonaws.internal.SdkFilterInputStream;
 public class CipherLiteInputStream extends SdkFilterInputStream {
     private static final int MAX_RETRY = 1000;
     private static final int DEFAULT_IN_BUFFER_SIZE = 512;
+    /**
+     * The room left in the buffer the cipher output is stored into, on top of
+     * the size of the chunks read, for the bytes the cipher may have held back
+     * from previous chunks.
+     */
+    private static final int OUT_BUFFER_HEADROOM = DEFAULT_IN_BUFFER_SIZE;
     private CipherLite cipherLite;
     /**
      * True if this input stream is currently involved in a multipart uploads;
@@ -43,10 +52,37 @@ public class CipherLiteInputStream extends SdkFilterInputStream {
      */
     private final boolean multipart;
     private boolean eof = false;
+    /** The size of the chunks read from the underlying input stream. */
+    private final int buffsize;
+    /**
+     * Buffer the chunks are read into; leased from the {@link BufferPool} on
+     * first use, and returned when closed.
+     */
     private byte[] bufin;
+    /**
+     * Buffer the cipher output of the chunks is stored into; leased from the
+     * {@link BufferPool} along with {@link #bufin}, and returned when closed.
+     */
+    private byte[] bufupdate;
+    /**
+     * The processed data being read from; either {@link #bufupdate}, or the
+     * buffer returned by the cipher for its final (or an oversized) output.
+     */
     private byte[] bufout;
     private int curr_pos = 0;
     private int max_pos = 0;
+    /**
+     * Guards {@link #reading} and {@link #closed}, so that the buffers are
+     * only returned to the pool once no read is using them.
+     */
+    private final Object bufferLock = new Object();
+    /** True while a read is in progress; guarded by bufferLock. */
+    private boolean reading;
+    /**
+     * True once closed, in which case the buffers are returned to the pool
+     * at the end of any read in progress; guarded by bufferLock.
+     */
+    private boolean closed;
 
     public CipherLiteInputStream(InputStream is, CipherLite cipherLite) {
         this(is, cipherLite, DEFAULT_IN_BUFFER_SIZE, false);
@@ -66,7 +102,7 @@ public class CipherLiteInputStream extends SdkFilterInputStream {
                     + ") must be a positive multiple of "
                     + DEFAULT_IN_BUFFER_SIZE);
         }
-        this.bufin = new byte[buffsize];
+        this.buffsize = buffsize;
     }
 
     protected CipherLiteInputStream(InputStream is) {
@@ -74,6 +110,15 @@ public class CipherLiteInputStream extends SdkFilterInputStream {
     }
 
     @Override public int read() throws IOException {
+        beginRead();
+        try {
+            return read1();
+        } finally {
+            endRead();
+        }
+    }
+
+    private int read1() throws IOException {
         if (curr_pos >= max_pos) {
             if (eof)
                 return -1;
@@ -99,6 +144,15 @@ public class CipherLiteInputStream extends SdkFilterInputStream {
 
     @Override
     public int read(byte buf[], int off, int target_len) throws IOException {
+        beginRead();
+        try {
+            return read1(buf, off, target_len);
+        } finally {
+            endRead();
+        }
+    }
+
+    private int read1(byte buf[], int off, int target_len) throws IOException {
         if (curr_pos >= max_pos) {
             // all buffered data has been read, let's get some more
             if (eof)
@@ -157,10 +211,41 @@ public class CipherLiteInputStream extends SdkFilterInputStream {
                 }
             }
         }
-        curr_pos = max_pos = 0;
+        synchronized (bufferLock) {
+            closed = true;
+            // The stream may be closed from another thread, such as by
+            // S3ObjectInputStream#abort(), while a read is using the buffers
+            if (!reading)
+                releaseBuffers();
+        }
         abortIfNeeded();
     }
 
+    private void beginRead() {
+        synchronized (bufferLock) {
+            reading = true;
+        }
+    }
+
+    /**
+     * Returns the buffers to the pool if the stream was closed during the
+     * read that just ended.
+     */
+    private void endRead() {
+        synchronized (bufferLock) {
+            reading = false;
+            if (closed)
+                releaseBuffers();
+        }
+    }
+
+    private void releaseBuffers() {
+        curr_pos = max_pos = 0;
+        BufferPool.release(bufin);
+        BufferPool.release(bufupdate);
+        bufin = bufupdate = bufout = null;
+    }
+
     @Override
     public boolean markSupported() {
         abortIfNeeded();
@@ -208,9 +293,14 @@ public class CipherLiteInputStream extends SdkFilterInputStream {
         abortIfNeeded();
         if (eof)
             return -1;
-        int len = in.read(bufin);
+        if (bufin == null) {
+            bufin = BufferPool.acquire(buffsize);
+            bufupdate = BufferPool.acquire(buffsize + OUT_BUFFER_HEADROOM);
+        }
+        int len = in.read(bufin, 0, buffsize);
         if (len == -1) {
             eof = true;
+            bufout = null;
             try {
                 bufout = cipherLite.doFinal();
             } catch (IllegalBlockSizeException ignore) {
@@ -225,13 +315,34 @@ public class CipherLiteInputStream extends SdkFilterInputStream {
             curr_pos = 0;
             return max_pos = bufout.length;
         }
+        curr_pos = 0;
         try {
-            bufout = cipherLite.update(bufin, 0, len);
+            return max_pos = update(len);
         } catch (IllegalStateException ignore) {
             // like the RI
+            return max_pos = 0;
+        }
+    }
+
+    /**
+     * Processes the given number of bytes of the input buffer, storing the
+     * result in the output buffer leased from the pool rather than in a new
+     * array, unless the cipher produces more output than fits.
+     * 
+     * @return the length of the processed data, now in {@link #bufout}.
+     */
+    private int update(int len) {
+        try {
+            bufout = bufupdate;
+            return cipherLite.update(ByteBuffer.wrap(bufin, 0, len),
+                    ByteBuffer.wrap(bufupdate));
+        } catch (ShortBufferException e) {
+            // Only if the cipher holds back more than the headroom, such as
+            // when AES/GCM decryption is buffered until the final block; no
+            // input has been processed, so let the cipher size the output.
+            bufout = cipherLite.update(bufin, 0, len);
+            return bufout == null ? 0 : bufout.length;
         }
-        curr_pos = 0;
-        return max_pos = (bufout == null ? 0 : bufout.length);
     }
 
     void renewCipherLite() {
@@ -14,12 +14,14 @@
  */
 package com.amazonaws.services.s3.internal.crypto;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
 
 /**
  * A AES/GCM specific {@link CipherLite} that support re-processing of input
@@ -184,6 +186,43 @@ final class GCMCipherLite extends CipherLite {
         return out;
     }
 
+    /**
+     * @param input
+     *            for {@link #mark()} and {@link #reset()} to work correctly,
+     *            the number of bytes remaining should always be in multiple of
+     *            16 bytes except for the very last part of the plaintext.
+     */
+    @Override
+    int update(ByteBuffer input, ByteBuffer output)
+            throws ShortBufferException {
+        final int inputLen = input.remaining();
+        if (aux == null) {
+            int len = super.update(input, output);
+            outputByteCount += checkMax(len);
+            invisiblyProcessed = len == 0 && inputLen > 0;
+            return len;
+        }
+        // Re-encryption in progress; AES/CTR outputs no more than its input,
+        // and the array based update keeps track of when to flip back to the
+        // original GCM cipher.
+        if (output.remaining() < inputLen)
+            throw new ShortBufferException();
+        byte[] out;
+        if (input.hasArray()) {
+            out = update(input.array(), input.arrayOffset() + input.position(),
+                    inputLen);
+            input.position(input.limit());
+        } else {
+            byte[] in = new byte[inputLen];
+            input.get(in);
+            out = update(in, 0, inputLen);
+        }
+        if (out == null)
+            return 0;
+        output.put(out);
+        return out.length;
+    }
+
     /**
      * Returns the input delta but only if it will not result in exceeding the
      * limit of the maximum number of bytes that can be processed by AES/GCM.
@@ -93,7 +93,13 @@ import com.amazonaws.util.json.Jackson;
 public abstract class S3CryptoModuleBase<T extends MultipartUploadCryptoContext>
         extends S3CryptoModule<T> {
     private static final boolean IS_MULTI_PART = true;
-    protected static final int DEFAULT_BUFFER_SIZE = 1024*2;    // 2K
+    /**
+     * The size of the chunks the content is encrypted and decrypted in; a
+     * multiple of the cipher block size, which leaves room for the bytes the
+     * cipher holds back so that the chunks and their output both fit 64K
+     * buffers of the shared buffer pool.
+     */
+    protected static final int DEFAULT_BUFFER_SIZE = 1024*64 - 512;
     protected final EncryptionMaterialsProvider kekMaterialsProvider;
     protected final Log log = LogFactory.getLog(getClass());
     protected final S3CryptoScheme cryptoScheme;
@@ -15,11 +15,14 @@
 package com.amazonaws.services.s3.iterable;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.model.transform.StreamingListBucketParser;
 
 /**
  * Provides an easy way to iterate Amazon S3 objects in a "foreach" statement.
@@ -34,6 +37,9 @@ import com.amazonaws.services.s3.model.S3ObjectSummary;
  * The list of {@link S3ObjectSummary}s will be fetched lazily, a page at a
  * time, as they are needed. The size of the page can be controlled with the
  * {@link S3Objects#withBatchSize(int)} method.
+ * <p>
+ * With {@link S3Objects#withStreaming(boolean)}, each page is parsed as it is
+ * downloaded instead of being read into memory in full first.
  */
 public class S3Objects implements Iterable<S3ObjectSummary> {
 
@@ -41,6 +47,7 @@ public class S3Objects implements Iterable<S3ObjectSummary> {
     private String prefix = null;
     private String bucketName;
     private Integer batchSize = null;
+    private boolean streaming = false;
 
     private S3Objects(AmazonS3 s3, String bucketName) {
         this.s3 = s3;
@@ -91,10 +98,36 @@ public class S3Objects implements Iterable<S3ObjectSummary> {
         return this;
     }
 
+    /**
+     * Sets whether the object summaries of each page are returned as they
+     * are read from the response, rather than once the whole page has been
+     * read and parsed. This keeps the memory used by the iteration flat
+     * regardless of the batch size, and returns the first object summaries of
+     * each page sooner.
+     * <p>
+     * Streaming requires the client to be an {@link AmazonS3Client}; other
+     * implementations of {@link AmazonS3} are always iterated a page at a
+     * time. Note that while a page is being streamed, its HTTP connection is
+     * held open; callers that stop iterating before reaching the end of the
+     * objects should not enable streaming, since the connection of the
+     * abandoned page would not be released to the connection pool.
+     *
+     * @param streaming
+     *            Whether to stream the object summaries of each page.
+     */
+    public S3Objects withStreaming(boolean streaming) {
+        this.streaming = streaming;
+        return this;
+    }
+
     public Integer getBatchSize() {
         return batchSize;
     }
 
+    public boolean isStreaming() {
+        return streaming;
+    }
+
     public String getPrefix() {
         return prefix;
     }
@@ -149,8 +182,59 @@ public class S3Objects implements Iterable<S3ObjectSummary> {
 
     }
 
+    private class S3ObjectStreamingIterator implements Iterator<S3ObjectSummary> {
+
+        private StreamingListBucketParser currentPage = null;
+
+        @Override
+        public boolean hasNext() {
+            prepareCurrentPage();
+            return currentPage.hasNext();
+        }
+
+        @Override
+        public S3ObjectSummary next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            return currentPage.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private void prepareCurrentPage() {
+            while ( currentPage == null || (!currentPage.hasNext() && hasNextPage()) ) {
+
+                ListObjectsRequest req = new ListObjectsRequest();
+                req.setBucketName(getBucketName());
+                req.setPrefix(getPrefix());
+                req.setMaxKeys(getBatchSize());
+                if ( currentPage != null ) {
+                    req.setMarker(currentPage.getObjectListing().getNextMarker());
+                }
+                currentPage = ((AmazonS3Client) getS3()).listObjectsStreaming(req);
+            }
+        }
+
+        /**
+         * Returns true if the current page, which has been read in full, is
+         * followed by another page.
+         */
+        private boolean hasNextPage() {
+            ObjectListing listing = currentPage.getObjectListing();
+            return listing.isTruncated() && listing.getNextMarker() != null;
+        }
+
+    }
+
     @Override
     public Iterator<S3ObjectSummary> iterator() {
+        if ( streaming && s3 instanceof AmazonS3Client ) {
+            return new S3ObjectStreamingIterator();
+        }
         return new S3ObjectIterator();
     }
 
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.model.transform;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.internal.Constants;
+import com.amazonaws.services.s3.internal.ServiceUtils;
+import com.amazonaws.services.s3.internal.XmlSanitizingInputStream;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.Owner;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.util.IOUtils;
+
+/**
+ * Incrementally parses a ListBucket response XML document, returning each
+ * {@link S3ObjectSummary} as soon as its element has been read from the
+ * underlying stream.
+ * <p>
+ * Unlike {@link XmlResponsesSaxParser.ListBucketHandler}, the object summaries
+ * are not retained, so the memory used does not depend on the number of keys
+ * in the page, and the first keys can be processed while the rest of the page
+ * is still being downloaded.
+ * <p>
+ * The underlying stream is closed once the document has been read in full,
+ * or when parsing fails. Callers that stop iterating early must call
+ * {@link #close()}, or the HTTP connection the document is being read from
+ * will not be released. Instances are not thread safe.
+ */
+public class StreamingListBucketParser implements Iterator<S3ObjectSummary>, Closeable {
+    private static final Log log = LogFactory.getLog(StreamingListBucketParser.class);
+
+    /** Shared factory for creating XML stream readers */
+    private static final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+
+    private final InputStream inputStream;
+    private final XMLStreamReader reader;
+
+    /** Listing metadata; object summaries are never added to it */
+    private final ObjectListing objectListing = new ObjectListing();
+
+    /** Names of the currently open elements, outermost first */
+    private final List<String> context = new ArrayList<String>();
+    private final StringBuilder text = new StringBuilder();
+
+    private S3ObjectSummary currentObject;
+    private Owner currentOwner;
+    private S3ObjectSummary nextObject;
+    private String lastKey;
+    private boolean done;
+
+    /**
+     * Constructs a parser over the given ListBucket response XML document.
+     * Carriage returns in the document are escaped as it is read, as done by
+     * {@link XmlResponsesSaxParser}.
+     *
+     * @param inputStream
+     *            the UTF-8 encoded XML document; closed by this parser.
+     */
+    public StreamingListBucketParser(InputStream inputStream) {
+        this.inputStream = inputStream;
+        try {
+            synchronized (xmlInputFactory) {
+                reader = xmlInputFactory.createXMLStreamReader(
+                        new XmlSanitizingInputStream(inputStream),
+                        Constants.DEFAULT_ENCODING);
+            }
+        } catch (XMLStreamException e) {
+            IOUtils.closeQuietly(inputStream, log);
+            throw new AmazonClientException("Unable to parse the object listing", e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (nextObject == null && !done) {
+            advance();
+        }
+        return nextObject != null;
+    }
+
+    @Override
+    public S3ObjectSummary next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        S3ObjectSummary summary = nextObject;
+        nextObject = null;
+        return summary;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the metadata of the listing: the bucket name, prefix, markers,
+     * whether the listing is truncated and the common prefixes. The returned
+     * listing never contains any object summaries; those are only returned
+     * through this iterator.
+     * <p>
+     * Since S3 returns the common prefixes and the next marker after the
+     * object summaries, the returned listing is only complete once this
+     * iterator has been exhausted.
+     */
+    public ObjectListing getObjectListing() {
+        return objectListing;
+    }
+
+    /**
+     * Returns true if the document has been read in full.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Stops parsing and closes the underlying stream. Any unread part of the
+     * document is discarded.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!done) {
+            done = true;
+            closeReader();
+            inputStream.close();
+        }
+    }
+
+    /**
+     * Reads the next parsing event from the document.
+     */
+    private void advance() {
+        try {
+            switch (reader.next()) {
+            case XMLStreamConstants.START_ELEMENT:
+                startElement(reader.getLocalName());
+                context.add(reader.getLocalName());
+                text.setLength(0);
+                break;
+            case XMLStreamConstants.END_ELEMENT:
+                context.remove(context.size() - 1);
+                endElement(reader.getLocalName());
+                text.setLength(0);
+                break;
+            case XMLStreamConstants.CHARACTERS:
+            case XMLStreamConstants.CDATA:
+            case XMLStreamConstants.SPACE:
+                text.append(reader.getTextCharacters(),
+                        reader.getTextStart(), reader.getTextLength());
+                break;
+            case XMLStreamConstants.END_DOCUMENT:
+                done = true;
+                closeReader();
+                IOUtils.closeQuietly(inputStream, log);
+                break;
+            default:
+                break;
+            }
+        } catch (XMLStreamException e) {
+            fail(e);
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(Exception e) {
+        done = true;
+        closeReader();
+        IOUtils.closeQuietly(inputStream, log);
+        throw new AmazonClientException("Unable to parse the object listing", e);
+    }
+
+    private void closeReader() {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            log.debug("Unable to close the XML stream reader", e);
+        }
+    }
+
+    private boolean in(String... path) {
+        if (path.length != context.size()) {
+            return false;
+        }
+        for (int i = 0; i < path.length; i++) {
+            if (!path[i].equals(context.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void startElement(String name) {
+        if (in("ListBucketResult")) {
+            if (name.equals("Contents")) {
+                currentObject = new S3ObjectSummary();
+                currentObject.setBucketName(objectListing.getBucketName());
+            }
+        } else if (in("ListBucketResult", "Contents")) {
+            if (name.equals("Owner")) {
+                currentOwner = new Owner();
+            }
+        }
+    }
+
+    private void endElement(String name) {
+        if (context.isEmpty()) {
+            if (name.equals("ListBucketResult")) {
+                /*
+                 * S3 only includes the NextMarker XML element if the request
+                 * specified a delimiter; give easy access to the next marker
+                 * of a truncated listing anyway, as ListBucketHandler does.
+                 */
+                if (objectListing.isTruncated()
+                        && objectListing.getNextMarker() == null) {
+                    String nextMarker = lastKey;
+                    List<String> commonPrefixes = objectListing.getCommonPrefixes();
+                    if (nextMarker == null && !commonPrefixes.isEmpty()) {
+                        nextMarker = commonPrefixes.get(commonPrefixes.size() - 1);
+                    } else if (nextMarker == null) {
+                        log.error("S3 response indicates truncated results, "
+                                + "but contains no object summaries or "
+                                + "common prefixes.");
+                    }
+                    objectListing.setNextMarker(nextMarker);
+                }
+            }
+        } else if (in("ListBucketResult")) {
+            String value = text.toString();
+            if (name.equals("Name")) {
+                objectListing.setBucketName(value);
+            } else if (name.equals("Prefix")) {
+                objectListing.setPrefix(checkForEmptyString(value));
+            } else if (name.equals("Marker")) {
+                objectListing.setMarker(checkForEmptyString(value));
+            } else if (name.equals("NextMarker")) {
+                objectListing.setNextMarker(value);
+            } else if (name.equals("MaxKeys")) {
+                objectListing.setMaxKeys(parseInt(value));
+            } else if (name.equals("Delimiter")) {
+                objectListing.setDelimiter(checkForEmptyString(value));
+            } else if (name.equals("EncodingType")) {
+                objectListing.setEncodingType(checkForEmptyString(value));
+            } else if (name.equals("IsTruncated")) {
+                String isTruncatedStr = value.toLowerCase(Locale.getDefault());
+                if (isTruncatedStr.startsWith("false")) {
+                    objectListing.setTruncated(false);
+                } else if (isTruncatedStr.startsWith("true")) {
+                    objectListing.setTruncated(true);
+                } else {
+                    throw new IllegalStateException(
+                            "Invalid value for IsTruncated field: "
+                            + isTruncatedStr);
+                }
+            } else if (name.equals("Contents")) {
+                nextObject = currentObject;
+                currentObject = null;
+            }
+        } else if (in("ListBucketResult", "Contents")) {
+            String value = text.toString();
+            if (name.equals("Key")) {
+                lastKey = value;
+                currentObject.setKey(value);
+            } else if (name.equals("LastModified")) {
+                currentObject.setLastModified(ServiceUtils.parseIso8601Date(value));
+            } else if (name.equals("ETag")) {
+                currentObject.setETag(ServiceUtils.removeQuotes(value));
+            } else if (name.equals("Size")) {
+                currentObject.setSize(parseLong(value));
+            } else if (name.equals("StorageClass")) {
+                currentObject.setStorageClass(value);
+            } else if (name.equals("Owner")) {
+                currentObject.setOwner(currentOwner);
+                currentOwner = null;
+            }
+        } else if (in("ListBucketResult", "Contents", "Owner")) {
+            if (name.equals("ID")) {
+                currentOwner.setId(text.toString());
+            } else if (name.equals("DisplayName")) {
+                currentOwner.setDisplayName(text.toString());
+            }
+        } else if (in("ListBucketResult", "CommonPrefixes")) {
+            if (name.equals("Prefix")) {
+                objectListing.getCommonPrefixes().add(text.toString());
+            }
+        }
+    }
+
+    private static String checkForEmptyString(String s) {
+        return s.length() == 0 ? null : s;
+    }
+
+    private static int parseInt(String s) {
+        try {
+            return Integer.parseInt(s);
+        } catch (NumberFormatException nfe) {
+            log.error("Unable to parse integer value '" + s + "'", nfe);
+        }
+        return -1;
+    }
+
+    private static long parseLong(String s) {
+        try {
+            return Long.parseLong(s);
+        } catch (NumberFormatException nfe) {
+            log.error("Unable to parse long value '" + s + "'", nfe);
+        }
+        return -1;
+    }
+}
@@ -78,6 +78,17 @@ public class Unmarshallers {
         }
     }
 
+    /**
+     * Unmarshaller for the ListObjects XML response, which returns the object
+     * summaries one at a time as they are read from the response.
+     */
+    public static final class StreamingListObjectsUnmarshaller implements
+            Unmarshaller<StreamingListBucketParser, InputStream> {
+        public StreamingListBucketParser unmarshall(InputStream in) throws Exception {
+            return new StreamingListBucketParser(in);
+        }
+    }
+
     /**
      * Unmarshaller for the ListVersions XML response.
      */
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer;
+
+import java.util.List;
+
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+
+/**
+ * Deletion of many objects from a bucket, using multi-object delete
+ * requests.
+ * <p>
+ * The progress of a bulk delete is reported in bytes when the size of the
+ * objects deleted is known, i.e. when deleting a key prefix; the number of
+ * objects deleted is always available from {@link #getDeletedObjectCount()}.
+ */
+public interface BulkDelete extends Transfer {
+
+    /**
+     * Returns the name of the bucket from which objects are deleted.
+     */
+    public String getBucketName();
+
+    /**
+     * Returns the number of objects deleted so far.
+     */
+    public long getDeletedObjectCount();
+
+    /**
+     * Returns the number of objects which could not be deleted so far.
+     */
+    public long getFailedObjectCount();
+
+    /**
+     * Returns the average number of objects deleted per second since this
+     * delete started, until it completed.
+     */
+    public double getObjectsDeletedPerSecond();
+
+    /**
+     * Returns the errors reported for the objects which could not be deleted,
+     * up to the first thousand.
+     */
+    public List<DeleteError> getErrors();
+
+    /**
+     * Cancels this delete. Delete requests in flight are left to complete;
+     * objects waiting for a retry are reported as failed with their last
+     * error.
+     */
+    public void abort();
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.transfer.internal.UploadPartCallable;
+import com.amazonaws.services.s3.transfer.model.UploadResult;
+
+/**
+ * An output stream that uploads the data written to it to Amazon S3, without
+ * the length of the data having to be known in advance, and without writing
+ * it to disk.
+ * <p>
+ * The data is collected in fixed-size part buffers held in memory. Each full
+ * buffer is uploaded as a part of a multipart upload on the
+ * {@link TransferManager}'s thread pool, and is reused once its part has been
+ * uploaded. At most a fixed number of buffers are allocated; when all of them
+ * are full or being uploaded, writes block until a part upload completes. The
+ * memory used by the stream is therefore bounded by the part size times the
+ * number of buffers, regardless of the size of the object.
+ * <p>
+ * If the stream is closed before the first buffer fills up, the data is
+ * uploaded with a single put request instead.
+ * <p>
+ * The upload is completed when the stream is closed; the result is then
+ * available from {@link #getUploadResult()}. If any part fails to upload, the
+ * multipart upload is aborted, and the failure is reported by the following
+ * write, or by {@link #close()}. Callers that give up on the upload must call
+ * {@link #abort()} rather than {@link #close()}, or a partial object will be
+ * uploaded.
+ * <p>
+ * Since a part can only be uploaded once the buffer holding it is full, the
+ * maximum size of the object is the part size times the maximum number of
+ * parts of a multipart upload (10,000). Instances are not thread safe.
+ *
+ * @see TransferManager#uploadStream(InitiateMultipartUploadRequest)
+ * @see TransferManagerConfiguration#setUploadStreamBufferCount(int)
+ */
+public class MultipartUploadOutputStream extends OutputStream {
+    private static final Log log = LogFactory.getLog(MultipartUploadOutputStream.class);
+
+    private final AmazonS3 s3;
+    private final ExecutorService threadPool;
+    private final InitiateMultipartUploadRequest initiateRequest;
+    private final int partSize;
+    private final int maxBuffers;
+
+    /** Buffers whose part has been uploaded, ready for reuse */
+    private final BlockingQueue<byte[]> freeBuffers = new LinkedBlockingQueue<byte[]>();
+    private int allocatedBuffers;
+
+    private final List<Future<PartETag>> futures = new ArrayList<Future<PartETag>>();
+    private volatile Throwable failure;
+
+    private byte[] buffer;
+    private int position;
+    private int nextPartNumber = 1;
+    private String uploadId;
+    private boolean closed;
+    private UploadResult uploadResult;
+
+    /**
+     * @param partSize
+     *            the size of each part buffer.
+     * @param maxBuffers
+     *            the maximum number of part buffers; a value of 1 uploads the
+     *            parts one at a time, in order.
+     */
+    MultipartUploadOutputStream(AmazonS3 s3, ExecutorService threadPool,
+            InitiateMultipartUploadRequest initiateRequest, int partSize,
+            int maxBuffers) {
+        if (partSize <= 0)
+            throw new IllegalArgumentException("partSize must be positive");
+        if (maxBuffers <= 0)
+            throw new IllegalArgumentException("maxBuffers must be positive");
+        this.s3 = s3;
+        this.threadPool = threadPool;
+        this.initiateRequest = initiateRequest;
+        this.partSize = partSize;
+        this.maxBuffers = maxBuffers;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        prepareBuffer();
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            prepareBuffer();
+            int count = Math.min(len, partSize - position);
+            System.arraycopy(b, off, buffer, position, count);
+            position += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Makes sure there is room in the current buffer for at least one more
+     * byte. A full buffer is only uploaded once more data is written, so that
+     * the last part can be flagged as such when the stream is closed.
+     */
+    private void prepareBuffer() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        checkFailure();
+        if (buffer != null && position == partSize) {
+            uploadBufferedPart(false);
+        }
+        if (buffer == null) {
+            buffer = acquireBuffer();
+            position = 0;
+        }
+    }
+
+    /**
+     * Returns a free buffer, allocating a new one if fewer than the maximum
+     * number of buffers have been allocated, and otherwise waiting for a part
+     * upload to complete.
+     */
+    private byte[] acquireBuffer() throws IOException {
+        byte[] free = freeBuffers.poll();
+        if (free != null) {
+            return free;
+        }
+        if (allocatedBuffers < maxBuffers) {
+            allocatedBuffers++;
+            return new byte[partSize];
+        }
+        try {
+            free = freeBuffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort();
+            throw new InterruptedIOException("Interrupted while waiting for a part upload");
+        }
+        checkFailure();
+        return free;
+    }
+
+    /**
+     * Uploads the current buffer as the next part, initiating the multipart
+     * upload first if needed.
+     */
+    private void uploadBufferedPart(boolean isLastPart) {
+        if (uploadId == null) {
+            uploadId = s3.initiateMultipartUpload(
+                    TransferManager.appendMultipartUserAgent(initiateRequest)).getUploadId();
+            log.debug("Initiated new multipart upload: " + uploadId);
+        }
+        final byte[] part = buffer;
+        UploadPartRequest request = new UploadPartRequest()
+            .withBucketName(initiateRequest.getBucketName())
+            .withKey(initiateRequest.getKey())
+            .withUploadId(uploadId)
+            .withPartNumber(nextPartNumber++)
+            .withInputStream(new ByteArrayInputStream(part, 0, position))
+            .withPartSize(position)
+            .withLastPart(isLastPart)
+            .withSSECustomerKey(initiateRequest.getSSECustomerKey());
+        request.setGeneralProgressListener(initiateRequest.getGeneralProgressListener());
+        final UploadPartCallable callable = new UploadPartCallable(s3,
+                TransferManager.appendMultipartUserAgent(request));
+        buffer = null;
+        position = 0;
+        futures.add(threadPool.submit(new Callable<PartETag>() {
+            @Override
+            public PartETag call() throws Exception {
+                try {
+                    return callable.call();
+                } catch (Exception e) {
+                    failure = e;
+                    throw e;
+                } catch (Error e) {
+                    failure = e;
+                    throw e;
+                } finally {
+                    freeBuffers.offer(part);
+                }
+            }
+        }));
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable t = failure;
+        if (t != null) {
+            abort();
+            throw new IOException("Unable to upload part: " + t.getMessage(), t);
+        }
+    }
+
+    /**
+     * Uploads any data left in the current buffer, and completes the upload,
+     * waiting for all the parts to be uploaded.
+     *
+     * @throws IOException
+     *             if any part failed to upload, in which case the multipart
+     *             upload has been aborted.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        checkFailure();
+        closed = true;
+        try {
+            if (uploadId == null) {
+                uploadResult = putObject();
+            } else {
+                if (position > 0) {
+                    uploadBufferedPart(true);
+                }
+                uploadResult = completeMultipartUpload();
+            }
+        } catch (IOException e) {
+            abort();
+            throw e;
+        } catch (RuntimeException e) {
+            abort();
+            throw new IOException("Unable to complete the upload: " + e.getMessage(), e);
+        } finally {
+            buffer = null;
+            freeBuffers.clear();
+        }
+    }
+
+    /**
+     * Uploads the data written so far, which fits in a single buffer, with a
+     * single put request.
+     */
+    private UploadResult putObject() {
+        ObjectMetadata metadata = initiateRequest.getObjectMetadata() == null
+                ? new ObjectMetadata() : initiateRequest.getObjectMetadata().clone();
+        metadata.setContentLength(position);
+        byte[] data = buffer == null ? new byte[0] : buffer;
+        PutObjectRequest request = new PutObjectRequest(
+                initiateRequest.getBucketName(), initiateRequest.getKey(),
+                new ByteArrayInputStream(data, 0, position), metadata)
+            .withCannedAcl(initiateRequest.getCannedACL())
+            .withAccessControlList(initiateRequest.getAccessControlList())
+            .withRedirectLocation(initiateRequest.getRedirectLocation())
+            .withSSECustomerKey(initiateRequest.getSSECustomerKey())
+            .withSSEAwsKeyManagementParams(initiateRequest.getSSEAwsKeyManagementParams());
+        if (initiateRequest.getStorageClass() != null) {
+            request.setStorageClass(initiateRequest.getStorageClass());
+        }
+        request.setGeneralProgressListener(initiateRequest.getGeneralProgressListener());
+        PutObjectResult result = s3.putObject(
+                TransferManager.appendSingleObjectUserAgent(request));
+
+        UploadResult uploadResult = new UploadResult();
+        uploadResult.setBucketName(initiateRequest.getBucketName());
+        uploadResult.setKey(initiateRequest.getKey());
+        uploadResult.setETag(result.getETag());
+        uploadResult.setVersionId(result.getVersionId());
+        return uploadResult;
+    }
+
+    private UploadResult completeMultipartUpload() throws IOException {
+        List<PartETag> partETags = new ArrayList<PartETag>(futures.size());
+        for (Future<PartETag> future : futures) {
+            try {
+                partETags.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a part upload");
+            } catch (ExecutionException e) {
+                throw new IOException("Unable to upload part: "
+                        + e.getCause().getMessage(), e.getCause());
+            }
+        }
+        CompleteMultipartUploadResult result = s3.completeMultipartUpload(
+                TransferManager.appendMultipartUserAgent(
+                        new CompleteMultipartUploadRequest(
+                                initiateRequest.getBucketName(),
+                                initiateRequest.getKey(), uploadId, partETags)));
+
+        UploadResult uploadResult = new UploadResult();
+        uploadResult.setBucketName(result.getBucketName());
+        uploadResult.setKey(result.getKey());
+        uploadResult.setETag(result.getETag());
+        uploadResult.setVersionId(result.getVersionId());
+        return uploadResult;
+    }
+
+    /**
+     * Abandons the upload: cancels the part uploads in progress, and aborts
+     * the multipart upload so that the parts already uploaded are discarded.
+     * The stream can no longer be written to.
+     */
+    public void abort() {
+        if (uploadResult != null) {
+            return; // already completed
+        }
+        closed = true;
+        buffer = null;
+        for (Future<PartETag> future : futures) {
+            future.cancel(true);
+        }
+        if (uploadId != null) {
+            try {
+                s3.abortMultipartUpload(TransferManager.appendMultipartUserAgent(
+                        new AbortMultipartUploadRequest(initiateRequest.getBucketName(),
+                                initiateRequest.getKey(), uploadId)));
+            } catch (Exception e) {
+                log.info("Unable to abort multipart upload, you may need to manually remove uploaded parts: "
+                        + e.getMessage(), e);
+            }
+            uploadId = null;
+        }
+    }
+
+    /**
+     * Returns the result of the upload once the stream has been closed, or
+     * null if it hasn't been closed yet, or the upload failed.
+     */
+    public UploadResult getUploadResult() {
+        return uploadResult;
+    }
+
+    /**
+     * Returns the size of the part buffers of this stream.
+     */
+    public int getPartSize() {
+        return partSize;
+    }
+}
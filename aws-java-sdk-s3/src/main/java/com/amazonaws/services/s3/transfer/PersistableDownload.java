@@ -63,6 +63,27 @@ public final class PersistableDownload extends PersistableTransfer {
     @JsonProperty
     private final String file;
 
+    /**
+     * Size of the byte ranges of a parallel download; zero if the object is
+     * downloaded over a single connection.
+     */
+    @JsonProperty
+    private final long partSize;
+
+    /**
+     * Number of bytes of each byte range of a parallel download that have
+     * been written to the file.
+     */
+    @JsonProperty
+    private final long[] partProgress;
+
+    /**
+     * ETag of the object when a parallel download was paused, which the
+     * object must still have for the download to be resumed.
+     */
+    @JsonProperty
+    private final String eTag;
+
     public PersistableDownload() {
         this(null, null, null, null, null, false, null);
     }
@@ -82,6 +103,30 @@ public final class PersistableDownload extends PersistableTransfer {
         this.responseHeaders = responseHeaders;
         this.isRequesterPays = isRequesterPays;
         this.file = file;
+        this.partSize = 0;
+        this.partProgress = null;
+        this.eTag = null;
+    }
+
+    /**
+     * Constructs the state of a paused parallel download, which records how
+     * much of each of its byte ranges has been downloaded, and the ETag of
+     * the object they were downloaded from.
+     */
+    public PersistableDownload(String bucketName, String key, String versionId,
+            long[] range, ResponseHeaderOverrides responseHeaders,
+            boolean isRequesterPays, String file, long partSize,
+            long[] partProgress, String eTag) {
+        this.bucketName = bucketName;
+        this.key = key;
+        this.versionId = versionId;
+        this.range = range  == null ? null : range.clone();
+        this.responseHeaders = responseHeaders;
+        this.isRequesterPays = isRequesterPays;
+        this.file = file;
+        this.partSize = partSize;
+        this.partProgress = partProgress == null ? null : partProgress.clone();
+        this.eTag = eTag;
     }
 
     /**
@@ -134,6 +179,29 @@ public final class PersistableDownload extends PersistableTransfer {
         return file;
     }
 
+    /**
+     * Returns the size of the byte ranges of a parallel download, or zero if
+     * the object is downloaded over a single connection.
+     */
+    long getPartSize() {
+        return partSize;
+    }
+
+    /**
+     * Returns the number of bytes of each byte range of a parallel download
+     * that have been written to the file.
+     */
+    long[] getPartProgress() {
+        return partProgress == null ? null : partProgress.clone();
+    }
+
+    /**
+     * Returns the ETag of the object when a parallel download was paused.
+     */
+    String getETag() {
+        return eTag;
+    }
+
     String getPauseType() {
         return pauseType;
     }
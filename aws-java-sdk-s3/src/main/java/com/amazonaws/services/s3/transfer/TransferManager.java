@@ -21,11 +21,13 @@ import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Stack;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -53,10 +55,12 @@ import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.AmazonS3Encryption;
 import com.amazonaws.services.s3.internal.Mimetypes;
 import com.amazonaws.services.s3.internal.ServiceUtils;
+import com.amazonaws.services.s3.iterable.S3Objects;
 import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
 import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.MultipartUpload;
@@ -67,14 +71,19 @@ import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+import com.amazonaws.services.s3.transfer.internal.BulkDeleteImpl;
 import com.amazonaws.services.s3.transfer.internal.CopyCallable;
 import com.amazonaws.services.s3.transfer.internal.CopyImpl;
 import com.amazonaws.services.s3.transfer.internal.CopyMonitor;
 import com.amazonaws.services.s3.transfer.internal.DownloadImpl;
 import com.amazonaws.services.s3.transfer.internal.DownloadMonitor;
+import com.amazonaws.services.s3.transfer.internal.MultipleFileCopyImpl;
 import com.amazonaws.services.s3.transfer.internal.MultipleFileDownloadImpl;
 import com.amazonaws.services.s3.transfer.internal.MultipleFileTransferMonitor;
 import com.amazonaws.services.s3.transfer.internal.MultipleFileUploadImpl;
+import com.amazonaws.services.s3.transfer.internal.ParallelCopy;
+import com.amazonaws.services.s3.transfer.internal.ParallelDownloadCallable;
+import com.amazonaws.services.s3.transfer.internal.PipelinedMultipleFileDownloadImpl;
 import com.amazonaws.services.s3.transfer.internal.S3ProgressListener;
 import com.amazonaws.services.s3.transfer.internal.S3ProgressListenerChain;
 import com.amazonaws.services.s3.transfer.internal.TransferManagerUtils;
@@ -154,6 +163,13 @@ public class TransferManager {
     /** Thread used for periodicially checking transfers and updating thier state. */
     private final ScheduledExecutorService timedThreadPool = new ScheduledThreadPoolExecutor(1, daemonThreadFactory);
 
+    /**
+     * The thread pool dedicated to copies, created by the first copy if
+     * {@link TransferManagerConfiguration#getCopyConcurrency()} is positive;
+     * guarded by this.
+     */
+    private ExecutorService copyThreadPool;
+
     private static final Log log = LogFactory.getLog(TransferManager.class);
 
     private final boolean shutDownThreadPools;
@@ -513,6 +529,80 @@ public class TransferManager {
         return doUpload(putObjectRequest, null, progressListener, null);
     }
 
+    /**
+     * <p>
+     * Returns an output stream that uploads the data written to it to the
+     * specified bucket and key in Amazon S3. The length of the data does not
+     * need to be known in advance, and the data is never written to disk.
+     * </p>
+     * <p>
+     * The data is uploaded in parts of the minimum upload part size as it is
+     * written, on this transfer manager's thread pool. The memory used by the
+     * stream is bounded by the minimum upload part size times the upload
+     * stream buffer count; see
+     * {@link TransferManagerConfiguration#setUploadStreamBufferCount(int)}.
+     * </p>
+     * <p>
+     * The upload is completed when the stream is closed. To give up on the
+     * upload, call {@link MultipartUploadOutputStream#abort()} instead.
+     * </p>
+     *
+     * @param bucketName
+     *            The name of the bucket to upload the new object to.
+     * @param key
+     *            The key in the specified bucket by which to store the new
+     *            object.
+     * @param metadata
+     *            The object metadata. The content length must not be set.
+     *
+     * @return A new output stream to write the object data to.
+     *
+     * @see #uploadStream(InitiateMultipartUploadRequest)
+     */
+    public MultipartUploadOutputStream uploadStream(String bucketName,
+            String key, ObjectMetadata metadata) {
+        return uploadStream(new InitiateMultipartUploadRequest(bucketName, key,
+                metadata));
+    }
+
+    /**
+     * <p>
+     * Returns an output stream that uploads the data written to it to Amazon
+     * S3, as specified by the given request. The length of the data does not
+     * need to be known in advance, and the data is never written to disk.
+     * </p>
+     * <p>
+     * The data is uploaded in parts of the minimum upload part size as it is
+     * written, on this transfer manager's thread pool. At most
+     * {@link TransferManagerConfiguration#getUploadStreamBufferCount()} part
+     * buffers are held in memory; writes block while all of them are full or
+     * being uploaded. If less than one part of data is written, the object is
+     * uploaded with a single put request when the stream is closed. Since
+     * the parts of an object uploaded through the Amazon S3 encryption client
+     * must be uploaded in order, such streams upload one part at a time.
+     * </p>
+     * <p>
+     * The upload is completed when the stream is closed. To give up on the
+     * upload, call {@link MultipartUploadOutputStream#abort()} instead.
+     * </p>
+     *
+     * @param initiateMultipartUploadRequest
+     *            The request containing the bucket, key, metadata and other
+     *            options of the new object.
+     *
+     * @return A new output stream to write the object data to.
+     */
+    public MultipartUploadOutputStream uploadStream(
+            InitiateMultipartUploadRequest initiateMultipartUploadRequest) {
+        appendSingleObjectUserAgent(initiateMultipartUploadRequest);
+        int partSize = (int) Math.min(configuration.getMinimumUploadPartSize(),
+                Integer.MAX_VALUE);
+        int maxBuffers = s3 instanceof AmazonS3Encryption ? 1
+                : configuration.getUploadStreamBufferCount();
+        return new MultipartUploadOutputStream(s3, threadPool,
+                initiateMultipartUploadRequest, partSize, maxBuffers);
+    }
+
     /**
      * <p>
      * Schedules a new transfer to upload data to Amazon S3. This method is
@@ -748,6 +838,22 @@ public class TransferManager {
             final File file, final TransferStateChangeListener stateListener,
             final S3ProgressListener s3progressListener,
             final boolean resumeExistingDownload) {
+        return doDownload(getObjectRequest, file, stateListener,
+                s3progressListener, resumeExistingDownload, 0, null, null);
+    }
+
+    /**
+     * Same as above, but resumes a parallel download if the given part size
+     * is positive, in which case the given part progress holds the number of
+     * bytes of each byte range already written to the file, and the given
+     * ETag is the one of the object they were downloaded from.
+     */
+    private Download doDownload(final GetObjectRequest getObjectRequest,
+            final File file, final TransferStateChangeListener stateListener,
+            final S3ProgressListener s3progressListener,
+            final boolean resumeExistingDownload,
+            final long resumedPartSize, final long[] resumedPartProgress,
+            final String resumedETag) {
 
         appendSingleObjectUserAgent(getObjectRequest);
 
@@ -787,11 +893,6 @@ public class TransferManager {
         }
         final ObjectMetadata objectMetadata = s3.getObjectMetadata(getObjectMetadataRequest);
 
-        // We still pass the unfiltered listener chain into DownloadImpl
-        final DownloadImpl download = new DownloadImpl(description,
-                transferProgress, listenerChain, null, stateListener,
-                getObjectRequest, file);
-
         long startingByte = 0;
         long lastByte = objectMetadata.getContentLength() - 1;
 
@@ -804,6 +905,20 @@ public class TransferManager {
         long totalBytesToDownload = lastByte - startingByte + 1;
         transferProgress.setTotalBytesToTransfer(totalBytesToDownload);
 
+        if (resumedPartSize > 0 || (!resumeExistingDownload
+                && isParallelDownload(getObjectRequest, totalBytesToDownload))) {
+            return doParallelDownload(getObjectRequest, file, stateListener,
+                    description, transferProgress, listenerChain,
+                    objectMetadata, startingByte, lastByte,
+                    resumeExistingDownload, resumedPartSize, resumedPartProgress,
+                    resumedETag);
+        }
+
+        // We still pass the unfiltered listener chain into DownloadImpl
+        final DownloadImpl download = new DownloadImpl(description,
+                transferProgress, listenerChain, null, stateListener,
+                getObjectRequest, file);
+
         if (resumeExistingDownload) {
             if (file.exists()) {
                 long numberOfBytesRead = file.length();
@@ -828,6 +943,109 @@ public class TransferManager {
         return download;
     }
 
+    /**
+     * Returns true if the object of the given request should be downloaded as
+     * multiple byte ranges in parallel.
+     */
+    private boolean isParallelDownload(GetObjectRequest getObjectRequest,
+            long totalBytesToDownload) {
+        // Ranges can't be decrypted independently of each other, and
+        // conditional requests are left to the single request download
+        return totalBytesToDownload > configuration.getMultipartDownloadThreshold()
+                && !(s3 instanceof AmazonS3Encryption)
+                && isNullOrEmpty(getObjectRequest.getMatchingETagConstraints())
+                && isNullOrEmpty(getObjectRequest.getNonmatchingETagConstraints())
+                && getObjectRequest.getModifiedSinceConstraint() == null
+                && getObjectRequest.getUnmodifiedSinceConstraint() == null;
+    }
+
+    private static boolean isNullOrEmpty(List<String> list) {
+        return list == null || list.isEmpty();
+    }
+
+    /**
+     * Schedules the download of the given byte range of an object as multiple
+     * byte ranges fetched in parallel.
+     */
+    private Download doParallelDownload(final GetObjectRequest getObjectRequest,
+            final File file, final TransferStateChangeListener stateListener,
+            final String description, final TransferProgress transferProgress,
+            final S3ProgressListenerChain listenerChain,
+            final ObjectMetadata objectMetadata, final long firstByte,
+            final long lastByte, final boolean resumeExistingDownload,
+            final long resumedPartSize, final long[] resumedPartProgress,
+            final String resumedETag) {
+        long totalBytesToDownload = lastByte - firstByte + 1;
+        if (totalBytesToDownload < 0) {
+            throw new IllegalArgumentException(
+                    "Unable to determine the range for download operation.");
+        }
+
+        long partSize = resumedPartSize > 0 ? resumedPartSize
+                : Math.max(configuration.getMultipartDownloadPartSize(), 1);
+        int numberOfParts = ParallelDownloadCallable.getNumberOfParts(
+                totalBytesToDownload, partSize);
+        long[] partProgress = new long[numberOfParts];
+        String eTag = objectMetadata.getETag();
+        if (resumedPartSize > 0) {
+            // The ranges already written must come from the same object as
+            // the ones left to download
+            if (resumedETag == null || !resumedETag.equals(eTag)
+                    || resumedPartProgress == null
+                    || resumedPartProgress.length != numberOfParts
+                    || !file.exists()) {
+                throw new AmazonClientException("Unable to resume the download of "
+                        + getObjectRequest.getBucketName() + "/" + getObjectRequest.getKey()
+                        + ": the object or the file have changed since it was paused");
+            }
+            long bytesDownloaded = 0;
+            for (int i = 0; i < numberOfParts; i++) {
+                partProgress[i] = resumedPartProgress[i];
+                bytesDownloaded += resumedPartProgress[i];
+            }
+            transferProgress.updateProgress(Math.min(bytesDownloaded,
+                    totalBytesToDownload));
+        }
+
+        // The listener chain used by the ranged GetObject requests, which
+        // discards their STARTED and COMPLETED events in favor of the ones
+        // of the whole download.
+        ProgressListenerChain rangeListener = new ProgressListenerChain(
+                new ProgressEventFilter() {
+                    @Override
+                    public ProgressEvent filter(ProgressEvent progressEvent) {
+                        ProgressEventType type = progressEvent.getEventType();
+                        return type == ProgressEventType.TRANSFER_STARTED_EVENT
+                                || type == ProgressEventType.TRANSFER_COMPLETED_EVENT
+                             ? null // discard this event
+                             : progressEvent
+                             ;
+                    }
+                }, listenerChain);
+
+        S3Object s3Object = new S3Object();
+        s3Object.setBucketName(getObjectRequest.getBucketName());
+        s3Object.setKey(getObjectRequest.getKey());
+        s3Object.setObjectMetadata(objectMetadata);
+
+        final DownloadImpl download = new DownloadImpl(description,
+                transferProgress, listenerChain, s3Object, stateListener,
+                getObjectRequest, file, partSize, partProgress, eTag);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        ParallelDownloadCallable callable = new ParallelDownloadCallable(s3,
+                threadPool, getObjectRequest, eTag, file, download,
+                listenerChain, rangeListener, latch, firstByte, lastByte,
+                partSize, partProgress,
+                configuration.getMultipartDownloadConcurrency(),
+                resumeExistingDownload);
+        download.setParallelDownload(callable);
+        Future<?> future = threadPool.submit(callable);
+        download.setMonitor(new DownloadMonitor(download, future));
+        latch.countDown();
+        return download;
+    }
+
     private Future<?> submitDownloadTask(
             final GetObjectRequest getObjectRequest, final File file,
             final boolean resumeExistingDownload,
@@ -910,10 +1128,14 @@ public class TransferManager {
      * @param destinationDirectory
      *            The directory to place downloaded files. Subdirectories will
      *            be created as necessary.
+     *
+     * @see TransferManagerConfiguration#setDirectoryListingConcurrency(int)
      */
     public MultipleFileDownload downloadDirectory(String bucketName, String keyPrefix, File destinationDirectory) {
         if ( keyPrefix == null )
             keyPrefix = "";
+        if ( configuration.getDirectoryListingConcurrency() > 0 )
+            return downloadDirectoryPipelined(bucketName, keyPrefix, destinationDirectory);
         List<S3ObjectSummary> objectSummaries = new LinkedList<S3ObjectSummary>();
         Stack<String> commonPrefixes = new Stack<String>();
         commonPrefixes.add(keyPrefix);
@@ -1006,6 +1228,46 @@ public class TransferManager {
         return multipleFileDownload;
     }
 
+    /**
+     * Downloads the given virtual directory as it is listed, listing its
+     * subdirectories concurrently.
+     */
+    private MultipleFileDownload downloadDirectoryPipelined(String bucketName,
+            String keyPrefix, final File destinationDirectory) {
+        /* This is the hook for adding additional progress listeners */
+        ProgressListenerChain additionalListeners = new ProgressListenerChain();
+
+        // The total number of bytes to transfer grows as objects are listed
+        TransferProgress transferProgress = new TransferProgress();
+        final ProgressListener listener = new MultipleFileTransferProgressUpdatingListener(
+                transferProgress, additionalListeners);
+
+        String description = "Downloading from " + bucketName + "/" + keyPrefix;
+        PipelinedMultipleFileDownloadImpl multipleFileDownload = new PipelinedMultipleFileDownloadImpl(
+                description, transferProgress, additionalListeners, keyPrefix,
+                bucketName, s3, threadPool,
+                configuration.getDirectoryListingConcurrency(),
+                configuration.getDirectoryDownloadQueueSize()) {
+            @Override
+            protected Download download(S3ObjectSummary summary,
+                    TransferStateChangeListener stateListener) {
+                // TODO: non-standard delimiters
+                File f = new File(destinationDirectory, summary.getKey());
+                File parentFile = f.getParentFile();
+                // Objects under the same prefix are downloaded concurrently
+                if ( !parentFile.mkdirs() && !parentFile.isDirectory() ) {
+                    throw new AmazonClientException("Couldn't create parent directories for " + f.getAbsolutePath());
+                }
+                return doDownload(
+                        new GetObjectRequest(summary.getBucketName(), summary.getKey())
+                                .<GetObjectRequest>withGeneralProgressListener(listener),
+                        f, stateListener, null, false);
+            }
+        };
+        multipleFileDownload.start();
+        return multipleFileDownload;
+    }
+
     /**
      * Uploads all files in the directory given to the bucket named, optionally
      * recursing for all subdirectories.
@@ -1323,6 +1585,10 @@ public class TransferManager {
             threadPool.shutdownNow();
             timedThreadPool.shutdownNow();
         }
+        synchronized (this) {
+            if (copyThreadPool != null)
+                copyThreadPool.shutdownNow();
+        }
 
         if (shutDownS3Client) {
             if (s3 instanceof AmazonS3Client) {
@@ -1341,6 +1607,10 @@ public class TransferManager {
             threadPool.shutdown();
             timedThreadPool.shutdown();
         }
+        synchronized (this) {
+            if (copyThreadPool != null)
+                copyThreadPool.shutdown();
+        }
     }
 
     public static <X extends AmazonWebServiceRequest> X appendSingleObjectUserAgent(X request) {
@@ -1531,6 +1801,15 @@ public class TransferManager {
                 new TransferProgressUpdatingListener(transferProgress));
         CopyImpl copy = new CopyImpl(description, transferProgress,
                 listenerChain, stateChangeListener);
+        if (configuration.getCopyConcurrency() > 0) {
+            ParallelCopy parallelCopy = new ParallelCopy(s3, getCopyExecutor(),
+                    configuration, configuration.getCopyConcurrency(), copy,
+                    copyObjectRequest, metadata, metadata.getContentLength(),
+                    listenerChain);
+            copy.setMonitor(parallelCopy);
+            parallelCopy.start();
+            return copy;
+        }
         CopyCallable copyCallable = new CopyCallable(this, threadPool, copy,
                 copyObjectRequest, metadata, listenerChain);
         CopyMonitor watcher = new CopyMonitor(this, copy, threadPool,
@@ -1540,6 +1819,210 @@ public class TransferManager {
         return copy;
     }
 
+    /**
+     * <p>
+     * Schedules a new transfer to copy all the objects under a key prefix to
+     * another key prefix, possibly in another bucket. This method is
+     * non-blocking and returns immediately (i.e. before the objects have been
+     * listed).
+     * </p>
+     * <p>
+     * The key of each copy is the key of the object copied, with the source
+     * key prefix replaced by the destination key prefix. Objects are copied
+     * as they are listed, at most
+     * {@link TransferManagerConfiguration#getPrefixCopyQueueSize()} at a time;
+     * objects under the multi-part copy threshold are copied with a single
+     * request, without first fetching their metadata. The total number of
+     * bytes to transfer grows as objects are listed.
+     * </p>
+     * <p>
+     * Copies are made on the threads dedicated to copies if
+     * {@link TransferManagerConfiguration#getCopyConcurrency()} is positive,
+     * and on the thread pool of this <code>TransferManager</code> otherwise.
+     * </p>
+     *
+     * @param sourceBucketName
+     *            The name of the bucket from where the objects are to be
+     *            copied.
+     * @param sourceKeyPrefix
+     *            The key prefix of the objects to copy, or null for the
+     *            entire bucket.
+     * @param destinationBucketName
+     *            The name of the bucket to where the objects are to be copied.
+     * @param destinationKeyPrefix
+     *            The key prefix replacing the source key prefix in the keys of
+     *            the copies, or null to remove the source key prefix.
+     *
+     * @return A new <code>MultipleFileCopy</code> object to use to check the
+     *         state of the copy.
+     *
+     * @throws IllegalArgumentException
+     *             If the copies would be listed as objects to copy, i.e. the
+     *             destination key prefix starts with the source key prefix in
+     *             the same bucket.
+     *
+     * @see TransferManagerConfiguration#setCopyConcurrency(int)
+     */
+    public MultipleFileCopy copyPrefix(String sourceBucketName, String sourceKeyPrefix,
+            String destinationBucketName, String destinationKeyPrefix) {
+        assertParameterNotNull(sourceBucketName,
+                "The source bucket name must be specified when a copy request is initiated.");
+        assertParameterNotNull(destinationBucketName,
+                "The destination bucket name must be specified when a copy request is initiated.");
+        if (sourceKeyPrefix == null)
+            sourceKeyPrefix = "";
+        if (destinationKeyPrefix == null)
+            destinationKeyPrefix = "";
+        if (sourceBucketName.equals(destinationBucketName)
+                && destinationKeyPrefix.startsWith(sourceKeyPrefix)) {
+            throw new IllegalArgumentException(
+                    "The destination key prefix must not start with the source key prefix when copying within a bucket.");
+        }
+
+        /* This is the hook for adding additional progress listeners */
+        ProgressListenerChain additionalListeners = new ProgressListenerChain();
+
+        // The total number of bytes to transfer grows as objects are listed
+        TransferProgress transferProgress = new TransferProgress();
+        final ProgressListener listener = new ProgressListenerChain(
+                new ProgressEventFilter() {
+                    @Override
+                    public ProgressEvent filter(ProgressEvent progressEvent) {
+                        // Only pass on the bytes copied; the state of the
+                        // copy of each object is tracked by the copy itself
+                        return progressEvent.getEventType().isTransferEvent()
+                             ? null // discard this event
+                             : progressEvent
+                             ;
+                    }
+                }, new MultipleFileTransferProgressUpdatingListener(
+                        transferProgress, additionalListeners));
+
+        final Executor copyExecutor = getCopyExecutor();
+        final int copyConcurrency = configuration.getCopyConcurrency();
+        String description = "Copying from " + sourceBucketName + "/"
+                + sourceKeyPrefix + " to " + destinationBucketName + "/"
+                + destinationKeyPrefix;
+        MultipleFileCopyImpl multipleFileCopy = new MultipleFileCopyImpl(
+                description, transferProgress, additionalListeners,
+                sourceBucketName, sourceKeyPrefix, destinationBucketName,
+                destinationKeyPrefix, s3, configuration.getPrefixCopyQueueSize()) {
+            @Override
+            protected ParallelCopy copy(S3ObjectSummary summary,
+                    String destinationKey, TransferStateChangeListener stateListener) {
+                CopyObjectRequest copyObjectRequest = appendSingleObjectUserAgent(
+                        new CopyObjectRequest(summary.getBucketName(),
+                                summary.getKey(), getDestinationBucketName(),
+                                destinationKey));
+                CopyImpl copy = new CopyImpl("Copying object from "
+                        + summary.getBucketName() + "/" + summary.getKey(),
+                        new TransferProgress(), new ProgressListenerChain(),
+                        stateListener);
+                return new ParallelCopy(s3, copyExecutor, configuration,
+                        copyConcurrency, copy, copyObjectRequest, null,
+                        summary.getSize(), new ProgressListenerChain(listener));
+            }
+        };
+        multipleFileCopy.start();
+        return multipleFileCopy;
+    }
+
+    /**
+     * <p>
+     * Schedules the deletion of all the objects under a key prefix. This
+     * method is non-blocking and returns immediately (i.e. before the objects
+     * have been listed).
+     * </p>
+     * <p>
+     * Objects are deleted as they are listed, in batches of up to 1000 keys
+     * each deleted by a single multi-object delete request, with at most
+     * {@link TransferManagerConfiguration#getDeleteConcurrency()} requests in
+     * flight. Objects which fail to be deleted with a transient error are
+     * retried; those which still can't be deleted make the delete fail with
+     * a {@link com.amazonaws.services.s3.model.MultiObjectDeleteException},
+     * once all other objects have been deleted.
+     * </p>
+     *
+     * @param bucketName
+     *            The name of the bucket from which to delete objects.
+     * @param keyPrefix
+     *            The key prefix of the objects to delete, or null for the
+     *            entire bucket.
+     *
+     * @return A new <code>BulkDelete</code> object to use to check the state
+     *         and progress of the delete.
+     */
+    public BulkDelete deletePrefix(String bucketName, String keyPrefix) {
+        assertParameterNotNull(bucketName,
+                "The bucket name must be specified when a delete request is initiated.");
+        if (keyPrefix == null)
+            keyPrefix = "";
+        Iterator<S3ObjectSummary> objects = S3Objects
+                .withPrefix(s3, bucketName, keyPrefix)
+                .withBatchSize(1000).iterator();
+        return bulkDelete("Deleting from " + bucketName + "/" + keyPrefix,
+                bucketName, objects);
+    }
+
+    /**
+     * <p>
+     * Schedules the deletion of the objects with the given keys. This method
+     * is non-blocking and returns immediately; the keys are consumed from a
+     * thread dedicated to the delete, so the iterator may lazily produce
+     * them, e.g. from a file or a database, but must not be accessed by any
+     * other thread.
+     * </p>
+     * <p>
+     * Objects are deleted in batches of up to 1000 keys as described in
+     * {@link #deletePrefix(String, String)}. As their size is not known, the
+     * progress of the delete is only reported as the number of objects
+     * deleted.
+     * </p>
+     *
+     * @param bucketName
+     *            The name of the bucket from which to delete objects.
+     * @param keys
+     *            The keys of the objects to delete.
+     *
+     * @return A new <code>BulkDelete</code> object to use to check the state
+     *         and progress of the delete.
+     */
+    public BulkDelete deleteObjects(String bucketName, Iterator<String> keys) {
+        assertParameterNotNull(bucketName,
+                "The bucket name must be specified when a delete request is initiated.");
+        assertParameterNotNull(keys,
+                "The keys must be specified when a delete request is initiated.");
+        return bulkDelete("Deleting objects from " + bucketName, bucketName,
+                BulkDeleteImpl.summariesOf(bucketName, keys));
+    }
+
+    private BulkDelete bulkDelete(String description, String bucketName,
+            Iterator<S3ObjectSummary> objects) {
+        TransferProgress transferProgress = new TransferProgress();
+        ProgressListenerChain listenerChain = new ProgressListenerChain(
+                new TransferProgressUpdatingListener(transferProgress));
+        BulkDeleteImpl bulkDelete = new BulkDeleteImpl(description,
+                transferProgress, listenerChain, s3, threadPool,
+                timedThreadPool, bucketName, objects,
+                configuration.getDeleteConcurrency());
+        bulkDelete.start();
+        return bulkDelete;
+    }
+
+    /**
+     * Returns the executor from which copy requests are sent: the thread pool
+     * dedicated to copies if configured, the thread pool of this
+     * <code>TransferManager</code> otherwise.
+     */
+    private synchronized Executor getCopyExecutor() {
+        int copyConcurrency = configuration.getCopyConcurrency();
+        if (copyConcurrency <= 0)
+            return threadPool;
+        if (copyThreadPool == null)
+            copyThreadPool = TransferManagerUtils.createCopyExecutorService(copyConcurrency);
+        return copyThreadPool;
+    }
+
     /**
      * Resumes an upload operation. This upload operation uses the same
      * configuration {@link TransferManagerConfiguration} as the original
@@ -1603,7 +2086,9 @@ public class TransferManager {
         request.setResponseHeaders(persistableDownload.getResponseHeaders());
 
         return doDownload(request, new File(persistableDownload.getFile()), null, null,
-                APPEND_MODE);
+                APPEND_MODE, persistableDownload.getPartSize(),
+                persistableDownload.getPartProgress(),
+                persistableDownload.getETag());
     }
 
     /**
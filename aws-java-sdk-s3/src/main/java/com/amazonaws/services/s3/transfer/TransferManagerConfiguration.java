@@ -39,6 +39,30 @@ public class TransferManagerConfiguration {
     /** Default minimum size of each part for multi-part copy. */
     private static final long DEFAULT_MINIMUM_COPY_PART_SIZE = 100 * MB;
 
+    /**
+     * Default size threshold for Amazon S3 object after which parallel ranged
+     * downloads are used; parallel downloads are disabled by default.
+     */
+    private static final long DEFAULT_MULTIPART_DOWNLOAD_THRESHOLD = Long.MAX_VALUE;
+
+    /** Default maximum number of part buffers of an upload stream. */
+    private static final int DEFAULT_UPLOAD_STREAM_BUFFER_COUNT = 4;
+
+    /** Default size of each byte range of a parallel download. */
+    private static final long DEFAULT_MULTIPART_DOWNLOAD_PART_SIZE = 16 * MB;
+
+    /** Default number of byte ranges of a parallel download fetched concurrently. */
+    private static final int DEFAULT_MULTIPART_DOWNLOAD_CONCURRENCY = 4;
+
+    /** Default maximum number of objects listed but not yet downloaded by a pipelined directory download */
+    private static final int DEFAULT_DIRECTORY_DOWNLOAD_QUEUE_SIZE = 1000;
+
+    /** Default maximum number of objects listed but not yet copied by a prefix copy */
+    private static final int DEFAULT_PREFIX_COPY_QUEUE_SIZE = 1000;
+
+    /** Default number of delete requests sent concurrently by a bulk delete */
+    private static final int DEFAULT_DELETE_CONCURRENCY = 4;
+
     /**
      * The minimum part size for upload parts. Decreasing the minimum part size
      * will cause multipart uploads to be split into a larger number of smaller
@@ -77,6 +101,65 @@ public class TransferManagerConfiguration {
      */
     private long multipartCopyPartSize = DEFAULT_MINIMUM_COPY_PART_SIZE;
 
+    /**
+     * The size threshold, in bytes, for when to download an object as
+     * multiple byte ranges in parallel. Downloads of objects over this size
+     * fetch each range on a separate connection, while downloads of smaller
+     * objects use a single connection.
+     */
+    private long multipartDownloadThreshold = DEFAULT_MULTIPART_DOWNLOAD_THRESHOLD;
+
+    /**
+     * The size in bytes of each byte range when an object is downloaded in
+     * parallel.
+     */
+    private long multipartDownloadPartSize = DEFAULT_MULTIPART_DOWNLOAD_PART_SIZE;
+
+    /**
+     * The maximum number of byte ranges of a parallel download fetched
+     * concurrently.
+     */
+    private int multipartDownloadConcurrency = DEFAULT_MULTIPART_DOWNLOAD_CONCURRENCY;
+
+    /**
+     * The maximum number of part buffers, each the size of the minimum upload
+     * part size, allocated by each stream returned by
+     * {@link TransferManager#uploadStream(com.amazonaws.services.s3.model.InitiateMultipartUploadRequest)}.
+     */
+    private int uploadStreamBufferCount = DEFAULT_UPLOAD_STREAM_BUFFER_COUNT;
+
+    /**
+     * The number of virtual subdirectories listed concurrently by
+     * {@link TransferManager#downloadDirectory}, or zero to list the whole
+     * directory before starting to download it.
+     */
+    private int directoryListingConcurrency = 0;
+
+    /**
+     * The maximum number of objects listed but not yet downloaded by a
+     * pipelined directory download.
+     */
+    private int directoryDownloadQueueSize = DEFAULT_DIRECTORY_DOWNLOAD_QUEUE_SIZE;
+
+    /**
+     * The number of copy and copy part requests sent concurrently on threads
+     * dedicated to copies, or zero to copy objects on the thread pool of the
+     * transfer manager.
+     */
+    private int copyConcurrency = 0;
+
+    /**
+     * The maximum number of objects listed but not yet copied by
+     * {@link TransferManager#copyPrefix}.
+     */
+    private int prefixCopyQueueSize = DEFAULT_PREFIX_COPY_QUEUE_SIZE;
+
+    /**
+     * The number of multi-object delete requests sent concurrently by a bulk
+     * delete.
+     */
+    private int deleteConcurrency = DEFAULT_DELETE_CONCURRENCY;
+
     /**
      * Returns the minimum part size for upload parts.
      * Decreasing the minimum part size causes
@@ -192,4 +275,242 @@ public class TransferManagerConfiguration {
     public void setMultipartCopyThreshold(long multipartCopyThreshold) {
         this.multipartCopyThreshold = multipartCopyThreshold;
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the size threshold in bytes for when to download objects as
+     * multiple byte ranges fetched in parallel. Parallel downloads are
+     * disabled by default.
+     *
+     * @return The size threshold in bytes for when to use parallel downloads.
+     */
+    public long getMultipartDownloadThreshold() {
+        return multipartDownloadThreshold;
+    }
+
+    /**
+     * Sets the size threshold in bytes for when to download objects as
+     * multiple byte ranges fetched in parallel on the
+     * {@link TransferManager}'s thread pool. Downloads of objects over this
+     * size write each range to its position in the file as it arrives, and
+     * can be paused and resumed range by range.
+     * <p>
+     * Since S3 only returns an MD5 checksum for whole objects, the integrity
+     * of parallel downloads is not verified against it; the length of each
+     * range is checked instead. Parallel downloads are not used for clients
+     * that perform client-side decryption.
+     *
+     * @param multipartDownloadThreshold
+     *            The size threshold in bytes for when to use parallel
+     *            downloads.
+     */
+    public void setMultipartDownloadThreshold(long multipartDownloadThreshold) {
+        this.multipartDownloadThreshold = multipartDownloadThreshold;
+    }
+
+    /**
+     * Returns the size in bytes of each byte range of a parallel download.
+     *
+     * @return The size in bytes of each byte range of a parallel download.
+     */
+    public long getMultipartDownloadPartSize() {
+        return multipartDownloadPartSize;
+    }
+
+    /**
+     * Sets the size in bytes of each byte range of a parallel download.
+     * Smaller ranges spread a download over more connections, at the cost of
+     * a request for each range.
+     *
+     * @param multipartDownloadPartSize
+     *            The size in bytes of each byte range of a parallel download.
+     */
+    public void setMultipartDownloadPartSize(long multipartDownloadPartSize) {
+        this.multipartDownloadPartSize = multipartDownloadPartSize;
+    }
+
+    /**
+     * Returns the maximum number of byte ranges of a parallel download
+     * fetched concurrently.
+     *
+     * @return The maximum number of concurrent range requests of a parallel
+     *         download.
+     */
+    public int getMultipartDownloadConcurrency() {
+        return multipartDownloadConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of byte ranges of a parallel download fetched
+     * concurrently. Ranges are fetched from the thread pool of the transfer
+     * manager, which is shared with all other transfers, so values beyond
+     * the size of that thread pool have no effect.
+     *
+     * @param multipartDownloadConcurrency
+     *            The maximum number of concurrent range requests of a
+     *            parallel download.
+     */
+    public void setMultipartDownloadConcurrency(int multipartDownloadConcurrency) {
+        this.multipartDownloadConcurrency = multipartDownloadConcurrency;
+    }
+
+    /**
+     * Returns the maximum number of part buffers allocated by each stream
+     * returned by {@link TransferManager#uploadStream}.
+     *
+     * @return The maximum number of part buffers of an upload stream.
+     */
+    public int getUploadStreamBufferCount() {
+        return uploadStreamBufferCount;
+    }
+
+    /**
+     * Sets the maximum number of part buffers allocated by each stream
+     * returned by {@link TransferManager#uploadStream}. Each buffer is the
+     * size of the minimum upload part size, so this bounds the memory used by
+     * an upload stream, and the number of its parts being uploaded
+     * concurrently. Writes to the stream block while all its buffers are full
+     * or being uploaded.
+     *
+     * @param uploadStreamBufferCount
+     *            The maximum number of part buffers of an upload stream.
+     */
+    public void setUploadStreamBufferCount(int uploadStreamBufferCount) {
+        this.uploadStreamBufferCount = uploadStreamBufferCount;
+    }
+
+    /**
+     * Returns the number of virtual subdirectories listed concurrently by
+     * {@link TransferManager#downloadDirectory}, or zero if the whole
+     * directory is listed before it starts being downloaded.
+     *
+     * @return The number of virtual subdirectories listed concurrently.
+     */
+    public int getDirectoryListingConcurrency() {
+        return directoryListingConcurrency;
+    }
+
+    /**
+     * Sets the number of virtual subdirectories listed concurrently by
+     * {@link TransferManager#downloadDirectory}. By default, the whole
+     * directory is listed before it starts being downloaded, and the
+     * download is only returned once listed. With a positive value, the
+     * download is returned right away, and objects are downloaded as they
+     * are listed, at most {@link #getDirectoryDownloadQueueSize()} at a time.
+     * The total number of bytes to transfer then grows as objects are
+     * listed, and failures to list the directory are reported by the
+     * download rather than thrown.
+     *
+     * @param directoryListingConcurrency
+     *            The number of virtual subdirectories listed concurrently,
+     *            or zero to list the whole directory before downloading it.
+     */
+    public void setDirectoryListingConcurrency(int directoryListingConcurrency) {
+        this.directoryListingConcurrency = directoryListingConcurrency;
+    }
+
+    /**
+     * Returns the maximum number of objects listed but not yet downloaded by
+     * a pipelined directory download.
+     *
+     * @return The maximum number of objects queued for download.
+     */
+    public int getDirectoryDownloadQueueSize() {
+        return directoryDownloadQueueSize;
+    }
+
+    /**
+     * Sets the maximum number of objects listed but not yet downloaded by a
+     * pipelined directory download. Listing pauses while that many objects
+     * are queued or being downloaded, which bounds the memory used by the
+     * download regardless of the size of the directory.
+     *
+     * @param directoryDownloadQueueSize
+     *            The maximum number of objects queued for download.
+     * @see #setDirectoryListingConcurrency(int)
+     */
+    public void setDirectoryDownloadQueueSize(int directoryDownloadQueueSize) {
+        this.directoryDownloadQueueSize = directoryDownloadQueueSize;
+    }
+
+    /**
+     * Returns the number of copy and copy part requests sent concurrently on
+     * threads dedicated to copies.
+     *
+     * @return The number of concurrent copy requests, or zero if objects are
+     *         copied on the thread pool of the transfer manager.
+     */
+    public int getCopyConcurrency() {
+        return copyConcurrency;
+    }
+
+    /**
+     * Sets the number of copy and copy part requests sent concurrently on
+     * threads dedicated to copies, separate from the thread pool used for
+     * uploads and downloads. By default, copies share that thread pool, and
+     * the completion of multi-part copies is polled for. With a positive
+     * value, multi-part copies are completed as soon as their last part has
+     * been copied, and their part size is reduced from
+     * {@link #getMultipartCopyPartSize()} as needed to give each copy thread
+     * several parts to copy, within the limits on the number and size of
+     * parts imposed by Amazon S3. The copy threads are created by the first
+     * copy, so changing this value afterwards has no effect. Copy threads
+     * beyond the maximum number of connections of the Amazon S3 client only
+     * wait for a connection.
+     *
+     * @param copyConcurrency
+     *            The number of concurrent copy requests, or zero to copy
+     *            objects on the thread pool of the transfer manager.
+     */
+    public void setCopyConcurrency(int copyConcurrency) {
+        this.copyConcurrency = copyConcurrency;
+    }
+
+    /**
+     * Returns the maximum number of objects listed but not yet copied by
+     * {@link TransferManager#copyPrefix}.
+     *
+     * @return The maximum number of objects queued for copy.
+     */
+    public int getPrefixCopyQueueSize() {
+        return prefixCopyQueueSize;
+    }
+
+    /**
+     * Sets the maximum number of objects listed but not yet copied by
+     * {@link TransferManager#copyPrefix}. Listing pauses while that many
+     * objects are queued or being copied, which bounds the memory used by
+     * the copy regardless of the number of objects copied.
+     *
+     * @param prefixCopyQueueSize
+     *            The maximum number of objects queued for copy.
+     * @see #setCopyConcurrency(int)
+     */
+    public void setPrefixCopyQueueSize(int prefixCopyQueueSize) {
+        this.prefixCopyQueueSize = prefixCopyQueueSize;
+    }
+
+    /**
+     * Returns the number of multi-object delete requests sent concurrently by
+     * {@link TransferManager#deletePrefix} and
+     * {@link TransferManager#deleteObjects}.
+     *
+     * @return The number of concurrent delete requests.
+     */
+    public int getDeleteConcurrency() {
+        return deleteConcurrency;
+    }
+
+    /**
+     * Sets the number of multi-object delete requests, of up to 1000 keys
+     * each, sent concurrently by {@link TransferManager#deletePrefix} and
+     * {@link TransferManager#deleteObjects}. Delete requests are sent from
+     * the thread pool of the transfer manager, so values beyond the size of
+     * that thread pool have no effect.
+     *
+     * @param deleteConcurrency
+     *            The number of concurrent delete requests.
+     */
+    public void setDeleteConcurrency(int deleteConcurrency) {
+        this.deleteConcurrency = deleteConcurrency;
+    }
+}
@@ -0,0 +1,456 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import static com.amazonaws.event.SDKProgressPublisher.publishRequestBytesTransferred;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest.KeyVersion;
+import com.amazonaws.services.s3.model.DeleteObjectsResult.DeletedObject;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.transfer.BulkDelete;
+import com.amazonaws.services.s3.transfer.TransferProgress;
+
+/**
+ * Deletion of the objects returned by an iterator, in batches of up to 1000
+ * keys, each deleted by a single multi-object delete request.
+ * <p>
+ * The iterator is consumed on a thread dedicated to the delete, typically
+ * listing a key prefix as it goes, while the batches already formed are
+ * deleted from the given executor; at most a given number of batches are
+ * being deleted at any time, so iterating pauses while deletes catch up.
+ * <p>
+ * Keys which fail to be deleted with a transient error, such as throttling,
+ * are retried in a smaller batch after a delay, a few times at most; retries
+ * are scheduled on the given timer, so no thread is held while waiting. Keys
+ * which still fail to be deleted are counted and reported, but don't stop
+ * the other objects from being deleted; a failure of a whole delete request,
+ * or to iterate over the objects, stops the delete.
+ */
+public class BulkDeleteImpl extends AbstractTransfer implements BulkDelete {
+
+    private static final Log log = LogFactory.getLog(BulkDeleteImpl.class);
+
+    /** The maximum number of keys of a multi-object delete request. */
+    private static final int MAXIMUM_BATCH_SIZE = 1000;
+
+    /** The maximum number of times the keys of a batch are retried. */
+    private static final int MAXIMUM_RETRIES = 3;
+
+    /** The delay before retrying keys for the first time. */
+    private static final long BASE_RETRY_DELAY_MILLIS = 100;
+
+    /** The maximum number of errors kept for {@link #getErrors()}. */
+    private static final int MAXIMUM_ERRORS_KEPT = 1000;
+
+    private final AmazonS3 s3;
+    private final Executor deleteExecutor;
+    private final ScheduledExecutorService retryTimer;
+    private final String bucketName;
+    private final Iterator<S3ObjectSummary> objects;
+    private final ExecutorService listingExecutor;
+    private final BulkDeleteMonitor pipeline;
+
+    private final AtomicLong deletedObjects = new AtomicLong();
+    private final AtomicLong failedObjects = new AtomicLong();
+    /** Guarded by itself. */
+    private final List<DeleteError> errors = new ArrayList<DeleteError>();
+
+    private volatile long startNanos;
+    private volatile long endNanos;
+    private long totalBytesListed;
+
+    /**
+     * @param deleteExecutor
+     *            The executor from which delete requests are sent.
+     * @param retryTimer
+     *            The executor on which the retries of keys are scheduled.
+     * @param objects
+     *            The objects to delete, whose size is used to report the
+     *            progress of the delete if known.
+     * @param concurrency
+     *            The maximum number of delete requests in flight.
+     */
+    public BulkDeleteImpl(String description, TransferProgress transferProgress,
+            ProgressListenerChain progressListenerChain, AmazonS3 s3,
+            Executor deleteExecutor, ScheduledExecutorService retryTimer,
+            String bucketName, Iterator<S3ObjectSummary> objects,
+            int concurrency) {
+        super(description, transferProgress, progressListenerChain);
+        this.s3 = s3;
+        this.deleteExecutor = deleteExecutor;
+        this.retryTimer = retryTimer;
+        this.bucketName = bucketName;
+        this.objects = objects;
+        this.listingExecutor = Executors.newSingleThreadExecutor(
+                new PipelinedMultipleFileDownloadImpl.ListingThreadFactory());
+        transferProgress.setTotalBytesToTransfer(0);
+        this.pipeline = new BulkDeleteMonitor(concurrency);
+        setMonitor(pipeline);
+    }
+
+    /**
+     * Returns an iterator over summaries of the objects with the given keys,
+     * for deleting objects whose size is not known.
+     */
+    public static Iterator<S3ObjectSummary> summariesOf(final String bucketName,
+            final Iterator<String> keys) {
+        return new Iterator<S3ObjectSummary>() {
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public S3ObjectSummary next() {
+                S3ObjectSummary summary = new S3ObjectSummary();
+                summary.setBucketName(bucketName);
+                summary.setKey(keys.next());
+                return summary;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    /**
+     * Starts iterating over the objects and deleting them.
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        setState(TransferState.InProgress);
+        fireProgressEvent(ProgressEventType.TRANSFER_STARTED_EVENT);
+        listingExecutor.execute(new ListingTask());
+        listingExecutor.shutdown();
+    }
+
+    @Override
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    @Override
+    public long getDeletedObjectCount() {
+        return deletedObjects.get();
+    }
+
+    @Override
+    public long getFailedObjectCount() {
+        return failedObjects.get();
+    }
+
+    @Override
+    public double getObjectsDeletedPerSecond() {
+        long end = isDone() ? endNanos : System.nanoTime();
+        double seconds = (end - startNanos) / 1e9;
+        return seconds > 0 ? deletedObjects.get() / seconds : 0;
+    }
+
+    @Override
+    public List<DeleteError> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<DeleteError>(errors);
+        }
+    }
+
+    /**
+     * Stops iterating over the objects. Delete requests in flight are left
+     * to complete, but keys which failed to be deleted are not retried.
+     */
+    @Override
+    public void abort() {
+        pipeline.abort();
+        if (!listingExecutor.shutdownNow().isEmpty()) {
+            // The listing never started
+            pipeline.listingDone();
+        }
+    }
+
+    /**
+     * Iterates over the objects, handing them out in batches to be deleted.
+     */
+    private void list() throws InterruptedException {
+        while (!pipeline.isStopped() && objects.hasNext()) {
+            List<S3ObjectSummary> batch = new ArrayList<S3ObjectSummary>(MAXIMUM_BATCH_SIZE);
+            long bytes = 0;
+            while (batch.size() < MAXIMUM_BATCH_SIZE && objects.hasNext()) {
+                S3ObjectSummary summary = objects.next();
+                batch.add(summary);
+                bytes += summary.getSize();
+            }
+            if (!pipeline.acquireTask())
+                return;
+            addTotalBytesToTransfer(bytes);
+            try {
+                deleteExecutor.execute(new DeleteTask(batch));
+            } catch (RejectedExecutionException e) {
+                pipeline.fail(new AmazonClientException("Unable to delete objects from "
+                        + bucketName + ": the transfer manager has been shut down", e));
+                pipeline.taskDone();
+            }
+        }
+    }
+
+    private synchronized void addTotalBytesToTransfer(long bytes) {
+        totalBytesListed += bytes;
+        getProgress().setTotalBytesToTransfer(totalBytesListed);
+    }
+
+    private void deleteFailed(DeleteError error) {
+        failedObjects.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAXIMUM_ERRORS_KEPT)
+                errors.add(error);
+        }
+    }
+
+    /**
+     * Returns true if the given error is transient, in which case the object
+     * is worth trying to delete again.
+     */
+    private static boolean isRetryable(DeleteError error) {
+        String code = error.getCode();
+        return "InternalError".equals(code)
+                || "ServiceUnavailable".equals(code)
+                || "SlowDown".equals(code);
+    }
+
+    private final class ListingTask implements Runnable {
+        @Override
+        public void run() {
+            try {
+                list();
+            } catch (InterruptedException e) {
+                // Aborted
+            } catch (Throwable t) {
+                log.debug("Unable to list the objects to delete from " + bucketName, t);
+                pipeline.fail(t);
+            } finally {
+                pipeline.listingDone();
+            }
+        }
+    }
+
+    /**
+     * Deletes a batch of objects, retrying the keys which failed to be
+     * deleted with a transient error.
+     */
+    private final class DeleteTask implements Runnable {
+        /** The objects not deleted yet, mapped to their size. */
+        private Map<String, Long> remaining;
+        /** The last error of each remaining object, once retried. */
+        private Map<String, DeleteError> lastErrors = Collections.emptyMap();
+        private int retries;
+
+        DeleteTask(List<S3ObjectSummary> batch) {
+            remaining = new HashMap<String, Long>(batch.size() * 2);
+            for (S3ObjectSummary summary : batch) {
+                remaining.put(summary.getKey(), summary.getSize());
+            }
+        }
+
+        @Override
+        public void run() {
+            boolean retryScheduled = false;
+            try {
+                retryScheduled = delete();
+            } catch (Throwable t) {
+                log.debug("Unable to delete objects from " + bucketName, t);
+                pipeline.fail(t);
+            } finally {
+                if (!retryScheduled)
+                    pipeline.taskDone();
+            }
+        }
+
+        /**
+         * Sends a delete request for the remaining keys, and schedules a
+         * retry of those which failed with a transient error.
+         *
+         * @return True if a retry has been scheduled, in which case the batch
+         *         isn't done yet.
+         */
+        private boolean delete() {
+            List<KeyVersion> keys = new ArrayList<KeyVersion>(remaining.size());
+            for (String key : remaining.keySet()) {
+                keys.add(new KeyVersion(key));
+            }
+            List<DeleteError> deleteErrors;
+            try {
+                s3.deleteObjects(new DeleteObjectsRequest(bucketName)
+                        .withKeys(keys).withQuiet(true));
+                deleteErrors = Collections.emptyList();
+            } catch (MultiObjectDeleteException e) {
+                deleteErrors = e.getErrors();
+            }
+            Map<String, Long> retried = new HashMap<String, Long>();
+            Map<String, DeleteError> retriedErrors = new HashMap<String, DeleteError>();
+            for (DeleteError error : deleteErrors) {
+                Long size = remaining.remove(error.getKey());
+                if (size == null)
+                    continue;
+                if (retries < MAXIMUM_RETRIES && isRetryable(error)) {
+                    retried.put(error.getKey(), size);
+                    retriedErrors.put(error.getKey(), error);
+                } else {
+                    deleteFailed(error);
+                }
+            }
+            deleted(remaining);
+            remaining = retried;
+            lastErrors = retriedErrors;
+            if (remaining.isEmpty())
+                return false;
+            if (pipeline.isStopped()) {
+                retriesFailed();
+                return false;
+            }
+            try {
+                retryTimer.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        retry();
+                    }
+                }, BASE_RETRY_DELAY_MILLIS << retries++, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                retriesFailed();
+                throw new AmazonClientException("Unable to retry deleting objects from "
+                        + bucketName + ": the transfer manager has been shut down", e);
+            }
+            return true;
+        }
+
+        /**
+         * Sends the retry from the delete executor, rather than from the
+         * timer, unless the delete has been stopped meanwhile.
+         */
+        private void retry() {
+            if (pipeline.isStopped()) {
+                retriesFailed();
+                pipeline.taskDone();
+                return;
+            }
+            try {
+                deleteExecutor.execute(this);
+            } catch (RejectedExecutionException e) {
+                retriesFailed();
+                pipeline.fail(new AmazonClientException("Unable to delete objects from "
+                        + bucketName + ": the transfer manager has been shut down", e));
+                pipeline.taskDone();
+            }
+        }
+
+        /**
+         * Records the objects waiting for a retry as failed with their last
+         * error, as they won't be retried.
+         */
+        private void retriesFailed() {
+            for (DeleteError error : lastErrors.values()) {
+                deleteFailed(error);
+            }
+            remaining = Collections.emptyMap();
+            lastErrors = Collections.emptyMap();
+        }
+
+        /**
+         * Records the deletion of the given objects, mapped to their size.
+         */
+        private void deleted(Map<String, Long> objects) {
+            long bytes = 0;
+            for (Long size : objects.values()) {
+                bytes += size;
+            }
+            deletedObjects.addAndGet(objects.size());
+            if (bytes > 0)
+                publishRequestBytesTransferred(listenerChain, bytes);
+        }
+    }
+
+    /**
+     * Monitor whose future completes once all the objects have been iterated
+     * over and deleted, failing if any object could not be deleted.
+     */
+    private final class BulkDeleteMonitor extends PipelinedTransferMonitor {
+        BulkDeleteMonitor(int concurrency) {
+            super(BulkDeleteImpl.this, concurrency);
+        }
+
+        @Override
+        protected void allDone() {
+            endNanos = System.nanoTime();
+            if (log.isDebugEnabled()) {
+                log.debug("Deleted " + deletedObjects + " objects from " + bucketName
+                        + " at " + (long) getObjectsDeletedPerSecond() + " objects/s, "
+                        + failedObjects + " failed");
+            }
+            if (getFailure() != null || failedObjects.get() > 0) {
+                setState(TransferState.Failed);
+                fireProgressEvent(ProgressEventType.TRANSFER_FAILED_EVENT);
+            } else if (isAborted()) {
+                setState(TransferState.Canceled);
+                fireProgressEvent(ProgressEventType.TRANSFER_CANCELED_EVENT);
+            } else {
+                setState(TransferState.Completed);
+                fireProgressEvent(ProgressEventType.TRANSFER_COMPLETED_EVENT);
+            }
+        }
+
+        /**
+         * Throws the failure which stopped the delete, if any, or a
+         * MultiObjectDeleteException reporting the objects which could not
+         * be deleted.
+         */
+        @Override
+        protected Object outcome() throws ExecutionException {
+            if (getFailure() != null)
+                throw new ExecutionException(getFailure());
+            if (failedObjects.get() > 0) {
+                throw new ExecutionException(new MultiObjectDeleteException(
+                        getErrors(), Collections.<DeletedObject>emptyList()));
+            }
+            if (getState() == TransferState.Canceled)
+                throw new CancellationException();
+            return true;
+        }
+    }
+}
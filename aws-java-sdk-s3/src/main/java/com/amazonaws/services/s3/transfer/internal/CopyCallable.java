@@ -223,6 +223,21 @@ public class CopyCallable implements Callable<CopyResult> {
      * Initiates a multipart upload and returns the upload id
      */
     private String initiateMultipartUpload(CopyObjectRequest copyObjectRequest) {
+        String uploadId = s3.initiateMultipartUpload(
+                newInitiateMultipartUploadRequest(copyObjectRequest, metadata))
+                .getUploadId();
+        log.debug("Initiated new multipart upload: " + uploadId);
+
+        return uploadId;
+    }
+
+    /**
+     * Returns the request initiating the multipart upload of a multi-part
+     * copy, carrying over the content type and encryption materials of the
+     * source object unless overridden.
+     */
+    static InitiateMultipartUploadRequest newInitiateMultipartUploadRequest(
+            CopyObjectRequest copyObjectRequest, ObjectMetadata metadata) {
 
         InitiateMultipartUploadRequest initiateMultipartUploadRequest = new InitiateMultipartUploadRequest(
                 copyObjectRequest.getDestinationBucketName(),
@@ -255,7 +270,7 @@ public class CopyCallable implements Callable<CopyResult> {
         if(newObjectMetadata == null){
             newObjectMetadata = new ObjectMetadata();
         }
-        if(newObjectMetadata.getContentType() == null){
+        if(newObjectMetadata.getContentType() == null && metadata.getContentType() != null){
             newObjectMetadata.setContentType(metadata.getContentType());
         }
 
@@ -263,14 +278,10 @@ public class CopyCallable implements Callable<CopyResult> {
 
         populateMetadataWithEncryptionParams(metadata,newObjectMetadata);
 
-        String uploadId = s3.initiateMultipartUpload(
-                initiateMultipartUploadRequest).getUploadId();
-        log.debug("Initiated new multipart upload: " + uploadId);
-
-        return uploadId;
+        return initiateMultipartUploadRequest;
     }
 
-    private void populateMetadataWithEncryptionParams(ObjectMetadata source, ObjectMetadata destination) {
+    private static void populateMetadataWithEncryptionParams(ObjectMetadata source, ObjectMetadata destination) {
         Map<String, String> userMetadataSource = source.getUserMetadata();
         Map<String, String> userMetadataDestination = destination.getUserMetadata();
 
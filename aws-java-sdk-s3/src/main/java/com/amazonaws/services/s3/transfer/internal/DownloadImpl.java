@@ -35,13 +35,45 @@ public class DownloadImpl extends AbstractTransfer implements Download {
      */
     private final PersistableDownload persistableDownload;
 
+    /**
+     * The request and file of the download, to capture the state of a
+     * parallel download when it is paused.
+     */
+    private final GetObjectRequest getObjectRequest;
+    private final File file;
+
+    /**
+     * The callable downloading the byte ranges of a parallel download; null
+     * if the object is downloaded over a single connection.
+     */
+    private volatile ParallelDownloadCallable parallelDownload;
+
     public DownloadImpl(String description, TransferProgress transferProgress,
             ProgressListenerChain progressListenerChain, S3Object s3Object,
             TransferStateChangeListener listener,
             GetObjectRequest getObjectRequest, File file) {
+        this(description, transferProgress, progressListenerChain, s3Object,
+                listener, getObjectRequest, file, 0, null, null);
+    }
+
+    /**
+     * Constructs a download; if the given part size is positive, the object
+     * is downloaded as byte ranges of that size in parallel, and the given
+     * part progress holds the number of bytes of each range already written
+     * to the file, and the given ETag is the one of the object they are
+     * downloaded from.
+     */
+    public DownloadImpl(String description, TransferProgress transferProgress,
+            ProgressListenerChain progressListenerChain, S3Object s3Object,
+            TransferStateChangeListener listener,
+            GetObjectRequest getObjectRequest, File file, long partSize,
+            long[] partProgress, String eTag) {
         super(description, transferProgress, progressListenerChain, listener);
         this.s3Object = s3Object;
-        this.persistableDownload = captureDownloadState(getObjectRequest, file);
+        this.getObjectRequest = getObjectRequest;
+        this.file = file;
+        this.persistableDownload = captureDownloadState(getObjectRequest, file,
+                partSize, partProgress, eTag);
         S3ProgressPublisher.publishTransferPersistable(progressListenerChain,
                 persistableDownload);
     }
@@ -82,7 +114,10 @@ public class DownloadImpl extends AbstractTransfer implements Download {
 
         this.monitor.getFuture().cancel(true);
 
-        if ( s3Object != null ) {
+        if ( parallelDownload != null ) {
+            parallelDownload.cancel();
+        }
+        if ( s3Object != null && s3Object.getObjectContent() != null ) {
               s3Object.getObjectContent().abort();
         }
         setState(TransferState.Canceled);
@@ -95,6 +130,9 @@ public class DownloadImpl extends AbstractTransfer implements Download {
      */
     public synchronized void abortWithoutNotifyingStateChangeListener() throws IOException {
         this.monitor.getFuture().cancel(true);
+        if ( parallelDownload != null ) {
+            parallelDownload.cancel();
+        }
         this.state = TransferState.Canceled;
     }
 
@@ -105,6 +143,13 @@ public class DownloadImpl extends AbstractTransfer implements Download {
         this.s3Object = s3Object;
     }
 
+    /**
+     * Sets the callable downloading the byte ranges of a parallel download.
+     */
+    public void setParallelDownload(ParallelDownloadCallable parallelDownload) {
+        this.parallelDownload = parallelDownload;
+    }
+
     /**
      * This method is also responsible for firing COMPLETED signal to the
      * listeners.
@@ -123,8 +168,18 @@ public class DownloadImpl extends AbstractTransfer implements Download {
      * captured (for security reason).
      */
     private PersistableDownload captureDownloadState(
-            final GetObjectRequest getObjectRequest, final File file) {
+            final GetObjectRequest getObjectRequest, final File file,
+            final long partSize, final long[] partProgress, final String eTag) {
         if (getObjectRequest.getSSECustomerKey() == null) {
+            if (partSize > 0) {
+                return new PersistableDownload(
+                        getObjectRequest.getBucketName(),
+                        getObjectRequest.getKey(), getObjectRequest.getVersionId(),
+                        getObjectRequest.getRange(),
+                        getObjectRequest.getResponseHeaders(),
+                        getObjectRequest.isRequesterPays(), file.getAbsolutePath(),
+                        partSize, partProgress, eTag);
+            }
             return new PersistableDownload(
                     getObjectRequest.getBucketName(),
                     getObjectRequest.getKey(), getObjectRequest.getVersionId(),
@@ -150,6 +205,14 @@ public class DownloadImpl extends AbstractTransfer implements Download {
             throw new PauseException(TransferManagerUtils.determinePauseStatus(
                     currentState, forceCancel));
         }
+        if (parallelDownload != null) {
+            parallelDownload.cancel();
+            // Capture how much of each byte range has been downloaded by now
+            return captureDownloadState(getObjectRequest, file,
+                    parallelDownload.getPartSize(),
+                    parallelDownload.getPartProgress(),
+                    parallelDownload.getETag());
+        }
         return persistableDownload;
     }
 }
\ No newline at end of file
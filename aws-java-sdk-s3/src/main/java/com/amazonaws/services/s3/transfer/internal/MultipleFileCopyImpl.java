@@ -0,0 +1,303 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.transfer.Copy;
+import com.amazonaws.services.s3.transfer.MultipleFileCopy;
+import com.amazonaws.services.s3.transfer.Transfer;
+import com.amazonaws.services.s3.transfer.TransferProgress;
+
+/**
+ * Copy of all the objects under a key prefix, which copies objects as they
+ * are listed.
+ * <p>
+ * The source prefix is listed on a thread dedicated to the copy, and each
+ * object listed is copied by a {@link ParallelCopy}; at most a given number
+ * of objects are listed but not yet copied at any time, so listing pauses
+ * while copies catch up. Copies are only referenced while in progress, so the
+ * memory used doesn't grow with the number of objects copied. The total
+ * number of bytes to transfer grows as objects are listed.
+ * <p>
+ * A failure to copy an object doesn't stop the other objects from being
+ * copied, but makes the whole copy fail; a failure to list the source prefix
+ * stops the copy, leaving the copies in progress to complete.
+ */
+public abstract class MultipleFileCopyImpl extends MultipleFileTransfer<Copy>
+        implements MultipleFileCopy {
+
+    private static final Log log = LogFactory.getLog(MultipleFileCopyImpl.class);
+
+    private final String sourceBucketName;
+    private final String sourceKeyPrefix;
+    private final String destinationBucketName;
+    private final String destinationKeyPrefix;
+    private final AmazonS3 s3;
+    private final ExecutorService listingExecutor;
+    private final MultipleFileCopyMonitor pipeline;
+
+    /** The copies in progress. */
+    private final Set<ParallelCopy> activeCopies =
+            Collections.newSetFromMap(new ConcurrentHashMap<ParallelCopy, Boolean>());
+
+    private final AtomicInteger canceledCopies = new AtomicInteger();
+
+    /** The first copy which failed, if any. */
+    private volatile ParallelCopy failedCopy;
+    private long totalBytesListed;
+
+    /**
+     * @param queueSize
+     *            The maximum number of objects listed but not yet copied.
+     */
+    public MultipleFileCopyImpl(String description,
+            TransferProgress transferProgress, ProgressListenerChain progressListenerChain,
+            String sourceBucketName, String sourceKeyPrefix,
+            String destinationBucketName, String destinationKeyPrefix,
+            AmazonS3 s3, int queueSize) {
+        super(description, transferProgress, progressListenerChain,
+                Collections.<Copy>emptySet());
+        this.sourceBucketName = sourceBucketName;
+        this.sourceKeyPrefix = sourceKeyPrefix;
+        this.destinationBucketName = destinationBucketName;
+        this.destinationKeyPrefix = destinationKeyPrefix;
+        this.s3 = s3;
+        this.listingExecutor = Executors.newSingleThreadExecutor(
+                new PipelinedMultipleFileDownloadImpl.ListingThreadFactory());
+        transferProgress.setTotalBytesToTransfer(0);
+        this.pipeline = new MultipleFileCopyMonitor(queueSize);
+        setMonitor(pipeline);
+    }
+
+    /**
+     * Returns the copy of the given object to the given key, notifying the
+     * given listener of its state changes. The copy is started once returned.
+     */
+    protected abstract ParallelCopy copy(S3ObjectSummary summary,
+            String destinationKey, TransferStateChangeListener stateListener);
+
+    /**
+     * Starts listing the source prefix and copying its objects.
+     */
+    public void start() {
+        listingExecutor.execute(new ListingTask());
+        listingExecutor.shutdown();
+    }
+
+    @Override
+    public String getSourceBucketName() {
+        return sourceBucketName;
+    }
+
+    @Override
+    public String getSourceKeyPrefix() {
+        return sourceKeyPrefix;
+    }
+
+    @Override
+    public String getDestinationBucketName() {
+        return destinationBucketName;
+    }
+
+    @Override
+    public String getDestinationKeyPrefix() {
+        return destinationKeyPrefix;
+    }
+
+    /**
+     * Stops listing the source prefix and aborts the copies in progress.
+     */
+    @Override
+    public void abort() {
+        pipeline.abort();
+        if (!listingExecutor.shutdownNow().isEmpty()) {
+            // The listing never started
+            pipeline.listingDone();
+        }
+        for (ParallelCopy copy : activeCopies) {
+            copy.abort();
+        }
+    }
+
+    /**
+     * Sets the final state once the source prefix has been listed and all its
+     * objects copied: failed if listing the prefix or any copy failed,
+     * canceled if any copy was canceled, completed otherwise.
+     */
+    @Override
+    public void collateFinalState() {
+        if (pipeline.getFailure() != null || failedCopy != null)
+            setState(TransferState.Failed);
+        else if (pipeline.isAborted() || canceledCopies.get() > 0)
+            setState(TransferState.Canceled);
+        else
+            setState(TransferState.Completed);
+    }
+
+    /**
+     * Lists the objects under the source prefix, queueing them for copy.
+     */
+    private void list() throws InterruptedException {
+        ObjectListing listing = null;
+        do {
+            if (listing == null) {
+                listing = s3.listObjects(new ListObjectsRequest()
+                        .withBucketName(sourceBucketName)
+                        .withPrefix(sourceKeyPrefix));
+            } else {
+                listing = s3.listNextBatchOfObjects(listing);
+            }
+            for (S3ObjectSummary summary : listing.getObjectSummaries()) {
+                if (pipeline.isStopped())
+                    return;
+                queue(summary);
+            }
+        } while (listing.isTruncated() && !pipeline.isStopped());
+    }
+
+    /**
+     * Starts copying the given object, waiting while too many objects are
+     * queued or being copied.
+     */
+    private void queue(S3ObjectSummary summary) throws InterruptedException {
+        if (!pipeline.acquireTask())
+            return;
+        addTotalBytesToTransfer(summary.getSize());
+        String destinationKey = destinationKeyPrefix
+                + summary.getKey().substring(sourceKeyPrefix.length());
+        ObjectStateListener stateListener = new ObjectStateListener();
+        ParallelCopy copy;
+        try {
+            copy = copy(summary, destinationKey, stateListener);
+        } catch (Throwable t) {
+            pipeline.fail(t);
+            pipeline.taskDone();
+            return;
+        }
+        stateListener.copy = copy;
+        activeCopies.add(copy);
+        // abort() may have missed the copy before it was added
+        if (pipeline.isAborted())
+            copy.abort();
+        else
+            copy.start();
+    }
+
+    private synchronized void addTotalBytesToTransfer(long bytes) {
+        totalBytesListed += bytes;
+        getProgress().setTotalBytesToTransfer(totalBytesListed);
+    }
+
+    private synchronized void copyFailed(ParallelCopy copy) {
+        if (failedCopy == null)
+            failedCopy = copy;
+    }
+
+    private void copyStarted() {
+        synchronized (this) {
+            if (!isDone() && getState() != TransferState.InProgress)
+                setState(TransferState.InProgress);
+        }
+    }
+
+    private final class ListingTask implements Runnable {
+        @Override
+        public void run() {
+            try {
+                list();
+            } catch (InterruptedException e) {
+                // Aborted
+            } catch (Throwable t) {
+                log.debug("Unable to list " + sourceBucketName + "/" + sourceKeyPrefix, t);
+                pipeline.fail(t);
+            } finally {
+                pipeline.listingDone();
+            }
+        }
+    }
+
+    /**
+     * Tracks the state of the copy of a single object.
+     */
+    private final class ObjectStateListener implements TransferStateChangeListener {
+        final AtomicBoolean done = new AtomicBoolean();
+        volatile ParallelCopy copy;
+
+        @Override
+        public void transferStateChanged(Transfer transfer, TransferState state) {
+            if (state == TransferState.InProgress) {
+                copyStarted();
+                return;
+            }
+            if (!transfer.isDone() || !done.compareAndSet(false, true))
+                return;
+            activeCopies.remove(copy);
+            if (state == TransferState.Failed)
+                copyFailed(copy);
+            else if (state == TransferState.Canceled)
+                canceledCopies.incrementAndGet();
+            pipeline.taskDone();
+        }
+    }
+
+    /**
+     * Monitor whose future completes once the source prefix has been listed
+     * and all its objects copied, failing with the first failure if any.
+     */
+    private final class MultipleFileCopyMonitor extends PipelinedTransferMonitor {
+        MultipleFileCopyMonitor(int queueSize) {
+            super(MultipleFileCopyImpl.this, queueSize);
+        }
+
+        @Override
+        protected void allDone() {
+            synchronized (MultipleFileCopyImpl.this) {
+                collateFinalState();
+            }
+        }
+
+        /**
+         * Throws the failure to list the source prefix or of the first
+         * failed copy, if any.
+         */
+        @Override
+        protected Object outcome() throws InterruptedException, ExecutionException {
+            if (getFailure() != null)
+                throw new ExecutionException(getFailure());
+            if (failedCopy != null)
+                failedCopy.getFuture().get();
+            if (getState() == TransferState.Canceled)
+                throw new CancellationException();
+            return true;
+        }
+    }
+}
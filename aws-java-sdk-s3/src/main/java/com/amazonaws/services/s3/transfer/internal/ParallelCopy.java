@@ -0,0 +1,385 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import static com.amazonaws.event.SDKProgressPublisher.publishProgress;
+import static com.amazonaws.event.SDKProgressPublisher.publishRequestBytesTransferred;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.internal.SettableFuture;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadResult;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.GetObjectMetadataRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+import com.amazonaws.services.s3.transfer.TransferManagerConfiguration;
+import com.amazonaws.services.s3.transfer.model.CopyResult;
+
+/**
+ * Copy of an Amazon S3 object whose requests are all sent from the given
+ * executor, without a thread waiting on the copy as a whole.
+ * <p>
+ * Objects over the multi-part copy threshold are copied in parts, each part
+ * being a separate task, and the multipart upload is completed by the task
+ * copying the last part, rather than by polling for the parts to be done.
+ * Only as many parts as there are threads copying parts are submitted at
+ * first, and each part submits the next one once done, so that the parts of
+ * a large copy aren't all queued on the executor at once.
+ * The part size is calculated from the number of threads copying parts, so
+ * that all of them are kept busy. If a part fails to be copied, or the copy is
+ * aborted, the remaining parts are skipped and the multipart upload aborted.
+ */
+public class ParallelCopy implements TransferMonitor {
+
+    private static final Log log = LogFactory.getLog(ParallelCopy.class);
+
+    private final AmazonS3 s3;
+    private final Executor copyExecutor;
+    private final TransferManagerConfiguration configuration;
+    private final int concurrency;
+    private final CopyImpl copy;
+    private final CopyObjectRequest copyObjectRequest;
+    /** Metadata of the source object, or null to fetch it if needed. */
+    private final ObjectMetadata metadata;
+    private final long contentLength;
+    private final ProgressListenerChain listenerChain;
+    private final SettableFuture<CopyResult> future = new SettableFuture<CopyResult>();
+
+    /** Whether the final state of the copy has been set; guarded by this. */
+    private boolean finished;
+
+    /*
+     * State of a multi-part copy
+     */
+    private volatile String uploadId;
+    private AtomicReferenceArray<PartETag> partETags;
+    private final AtomicInteger remainingParts = new AtomicInteger();
+    private CopyPartRequestFactory requestFactory;
+    /** The number of parts submitted or skipped; guarded by requestFactory. */
+    private int submittedParts;
+
+    /**
+     * @param copyExecutor
+     *            The executor from which copy requests are sent.
+     * @param concurrency
+     *            The number of threads of the executor copying parts, or zero
+     *            if unknown.
+     * @param copy
+     *            The copy whose state is updated.
+     * @param metadata
+     *            The metadata of the source object, or null to fetch it before
+     *            starting a multi-part copy.
+     * @param contentLength
+     *            The size of the source object.
+     * @param listenerChain
+     *            The listener notified of the bytes copied, and of the
+     *            progress of multi-part copies.
+     */
+    public ParallelCopy(AmazonS3 s3, Executor copyExecutor,
+            TransferManagerConfiguration configuration, int concurrency,
+            CopyImpl copy, CopyObjectRequest copyObjectRequest,
+            ObjectMetadata metadata, long contentLength,
+            ProgressListenerChain listenerChain) {
+        this.s3 = s3;
+        this.copyExecutor = copyExecutor;
+        this.configuration = configuration;
+        this.concurrency = concurrency;
+        this.copy = copy;
+        this.copyObjectRequest = copyObjectRequest;
+        this.metadata = metadata;
+        this.contentLength = contentLength;
+        this.listenerChain = listenerChain;
+    }
+
+    /**
+     * Returns true if this copy is processed as a multi-part copy.
+     */
+    public boolean isMultipartCopy() {
+        return contentLength > configuration.getMultipartCopyThreshold();
+    }
+
+    /**
+     * Starts the copy.
+     */
+    public void start() {
+        try {
+            copyExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    copy();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fail(new AmazonClientException("Unable to copy "
+                    + copyObjectRequest.getSourceKey()
+                    + ": the transfer manager has been shut down", e));
+        }
+    }
+
+    /**
+     * Cancels this copy. Requests in flight are left to complete, but no more
+     * parts are copied, and the multipart upload of a multi-part copy is
+     * aborted once its parts in flight are done.
+     */
+    public void abort() {
+        synchronized (this) {
+            if (finished)
+                return;
+            finished = true;
+            copy.setState(TransferState.Canceled);
+        }
+        publishProgress(listenerChain, ProgressEventType.TRANSFER_CANCELED_EVENT);
+        future.cancel(false);
+    }
+
+    @Override
+    public Future<CopyResult> getFuture() {
+        return future;
+    }
+
+    @Override
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    private synchronized boolean isFinished() {
+        return finished;
+    }
+
+    private void copy() {
+        synchronized (this) {
+            if (finished)
+                return;
+            copy.setState(TransferState.InProgress);
+        }
+        try {
+            if (isMultipartCopy()) {
+                publishProgress(listenerChain, ProgressEventType.TRANSFER_STARTED_EVENT);
+                copyInParts();
+            } else {
+                complete(copyInOneChunk());
+            }
+        } catch (Throwable t) {
+            fail(t);
+        }
+    }
+
+    private CopyResult copyInOneChunk() {
+        CopyObjectResult copyObjectResult = s3.copyObject(copyObjectRequest);
+        publishRequestBytesTransferred(listenerChain, contentLength);
+
+        CopyResult copyResult = new CopyResult();
+        copyResult.setSourceBucketName(copyObjectRequest.getSourceBucketName());
+        copyResult.setSourceKey(copyObjectRequest.getSourceKey());
+        copyResult.setDestinationBucketName(copyObjectRequest
+                .getDestinationBucketName());
+        copyResult.setDestinationKey(copyObjectRequest.getDestinationKey());
+        copyResult.setETag(copyObjectResult.getETag());
+        copyResult.setVersionId(copyObjectResult.getVersionId());
+        return copyResult;
+    }
+
+    /**
+     * Initiates the multipart upload, and submits a task for each of the
+     * first parts.
+     */
+    private void copyInParts() {
+        ObjectMetadata sourceMetadata = metadata;
+        if (sourceMetadata == null) {
+            sourceMetadata = s3.getObjectMetadata(new GetObjectMetadataRequest(
+                    copyObjectRequest.getSourceBucketName(),
+                    copyObjectRequest.getSourceKey())
+                    .withVersionId(copyObjectRequest.getSourceVersionId())
+                    .withSSECustomerKey(copyObjectRequest.getSourceSSECustomerKey()));
+        }
+        uploadId = s3.initiateMultipartUpload(
+                CopyCallable.newInitiateMultipartUploadRequest(copyObjectRequest, sourceMetadata))
+                .getUploadId();
+
+        long partSize = TransferManagerUtils.calculateAdaptivePartSizeForCopy(
+                configuration, contentLength, concurrency);
+        log.debug("Initiated new multipart upload: " + uploadId
+                + ", copying parts of " + partSize + " bytes");
+
+        int numberOfParts = (int) ((contentLength + partSize - 1) / partSize);
+        requestFactory = new CopyPartRequestFactory(copyObjectRequest,
+                uploadId, partSize, contentLength);
+        partETags = new AtomicReferenceArray<PartETag>(numberOfParts);
+        remainingParts.set(numberOfParts);
+        for (int i = 0; i < Math.max(concurrency, 1); i++) {
+            submitNextPart();
+        }
+    }
+
+    /**
+     * Submits a task copying the next part, if any. If the copy failed or was
+     * aborted, all the parts left are skipped instead.
+     */
+    private void submitNextPart() {
+        int index;
+        CopyPartRequest request = null;
+        int skippedParts = 0;
+        synchronized (requestFactory) {
+            index = submittedParts;
+            if (index == partETags.length())
+                return;
+            if (isFinished()) {
+                skippedParts = partETags.length() - index;
+                submittedParts = partETags.length();
+            } else {
+                request = requestFactory.getNextCopyPartRequest();
+                submittedParts++;
+            }
+        }
+        if (request == null) {
+            partsDone(skippedParts);
+            return;
+        }
+        try {
+            copyExecutor.execute(new CopyPartTask(index, request));
+        } catch (RejectedExecutionException e) {
+            fail(new AmazonClientException("Unable to copy part of "
+                    + copyObjectRequest.getSourceKey()
+                    + ": the transfer manager has been shut down", e));
+            submitNextPart();
+            partsDone(1);
+        }
+    }
+
+    /**
+     * Called once the given number of parts have been copied, failed or been
+     * skipped. Completes the multipart upload once all parts have been copied,
+     * or aborts it if the copy failed or was aborted.
+     */
+    private void partsDone(int count) {
+        if (remainingParts.addAndGet(-count) != 0)
+            return;
+        if (isFinished()) {
+            abortMultipartUpload();
+            return;
+        }
+        try {
+            complete(completeMultipartUpload());
+        } catch (Throwable t) {
+            fail(t);
+            abortMultipartUpload();
+        }
+    }
+
+    private CopyResult completeMultipartUpload() {
+        List<PartETag> etags = new ArrayList<PartETag>(partETags.length());
+        for (int i = 0; i < partETags.length(); i++) {
+            etags.add(partETags.get(i));
+        }
+        CompleteMultipartUploadResult completeMultipartUploadResult = s3
+                .completeMultipartUpload(new CompleteMultipartUploadRequest(
+                        copyObjectRequest.getDestinationBucketName(),
+                        copyObjectRequest.getDestinationKey(), uploadId, etags));
+
+        CopyResult copyResult = new CopyResult();
+        copyResult.setSourceBucketName(copyObjectRequest.getSourceBucketName());
+        copyResult.setSourceKey(copyObjectRequest.getSourceKey());
+        copyResult.setDestinationBucketName(completeMultipartUploadResult
+                .getBucketName());
+        copyResult.setDestinationKey(completeMultipartUploadResult.getKey());
+        copyResult.setETag(completeMultipartUploadResult.getETag());
+        copyResult.setVersionId(completeMultipartUploadResult.getVersionId());
+        return copyResult;
+    }
+
+    private void abortMultipartUpload() {
+        try {
+            s3.abortMultipartUpload(new AbortMultipartUploadRequest(
+                    copyObjectRequest.getDestinationBucketName(),
+                    copyObjectRequest.getDestinationKey(), uploadId));
+        } catch (Exception e) {
+            log.info(
+                    "Unable to abort multipart upload, you may need to manually remove uploaded parts: "
+                            + e.getMessage(), e);
+        }
+    }
+
+    private void complete(CopyResult result) {
+        synchronized (this) {
+            if (finished)
+                return;
+            finished = true;
+            copy.setState(TransferState.Completed);
+        }
+        // AmazonS3Client takes care of all the events for single part copies,
+        // so we only need to send a completed event for multi-part copies.
+        if (isMultipartCopy())
+            publishProgress(listenerChain, ProgressEventType.TRANSFER_COMPLETED_EVENT);
+        future.set(result);
+    }
+
+    private void fail(Throwable t) {
+        synchronized (this) {
+            if (finished)
+                return;
+            finished = true;
+            copy.setState(TransferState.Failed);
+        }
+        publishProgress(listenerChain, ProgressEventType.TRANSFER_FAILED_EVENT);
+        future.setException(t);
+    }
+
+    private final class CopyPartTask implements Runnable {
+        private final int index;
+        private final CopyPartRequest request;
+
+        CopyPartTask(int index, CopyPartRequest request) {
+            this.index = index;
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!isFinished()) {
+                    partETags.set(index, s3.copyPart(request).getPartETag());
+                    publishRequestBytesTransferred(listenerChain,
+                            request.getLastByte() - request.getFirstByte() + 1);
+                }
+            } catch (Throwable t) {
+                fail(t);
+            } finally {
+                // Submitted before this part is counted as done, so that the
+                // multipart upload isn't completed with parts left
+                submitNextPart();
+                partsDone(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import static com.amazonaws.event.SDKProgressPublisher.publishProgress;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AbortedException;
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.event.ProgressEventType;
+import com.amazonaws.event.ProgressListener;
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.internal.BufferPool;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+import com.amazonaws.services.s3.transfer.TransferManager;
+import com.amazonaws.util.IOUtils;
+
+/**
+ * An implementation of the Callable interface that helps
+ * <code>TransferManager</code> download an object as multiple byte ranges
+ * fetched in parallel. Each range is written to its position in the
+ * destination file as it arrives, so the ranges can complete in any order.
+ * <p>
+ * The number of bytes of each range written to the file is tracked, so that
+ * a paused download can be resumed without downloading those bytes again.
+ * <p>
+ * The thread running this callable downloads ranges itself, alongside the
+ * workers it submits to the thread pool, so the download makes progress even
+ * when all the other threads of the pool are busy.
+ */
+public class ParallelDownloadCallable implements Callable<Object> {
+    private static final Log log = LogFactory.getLog(ParallelDownloadCallable.class);
+
+    /** Size of the buffer used to copy each range to the file. */
+    private static final int BUFFER_SIZE = 128 * 1024;
+
+    /** Number of times the download of a range is resumed after a failure. */
+    private static final int MAX_RANGE_RETRIES = 1;
+
+    private final AmazonS3 s3;
+    private final ExecutorService threadPool;
+    /** A reference to the original download request received. */
+    private final GetObjectRequest getObjectRequest;
+    /** ETag of the object, to make sure all ranges come from the same object. */
+    private final String eTag;
+    private final File file;
+    private final DownloadImpl download;
+    private final ProgressListenerChain listenerChain;
+    /** Listener for the range requests, which filters their start and completion events. */
+    private final ProgressListener rangeListener;
+    private final CountDownLatch latch;
+
+    private final long firstByte;
+    private final long lastByte;
+    private final long partSize;
+    /** Maximum number of ranges downloaded at the same time. */
+    private final int concurrency;
+    /** Number of bytes of each range written to the file */
+    private final AtomicLongArray partProgress;
+    private final boolean resumeExistingDownload;
+
+    private final Queue<Integer> pendingParts = new ConcurrentLinkedQueue<Integer>();
+    private final List<Future<?>> workers = new ArrayList<Future<?>>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+    private volatile CountDownLatch remainingParts;
+
+    /**
+     * @param latch
+     *            latch the download waits on before starting, so that its
+     *            monitor can be set first.
+     * @param partProgress
+     *            number of bytes of each range already written to the file
+     *            when resuming a download; all zero otherwise.
+     * @param concurrency
+     *            maximum number of ranges downloaded at the same time,
+     *            including by the thread running this callable.
+     */
+    public ParallelDownloadCallable(AmazonS3 s3, ExecutorService threadPool,
+            GetObjectRequest getObjectRequest, String eTag, File file,
+            DownloadImpl download, ProgressListenerChain listenerChain,
+            ProgressListener rangeListener, CountDownLatch latch,
+            long firstByte, long lastByte, long partSize, long[] partProgress,
+            int concurrency, boolean resumeExistingDownload) {
+        this.s3 = s3;
+        this.threadPool = threadPool;
+        this.getObjectRequest = getObjectRequest;
+        this.eTag = eTag;
+        this.file = file;
+        this.download = download;
+        this.listenerChain = listenerChain;
+        this.rangeListener = rangeListener;
+        this.latch = latch;
+        this.firstByte = firstByte;
+        this.lastByte = lastByte;
+        this.partSize = partSize;
+        this.partProgress = new AtomicLongArray(partProgress);
+        this.concurrency = Math.max(concurrency, 1);
+        this.resumeExistingDownload = resumeExistingDownload;
+    }
+
+    /**
+     * Returns the number of byte ranges an object of the given size is split
+     * into for the given range size.
+     */
+    public static int getNumberOfParts(long totalBytes, long partSize) {
+        return (int) ((totalBytes + partSize - 1) / partSize);
+    }
+
+    /**
+     * Returns a snapshot of the number of bytes of each range written to the
+     * file so far.
+     */
+    public long[] getPartProgress() {
+        long[] progress = new long[partProgress.length()];
+        for (int i = 0; i < progress.length; i++) {
+            progress[i] = partProgress.get(i);
+        }
+        return progress;
+    }
+
+    public long getPartSize() {
+        return partSize;
+    }
+
+    /**
+     * Returns the ETag the ranges of this download are required to match.
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    @Override
+    public Object call() throws Exception {
+        try {
+            latch.await();
+            download.setState(TransferState.InProgress);
+            publishProgress(listenerChain, ProgressEventType.TRANSFER_STARTED_EVENT);
+            prepareFile();
+
+            for (int i = 0; i < partProgress.length(); i++) {
+                if (partProgress.get(i) < getPartLength(i)) {
+                    pendingParts.add(i);
+                }
+            }
+            remainingParts = new CountDownLatch(pendingParts.size());
+            // This thread downloads ranges too, so it counts towards the
+            // concurrency of the download
+            submitWorkers(Math.min(pendingParts.size(), concurrency) - 1);
+            downloadPendingParts();
+            remainingParts.await();
+
+            Throwable t = failure.get();
+            if (t != null) {
+                if (t instanceof Exception)
+                    throw (Exception) t;
+                else
+                    throw (Error) t;
+            }
+            download.setState(TransferState.Completed);
+            return true;
+        } catch (Throwable t) {
+            cancel();
+            // Downloads aren't allowed to move from canceled to failed
+            if (download.getState() != TransferState.Canceled) {
+                download.setState(TransferState.Failed);
+            }
+            if (t instanceof Exception)
+                throw (Exception) t;
+            else
+                throw (Error) t;
+        }
+    }
+
+    /**
+     * Stops the workers downloading the ranges of this download.
+     */
+    public void cancel() {
+        synchronized (workers) {
+            for (Future<?> worker : workers) {
+                worker.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Creates the destination file, sized to hold the whole download, so that
+     * each range can be written to its position as it arrives.
+     */
+    private void prepareFile() throws IOException {
+        File parentDirectory = file.getParentFile();
+        if ( parentDirectory != null && !parentDirectory.exists() ) {
+            if (!(parentDirectory.mkdirs())) {
+                throw new AmazonClientException(
+                        "Unable to create directory in the path"
+                                + parentDirectory.getAbsolutePath());
+            }
+        }
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            if (!resumeExistingDownload) {
+                randomAccessFile.setLength(0);
+            }
+            randomAccessFile.setLength(lastByte - firstByte + 1);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private void submitWorkers(int count) {
+        synchronized (workers) {
+            for (int i = 0; i < count; i++) {
+                try {
+                    workers.add(threadPool.submit(new Callable<Object>() {
+                        @Override
+                        public Object call() {
+                            downloadPendingParts();
+                            return null;
+                        }
+                    }));
+                } catch (RejectedExecutionException e) {
+                    // The ranges will be downloaded by the threads already running
+                    log.debug("Unable to submit a worker for a parallel download", e);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Downloads ranges until none are left, or one of them failed.
+     */
+    private void downloadPendingParts() {
+        Integer part;
+        while (failure.get() == null && (part = pendingParts.poll()) != null) {
+            try {
+                downloadPart(part);
+            } catch (Throwable t) {
+                fail(t);
+            } finally {
+                remainingParts.countDown();
+            }
+        }
+    }
+
+    /**
+     * Records the failure of the download, and gives up on the ranges not
+     * started yet.
+     */
+    private void fail(Throwable t) {
+        if (!failure.compareAndSet(null, t)) {
+            return;
+        }
+        while (pendingParts.poll() != null) {
+            remainingParts.countDown();
+        }
+        cancel();
+    }
+
+    private long getPartLength(int part) {
+        long start = firstByte + part * partSize;
+        return Math.min(start + partSize - 1, lastByte) - start + 1;
+    }
+
+    /**
+     * Downloads the rest of the given range, resuming from the last byte
+     * written to the file if the transfer of the range fails.
+     */
+    private void downloadPart(int part) {
+        long start = firstByte + part * partSize;
+        long end = Math.min(start + partSize - 1, lastByte);
+        int retries = 0;
+        while (true) {
+            long position = start + partProgress.get(part);
+            if (position > end) {
+                return;
+            }
+            S3Object s3Object = s3.getObject(createRangeRequest(position, end));
+            if (s3Object == null) {
+                throw new AmazonClientException("Object " + getObjectRequest.getKey()
+                        + " in bucket " + getObjectRequest.getBucketName()
+                        + " was modified while being downloaded");
+            }
+            try {
+                writePart(part, s3Object, position);
+                return;
+            } catch (AmazonClientException ace) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // The download has been paused or canceled
+                    throw new AbortedException(ace);
+                }
+                if (ace instanceof AbortedException || !ace.isRetryable()
+                        || retries++ >= MAX_RANGE_RETRIES) {
+                    throw ace;
+                }
+                log.info("Retry the download of bytes " + position + "-" + end
+                        + " of object " + getObjectRequest.getKey() + " (bucket "
+                        + getObjectRequest.getBucketName() + ")", ace);
+            } finally {
+                s3Object.getObjectContent().abort();
+            }
+        }
+    }
+
+    /**
+     * Writes the content of the given range to the file, starting at the
+     * given position.
+     */
+    private void writePart(int part, S3Object s3Object, long position) {
+        RandomAccessFile randomAccessFile = null;
+        byte[] buffer = BufferPool.acquire(BUFFER_SIZE);
+        try {
+            randomAccessFile = new RandomAccessFile(file, "rw");
+            FileChannel channel = randomAccessFile.getChannel();
+            InputStream content = s3Object.getObjectContent();
+            ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+            int bytesRead;
+            while ((bytesRead = content.read(buffer)) > -1) {
+                byteBuffer.clear();
+                byteBuffer.limit(bytesRead);
+                while (byteBuffer.hasRemaining()) {
+                    position += channel.write(byteBuffer, position);
+                }
+                partProgress.addAndGet(part, bytesRead);
+            }
+        } catch (IOException e) {
+            throw new AmazonClientException(
+                    "Unable to store object contents to disk: " + e.getMessage(), e);
+        } finally {
+            BufferPool.release(buffer);
+            IOUtils.closeQuietly(randomAccessFile, log);
+        }
+    }
+
+    private GetObjectRequest createRangeRequest(long start, long end) {
+        GetObjectRequest request = new GetObjectRequest(
+                getObjectRequest.getBucketName(), getObjectRequest.getKey(),
+                getObjectRequest.getVersionId())
+            .withRange(start, end)
+            .withResponseHeaders(getObjectRequest.getResponseHeaders())
+            .withSSECustomerKey(getObjectRequest.getSSECustomerKey());
+        if (eTag != null) {
+            request.withMatchingETagConstraint(eTag);
+        }
+        request.setRequesterPays(getObjectRequest.isRequesterPays());
+        request.setRequestCredentials(getObjectRequest.getRequestCredentials());
+        request.setGeneralProgressListener(rangeListener);
+        return TransferManager.appendMultipartUserAgent(request);
+    }
+}
@@ -0,0 +1,403 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.event.ProgressListenerChain;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.amazonaws.services.s3.transfer.Download;
+import com.amazonaws.services.s3.transfer.MultipleFileDownload;
+import com.amazonaws.services.s3.transfer.Transfer;
+import com.amazonaws.services.s3.transfer.TransferProgress;
+
+/**
+ * Download of a virtual directory which downloads objects as they are listed,
+ * rather than once the whole directory has been listed.
+ * <p>
+ * Virtual subdirectories are listed concurrently on threads dedicated to the
+ * download. Each object listed is handed to the thread pool of the transfer
+ * manager to be downloaded; at most a given number of objects are listed but
+ * not yet downloaded at any time, so listing pauses while downloads catch up.
+ * Downloads are only referenced while in progress, so the memory used doesn't
+ * grow with the size of the directory. The total number of bytes to transfer
+ * grows as objects are listed.
+ */
+public abstract class PipelinedMultipleFileDownloadImpl extends MultipleFileTransfer<Download>
+        implements MultipleFileDownload {
+
+    private static final Log log = LogFactory.getLog(PipelinedMultipleFileDownloadImpl.class);
+
+    private static final String DELIMITER = "/";
+
+    private final String keyPrefix;
+    private final String bucketName;
+    private final AmazonS3 s3;
+    private final Executor downloadExecutor;
+    private final ExecutorService listingExecutor;
+    private final PipelinedDownloadMonitor pipeline;
+
+    /** The downloads in progress. */
+    private final Set<Download> activeDownloads;
+
+    /** The number of prefixes being or waiting to be listed. */
+    private final AtomicInteger pendingListings = new AtomicInteger();
+
+    private final Queue<Download> failedDownloads = new ConcurrentLinkedQueue<Download>();
+    private final AtomicInteger canceledDownloads = new AtomicInteger();
+    private long totalBytesListed;
+
+    /**
+     * @param listingConcurrency
+     *            The number of virtual subdirectories listed concurrently.
+     * @param queueSize
+     *            The maximum number of objects listed but not yet
+     *            downloaded.
+     */
+    public PipelinedMultipleFileDownloadImpl(String description,
+            TransferProgress transferProgress, ProgressListenerChain progressListenerChain,
+            String keyPrefix, String bucketName, AmazonS3 s3, Executor downloadExecutor,
+            int listingConcurrency, int queueSize) {
+        this(description, transferProgress, progressListenerChain, keyPrefix,
+                bucketName, s3, downloadExecutor, listingConcurrency, queueSize,
+                Collections.newSetFromMap(new ConcurrentHashMap<Download, Boolean>()));
+    }
+
+    private PipelinedMultipleFileDownloadImpl(String description,
+            TransferProgress transferProgress, ProgressListenerChain progressListenerChain,
+            String keyPrefix, String bucketName, AmazonS3 s3, Executor downloadExecutor,
+            int listingConcurrency, int queueSize, Set<Download> activeDownloads) {
+        super(description, transferProgress, progressListenerChain, activeDownloads);
+        this.keyPrefix = keyPrefix;
+        this.bucketName = bucketName;
+        this.s3 = s3;
+        this.downloadExecutor = downloadExecutor;
+        this.activeDownloads = activeDownloads;
+        this.listingExecutor = Executors.newFixedThreadPool(
+                Math.max(listingConcurrency, 1), new ListingThreadFactory());
+        transferProgress.setTotalBytesToTransfer(0);
+        this.pipeline = new PipelinedDownloadMonitor(queueSize);
+        setMonitor(pipeline);
+    }
+
+    /**
+     * Starts the download of the given object, notifying the given listener
+     * of its state changes.
+     */
+    protected abstract Download download(S3ObjectSummary summary,
+            TransferStateChangeListener stateListener);
+
+    /**
+     * Starts listing the directory and downloading its objects.
+     */
+    public void start() {
+        listPrefix(keyPrefix);
+    }
+
+    /**
+     * Returns the key prefix of the virtual directory being downloaded.
+     */
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    /**
+     * Returns the name of the bucket from which files are downloaded.
+     */
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    /**
+     * Stops listing the directory and aborts the downloads in progress.
+     */
+    public void abort() throws IOException {
+        pipeline.abort();
+        for (int i = listingExecutor.shutdownNow().size(); i > 0; i--) {
+            listingDone();
+        }
+        // As in MultipleFileDownloadImpl, cancel all the downloads before
+        // notifying the state change listeners
+        Download[] downloads = activeDownloads.toArray(new Download[0]);
+        for (Download download : downloads) {
+            ((DownloadImpl) download).abortWithoutNotifyingStateChangeListener();
+        }
+        for (Download download : downloads) {
+            ((DownloadImpl) download).notifyStateChangeListeners(TransferState.Canceled);
+        }
+    }
+
+    /**
+     * Sets the final state once the directory has been listed and all its
+     * downloads are done: failed if listing the directory or any download
+     * failed, canceled if any download was canceled, completed otherwise.
+     */
+    @Override
+    public void collateFinalState() {
+        if (pipeline.getFailure() != null || firstFailedDownload() != null)
+            setState(TransferState.Failed);
+        else if (pipeline.isAborted() || canceledDownloads.get() > 0)
+            setState(TransferState.Canceled);
+        else
+            setState(TransferState.Completed);
+    }
+
+    /**
+     * Returns the first download which failed, or null if none did. Downloads
+     * interrupted by {@link #abort()} may report a failure before being
+     * marked as canceled, so the current state of each is checked.
+     */
+    private Download firstFailedDownload() {
+        for (Download download : failedDownloads) {
+            if (download.getState() == TransferState.Failed)
+                return download;
+        }
+        return null;
+    }
+
+    private void listPrefix(String prefix) {
+        pendingListings.incrementAndGet();
+        try {
+            listingExecutor.execute(new ListingTask(prefix));
+        } catch (RejectedExecutionException e) {
+            // Aborted
+            listingDone();
+        }
+    }
+
+    private void listingDone() {
+        if (pendingListings.decrementAndGet() == 0) {
+            listingExecutor.shutdown();
+            pipeline.listingDone();
+        }
+    }
+
+    /**
+     * Lists the objects directly under the given prefix, queueing them for
+     * download, and its subdirectories, queueing them to be listed.
+     */
+    private void list(String prefix) throws InterruptedException {
+        ObjectListing listing = null;
+        do {
+            if (listing == null) {
+                listing = s3.listObjects(new ListObjectsRequest()
+                        .withBucketName(bucketName)
+                        .withDelimiter(DELIMITER).withPrefix(prefix));
+            } else {
+                listing = s3.listNextBatchOfObjects(listing);
+            }
+            List<String> commonPrefixes = listing.getCommonPrefixes();
+            for (String commonPrefix : commonPrefixes) {
+                listPrefix(commonPrefix);
+            }
+            for (S3ObjectSummary summary : listing.getObjectSummaries()) {
+                if (pipeline.isStopped())
+                    return;
+                // Skip any files that are also virtual directories, since
+                // we can't save both a directory and a file of the same name.
+                if (summary.getKey().equals(prefix)
+                        || commonPrefixes.contains(summary.getKey() + DELIMITER)) {
+                    log.debug("Skipping download for object " + summary.getKey()
+                            + " since it is also a virtual directory");
+                    continue;
+                }
+                queue(summary);
+            }
+        } while (listing.isTruncated() && !pipeline.isStopped());
+    }
+
+    /**
+     * Queues the given object for download, waiting while too many objects
+     * are queued or being downloaded.
+     */
+    private void queue(S3ObjectSummary summary) throws InterruptedException {
+        if (!pipeline.acquireTask())
+            return;
+        addTotalBytesToTransfer(summary.getSize());
+        try {
+            downloadExecutor.execute(new DownloadTask(summary));
+        } catch (RejectedExecutionException e) {
+            pipeline.fail(new AmazonClientException("Unable to download " + summary.getKey()
+                    + ": the transfer manager has been shut down", e));
+            pipeline.taskDone();
+        }
+    }
+
+    private synchronized void addTotalBytesToTransfer(long bytes) {
+        totalBytesListed += bytes;
+        getProgress().setTotalBytesToTransfer(totalBytesListed);
+    }
+
+    private void downloadStarted() {
+        synchronized (this) {
+            if (!isDone() && getState() != TransferState.InProgress)
+                setState(TransferState.InProgress);
+        }
+    }
+
+    private final class ListingTask implements Runnable {
+        private final String prefix;
+
+        ListingTask(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (!pipeline.isStopped())
+                    list(prefix);
+            } catch (InterruptedException e) {
+                // Aborted
+            } catch (Throwable t) {
+                log.debug("Unable to list " + bucketName + "/" + prefix, t);
+                pipeline.fail(t);
+            } finally {
+                listingDone();
+            }
+        }
+    }
+
+    private final class DownloadTask implements Runnable {
+        private final S3ObjectSummary summary;
+
+        DownloadTask(S3ObjectSummary summary) {
+            this.summary = summary;
+        }
+
+        @Override
+        public void run() {
+            if (pipeline.isStopped()) {
+                pipeline.taskDone();
+                return;
+            }
+            ObjectStateListener stateListener = new ObjectStateListener();
+            Download download;
+            try {
+                download = download(summary, stateListener);
+            } catch (Throwable t) {
+                pipeline.fail(t);
+                pipeline.taskDone();
+                return;
+            }
+            activeDownloads.add(download);
+            // The download may have completed, or been missed by abort(),
+            // before being added to the active downloads
+            if (stateListener.done.get()) {
+                activeDownloads.remove(download);
+            } else if (pipeline.isAborted()) {
+                try {
+                    download.abort();
+                } catch (Exception e) {
+                    log.debug("Unable to abort the download of " + summary.getKey(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tracks the state of the download of a single object.
+     */
+    private final class ObjectStateListener implements TransferStateChangeListener {
+        final AtomicBoolean done = new AtomicBoolean();
+
+        @Override
+        public void transferStateChanged(Transfer transfer, TransferState state) {
+            if (state == TransferState.InProgress) {
+                downloadStarted();
+                return;
+            }
+            if (!transfer.isDone() || !done.compareAndSet(false, true))
+                return;
+            activeDownloads.remove(transfer);
+            if (state == TransferState.Failed)
+                failedDownloads.add((Download) transfer);
+            else if (state == TransferState.Canceled)
+                canceledDownloads.incrementAndGet();
+            pipeline.taskDone();
+        }
+    }
+
+    /**
+     * Monitor whose future completes once the directory has been listed and
+     * all its objects downloaded, failing with the first failure if any.
+     */
+    private final class PipelinedDownloadMonitor extends PipelinedTransferMonitor {
+        PipelinedDownloadMonitor(int queueSize) {
+            super(PipelinedMultipleFileDownloadImpl.this, queueSize);
+        }
+
+        @Override
+        protected void allDone() {
+            synchronized (PipelinedMultipleFileDownloadImpl.this) {
+                collateFinalState();
+            }
+        }
+
+        /**
+         * Throws the failure to list the directory, if any, or the failure of
+         * the first failed download.
+         */
+        @Override
+        protected Object outcome() throws InterruptedException, ExecutionException {
+            if (getFailure() != null)
+                throw new ExecutionException(getFailure());
+            Download failedDownload = firstFailedDownload();
+            if (failedDownload != null)
+                ((AbstractTransfer) failedDownload).getMonitor().getFuture().get();
+            else if (getState() == TransferState.Canceled)
+                throw new CancellationException();
+            return true;
+        }
+    }
+
+    /**
+     * Names the listing threads, and makes them daemon threads so that an
+     * abandoned transfer does not prevent the JVM from exiting.
+     */
+    static final class ListingThreadFactory implements ThreadFactory {
+        private static final AtomicInteger threadCount = new AtomicInteger(0);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r);
+            thread.setName("S3TransferManagerListingThread-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
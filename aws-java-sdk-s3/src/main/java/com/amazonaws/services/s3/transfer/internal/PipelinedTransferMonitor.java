@@ -0,0 +1,199 @@
+/*
+ * Copyright 2015 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License").
+ * You may not use this file except in compliance with the License.
+ * A copy of the License is located at
+ *
+ *  http://aws.amazon.com/apache2.0
+ *
+ * or in the "license" file accompanying this file. This file is distributed
+ * on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ * express or implied. See the License for the specific language governing
+ * permissions and limitations under the License.
+ */
+package com.amazonaws.services.s3.transfer.internal;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.services.s3.transfer.Transfer.TransferState;
+
+/**
+ * Monitor of a transfer which starts a task for each object as the objects
+ * are listed, rather than once all of them have been listed.
+ * <p>
+ * At most a given number of tasks are pending at any time, so that listing
+ * pauses while the tasks catch up. The transfer is done once the listing is
+ * done and so are all the tasks it started, at which point
+ * {@link #allDone()} sets the final state of the transfer, and the future of
+ * this monitor completes with the result of {@link #outcome()}.
+ */
+public abstract class PipelinedTransferMonitor implements TransferMonitor {
+
+    private final AbstractTransfer transfer;
+
+    /** Bounds the number of tasks pending. */
+    private final Semaphore pendingTasks;
+
+    /** The number of tasks pending, plus one until the listing is done. */
+    private final AtomicInteger outstanding = new AtomicInteger(1);
+
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    /** The first failure which stopped the listing, if any. */
+    private volatile Throwable failure;
+    private volatile boolean stopped;
+    private volatile boolean aborted;
+
+    private final Future<Object> future = new Future<Object>() {
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return transfer.getState() == TransferState.Canceled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        @Override
+        public Object get() throws InterruptedException, ExecutionException {
+            done.await();
+            return outcome();
+        }
+
+        @Override
+        public Object get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            if (!done.await(timeout, unit))
+                throw new TimeoutException();
+            return outcome();
+        }
+    };
+
+    /**
+     * @param transfer
+     *            The transfer monitored.
+     * @param maxPendingTasks
+     *            The maximum number of tasks started but not yet done.
+     */
+    protected PipelinedTransferMonitor(AbstractTransfer transfer, int maxPendingTasks) {
+        this.transfer = transfer;
+        this.pendingTasks = new Semaphore(Math.max(maxPendingTasks, 1));
+    }
+
+    @Override
+    public Future<?> getFuture() {
+        return future;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    /**
+     * Waits while too many tasks are pending, then counts a new task as
+     * pending, unless the listing has been stopped meanwhile.
+     *
+     * @return True if a task was counted, which must be followed by a call
+     *         to {@link #taskDone()}; false if the listing has been stopped.
+     */
+    public boolean acquireTask() throws InterruptedException {
+        pendingTasks.acquire();
+        if (stopped) {
+            pendingTasks.release();
+            return false;
+        }
+        outstanding.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Called when a task is done, successfully or not.
+     */
+    public void taskDone() {
+        pendingTasks.release();
+        outstandingDone();
+    }
+
+    /**
+     * Called once the listing is done, or won't be started.
+     */
+    public void listingDone() {
+        outstandingDone();
+    }
+
+    private void outstandingDone() {
+        if (outstanding.decrementAndGet() != 0)
+            return;
+        allDone();
+        done.countDown();
+    }
+
+    /**
+     * Records the given failure, and stops the listing. The tasks already
+     * started are left to complete. Failures caused by {@link #abort()}
+     * interrupting the listing are ignored.
+     */
+    public void fail(Throwable t) {
+        if (aborted)
+            return;
+        synchronized (this) {
+            if (failure == null)
+                failure = t;
+        }
+        stopped = true;
+    }
+
+    /**
+     * Stops the listing, as the transfer is being aborted.
+     */
+    public void abort() {
+        aborted = true;
+        stopped = true;
+    }
+
+    /**
+     * Returns the first failure which stopped the listing, or null if none
+     * did.
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns true if the listing has been stopped, by a failure or by
+     * {@link #abort()}.
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * Sets the final state of the transfer, once the listing and all its
+     * tasks are done.
+     */
+    protected abstract void allDone();
+
+    /**
+     * Returns the result of the transfer once done, or throws the failure
+     * reported for it.
+     */
+    protected abstract Object outcome() throws InterruptedException, ExecutionException;
+}
@@ -15,11 +15,15 @@
 package com.amazonaws.services.s3.transfer.internal;
 
 import static com.amazonaws.services.s3.internal.Constants.MAXIMUM_UPLOAD_PARTS;
+import static com.amazonaws.services.s3.internal.Constants.MB;
 
 import java.io.File;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.PutObjectRequest;
@@ -32,6 +36,15 @@ import com.amazonaws.services.s3.transfer.TransferManagerConfiguration;
  */
 public class TransferManagerUtils {
 
+    /** The minimum size of a part of a multi-part copy accepted by Amazon S3. */
+    private static final long MINIMUM_COPY_PART_SIZE = 5 * MB;
+
+    /**
+     * The number of parts of a multi-part copy each copy thread is given, so
+     * that a thread finishing its part early keeps copying.
+     */
+    private static final int COPY_PARTS_PER_THREAD = 4;
+
     /**
      * Returns a new thread pool configured with the default settings.
      *
@@ -50,6 +63,31 @@ public class TransferManagerUtils {
         return (ThreadPoolExecutor)Executors.newFixedThreadPool(10, threadFactory);
     }
 
+    /**
+     * Returns a new thread pool dedicated to copy and copy part requests,
+     * whose threads exit once idle for a minute.
+     *
+     * @param copyConcurrency
+     *            The number of copy requests sent concurrently.
+     * @return A new thread pool for copies.
+     */
+    public static ThreadPoolExecutor createCopyExecutorService(int copyConcurrency) {
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger(0);
+
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r);
+                thread.setName("s3-transfer-manager-copy-worker-" + threadCount.incrementAndGet());
+                return thread;
+            }
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(copyConcurrency,
+                copyConcurrency, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Returns true if the specified upload request can use parallel part
      * uploads for increased performance.
@@ -164,6 +202,38 @@ public class TransferManagerUtils {
                 configuration.getMultipartCopyPartSize());
     }
 
+    /**
+     * Calculates the part size of a multi-part copy whose parts are copied by
+     * the given number of threads. The configured part size is reduced so
+     * that each thread has several parts to copy, but never below the minimum
+     * part size accepted by Amazon S3, nor so much that the copy would have
+     * more parts than Amazon S3 allows.
+     *
+     * @param configuration
+     *            configuration containing the default part size.
+     * @param contentLengthOfSource
+     *            content length of the Amazon S3 object.
+     * @param concurrency
+     *            the number of threads copying parts, or zero if unknown, in
+     *            which case the configured part size is not reduced.
+     * @return the part size for a copy part request.
+     */
+    public static long calculateAdaptivePartSizeForCopy(
+            TransferManagerConfiguration configuration,
+            long contentLengthOfSource, int concurrency) {
+        long partSize = configuration.getMultipartCopyPartSize();
+        if (concurrency > 0) {
+            long partsWanted = (long) concurrency * COPY_PARTS_PER_THREAD;
+            partSize = Math.min(partSize,
+                    (contentLengthOfSource + partsWanted - 1) / partsWanted);
+            partSize = Math.max(partSize, MINIMUM_COPY_PART_SIZE);
+        }
+        // round up so we don't push the copy over the maximum number of parts
+        long minimumPartSize = (contentLengthOfSource + MAXIMUM_UPLOAD_PARTS - 1)
+                / MAXIMUM_UPLOAD_PARTS;
+        return Math.max(partSize, minimumPartSize);
+    }
+
     /**
      * Determines the pause status based on the current state of transfer.
      */
@@ -17,11 +17,12 @@ package com.amazonaws.services.sqs;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.AmazonServiceException;
 import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.handlers.ListenableFuture;
+import com.amazonaws.handlers.ListenableFutures;
 import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSCredentialsProvider;
@@ -34,6 +35,8 @@ import com.amazonaws.services.sqs.model.*;
  * All asynchronous calls made using this client are non-blocking. Callers could either
  * process the result and handle the exceptions in the worker thread by providing a callback handler
  * when making the call, or use the returned Future object to check the result of the call in the calling thread.
+ * The returned futures are {@link ListenableFuture}s, so dependent calls can also be chained
+ * onto them, on an executor of the caller's choosing, via {@link ListenableFutures}.
  * Amazon Simple Queue Service <p>
  * Welcome to the <i>Amazon Simple Queue Service API Reference</i> . This
  * section describes who should read this guide, how the guide is
@@ -354,9 +357,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> setQueueAttributesAsync(final SetQueueAttributesRequest setQueueAttributesRequest) 
+    public ListenableFuture<Void> setQueueAttributesAsync(final SetQueueAttributesRequest setQueueAttributesRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 setQueueAttributes(setQueueAttributesRequest);
                 return null;
@@ -397,11 +400,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> setQueueAttributesAsync(
+    public ListenableFuture<Void> setQueueAttributesAsync(
             final SetQueueAttributesRequest setQueueAttributesRequest,
             final AsyncHandler<SetQueueAttributesRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 setQueueAttributes(setQueueAttributesRequest);
@@ -458,9 +461,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ChangeMessageVisibilityBatchResult> changeMessageVisibilityBatchAsync(final ChangeMessageVisibilityBatchRequest changeMessageVisibilityBatchRequest) 
+    public ListenableFuture<ChangeMessageVisibilityBatchResult> changeMessageVisibilityBatchAsync(final ChangeMessageVisibilityBatchRequest changeMessageVisibilityBatchRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ChangeMessageVisibilityBatchResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ChangeMessageVisibilityBatchResult>() {
             public ChangeMessageVisibilityBatchResult call() throws Exception {
                 return changeMessageVisibilityBatch(changeMessageVisibilityBatchRequest);
         }
@@ -514,11 +517,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ChangeMessageVisibilityBatchResult> changeMessageVisibilityBatchAsync(
+    public ListenableFuture<ChangeMessageVisibilityBatchResult> changeMessageVisibilityBatchAsync(
             final ChangeMessageVisibilityBatchRequest changeMessageVisibilityBatchRequest,
             final AsyncHandler<ChangeMessageVisibilityBatchRequest, ChangeMessageVisibilityBatchResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ChangeMessageVisibilityBatchResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ChangeMessageVisibilityBatchResult>() {
             public ChangeMessageVisibilityBatchResult call() throws Exception {
               ChangeMessageVisibilityBatchResult result;
                 try {
@@ -593,9 +596,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> changeMessageVisibilityAsync(final ChangeMessageVisibilityRequest changeMessageVisibilityRequest) 
+    public ListenableFuture<Void> changeMessageVisibilityAsync(final ChangeMessageVisibilityRequest changeMessageVisibilityRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 changeMessageVisibility(changeMessageVisibilityRequest);
                 return null;
@@ -667,11 +670,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> changeMessageVisibilityAsync(
+    public ListenableFuture<Void> changeMessageVisibilityAsync(
             final ChangeMessageVisibilityRequest changeMessageVisibilityRequest,
             final AsyncHandler<ChangeMessageVisibilityRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 changeMessageVisibility(changeMessageVisibilityRequest);
@@ -715,9 +718,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<GetQueueUrlResult> getQueueUrlAsync(final GetQueueUrlRequest getQueueUrlRequest) 
+    public ListenableFuture<GetQueueUrlResult> getQueueUrlAsync(final GetQueueUrlRequest getQueueUrlRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<GetQueueUrlResult>() {
+        return ListenableFutures.submit(executorService, new Callable<GetQueueUrlResult>() {
             public GetQueueUrlResult call() throws Exception {
                 return getQueueUrl(getQueueUrlRequest);
         }
@@ -758,11 +761,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<GetQueueUrlResult> getQueueUrlAsync(
+    public ListenableFuture<GetQueueUrlResult> getQueueUrlAsync(
             final GetQueueUrlRequest getQueueUrlRequest,
             final AsyncHandler<GetQueueUrlRequest, GetQueueUrlResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<GetQueueUrlResult>() {
+        return ListenableFutures.submit(executorService, new Callable<GetQueueUrlResult>() {
             public GetQueueUrlResult call() throws Exception {
               GetQueueUrlResult result;
                 try {
@@ -799,9 +802,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> removePermissionAsync(final RemovePermissionRequest removePermissionRequest) 
+    public ListenableFuture<Void> removePermissionAsync(final RemovePermissionRequest removePermissionRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 removePermission(removePermissionRequest);
                 return null;
@@ -835,11 +838,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> removePermissionAsync(
+    public ListenableFuture<Void> removePermissionAsync(
             final RemovePermissionRequest removePermissionRequest,
             final AsyncHandler<RemovePermissionRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 removePermission(removePermissionRequest);
@@ -934,9 +937,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<GetQueueAttributesResult> getQueueAttributesAsync(final GetQueueAttributesRequest getQueueAttributesRequest) 
+    public ListenableFuture<GetQueueAttributesResult> getQueueAttributesAsync(final GetQueueAttributesRequest getQueueAttributesRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<GetQueueAttributesResult>() {
+        return ListenableFutures.submit(executorService, new Callable<GetQueueAttributesResult>() {
             public GetQueueAttributesResult call() throws Exception {
                 return getQueueAttributes(getQueueAttributesRequest);
         }
@@ -1028,11 +1031,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<GetQueueAttributesResult> getQueueAttributesAsync(
+    public ListenableFuture<GetQueueAttributesResult> getQueueAttributesAsync(
             final GetQueueAttributesRequest getQueueAttributesRequest,
             final AsyncHandler<GetQueueAttributesRequest, GetQueueAttributesResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<GetQueueAttributesResult>() {
+        return ListenableFutures.submit(executorService, new Callable<GetQueueAttributesResult>() {
             public GetQueueAttributesResult call() throws Exception {
               GetQueueAttributesResult result;
                 try {
@@ -1104,9 +1107,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<SendMessageBatchResult> sendMessageBatchAsync(final SendMessageBatchRequest sendMessageBatchRequest) 
+    public ListenableFuture<SendMessageBatchResult> sendMessageBatchAsync(final SendMessageBatchRequest sendMessageBatchRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<SendMessageBatchResult>() {
+        return ListenableFutures.submit(executorService, new Callable<SendMessageBatchResult>() {
             public SendMessageBatchResult call() throws Exception {
                 return sendMessageBatch(sendMessageBatchRequest);
         }
@@ -1174,11 +1177,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<SendMessageBatchResult> sendMessageBatchAsync(
+    public ListenableFuture<SendMessageBatchResult> sendMessageBatchAsync(
             final SendMessageBatchRequest sendMessageBatchRequest,
             final AsyncHandler<SendMessageBatchRequest, SendMessageBatchResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<SendMessageBatchResult>() {
+        return ListenableFutures.submit(executorService, new Callable<SendMessageBatchResult>() {
             public SendMessageBatchResult call() throws Exception {
               SendMessageBatchResult result;
                 try {
@@ -1225,9 +1228,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> purgeQueueAsync(final PurgeQueueRequest purgeQueueRequest) 
+    public ListenableFuture<Void> purgeQueueAsync(final PurgeQueueRequest purgeQueueRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 purgeQueue(purgeQueueRequest);
                 return null;
@@ -1271,11 +1274,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> purgeQueueAsync(
+    public ListenableFuture<Void> purgeQueueAsync(
             final PurgeQueueRequest purgeQueueRequest,
             final AsyncHandler<PurgeQueueRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 purgeQueue(purgeQueueRequest);
@@ -1316,9 +1319,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ListDeadLetterSourceQueuesResult> listDeadLetterSourceQueuesAsync(final ListDeadLetterSourceQueuesRequest listDeadLetterSourceQueuesRequest) 
+    public ListenableFuture<ListDeadLetterSourceQueuesResult> listDeadLetterSourceQueuesAsync(final ListDeadLetterSourceQueuesRequest listDeadLetterSourceQueuesRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ListDeadLetterSourceQueuesResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ListDeadLetterSourceQueuesResult>() {
             public ListDeadLetterSourceQueuesResult call() throws Exception {
                 return listDeadLetterSourceQueues(listDeadLetterSourceQueuesRequest);
         }
@@ -1356,11 +1359,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ListDeadLetterSourceQueuesResult> listDeadLetterSourceQueuesAsync(
+    public ListenableFuture<ListDeadLetterSourceQueuesResult> listDeadLetterSourceQueuesAsync(
             final ListDeadLetterSourceQueuesRequest listDeadLetterSourceQueuesRequest,
             final AsyncHandler<ListDeadLetterSourceQueuesRequest, ListDeadLetterSourceQueuesResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ListDeadLetterSourceQueuesResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ListDeadLetterSourceQueuesResult>() {
             public ListDeadLetterSourceQueuesResult call() throws Exception {
               ListDeadLetterSourceQueuesResult result;
                 try {
@@ -1415,9 +1418,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> deleteQueueAsync(final DeleteQueueRequest deleteQueueRequest) 
+    public ListenableFuture<Void> deleteQueueAsync(final DeleteQueueRequest deleteQueueRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 deleteQueue(deleteQueueRequest);
                 return null;
@@ -1469,11 +1472,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> deleteQueueAsync(
+    public ListenableFuture<Void> deleteQueueAsync(
             final DeleteQueueRequest deleteQueueRequest,
             final AsyncHandler<DeleteQueueRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 deleteQueue(deleteQueueRequest);
@@ -1519,9 +1522,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<SendMessageResult> sendMessageAsync(final SendMessageRequest sendMessageRequest) 
+    public ListenableFuture<SendMessageResult> sendMessageAsync(final SendMessageRequest sendMessageRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<SendMessageResult>() {
+        return ListenableFutures.submit(executorService, new Callable<SendMessageResult>() {
             public SendMessageResult call() throws Exception {
                 return sendMessage(sendMessageRequest);
         }
@@ -1564,11 +1567,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<SendMessageResult> sendMessageAsync(
+    public ListenableFuture<SendMessageResult> sendMessageAsync(
             final SendMessageRequest sendMessageRequest,
             final AsyncHandler<SendMessageRequest, SendMessageResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<SendMessageResult>() {
+        return ListenableFutures.submit(executorService, new Callable<SendMessageResult>() {
             public SendMessageResult call() throws Exception {
               SendMessageResult result;
                 try {
@@ -1671,9 +1674,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ReceiveMessageResult> receiveMessageAsync(final ReceiveMessageRequest receiveMessageRequest) 
+    public ListenableFuture<ReceiveMessageResult> receiveMessageAsync(final ReceiveMessageRequest receiveMessageRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ReceiveMessageResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ReceiveMessageResult>() {
             public ReceiveMessageResult call() throws Exception {
                 return receiveMessage(receiveMessageRequest);
         }
@@ -1772,11 +1775,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ReceiveMessageResult> receiveMessageAsync(
+    public ListenableFuture<ReceiveMessageResult> receiveMessageAsync(
             final ReceiveMessageRequest receiveMessageRequest,
             final AsyncHandler<ReceiveMessageRequest, ReceiveMessageResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ReceiveMessageResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ReceiveMessageResult>() {
             public ReceiveMessageResult call() throws Exception {
               ReceiveMessageResult result;
                 try {
@@ -1814,9 +1817,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ListQueuesResult> listQueuesAsync(final ListQueuesRequest listQueuesRequest) 
+    public ListenableFuture<ListQueuesResult> listQueuesAsync(final ListQueuesRequest listQueuesRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ListQueuesResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ListQueuesResult>() {
             public ListQueuesResult call() throws Exception {
                 return listQueues(listQueuesRequest);
         }
@@ -1850,11 +1853,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<ListQueuesResult> listQueuesAsync(
+    public ListenableFuture<ListQueuesResult> listQueuesAsync(
             final ListQueuesRequest listQueuesRequest,
             final AsyncHandler<ListQueuesRequest, ListQueuesResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<ListQueuesResult>() {
+        return ListenableFutures.submit(executorService, new Callable<ListQueuesResult>() {
             public ListQueuesResult call() throws Exception {
               ListQueuesResult result;
                 try {
@@ -1909,9 +1912,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<DeleteMessageBatchResult> deleteMessageBatchAsync(final DeleteMessageBatchRequest deleteMessageBatchRequest) 
+    public ListenableFuture<DeleteMessageBatchResult> deleteMessageBatchAsync(final DeleteMessageBatchRequest deleteMessageBatchRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<DeleteMessageBatchResult>() {
+        return ListenableFutures.submit(executorService, new Callable<DeleteMessageBatchResult>() {
             public DeleteMessageBatchResult call() throws Exception {
                 return deleteMessageBatch(deleteMessageBatchRequest);
         }
@@ -1962,11 +1965,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<DeleteMessageBatchResult> deleteMessageBatchAsync(
+    public ListenableFuture<DeleteMessageBatchResult> deleteMessageBatchAsync(
             final DeleteMessageBatchRequest deleteMessageBatchRequest,
             final AsyncHandler<DeleteMessageBatchRequest, DeleteMessageBatchResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<DeleteMessageBatchResult>() {
+        return ListenableFutures.submit(executorService, new Callable<DeleteMessageBatchResult>() {
             public DeleteMessageBatchResult call() throws Exception {
               DeleteMessageBatchResult result;
                 try {
@@ -2037,9 +2040,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<CreateQueueResult> createQueueAsync(final CreateQueueRequest createQueueRequest) 
+    public ListenableFuture<CreateQueueResult> createQueueAsync(final CreateQueueRequest createQueueRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<CreateQueueResult>() {
+        return ListenableFutures.submit(executorService, new Callable<CreateQueueResult>() {
             public CreateQueueResult call() throws Exception {
                 return createQueue(createQueueRequest);
         }
@@ -2106,11 +2109,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<CreateQueueResult> createQueueAsync(
+    public ListenableFuture<CreateQueueResult> createQueueAsync(
             final CreateQueueRequest createQueueRequest,
             final AsyncHandler<CreateQueueRequest, CreateQueueResult> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<CreateQueueResult>() {
+        return ListenableFutures.submit(executorService, new Callable<CreateQueueResult>() {
             public CreateQueueResult call() throws Exception {
               CreateQueueResult result;
                 try {
@@ -2172,9 +2175,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> addPermissionAsync(final AddPermissionRequest addPermissionRequest) 
+    public ListenableFuture<Void> addPermissionAsync(final AddPermissionRequest addPermissionRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 addPermission(addPermissionRequest);
                 return null;
@@ -2233,11 +2236,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> addPermissionAsync(
+    public ListenableFuture<Void> addPermissionAsync(
             final AddPermissionRequest addPermissionRequest,
             final AsyncHandler<AddPermissionRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 addPermission(addPermissionRequest);
@@ -2294,9 +2297,9 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> deleteMessageAsync(final DeleteMessageRequest deleteMessageRequest) 
+    public ListenableFuture<Void> deleteMessageAsync(final DeleteMessageRequest deleteMessageRequest) 
             throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
                 deleteMessage(deleteMessageRequest);
                 return null;
@@ -2351,11 +2354,11 @@ public class AmazonSQSAsyncClient extends AmazonSQSClient
      *             If an error response is returned by AmazonSQS indicating
      *             either a problem with the data in the request, or a server side issue.
      */
-    public Future<Void> deleteMessageAsync(
+    public ListenableFuture<Void> deleteMessageAsync(
             final DeleteMessageRequest deleteMessageRequest,
             final AsyncHandler<DeleteMessageRequest, Void> asyncHandler)
                     throws AmazonServiceException, AmazonClientException {
-        return executorService.submit(new Callable<Void>() {
+        return ListenableFutures.submit(executorService, new Callable<Void>() {
             public Void call() throws Exception {
               try {
                 deleteMessage(deleteMessageRequest);
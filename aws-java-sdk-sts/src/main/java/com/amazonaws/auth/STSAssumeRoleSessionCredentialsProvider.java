@@ -30,7 +30,7 @@ import com.amazonaws.services.securitytoken.model.Credentials;
  * Service to assume a Role and create temporary, short-lived sessions to use
  * for authentication.
  */
-public class STSAssumeRoleSessionCredentialsProvider implements AWSCredentialsProvider {
+public class STSAssumeRoleSessionCredentialsProvider implements ExpiringCredentialsProvider {
 
     /** Default duration for started sessions. */
     public static final int DEFAULT_DURATION_SECONDS = 900;
@@ -246,6 +246,12 @@ public class STSAssumeRoleSessionCredentialsProvider implements AWSCredentialsPr
         startSession();
     }
 
+    @Override
+    public Date getCredentialsExpiration() {
+        return (sessionCredentialsExpiration == null)
+             ? null : new Date(sessionCredentialsExpiration.getTime());
+    }
+
     /**
      * Starts a new session by sending a request to the AWS Security Token
      * Service (STS) to assume a Role using the long lived AWS credentials. This